@@ -0,0 +1,49 @@
+package uz.myrafeeq.api.mapper;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import uz.myrafeeq.api.dto.response.PrayerTrackingResponse;
+import uz.myrafeeq.api.enums.PrayerName;
+import uz.myrafeeq.api.repository.projection.TrackedPrayer;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PrayerTrackingMapperBenchmark {
+
+  @Param({"1", "7", "30"})
+  private int days;
+
+  private final PrayerTrackingMapper mapper = new PrayerTrackingMapper();
+  private List<TrackedPrayer> prayers;
+
+  @Setup
+  public void setUp() {
+    LocalDate today = LocalDate.of(2026, 3, 20);
+    Instant now = Instant.now();
+    prayers = new ArrayList<>(days * PrayerName.values().length);
+    for (int day = 0; day < days; day++) {
+      for (PrayerName prayer : PrayerName.values()) {
+        prayers.add(
+            new TrackedPrayer(
+                today.minusDays(day), prayer, (day + prayer.ordinal()) % 3 != 0, now));
+      }
+    }
+  }
+
+  @Benchmark
+  public PrayerTrackingResponse toTrackingResponse() {
+    return mapper.toTrackingResponse(prayers);
+  }
+}
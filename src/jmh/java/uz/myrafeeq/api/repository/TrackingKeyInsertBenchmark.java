@@ -0,0 +1,184 @@
+package uz.myrafeeq.api.repository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.testcontainers.containers.PostgreSQLContainer;
+import uz.myrafeeq.api.enums.PrayerName;
+
+/**
+ * Insert throughput of the tracking upsert into a table keyed by random (v4) versus time-ordered
+ * (v7) UUIDs. Each operation is one new row; rows are written in batches of {@link #BATCH_SIZE}
+ * for a shuffled population of users, the way a busy evening of toggles arrives. The table keeps
+ * growing across iterations and shared buffers are kept small, so the primary key index outgrows
+ * memory as it does in production. Index size and WAL volume are printed at the end of each trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TrackingKeyInsertBenchmark {
+
+  private static final int BATCH_SIZE = 1_000;
+  private static final int USERS = 20_000;
+  private static final String UUID_V7_CHANGESET =
+      "db/changelog/changes/011-time-ordered-prayer-tracking-ids.sql";
+
+  private static final String INSERT =
+      """
+      INSERT INTO prayer_tracking
+        (telegram_id, prayer_date, prayer_name, prayed, toggled_at, created_at)
+      SELECT ?, ?, ?, TRUE, NOW(), NOW()
+      ON CONFLICT (telegram_id, prayer_date, prayer_name) DO UPDATE
+      SET prayed = EXCLUDED.prayed,
+          toggled_at = EXCLUDED.toggled_at,
+          version = prayer_tracking.version + 1
+      """;
+
+  @Param({"gen_random_uuid()", "uuid_generate_v7()"})
+  public String keyDefault;
+
+  private PostgreSQLContainer<?> postgres;
+  private Connection connection;
+  private PreparedStatement insert;
+  private List<long[]> slots;
+  private int nextSlot;
+  private LocalDate day;
+  private long startLsnBytes;
+
+  @Setup
+  public void setUp() throws Exception {
+    postgres =
+        new PostgreSQLContainer<>("postgres:17-alpine")
+            .withCommand("postgres", "-c", "shared_buffers=16MB", "-c", "fsync=off");
+    postgres.start();
+    connection =
+        DriverManager.getConnection(
+            postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+
+    try (Statement statement = connection.createStatement()) {
+      statement.execute(uuidV7Function());
+      statement.execute(
+          """
+          CREATE TABLE prayer_tracking
+          (
+              id          UUID PRIMARY KEY DEFAULT %s,
+              telegram_id BIGINT                   NOT NULL,
+              prayer_date DATE                     NOT NULL,
+              prayer_name VARCHAR(10)              NOT NULL,
+              prayed      BOOLEAN                  NOT NULL DEFAULT FALSE,
+              toggled_at  TIMESTAMP WITH TIME ZONE NOT NULL,
+              created_at  TIMESTAMP WITH TIME ZONE NOT NULL,
+              version     INTEGER                  NOT NULL DEFAULT 0,
+              UNIQUE (telegram_id, prayer_date, prayer_name)
+          )
+          """
+              .formatted(keyDefault));
+      startLsnBytes = walBytes(statement);
+    }
+    connection.setAutoCommit(false);
+    insert = connection.prepareStatement(INSERT);
+
+    slots = new ArrayList<>(USERS * PrayerName.values().length);
+    for (long user = 0; user < USERS; user++) {
+      for (PrayerName prayer : PrayerName.values()) {
+        slots.add(new long[] {user, prayer.ordinal()});
+      }
+    }
+    Collections.shuffle(slots, new Random(42));
+    day = LocalDate.of(2026, 1, 1);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BATCH_SIZE)
+  public int[] insertBatch() throws SQLException {
+    Date date = Date.valueOf(day);
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      long[] slot = slots.get(nextSlot);
+      insert.setLong(1, slot[0]);
+      insert.setDate(2, date);
+      insert.setString(3, PrayerName.values()[(int) slot[1]].name());
+      insert.addBatch();
+      if (++nextSlot == slots.size()) {
+        nextSlot = 0;
+        day = day.plusDays(1);
+        date = Date.valueOf(day);
+      }
+    }
+    int[] counts = insert.executeBatch();
+    connection.commit();
+    return counts;
+  }
+
+  @TearDown
+  public void tearDown() throws SQLException {
+    connection.setAutoCommit(true);
+    try (Statement statement = connection.createStatement();
+        ResultSet sizes =
+            statement.executeQuery(
+                """
+                SELECT COUNT(*), pg_relation_size('prayer_tracking_pkey')
+                FROM prayer_tracking
+                """)) {
+      sizes.next();
+      long rows = sizes.getLong(1);
+      long pkeyBytes = sizes.getLong(2);
+      long wal = walBytes(statement) - startLsnBytes;
+      // Trials insert different row counts, so sizes are also given per row
+      System.out.printf(
+          "%n%s: %d rows, primary key %d KiB (%d bytes/row), WAL %d bytes/row%n",
+          keyDefault,
+          rows,
+          pkeyBytes / 1024,
+          rows > 0 ? pkeyBytes / rows : 0,
+          rows > 0 ? wal / rows : 0);
+    } finally {
+      connection.close();
+      postgres.stop();
+    }
+  }
+
+  private static long walBytes(Statement statement) throws SQLException {
+    try (ResultSet lsn =
+        statement.executeQuery("SELECT pg_wal_lsn_diff(pg_current_wal_lsn(), '0/0')")) {
+      lsn.next();
+      return lsn.getLong(1);
+    }
+  }
+
+  /** Reads the function definition from the migration so the benchmark measures the real one. */
+  private static String uuidV7Function() throws IOException {
+    try (InputStream in =
+        TrackingKeyInsertBenchmark.class.getClassLoader().getResourceAsStream(UUID_V7_CHANGESET)) {
+      if (in == null) {
+        throw new IllegalStateException("Missing " + UUID_V7_CHANGESET);
+      }
+      String changeset = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+      int start = changeset.indexOf("CREATE OR REPLACE FUNCTION");
+      int end = changeset.indexOf("$$;", start) + 2;
+      return changeset.substring(start, end);
+    }
+  }
+}
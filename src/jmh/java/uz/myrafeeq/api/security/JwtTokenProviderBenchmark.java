@@ -0,0 +1,39 @@
+package uz.myrafeeq.api.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import uz.myrafeeq.api.configuration.JwtProperties;
+
+/** Token validation runs on every authenticated request. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtTokenProviderBenchmark {
+
+  private static final String SECRET =
+      "dGhpcy1pcy1hLXZlcnktc2VjdXJlLXNlY3JldC1rZXktZm9yLWJlbmNobWFya3M=";
+
+  private JwtTokenProvider jwtTokenProvider;
+  private String token;
+
+  @Setup
+  public void setUp() {
+    jwtTokenProvider =
+        new JwtTokenProvider(
+            new JwtProperties(SECRET, Duration.ofDays(1)), new SimpleMeterRegistry());
+    token = jwtTokenProvider.generateToken(123456789L, "Doston");
+  }
+
+  @Benchmark
+  public Long validateAndExtractTelegramId() {
+    return jwtTokenProvider.validateAndExtractTelegramId(token);
+  }
+}
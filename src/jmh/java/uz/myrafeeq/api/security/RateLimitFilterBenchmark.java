@@ -0,0 +1,68 @@
+package uz.myrafeeq.api.security;
+
+import jakarta.servlet.FilterChain;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import tools.jackson.databind.ObjectMapper;
+import uz.myrafeeq.api.configuration.RateLimitProperties;
+
+/**
+ * Allowed-request path of the rate limiter: key resolution plus the per-key GCRA update. The limit
+ * is set high enough that no request is rejected, and all threads share one client key to expose
+ * contention on the slot. Each thread has its own request and response, since neither is
+ * thread-safe and the request caches its route classification.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RateLimitFilterBenchmark {
+
+  private static final FilterChain NO_OP_CHAIN = (_, _) -> {};
+
+  private RateLimitFilter filter;
+
+  @Setup
+  public void setUp() {
+    filter =
+        new RateLimitFilter(
+            new RateLimitProperties(true, Integer.MAX_VALUE, Integer.MAX_VALUE, Map.of()),
+            new ObjectMapper());
+  }
+
+  @Benchmark
+  public MockHttpServletResponse singleThread(Exchange exchange) throws Exception {
+    filter.doFilterInternal(exchange.request, exchange.response, NO_OP_CHAIN);
+    return exchange.response;
+  }
+
+  @Benchmark
+  @Threads(4)
+  public MockHttpServletResponse contended(Exchange exchange) throws Exception {
+    filter.doFilterInternal(exchange.request, exchange.response, NO_OP_CHAIN);
+    return exchange.response;
+  }
+
+  @State(Scope.Thread)
+  public static class Exchange {
+
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+      request = new MockHttpServletRequest("GET", "/api/v1/prayer-times");
+      request.setRemoteAddr("203.0.113.7");
+      response = new MockHttpServletResponse();
+    }
+  }
+}
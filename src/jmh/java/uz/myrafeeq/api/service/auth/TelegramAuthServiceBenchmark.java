@@ -0,0 +1,94 @@
+package uz.myrafeeq.api.service.auth;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.env.StandardEnvironment;
+import uz.myrafeeq.api.configuration.TelegramProperties;
+
+/** Telegram initData parsing and HMAC verification, the CPU-bound part of every login. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TelegramAuthServiceBenchmark {
+
+  private static final String BOT_TOKEN = "1234567890:AAHdqTcvCH1vGWJxfSeofSAs0K5PALDsaw";
+
+  private TelegramAuthService telegramAuthService;
+  private String initData;
+  private Map<String, String> params;
+
+  @Setup
+  public void setUp() throws Exception {
+    TelegramProperties telegramProperties = new TelegramProperties(BOT_TOKEN, Duration.ofHours(1));
+    telegramAuthService =
+        new TelegramAuthService(
+            null,
+            null,
+            null,
+            null,
+            null,
+            telegramProperties,
+            new StandardEnvironment(),
+            new TelegramInitDataVerifier(telegramProperties));
+
+    Map<String, String> fields = new TreeMap<>();
+    fields.put("query_id", "AAHdF6IQAAAAAN0XohDhrOrc");
+    fields.put(
+        "user",
+        "{\"id\":123456789,\"first_name\":\"Doston\",\"username\":\"doston\","
+            + "\"language_code\":\"en\",\"allows_write_to_pm\":true}");
+    fields.put("auth_date", Long.toString(Instant.now().getEpochSecond()));
+    String dataCheckString =
+        fields.entrySet().stream()
+            .map(e -> e.getKey() + "=" + e.getValue())
+            .collect(Collectors.joining("\n"));
+    byte[] secretKey = hmacSha256("WebAppData".getBytes(StandardCharsets.UTF_8), BOT_TOKEN);
+    fields.put("hash", HexFormat.of().formatHex(hmacSha256(secretKey, dataCheckString)));
+
+    initData =
+        fields.entrySet().stream()
+            .map(e -> e.getKey() + "=" + URLEncoder.encode(e.getValue(), StandardCharsets.UTF_8))
+            .collect(Collectors.joining("&"));
+    params = telegramAuthService.parseInitData(initData);
+  }
+
+  @Benchmark
+  public Map<String, String> parseInitData() {
+    return telegramAuthService.parseInitData(initData);
+  }
+
+  @Benchmark
+  public Map<String, String> verifyHmac() {
+    telegramAuthService.verifyHmac(params);
+    return params;
+  }
+
+  @Benchmark
+  public Map<String, String> parseAndVerify() {
+    Map<String, String> parsed = telegramAuthService.parseInitData(initData);
+    telegramAuthService.verifyHmac(parsed);
+    return parsed;
+  }
+
+  private static byte[] hmacSha256(byte[] key, String data) throws Exception {
+    Mac mac = Mac.getInstance("HmacSHA256");
+    mac.init(new SecretKeySpec(key, "HmacSHA256"));
+    return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+  }
+}
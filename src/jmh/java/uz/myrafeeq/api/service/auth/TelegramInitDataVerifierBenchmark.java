@@ -0,0 +1,106 @@
+package uz.myrafeeq.api.service.auth;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import uz.myrafeeq.api.configuration.TelegramProperties;
+
+/**
+ * Parse-and-verify throughput of {@link TelegramInitDataVerifier} against the previous approach,
+ * which derived the secret key on every call, split {@code initData} with regexes, joined the
+ * data-check string through a sorted stream and compared hex strings built with {@code
+ * String.format}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(4)
+public class TelegramInitDataVerifierBenchmark {
+
+  private static final String BOT_TOKEN = "1234567890:AAHdqTcvCH1vGWJxfSeofSAs0K5PALDsaw";
+
+  private TelegramInitDataVerifier verifier;
+  private String initData;
+
+  @Setup
+  public void setUp() throws Exception {
+    verifier = new TelegramInitDataVerifier(new TelegramProperties(BOT_TOKEN, Duration.ofHours(1)));
+
+    Map<String, String> fields = new TreeMap<>();
+    fields.put("query_id", "AAHdF6IQAAAAAN0XohDhrOrc");
+    fields.put(
+        "user",
+        "{\"id\":123456789,\"first_name\":\"Doston\",\"username\":\"doston\","
+            + "\"language_code\":\"en\",\"allows_write_to_pm\":true}");
+    fields.put("auth_date", Long.toString(Instant.now().getEpochSecond()));
+    String dataCheckString =
+        fields.entrySet().stream()
+            .map(e -> e.getKey() + "=" + e.getValue())
+            .collect(Collectors.joining("\n"));
+    byte[] secretKey = hmacSha256("WebAppData".getBytes(StandardCharsets.UTF_8), BOT_TOKEN);
+    fields.put("hash", HexFormat.of().formatHex(hmacSha256(secretKey, dataCheckString)));
+
+    initData =
+        fields.entrySet().stream()
+            .map(e -> e.getKey() + "=" + URLEncoder.encode(e.getValue(), StandardCharsets.UTF_8))
+            .collect(Collectors.joining("&"));
+  }
+
+  @Benchmark
+  public boolean verifier() {
+    Map<String, String> params = verifier.parse(initData);
+    return verifier.verify(params, params.get("hash"));
+  }
+
+  @Benchmark
+  public boolean previous() throws Exception {
+    Map<String, String> params =
+        Arrays.stream(initData.split("&"))
+            .map(pair -> pair.split("=", 2))
+            .filter(parts -> parts.length == 2)
+            .collect(
+                Collectors.toMap(
+                    parts -> URLDecoder.decode(parts[0], StandardCharsets.UTF_8),
+                    parts -> URLDecoder.decode(parts[1], StandardCharsets.UTF_8)));
+    String dataCheckString =
+        params.entrySet().stream()
+            .filter(e -> !"hash".equals(e.getKey()))
+            .sorted(Map.Entry.comparingByKey())
+            .map(e -> e.getKey() + "=" + e.getValue())
+            .collect(Collectors.joining("\n"));
+    byte[] secretKey = hmacSha256("WebAppData".getBytes(StandardCharsets.UTF_8), BOT_TOKEN);
+    byte[] hash = hmacSha256(secretKey, dataCheckString);
+    StringBuilder hex = new StringBuilder(hash.length * 2);
+    for (byte b : hash) {
+      hex.append(String.format("%02x", b));
+    }
+    return MessageDigest.isEqual(
+        hex.toString().getBytes(StandardCharsets.UTF_8),
+        params.get("hash").getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static byte[] hmacSha256(byte[] key, String data) throws Exception {
+    Mac mac = Mac.getInstance("HmacSHA256");
+    mac.init(new SecretKeySpec(key, "HmacSHA256"));
+    return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,26 @@
+package uz.myrafeeq.api.service.city;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/** Great-circle distance used by city search and nearest-city deduplication. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GeoDistanceBenchmark {
+
+  private double lat1 = 41.2995;
+  private double lon1 = 69.2401;
+  private double lat2 = 39.6542;
+  private double lon2 = 66.9597;
+
+  @Benchmark
+  public double haversineKm() {
+    return GeoDistance.haversineKm(lat1, lon1, lat2, lon2);
+  }
+}
@@ -0,0 +1,28 @@
+package uz.myrafeeq.api.service.prayer;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class HijriDateCalculatorBenchmark {
+
+  private final LocalDate date = LocalDate.of(2026, 3, 20);
+
+  @Benchmark
+  public String toHijriDate() {
+    return HijriDateCalculator.toHijriDate(date, 0);
+  }
+
+  @Benchmark
+  public String toHijriDateWithCorrection() {
+    return HijriDateCalculator.toHijriDate(date, -1);
+  }
+}
@@ -0,0 +1,64 @@
+package uz.myrafeeq.api.service.prayer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import uz.myrafeeq.api.configuration.PrayerTimesProperties;
+import uz.myrafeeq.api.dto.response.PrayerTimesResponse;
+import uz.myrafeeq.api.enums.CalculationMethod;
+import uz.myrafeeq.api.enums.HighLatitudeRule;
+import uz.myrafeeq.api.enums.Madhab;
+import uz.myrafeeq.api.service.prayer.PrayerTimesService.PrayerCalculationParams;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PrayerTimesServiceBenchmark {
+
+  private PrayerTimesService prayerTimesService;
+  private PrayerCalculationParams params;
+  private LocalDate date;
+
+  @Setup
+  public void setUp() {
+    prayerTimesService =
+        new PrayerTimesService(
+            null,
+            null,
+            new PrayerTimetableStore(),
+            new PrayerLocationCache(
+                new PrayerTimesProperties(1.0, 45.0, 30), new SimpleMeterRegistry()));
+    params =
+        new PrayerCalculationParams(
+            41.2995,
+            69.2401,
+            CalculationMethod.MWL,
+            Madhab.HANAFI,
+            HighLatitudeRule.MIDDLE_OF_NIGHT,
+            "Asia/Tashkent",
+            Map.of("FAJR", 2),
+            0,
+            "Tashkent");
+    date = LocalDate.of(2026, 3, 20);
+    // Fill the timetable so the timetable benchmark measures lookups, not the first build
+    prayerTimesService.computePrayerTimes(date, params, true);
+  }
+
+  @Benchmark
+  public PrayerTimesResponse computeDirect() {
+    return prayerTimesService.computePrayerTimes(date, params, false);
+  }
+
+  @Benchmark
+  public PrayerTimesResponse computeFromTimetable() {
+    return prayerTimesService.computePrayerTimes(date, params, true);
+  }
+}
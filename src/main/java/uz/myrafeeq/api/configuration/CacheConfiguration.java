@@ -19,7 +19,6 @@ public class CacheConfiguration {
     SimpleCacheManager cacheManager = new SimpleCacheManager();
     cacheManager.setCaches(
         List.of(
-            buildCache("prayerTimesByLocation", 5000, Duration.ofHours(1)),
             buildCache("citySearch", 5000, Duration.ofDays(30)),
             buildCache("nearestCity", 5000, Duration.ofDays(30)),
             buildCache("userTimezone", 10000, Duration.ofHours(1)),
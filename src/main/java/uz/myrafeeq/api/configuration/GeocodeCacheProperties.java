@@ -0,0 +1,16 @@
+package uz.myrafeeq.api.configuration;
+
+import java.time.Duration;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@AllArgsConstructor
+@ConfigurationProperties("myrafeeq.geocode-cache")
+public class GeocodeCacheProperties {
+
+  private final Duration ttl;
+  private final Duration negativeTtl;
+  private final int warmUpSize;
+}
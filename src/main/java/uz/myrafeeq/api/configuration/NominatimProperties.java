@@ -1,5 +1,6 @@
 package uz.myrafeeq.api.configuration;
 
+import java.time.Duration;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -16,4 +17,8 @@ public class NominatimProperties {
   private final double maxDistanceKm;
   private final CalculationMethod defaultMethod;
   private final Madhab defaultMadhab;
+  private final double requestsPerSecond;
+  private final int burst;
+  private final int queueCapacity;
+  private final Duration requestTimeout;
 }
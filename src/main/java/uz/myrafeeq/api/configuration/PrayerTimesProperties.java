@@ -0,0 +1,15 @@
+package uz.myrafeeq.api.configuration;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@AllArgsConstructor
+@ConfigurationProperties("myrafeeq.prayer-times")
+public class PrayerTimesProperties {
+
+  private final double locationCellKm;
+  private final double locationMaxLatitude;
+  private final int maxLocationErrorSeconds;
+}
@@ -0,0 +1,32 @@
+package uz.myrafeeq.api.configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import uz.myrafeeq.api.repository.QueryCountingDataSource;
+import uz.myrafeeq.api.security.QueryCountFilter;
+
+/** Counts SQL statements per request and publishes them as a metric. */
+@Configuration
+public class QueryCountConfiguration {
+
+  @Bean
+  public static BeanPostProcessor queryCountingDataSourcePostProcessor() {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(Object bean, String beanName) {
+        return bean instanceof DataSource dataSource
+                && !(bean instanceof QueryCountingDataSource)
+            ? new QueryCountingDataSource(dataSource)
+            : bean;
+      }
+    };
+  }
+
+  @Bean
+  public QueryCountFilter queryCountFilter(MeterRegistry meterRegistry) {
+    return new QueryCountFilter(meterRegistry);
+  }
+}
@@ -1,5 +1,6 @@
 package uz.myrafeeq.api.configuration;
 
+import java.util.Map;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -12,4 +13,10 @@ public class RateLimitProperties {
   private final boolean enabled;
   private final int requestsPerMinute;
   private final int authRequestsPerMinute;
+
+  /**
+   * Units charged per request by servlet path pattern, first match wins; unmatched paths cost 1.
+   * Limits are in the same units.
+   */
+  private final Map<String, Integer> routeCosts;
 }
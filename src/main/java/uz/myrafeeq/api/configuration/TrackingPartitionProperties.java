@@ -0,0 +1,15 @@
+package uz.myrafeeq.api.configuration;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@AllArgsConstructor
+@ConfigurationProperties("myrafeeq.tracking.partitions")
+public class TrackingPartitionProperties {
+
+  private final boolean enabled;
+  private final int monthsAhead;
+  private final int retentionMonths;
+}
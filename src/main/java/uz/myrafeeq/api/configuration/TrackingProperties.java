@@ -0,0 +1,17 @@
+package uz.myrafeeq.api.configuration;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import uz.myrafeeq.api.enums.TrackingStorage;
+
+@Getter
+@AllArgsConstructor
+@ConfigurationProperties("myrafeeq.tracking")
+public class TrackingProperties {
+
+  private final TrackingStorage storage;
+  private final boolean migrateOnStartup;
+  private final boolean writeBehind;
+  private final int flushSize;
+}
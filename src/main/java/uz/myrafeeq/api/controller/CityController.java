@@ -11,6 +11,7 @@ import jakarta.validation.constraints.DecimalMax;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
 import java.util.concurrent.TimeUnit;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.CacheControl;
@@ -47,7 +48,9 @@ public class CityController {
               mediaType = MediaType.APPLICATION_JSON_VALUE,
               schema = @Schema(implementation = ErrorResponse.class)))
   public ResponseEntity<CitySearchResponse> searchCities(
-      @Parameter(description = "Search query", example = "Tashkent") @RequestParam String q,
+      @Parameter(description = "Search query (up to 100 characters)", example = "Tashkent")
+          @RequestParam
+          @Size(max = 100) String q,
       @Parameter(description = "Maximum results (1-50)", example = "10")
           @RequestParam(required = false, defaultValue = "10")
           @Min(1) @Max(50) int limit) {
@@ -27,6 +27,7 @@ import uz.myrafeeq.api.exception.MyRafeeqException;
 import uz.myrafeeq.api.exception.OnboardingAlreadyCompletedException;
 import uz.myrafeeq.api.exception.PreferencesNotFoundException;
 import uz.myrafeeq.api.exception.RequestValidationException;
+import uz.myrafeeq.api.exception.TrackingSyncUnavailableException;
 import uz.myrafeeq.api.exception.TrackingValidationException;
 import uz.myrafeeq.api.exception.UserNotFoundException;
 
@@ -45,6 +46,7 @@ public class GlobalExceptionHandler {
           case CityNotFoundException _ -> HttpStatus.NOT_FOUND;
           case CountryNotFoundException _ -> HttpStatus.NOT_FOUND;
           case TrackingValidationException _ -> HttpStatus.BAD_REQUEST;
+          case TrackingSyncUnavailableException _ -> HttpStatus.NOT_IMPLEMENTED;
           case OnboardingAlreadyCompletedException _ -> HttpStatus.CONFLICT;
           case RequestValidationException _ -> HttpStatus.BAD_REQUEST;
         };
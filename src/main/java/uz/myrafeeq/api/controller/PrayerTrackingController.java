@@ -19,10 +19,12 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import uz.myrafeeq.api.dto.request.SyncTrackingRequest;
 import uz.myrafeeq.api.dto.request.TogglePrayerRequest;
 import uz.myrafeeq.api.dto.response.ErrorResponse;
 import uz.myrafeeq.api.dto.response.PrayerStatsResponse;
 import uz.myrafeeq.api.dto.response.PrayerTrackingResponse;
+import uz.myrafeeq.api.dto.response.SyncTrackingResponse;
 import uz.myrafeeq.api.dto.response.TogglePrayerResponse;
 import uz.myrafeeq.api.enums.StatsPeriod;
 import uz.myrafeeq.api.service.prayer.PrayerTrackingService;
@@ -92,6 +94,36 @@ public class PrayerTrackingController {
     return ResponseEntity.ok(trackingService.togglePrayer(telegramId, request));
   }
 
+  @PostMapping("/sync")
+  @Operation(
+      summary = "Sync offline toggles",
+      description =
+          """
+          Applies prayer toggles recorded while offline in one request. For each prayer the \
+          toggle with the latest toggledAt wins, both within the request and against stored \
+          state. Returns the outcome of every toggle and the weekly statistics.""")
+  @ApiResponse(responseCode = "200", description = "Toggles synced successfully")
+  @ApiResponse(
+      responseCode = "400",
+      description = "Validation error (empty or oversized batch, or invalid fields)",
+      content =
+          @Content(
+              mediaType = MediaType.APPLICATION_JSON_VALUE,
+              schema = @Schema(implementation = ErrorResponse.class)))
+  @ApiResponse(
+      responseCode = "501",
+      description = "Sync is not supported by the configured tracking storage",
+      content =
+          @Content(
+              mediaType = MediaType.APPLICATION_JSON_VALUE,
+              schema = @Schema(implementation = ErrorResponse.class)))
+  public ResponseEntity<SyncTrackingResponse> syncTracking(
+      @Parameter(hidden = true) @AuthenticationPrincipal Long telegramId,
+      @Valid @RequestBody SyncTrackingRequest request) {
+
+    return ResponseEntity.ok(trackingService.syncTracking(telegramId, request));
+  }
+
   @GetMapping("/stats")
   @Operation(
       summary = "Get prayer statistics",
@@ -0,0 +1,20 @@
+package uz.myrafeeq.api.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Request to sync prayer toggles recorded offline")
+public class SyncTrackingRequest {
+
+  @NotEmpty @Size(max = 200) @Valid @Schema(description = "Toggles to sync, in any order")
+  private List<SyncPrayerRequest> toggles;
+}
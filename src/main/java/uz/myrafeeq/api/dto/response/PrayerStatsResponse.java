@@ -7,7 +7,7 @@ import lombok.Builder;
 import lombok.Getter;
 
 @Getter
-@Builder
+@Builder(toBuilder = true)
 @Schema(description = "Prayer completion statistics")
 public class PrayerStatsResponse {
 
@@ -35,6 +35,9 @@ public class PrayerStatsResponse {
   @Schema(description = "Current consecutive days streak", example = "5")
   private final Integer streak;
 
+  @Schema(description = "Longest consecutive days streak", example = "12")
+  private final Integer longestStreak;
+
   @Getter
   @Builder
   @Schema(description = "Statistics for a single prayer")
@@ -0,0 +1,45 @@
+package uz.myrafeeq.api.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+@Schema(description = "Result of an offline tracking sync")
+public class SyncTrackingResponse {
+
+  @Schema(description = "Outcome of each toggle, in request order")
+  private final List<SyncResult> results;
+
+  @Schema(description = "Weekly statistics after the sync")
+  private final PrayerStatsResponse stats;
+
+  @Getter
+  @Builder
+  @Schema(description = "Outcome of a single synced toggle")
+  public static class SyncResult {
+
+    @Schema(description = "Date of the prayer", example = "2026-02-24")
+    private final LocalDate date;
+
+    @Schema(description = "Prayer name", example = "FAJR")
+    private final String prayer;
+
+    @Schema(description = "Whether the prayer was performed", example = "true")
+    private final Boolean prayed;
+
+    @Schema(description = "Toggle time used for ordering, capped at the server time")
+    private final Instant toggledAt;
+
+    @Schema(
+        description =
+            "APPLIED, STALE (a newer toggle is stored), SUPERSEDED (a newer toggle of the same"
+                + " prayer is in the request) or REJECTED (date out of range)",
+        example = "APPLIED")
+    private final String status;
+  }
+}
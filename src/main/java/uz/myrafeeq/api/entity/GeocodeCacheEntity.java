@@ -0,0 +1,52 @@
+package uz.myrafeeq.api.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+@Entity
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "geocode_cache")
+public class GeocodeCacheEntity {
+
+  @EmbeddedId private GeocodeCacheKey id;
+
+  @JdbcTypeCode(SqlTypes.JSON)
+  @Column(columnDefinition = "jsonb")
+  private String payload;
+
+  @Column(nullable = false)
+  private Instant expiresAt;
+
+  @Builder.Default
+  @Column(nullable = false)
+  private Long hits = 0L;
+
+  @Column(nullable = false)
+  private Instant updatedAt;
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (!(o instanceof GeocodeCacheEntity that)) return false;
+    return id != null && id.equals(that.id);
+  }
+
+  @Override
+  public int hashCode() {
+    return getClass().hashCode();
+  }
+}
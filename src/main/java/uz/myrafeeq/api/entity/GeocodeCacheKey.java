@@ -0,0 +1,27 @@
+package uz.myrafeeq.api.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import java.io.Serializable;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import uz.myrafeeq.api.enums.GeocodeKind;
+
+@Getter
+@Embeddable
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class GeocodeCacheKey implements Serializable {
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 10)
+  private GeocodeKind kind;
+
+  @Column(nullable = false)
+  private String cacheKey;
+}
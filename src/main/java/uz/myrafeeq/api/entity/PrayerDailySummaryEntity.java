@@ -0,0 +1,43 @@
+package uz.myrafeeq.api.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "prayer_daily_summary")
+public class PrayerDailySummaryEntity {
+
+  @EmbeddedId private PrayerDailySummaryKey id;
+
+  @Builder.Default
+  @Column(nullable = false)
+  private Short prayedMask = 0;
+
+  @Builder.Default
+  @Column(nullable = false)
+  private Short completedCount = 0;
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (!(o instanceof PrayerDailySummaryEntity that)) return false;
+    return id != null && id.equals(that.id);
+  }
+
+  @Override
+  public int hashCode() {
+    return getClass().hashCode();
+  }
+}
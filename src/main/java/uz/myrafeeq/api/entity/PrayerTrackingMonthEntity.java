@@ -0,0 +1,51 @@
+package uz.myrafeeq.api.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * One month of prayer tracking for a user, packed into two bit strings. Rows are only written
+ * through the bitwise upserts in {@code PrayerTrackingMonthRepository}, hence read-only here.
+ */
+@Entity
+@Getter
+@Setter
+@Builder
+@Immutable
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "prayer_tracking_month")
+public class PrayerTrackingMonthEntity {
+
+  @EmbeddedId private PrayerTrackingMonthKey id;
+
+  @Column(nullable = false, columnDefinition = "bit(155)")
+  private String prayedBits;
+
+  @Column(nullable = false, columnDefinition = "bit(155)")
+  private String trackedBits;
+
+  @Column(nullable = false)
+  private Instant updatedAt;
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (!(o instanceof PrayerTrackingMonthEntity that)) return false;
+    return id != null && id.equals(that.id);
+  }
+
+  @Override
+  public int hashCode() {
+    return getClass().hashCode();
+  }
+}
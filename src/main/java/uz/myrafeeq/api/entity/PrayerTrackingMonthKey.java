@@ -0,0 +1,24 @@
+package uz.myrafeeq.api.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import java.io.Serializable;
+import java.time.LocalDate;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@Embeddable
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class PrayerTrackingMonthKey implements Serializable {
+
+  @Column(nullable = false)
+  private Long telegramId;
+
+  @Column(nullable = false)
+  private LocalDate month;
+}
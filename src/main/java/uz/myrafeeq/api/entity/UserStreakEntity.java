@@ -0,0 +1,50 @@
+package uz.myrafeeq.api.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import java.time.LocalDate;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "user_streak")
+public class UserStreakEntity {
+
+  @Id
+  @Column(nullable = false)
+  private Long telegramId;
+
+  private LocalDate currentStart;
+
+  private LocalDate currentEnd;
+
+  @Builder.Default
+  @Column(nullable = false)
+  private Integer longestStreak = 0;
+
+  @Column(nullable = false)
+  private Instant updatedAt;
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (!(o instanceof UserStreakEntity that)) return false;
+    return telegramId != null && telegramId.equals(that.telegramId);
+  }
+
+  @Override
+  public int hashCode() {
+    return getClass().hashCode();
+  }
+}
@@ -0,0 +1,7 @@
+package uz.myrafeeq.api.enums;
+
+public enum GeocodeKind {
+  SEARCH,
+  LOOKUP,
+  REVERSE
+}
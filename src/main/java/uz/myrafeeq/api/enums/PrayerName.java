@@ -5,5 +5,10 @@ public enum PrayerName {
   DHUHR,
   ASR,
   MAGHRIB,
-  ISHA
+  ISHA;
+
+  /** Bit of this prayer in a per-day prayed mask. */
+  public int bit() {
+    return 1 << ordinal();
+  }
 }
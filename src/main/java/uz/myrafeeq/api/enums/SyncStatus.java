@@ -0,0 +1,8 @@
+package uz.myrafeeq.api.enums;
+
+public enum SyncStatus {
+  APPLIED,
+  STALE,
+  SUPERSEDED,
+  REJECTED
+}
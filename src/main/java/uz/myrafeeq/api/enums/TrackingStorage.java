@@ -0,0 +1,6 @@
+package uz.myrafeeq.api.enums;
+
+public enum TrackingStorage {
+  ROWS,
+  BITSET
+}
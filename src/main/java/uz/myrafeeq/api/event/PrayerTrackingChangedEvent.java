@@ -0,0 +1,4 @@
+package uz.myrafeeq.api.event;
+
+/** Published after a user's prayer tracking was written, by a toggle or an offline sync. */
+public record PrayerTrackingChangedEvent(Long telegramId) {}
@@ -0,0 +1,4 @@
+package uz.myrafeeq.api.event;
+
+/** Published when a user's preferences are created during onboarding or updated later. */
+public record PreferencesChangedEvent(Long telegramId) {}
@@ -10,6 +10,7 @@ public abstract sealed class MyRafeeqException extends RuntimeException
         CityNotFoundException,
         CountryNotFoundException,
         TrackingValidationException,
+        TrackingSyncUnavailableException,
         OnboardingAlreadyCompletedException,
         RequestValidationException {
 
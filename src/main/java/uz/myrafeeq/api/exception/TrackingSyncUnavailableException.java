@@ -0,0 +1,8 @@
+package uz.myrafeeq.api.exception;
+
+public final class TrackingSyncUnavailableException extends MyRafeeqException {
+
+  public TrackingSyncUnavailableException(String message) {
+    super("TRACKING_SYNC_UNAVAILABLE", message);
+  }
+}
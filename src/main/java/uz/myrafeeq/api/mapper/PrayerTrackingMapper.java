@@ -5,19 +5,19 @@ import java.util.List;
 import java.util.Map;
 import org.springframework.stereotype.Component;
 import uz.myrafeeq.api.dto.response.PrayerTrackingResponse;
-import uz.myrafeeq.api.entity.PrayerTrackingEntity;
+import uz.myrafeeq.api.repository.projection.TrackedPrayer;
 
 @Component
 public class PrayerTrackingMapper {
 
-  public PrayerTrackingResponse toTrackingResponse(List<PrayerTrackingEntity> entities) {
+  public PrayerTrackingResponse toTrackingResponse(List<TrackedPrayer> prayers) {
     Map<String, Map<String, Boolean>> tracking = new LinkedHashMap<>();
 
-    for (PrayerTrackingEntity entity : entities) {
-      String dateKey = entity.getPrayerDate().toString();
+    for (TrackedPrayer prayer : prayers) {
+      String dateKey = prayer.date().toString();
       tracking
           .computeIfAbsent(dateKey, _ -> new LinkedHashMap<>())
-          .put(entity.getPrayerName().name(), entity.getPrayed());
+          .put(prayer.prayer().name(), prayer.prayed());
     }
 
     return PrayerTrackingResponse.builder().tracking(tracking).build();
@@ -0,0 +1,118 @@
+package uz.myrafeeq.api.repository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import uz.myrafeeq.api.configuration.TrackingProperties;
+import uz.myrafeeq.api.entity.PrayerTrackingMonthEntity;
+import uz.myrafeeq.api.enums.PrayerName;
+import uz.myrafeeq.api.repository.projection.TrackedPrayer;
+
+/**
+ * Keeps a user's month in one row of two 155-bit strings ({@code 5 prayers x 31 days}): one bit
+ * for "prayed" and one for "toggled at all", so an explicit un-toggle still reads back as {@code
+ * false}. Toggles are single {@code SET_BIT} upserts and range reads decode the strings in memory.
+ *
+ * <p>Per-prayer toggle times are not kept, so reads return a {@code null} {@code toggledAt}.
+ * Without them there is nothing for last-writer-wins to compare, so this store does not implement
+ * {@link SyncablePrayerTrackingStore} and {@code /sync} is rejected.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "myrafeeq.tracking.storage", havingValue = "bitset")
+public class BitsetPrayerTrackingStore implements PrayerTrackingStore {
+
+  static final int DAYS_PER_MONTH = 31;
+
+  private final PrayerTrackingMonthRepository monthRepository;
+  private final TrackingProperties trackingProperties;
+  private final NamedParameterJdbcTemplate jdbcTemplate;
+
+  @Override
+  public List<TrackedPrayer> find(Long telegramId, LocalDate from, LocalDate to) {
+    List<TrackedPrayer> result = new ArrayList<>();
+    for (PrayerTrackingMonthEntity month :
+        monthRepository.findMonths(telegramId, from.withDayOfMonth(1), to.withDayOfMonth(1))) {
+      decode(month, from, to, result);
+    }
+    return result;
+  }
+
+  @Override
+  public TrackedPrayer toggle(
+      Long telegramId, LocalDate date, PrayerName prayer, boolean prayed, Instant toggledAt) {
+    monthRepository.upsertBit(
+        telegramId, date.withDayOfMonth(1), bit(date, prayer), prayed, toggledAt);
+    return new TrackedPrayer(date, prayer, prayed, toggledAt);
+  }
+
+  @Override
+  public void toggleAll(List<PrayerToggle> toggles) {
+    jdbcTemplate.batchUpdate(
+        PrayerTrackingMonthRepository.UPSERT_BIT,
+        toggles.stream()
+            .map(BitsetPrayerTrackingStore::parameters)
+            .toArray(SqlParameterSource[]::new));
+  }
+
+  private static SqlParameterSource parameters(PrayerToggle toggle) {
+    return new MapSqlParameterSource()
+        .addValue("telegramId", toggle.telegramId())
+        .addValue("month", toggle.date().withDayOfMonth(1))
+        .addValue("bit", bit(toggle.date(), toggle.prayer()))
+        .addValue("prayed", toggle.prayed())
+        .addValue("toggledAt", OffsetDateTime.ofInstant(toggle.toggledAt(), ZoneOffset.UTC));
+  }
+
+  /** Copies rows written by the row store into the packed table when switching storage modes. */
+  @Transactional
+  @EventListener(ApplicationReadyEvent.class)
+  public void migrate() {
+    if (!trackingProperties.isMigrateOnStartup()) {
+      return;
+    }
+    long started = System.nanoTime();
+    int months = monthRepository.mergeFromRows();
+    log.info(
+        "Merged prayer_tracking into {} packed months in {}ms",
+        months,
+        (System.nanoTime() - started) / 1_000_000);
+  }
+
+  static int bit(LocalDate date, PrayerName prayer) {
+    return prayer.ordinal() * DAYS_PER_MONTH + date.getDayOfMonth() - 1;
+  }
+
+  static void decode(
+      PrayerTrackingMonthEntity month, LocalDate from, LocalDate to, List<TrackedPrayer> result) {
+    LocalDate first = month.getId().getMonth();
+    String prayed = month.getPrayedBits();
+    String tracked = month.getTrackedBits();
+    for (int day = 1; day <= first.lengthOfMonth(); day++) {
+      LocalDate date = first.withDayOfMonth(day);
+      if (date.isBefore(from) || date.isAfter(to)) {
+        continue;
+      }
+      for (PrayerName prayer : PrayerName.values()) {
+        int bit = bit(date, prayer);
+        if (tracked.charAt(bit) == '1') {
+          result.add(new TrackedPrayer(date, prayer, prayed.charAt(bit) == '1', null));
+        }
+      }
+    }
+  }
+}
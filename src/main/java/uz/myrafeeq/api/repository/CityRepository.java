@@ -10,6 +10,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import uz.myrafeeq.api.entity.CityEntity;
+import uz.myrafeeq.api.repository.projection.CityLocationProjection;
 
 @Repository
 public interface CityRepository extends JpaRepository<CityEntity, String> {
@@ -23,6 +24,10 @@ public interface CityRepository extends JpaRepository<CityEntity, String> {
   @Query("SELECT c FROM CityEntity c")
   Page<CityEntity> findAllWithCountry(Pageable pageable);
 
+  @EntityGraph(attributePaths = "country")
+  @Query("SELECT c FROM CityEntity c")
+  List<CityEntity> findAllWithCountry();
+
   @Override
   @EntityGraph(attributePaths = "country")
   Optional<CityEntity> findById(String id);
@@ -35,6 +40,9 @@ public interface CityRepository extends JpaRepository<CityEntity, String> {
       """)
   List<CityEntity> searchByName(@Param("query") String query, Pageable pageable);
 
+  @Query("SELECT c.id as id, c.latitude as latitude, c.longitude as longitude FROM CityEntity c")
+  List<CityLocationProjection> findAllLocations();
+
   @Query(
       value =
           """
@@ -0,0 +1,12 @@
+package uz.myrafeeq.api.repository;
+
+import java.util.List;
+
+public interface GeocodeCacheBatchRepository {
+
+  /** Applies {@link GeocodeCacheRepository#UPSERT} for every entry in one batch. */
+  void upsertAll(List<GeocodeCacheWrite> writes);
+
+  /** Applies {@link GeocodeCacheRepository#ADD_HITS} for every entry in one batch. */
+  void addHitsAll(List<GeocodeCacheHits> hits);
+}
@@ -0,0 +1,47 @@
+package uz.myrafeeq.api.repository;
+
+import java.sql.Types;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+@RequiredArgsConstructor
+class GeocodeCacheBatchRepositoryImpl implements GeocodeCacheBatchRepository {
+
+  private final NamedParameterJdbcTemplate jdbcTemplate;
+
+  @Override
+  public void upsertAll(List<GeocodeCacheWrite> writes) {
+    SqlParameterSource[] batch =
+        writes.stream()
+            .map(
+                write ->
+                    new MapSqlParameterSource()
+                        .addValue("kind", write.kind())
+                        .addValue("cacheKey", write.cacheKey())
+                        .addValue("payload", write.payload(), Types.VARCHAR)
+                        .addValue(
+                            "expiresAt",
+                            OffsetDateTime.ofInstant(write.expiresAt(), ZoneOffset.UTC)))
+            .toArray(SqlParameterSource[]::new);
+    jdbcTemplate.batchUpdate(GeocodeCacheRepository.UPSERT, batch);
+  }
+
+  @Override
+  public void addHitsAll(List<GeocodeCacheHits> hits) {
+    SqlParameterSource[] batch =
+        hits.stream()
+            .map(
+                entry ->
+                    new MapSqlParameterSource()
+                        .addValue("kind", entry.kind())
+                        .addValue("cacheKey", entry.cacheKey())
+                        .addValue("hits", entry.hits()))
+            .toArray(SqlParameterSource[]::new);
+    jdbcTemplate.batchUpdate(GeocodeCacheRepository.ADD_HITS, batch);
+  }
+}
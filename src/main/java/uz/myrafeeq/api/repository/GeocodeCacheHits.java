@@ -0,0 +1,4 @@
+package uz.myrafeeq.api.repository;
+
+/** Reads served by one geocode cache entry since the last flush. */
+public record GeocodeCacheHits(String kind, String cacheKey, long hits) {}
@@ -0,0 +1,60 @@
+package uz.myrafeeq.api.repository;
+
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import uz.myrafeeq.api.entity.GeocodeCacheEntity;
+import uz.myrafeeq.api.entity.GeocodeCacheKey;
+import uz.myrafeeq.api.repository.projection.GeocodeCacheProjection;
+
+@Repository
+public interface GeocodeCacheRepository
+    extends JpaRepository<GeocodeCacheEntity, GeocodeCacheKey>, GeocodeCacheBatchRepository {
+
+  /** Inserts or replaces an entry; a {@code null} payload stores a negative entry. */
+  String UPSERT =
+      """
+      INSERT INTO geocode_cache (kind, cache_key, payload, expires_at, hits, updated_at)
+      VALUES (:kind, :cacheKey, CAST(:payload AS JSONB), :expiresAt, 0, now())
+      ON CONFLICT (kind, cache_key) DO UPDATE
+      SET payload = EXCLUDED.payload, expires_at = EXCLUDED.expires_at, updated_at = now()
+      """;
+
+  /** Adds read counts to an entry. */
+  String ADD_HITS =
+      """
+      UPDATE geocode_cache SET hits = hits + :hits
+      WHERE kind = :kind AND cache_key = :cacheKey
+      """;
+
+  @Query(
+      value =
+          """
+          SELECT c.kind AS "kind", c.cache_key AS "cacheKey", CAST(c.payload AS TEXT) AS "payload"
+          FROM geocode_cache c
+          WHERE c.kind = :kind AND c.cache_key = :cacheKey AND c.expires_at > now()
+          """,
+      nativeQuery = true)
+  Optional<GeocodeCacheProjection> findFresh(
+      @Param("kind") String kind, @Param("cacheKey") String cacheKey);
+
+  @Query(
+      value =
+          """
+          SELECT c.kind AS "kind", c.cache_key AS "cacheKey", CAST(c.payload AS TEXT) AS "payload"
+          FROM geocode_cache c
+          WHERE c.payload IS NOT NULL AND c.expires_at > now()
+          ORDER BY c.hits DESC
+          LIMIT :limit
+          """,
+      nativeQuery = true)
+  List<GeocodeCacheProjection> findHottest(@Param("limit") int limit);
+
+  @Modifying
+  @Query(value = "DELETE FROM geocode_cache WHERE expires_at <= now()", nativeQuery = true)
+  int deleteExpired();
+}
@@ -0,0 +1,6 @@
+package uz.myrafeeq.api.repository;
+
+import java.time.Instant;
+
+/** One geocode cache entry to store; a {@code null} payload is a negative entry. */
+public record GeocodeCacheWrite(String kind, String cacheKey, String payload, Instant expiresAt) {}
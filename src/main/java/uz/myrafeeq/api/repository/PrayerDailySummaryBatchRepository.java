@@ -0,0 +1,9 @@
+package uz.myrafeeq.api.repository;
+
+import java.util.List;
+
+public interface PrayerDailySummaryBatchRepository {
+
+  /** Applies {@link PrayerDailySummaryRepository#APPLY_TOGGLE} for every toggle in one batch. */
+  void applyToggles(List<PrayerToggle> toggles);
+}
@@ -0,0 +1,28 @@
+package uz.myrafeeq.api.repository;
+
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+@RequiredArgsConstructor
+class PrayerDailySummaryBatchRepositoryImpl implements PrayerDailySummaryBatchRepository {
+
+  private final NamedParameterJdbcTemplate jdbcTemplate;
+
+  @Override
+  public void applyToggles(List<PrayerToggle> toggles) {
+    SqlParameterSource[] batch =
+        toggles.stream()
+            .map(
+                toggle ->
+                    new MapSqlParameterSource()
+                        .addValue("telegramId", toggle.telegramId())
+                        .addValue("date", toggle.date())
+                        .addValue("bit", toggle.prayer().bit())
+                        .addValue("prayed", toggle.prayed()))
+            .toArray(SqlParameterSource[]::new);
+    jdbcTemplate.batchUpdate(PrayerDailySummaryRepository.APPLY_TOGGLE, batch);
+  }
+}
@@ -0,0 +1,65 @@
+package uz.myrafeeq.api.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import uz.myrafeeq.api.entity.PrayerDailySummaryEntity;
+import uz.myrafeeq.api.entity.PrayerDailySummaryKey;
+import uz.myrafeeq.api.repository.projection.DailySummaryProjection;
+
+@Repository
+public interface PrayerDailySummaryRepository
+    extends JpaRepository<PrayerDailySummaryEntity, PrayerDailySummaryKey>,
+        PrayerDailySummaryBatchRepository {
+
+  /**
+   * Sets or clears one prayer's bit; shared by {@link #applyToggle} and batched writes. A row is
+   * only written when the bit actually changes (clearing a bit of a day without a row is a no-op),
+   * so the update count tells whether the day's completion changed.
+   */
+  String APPLY_TOGGLE =
+      """
+      INSERT INTO prayer_daily_summary AS s
+        (telegram_id, summary_date, prayed_mask, completed_count)
+      SELECT :telegramId, :date,
+             CASE WHEN :prayed THEN :bit ELSE 0 END,
+             CASE WHEN :prayed THEN 1 ELSE 0 END
+      WHERE :prayed
+         OR EXISTS (SELECT 1 FROM prayer_daily_summary
+                    WHERE telegram_id = :telegramId AND summary_date = :date)
+      ON CONFLICT (telegram_id, summary_date) DO UPDATE
+      SET prayed_mask = CASE WHEN :prayed THEN s.prayed_mask | :bit
+                             ELSE s.prayed_mask & ~:bit END,
+          completed_count = s.completed_count + CASE WHEN :prayed THEN 1 ELSE -1 END
+      WHERE ((s.prayed_mask & :bit) <> 0) <> :prayed
+      """;
+
+  /**
+   * Sets or clears one prayer's bit for a day. Returns 1 if the prayer's state changed and 0 if it
+   * already had that state, so repeating a toggle is harmless.
+   */
+  @Modifying
+  @Query(value = APPLY_TOGGLE, nativeQuery = true)
+  int applyToggle(
+      @Param("telegramId") Long telegramId,
+      @Param("date") LocalDate date,
+      @Param("bit") int bit,
+      @Param("prayed") boolean prayed);
+
+  @Query(
+      """
+      SELECT s.id.summaryDate as summaryDate, s.prayedMask as prayedMask,
+             s.completedCount as completedCount
+      FROM PrayerDailySummaryEntity s
+      WHERE s.id.telegramId = :telegramId AND s.id.summaryDate BETWEEN :from AND :to
+      ORDER BY s.id.summaryDate DESC
+      """)
+  List<DailySummaryProjection> findRange(
+      @Param("telegramId") Long telegramId,
+      @Param("from") LocalDate from,
+      @Param("to") LocalDate to);
+}
@@ -0,0 +1,9 @@
+package uz.myrafeeq.api.repository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import uz.myrafeeq.api.enums.PrayerName;
+
+/** One prayer toggle as written to storage. */
+public record PrayerToggle(
+    Long telegramId, LocalDate date, PrayerName prayer, boolean prayed, Instant toggledAt) {}
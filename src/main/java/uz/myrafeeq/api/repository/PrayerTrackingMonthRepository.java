@@ -0,0 +1,90 @@
+package uz.myrafeeq.api.repository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import uz.myrafeeq.api.entity.PrayerTrackingMonthEntity;
+import uz.myrafeeq.api.entity.PrayerTrackingMonthKey;
+
+@Repository
+public interface PrayerTrackingMonthRepository
+    extends JpaRepository<PrayerTrackingMonthEntity, PrayerTrackingMonthKey> {
+
+  /** Sets one prayer's bit for a day; shared by {@link #upsertBit} and batched writes. */
+  String UPSERT_BIT =
+      """
+      INSERT INTO prayer_tracking_month AS m
+        (telegram_id, month, prayed_bits, tracked_bits, updated_at)
+      SELECT :telegramId, :month,
+             SET_BIT(CAST(REPEAT('0', 155) AS BIT(155)), :bit,
+                     CASE WHEN :prayed THEN 1 ELSE 0 END),
+             SET_BIT(CAST(REPEAT('0', 155) AS BIT(155)), :bit, 1),
+             :toggledAt
+      ON CONFLICT (telegram_id, month) DO UPDATE
+      SET prayed_bits = SET_BIT(m.prayed_bits, :bit, CASE WHEN :prayed THEN 1 ELSE 0 END),
+          tracked_bits = SET_BIT(m.tracked_bits, :bit, 1),
+          updated_at = :toggledAt
+      """;
+
+  /** Sets one prayer's bit for a day, creating the month row if needed. */
+  @Modifying
+  @Query(value = UPSERT_BIT, nativeQuery = true)
+  void upsertBit(
+      @Param("telegramId") Long telegramId,
+      @Param("month") LocalDate month,
+      @Param("bit") int bit,
+      @Param("prayed") boolean prayed,
+      @Param("toggledAt") Instant toggledAt);
+
+  @Query(
+      """
+      SELECT m FROM PrayerTrackingMonthEntity m
+      WHERE m.id.telegramId = :telegramId AND m.id.month BETWEEN :fromMonth AND :toMonth
+      ORDER BY m.id.month
+      """)
+  List<PrayerTrackingMonthEntity> findMonths(
+      @Param("telegramId") Long telegramId,
+      @Param("fromMonth") LocalDate fromMonth,
+      @Param("toMonth") LocalDate toMonth);
+
+  /**
+   * Folds {@code prayer_tracking} rows into the monthly bit strings. Days already toggled in the
+   * packed table keep their value, so the merge can be repeated safely while both tables exist.
+   */
+  @Modifying
+  @Query(
+      value =
+          """
+          INSERT INTO prayer_tracking_month AS m
+            (telegram_id, month, prayed_bits, tracked_bits, updated_at)
+          SELECT telegram_id,
+                 month,
+                 COALESCE(BIT_OR(bit) FILTER (WHERE prayed), CAST(REPEAT('0', 155) AS BIT(155))),
+                 BIT_OR(bit),
+                 MAX(toggled_at)
+          FROM (SELECT telegram_id,
+                       CAST(DATE_TRUNC('month', prayer_date) AS DATE) AS month,
+                       prayed,
+                       toggled_at,
+                       CAST(B'1' AS BIT(155)) >> (CASE prayer_name
+                                                     WHEN 'FAJR' THEN 0
+                                                     WHEN 'DHUHR' THEN 1
+                                                     WHEN 'ASR' THEN 2
+                                                     WHEN 'MAGHRIB' THEN 3
+                                                     WHEN 'ISHA' THEN 4
+                           END * 31 + CAST(EXTRACT(DAY FROM prayer_date) AS INTEGER) - 1) AS bit
+                FROM prayer_tracking) t
+          GROUP BY telegram_id, month
+          ON CONFLICT (telegram_id, month) DO UPDATE
+          SET prayed_bits = m.prayed_bits | (EXCLUDED.prayed_bits & ~m.tracked_bits),
+              tracked_bits = m.tracked_bits | EXCLUDED.tracked_bits,
+              updated_at = GREATEST(m.updated_at, EXCLUDED.updated_at)
+          """,
+      nativeQuery = true)
+  int mergeFromRows();
+}
@@ -1,17 +1,14 @@
 package uz.myrafeeq.api.repository;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
-import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import uz.myrafeeq.api.entity.PrayerTrackingEntity;
-import uz.myrafeeq.api.enums.PrayerName;
-import uz.myrafeeq.api.repository.projection.DateCountProjection;
-import uz.myrafeeq.api.repository.projection.PrayerCountProjection;
 
 @Repository
 public interface PrayerTrackingRepository extends JpaRepository<PrayerTrackingEntity, UUID> {
@@ -21,29 +18,50 @@ public interface PrayerTrackingRepository extends JpaRepository<PrayerTrackingEn
   List<PrayerTrackingEntity> findByTelegramIdAndPrayerDateBetween(
       Long telegramId, LocalDate from, LocalDate to);
 
-  Optional<PrayerTrackingEntity> findByTelegramIdAndPrayerDateAndPrayerName(
-      Long telegramId, LocalDate date, PrayerName prayerName);
-
-  @Query(
+  /**
+   * Upserts one prayer's row; shared by {@link #upsertToggle} and batched writes. The batched
+   * upserts in this package use {@code INSERT ... SELECT} rather than {@code VALUES} so the
+   * driver's {@code reWriteBatchedInserts} does not fold a batch into one multi-row statement,
+   * which would fail on repeated keys and hide per-row update counts.
+   */
+  String UPSERT_TOGGLE =
       """
-      SELECT e.prayerName as prayerName, COUNT(e) as count FROM PrayerTrackingEntity e
-      WHERE e.telegramId = :telegramId AND e.prayerDate BETWEEN :from AND :to AND e.prayed = true
-      GROUP BY e.prayerName
-      """)
-  List<PrayerCountProjection> countCompletedByPrayer(
-      @Param("telegramId") Long telegramId,
-      @Param("from") LocalDate from,
-      @Param("to") LocalDate to);
+      INSERT INTO prayer_tracking
+        (telegram_id, prayer_date, prayer_name, prayed, toggled_at, created_at)
+      SELECT :telegramId, :prayerDate, :prayerName, :prayed, :toggledAt, :toggledAt
+      ON CONFLICT (telegram_id, prayer_date, prayer_name) DO UPDATE
+      SET prayed = EXCLUDED.prayed,
+          toggled_at = EXCLUDED.toggled_at,
+          version = prayer_tracking.version + 1
+      """;
 
-  @Query(
-      """
-      SELECT e.prayerDate as prayerDate, COUNT(e) as count FROM PrayerTrackingEntity e
-      WHERE e.telegramId = :telegramId AND e.prayerDate BETWEEN :from AND :to AND e.prayed = true
-      GROUP BY e.prayerDate
-      ORDER BY e.prayerDate DESC
-      """)
-  List<DateCountProjection> countCompletedByDate(
+  /** {@link #UPSERT_TOGGLE} that leaves the row alone unless the toggle is newer. */
+  String SYNC_TOGGLE = UPSERT_TOGGLE + "WHERE prayer_tracking.toggled_at < EXCLUDED.toggled_at\n";
+
+  /**
+   * Inserts or updates the row for one prayer in a single statement. Concurrent toggles of the
+   * same prayer serialize on the unique constraint instead of failing on it. The returned entity is
+   * only fresh if the row was not already loaded into the current persistence context.
+   */
+  @Query(value = UPSERT_TOGGLE + "RETURNING *", nativeQuery = true)
+  PrayerTrackingEntity upsertToggle(
       @Param("telegramId") Long telegramId,
-      @Param("from") LocalDate from,
-      @Param("to") LocalDate to);
+      @Param("prayerDate") LocalDate prayerDate,
+      @Param("prayerName") String prayerName,
+      @Param("prayed") boolean prayed,
+      @Param("toggledAt") Instant toggledAt);
+
+  /**
+   * Creates the monthly partition of {@code prayer_tracking} containing {@code month} unless it
+   * exists. Returns whether a partition was created.
+   */
+  @Query(value = "SELECT create_prayer_tracking_partition(:month)", nativeQuery = true)
+  boolean createPartition(@Param("month") LocalDate month);
+
+  /**
+   * Moves monthly partitions that end before {@code cutoff} into {@code prayer_tracking_archive}.
+   * Returns the number of partitions archived.
+   */
+  @Query(value = "SELECT archive_prayer_tracking_partitions(:cutoff)", nativeQuery = true)
+  int archivePartitionsBefore(@Param("cutoff") LocalDate cutoff);
 }
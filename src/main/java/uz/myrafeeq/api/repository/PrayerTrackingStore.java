@@ -0,0 +1,29 @@
+package uz.myrafeeq.api.repository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import uz.myrafeeq.api.enums.PrayerName;
+import uz.myrafeeq.api.repository.projection.TrackedPrayer;
+
+/**
+ * Storage of per-prayer tracking state. The implementation is chosen by {@code
+ * myrafeeq.tracking.storage}: {@code rows} keeps one {@code prayer_tracking} row per prayer, {@code
+ * bitset} packs a user's month into a single {@code prayer_tracking_month} row. Stores that can
+ * apply offline sync implement {@link SyncablePrayerTrackingStore}.
+ */
+public interface PrayerTrackingStore {
+
+  /**
+   * Returns every toggled prayer between {@code from} and {@code to}, inclusive. The toggle time is
+   * {@code null} when the store does not keep per-prayer toggle times.
+   */
+  List<TrackedPrayer> find(Long telegramId, LocalDate from, LocalDate to);
+
+  TrackedPrayer toggle(
+      Long telegramId, LocalDate date, PrayerName prayer, boolean prayed, Instant toggledAt);
+
+  /** Writes several toggles in one JDBC batch. Toggles are applied in list order. */
+  void toggleAll(List<PrayerToggle> toggles);
+
+}
@@ -0,0 +1,33 @@
+package uz.myrafeeq.api.repository;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts the statements prepared on behalf of the current request. The count is inherited by
+ * threads started while it is open, so work fanned out to virtual threads is included.
+ */
+public final class QueryCounter {
+
+  private static final InheritableThreadLocal<AtomicInteger> COUNT =
+      new InheritableThreadLocal<>();
+
+  private QueryCounter() {}
+
+  public static void start() {
+    COUNT.set(new AtomicInteger());
+  }
+
+  /** Closes the count opened by {@link #start()} and returns it. */
+  public static int stop() {
+    AtomicInteger count = COUNT.get();
+    COUNT.remove();
+    return count != null ? count.get() : 0;
+  }
+
+  static void increment() {
+    AtomicInteger count = COUNT.get();
+    if (count != null) {
+      count.incrementAndGet();
+    }
+  }
+}
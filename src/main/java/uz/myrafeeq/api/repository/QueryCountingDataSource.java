@@ -0,0 +1,61 @@
+package uz.myrafeeq.api.repository;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Reports every statement prepared on its connections to {@link QueryCounter}. Counting happens at
+ * this level so that JPA and {@code JdbcTemplate} access are both included; a JDBC batch counts as
+ * one statement.
+ */
+public class QueryCountingDataSource extends DelegatingDataSource {
+
+  public QueryCountingDataSource(DataSource target) {
+    super(target);
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    return counting(super.getConnection());
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return counting(super.getConnection(username, password));
+  }
+
+  private static Connection counting(Connection connection) {
+    return (Connection)
+        Proxy.newProxyInstance(
+            QueryCountingDataSource.class.getClassLoader(),
+            new Class<?>[] {ConnectionProxy.class},
+            (proxy, method, args) -> {
+              switch (method.getName()) {
+                case "getTargetConnection" -> {
+                  return connection;
+                }
+                case "equals" -> {
+                  return proxy == args[0];
+                }
+                case "hashCode" -> {
+                  return System.identityHashCode(proxy);
+                }
+                case "prepareStatement", "prepareCall", "createStatement" ->
+                    QueryCounter.increment();
+                default -> {
+                  // delegated as is
+                }
+              }
+              try {
+                return method.invoke(connection, args);
+              } catch (InvocationTargetException e) {
+                throw e.getCause();
+              }
+            });
+  }
+}
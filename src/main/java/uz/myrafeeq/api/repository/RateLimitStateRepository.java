@@ -0,0 +1,67 @@
+package uz.myrafeeq.api.repository;
+
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/** Shared GCRA state in the unlogged {@code rate_limit_state} table, in epoch microseconds. */
+@Repository
+@RequiredArgsConstructor
+public class RateLimitStateRepository {
+
+  static final String ADVANCE =
+      """
+      INSERT INTO rate_limit_state AS s (client_key, tat_us)
+      SELECT u.client_key, :now + u.advance
+      FROM unnest(CAST(:keys AS BIGINT[]), CAST(:advances AS BIGINT[])) AS u(client_key, advance)
+      ON CONFLICT (client_key) DO UPDATE
+      SET tat_us = GREATEST(s.tat_us, :now) + (EXCLUDED.tat_us - :now)
+      RETURNING s.client_key, s.tat_us
+      """;
+
+  static final String DELETE_EXPIRED = "DELETE FROM rate_limit_state WHERE tat_us < :now";
+
+  private final NamedParameterJdbcTemplate jdbcTemplate;
+
+  /**
+   * Advances the TAT of every key by its amount in one statement, the same way a single node does
+   * ({@code max(tat, now) + advance}), and calls {@code sink} with each key's resulting TAT.
+   */
+  public void advance(Map<Long, Long> advances, long nowMicros, TatSink sink) {
+    if (advances.isEmpty()) {
+      return;
+    }
+    StringBuilder keys = new StringBuilder(advances.size() * 20).append('{');
+    StringBuilder amounts = new StringBuilder(advances.size() * 12).append('{');
+    advances.forEach(
+        (key, advance) -> {
+          if (keys.length() > 1) {
+            keys.append(',');
+            amounts.append(',');
+          }
+          keys.append(key);
+          amounts.append(advance);
+        });
+
+    MapSqlParameterSource parameters =
+        new MapSqlParameterSource()
+            .addValue("keys", keys.append('}').toString())
+            .addValue("advances", amounts.append('}').toString())
+            .addValue("now", nowMicros);
+    RowCallbackHandler handler = rs -> sink.accept(rs.getLong("client_key"), rs.getLong("tat_us"));
+    jdbcTemplate.query(ADVANCE, parameters, handler);
+  }
+
+  /** Removes keys whose TAT has passed; they carry no debt and start fresh on their next use. */
+  public int deleteExpired(long nowMicros) {
+    return jdbcTemplate.update(DELETE_EXPIRED, new MapSqlParameterSource("now", nowMicros));
+  }
+
+  @FunctionalInterface
+  public interface TatSink {
+    void accept(long key, long tatMicros);
+  }
+}
@@ -0,0 +1,82 @@
+package uz.myrafeeq.api.repository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Component;
+import uz.myrafeeq.api.entity.PrayerTrackingEntity;
+import uz.myrafeeq.api.enums.PrayerName;
+import uz.myrafeeq.api.repository.projection.TrackedPrayer;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(
+    name = "myrafeeq.tracking.storage",
+    havingValue = "rows",
+    matchIfMissing = true)
+public class RowPrayerTrackingStore implements SyncablePrayerTrackingStore {
+
+  private final PrayerTrackingRepository trackingRepository;
+  private final NamedParameterJdbcTemplate jdbcTemplate;
+
+  @Override
+  public List<TrackedPrayer> find(Long telegramId, LocalDate from, LocalDate to) {
+    List<PrayerTrackingEntity> entities =
+        from.equals(to)
+            ? trackingRepository.findByTelegramIdAndPrayerDate(telegramId, from)
+            : trackingRepository.findByTelegramIdAndPrayerDateBetween(telegramId, from, to);
+    return entities.stream().map(RowPrayerTrackingStore::toTracked).toList();
+  }
+
+  @Override
+  public TrackedPrayer toggle(
+      Long telegramId, LocalDate date, PrayerName prayer, boolean prayed, Instant toggledAt) {
+    return toTracked(
+        trackingRepository.upsertToggle(telegramId, date, prayer.name(), prayed, toggledAt));
+  }
+
+  @Override
+  public void toggleAll(List<PrayerToggle> toggles) {
+    jdbcTemplate.batchUpdate(
+        PrayerTrackingRepository.UPSERT_TOGGLE,
+        toggles.stream()
+            .map(RowPrayerTrackingStore::parameters)
+            .toArray(SqlParameterSource[]::new));
+  }
+
+  @Override
+  public boolean[] syncAll(List<PrayerToggle> toggles) {
+    int[] counts =
+        jdbcTemplate.batchUpdate(
+            PrayerTrackingRepository.SYNC_TOGGLE,
+            toggles.stream()
+                .map(RowPrayerTrackingStore::parameters)
+                .toArray(SqlParameterSource[]::new));
+    boolean[] applied = new boolean[counts.length];
+    for (int i = 0; i < counts.length; i++) {
+      applied[i] = counts[i] != 0;
+    }
+    return applied;
+  }
+
+  private static SqlParameterSource parameters(PrayerToggle toggle) {
+    return new MapSqlParameterSource()
+        .addValue("telegramId", toggle.telegramId())
+        .addValue("prayerDate", toggle.date())
+        .addValue("prayerName", toggle.prayer().name())
+        .addValue("prayed", toggle.prayed())
+        .addValue("toggledAt", OffsetDateTime.ofInstant(toggle.toggledAt(), ZoneOffset.UTC));
+  }
+
+  private static TrackedPrayer toTracked(PrayerTrackingEntity entity) {
+    return new TrackedPrayer(
+        entity.getPrayerDate(), entity.getPrayerName(), entity.getPrayed(), entity.getToggledAt());
+  }
+}
@@ -0,0 +1,16 @@
+package uz.myrafeeq.api.repository;
+
+import java.util.List;
+
+/**
+ * A {@link PrayerTrackingStore} that keeps per-prayer toggle times and can therefore apply offline
+ * toggles last-writer-wins.
+ */
+public interface SyncablePrayerTrackingStore extends PrayerTrackingStore {
+
+  /**
+   * Writes several toggles in one JDBC batch, skipping any toggle older than the state already
+   * stored for its prayer. Returns, per toggle, whether it was applied.
+   */
+  boolean[] syncAll(List<PrayerToggle> toggles);
+}
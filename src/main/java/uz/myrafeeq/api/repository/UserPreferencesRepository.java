@@ -1,11 +1,23 @@
 package uz.myrafeeq.api.repository;
 
+import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import uz.myrafeeq.api.entity.UserPreferencesEntity;
+import uz.myrafeeq.api.repository.projection.PreferencesWithCity;
 
 @Repository
 public interface UserPreferencesRepository extends JpaRepository<UserPreferencesEntity, Long> {
 
   boolean existsByCityId(String cityId);
+
+  @Query(
+      """
+      SELECT new uz.myrafeeq.api.repository.projection.PreferencesWithCity(p, c)
+      FROM UserPreferencesEntity p LEFT JOIN CityEntity c ON c.id = p.cityId
+      WHERE p.telegramId = :telegramId
+      """)
+  Optional<PreferencesWithCity> findWithCity(@Param("telegramId") Long telegramId);
 }
@@ -0,0 +1,30 @@
+package uz.myrafeeq.api.repository;
+
+import jakarta.persistence.LockModeType;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import uz.myrafeeq.api.entity.UserStreakEntity;
+
+@Repository
+public interface UserStreakRepository extends JpaRepository<UserStreakEntity, Long> {
+
+  @Modifying
+  @Query(
+      value =
+          """
+          INSERT INTO user_streak (telegram_id) VALUES (:telegramId)
+          ON CONFLICT (telegram_id) DO NOTHING
+          """,
+      nativeQuery = true)
+  void insertIfAbsent(@Param("telegramId") Long telegramId);
+
+  /** Locks the row so concurrent toggles of one user recompute the streak one at a time. */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT s FROM UserStreakEntity s WHERE s.telegramId = :telegramId")
+  Optional<UserStreakEntity> findForUpdate(@Param("telegramId") Long telegramId);
+}
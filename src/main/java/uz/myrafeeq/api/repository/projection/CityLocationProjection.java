@@ -0,0 +1,10 @@
+package uz.myrafeeq.api.repository.projection;
+
+public interface CityLocationProjection {
+
+  String getId();
+
+  Double getLatitude();
+
+  Double getLongitude();
+}
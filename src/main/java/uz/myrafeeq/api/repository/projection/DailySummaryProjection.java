@@ -0,0 +1,12 @@
+package uz.myrafeeq.api.repository.projection;
+
+import java.time.LocalDate;
+
+public interface DailySummaryProjection {
+
+  LocalDate getSummaryDate();
+
+  Short getPrayedMask();
+
+  Short getCompletedCount();
+}
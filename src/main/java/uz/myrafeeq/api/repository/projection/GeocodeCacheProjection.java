@@ -0,0 +1,10 @@
+package uz.myrafeeq.api.repository.projection;
+
+public interface GeocodeCacheProjection {
+
+  String getKind();
+
+  String getCacheKey();
+
+  String getPayload();
+}
@@ -0,0 +1,7 @@
+package uz.myrafeeq.api.repository.projection;
+
+import uz.myrafeeq.api.entity.CityEntity;
+import uz.myrafeeq.api.entity.UserPreferencesEntity;
+
+/** A user's preferences together with their selected city, which may be {@code null}. */
+public record PreferencesWithCity(UserPreferencesEntity preferences, CityEntity city) {}
@@ -0,0 +1,8 @@
+package uz.myrafeeq.api.repository.projection;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import uz.myrafeeq.api.enums.PrayerName;
+
+/** Storage-independent view of one tracked prayer. */
+public record TrackedPrayer(LocalDate date, PrayerName prayer, boolean prayed, Instant toggledAt) {}
@@ -27,7 +27,6 @@ import uz.myrafeeq.api.dto.response.ErrorResponse;
 @RequiredArgsConstructor
 public class AdminApiKeyFilter extends OncePerRequestFilter {
 
-  static final String ADMIN_PATH_PREFIX = "/api/v1/admin/";
   private static final String ADMIN_API_KEY_HEADER = "X-Admin-Api-Key";
   private final AdminProperties adminProperties;
   private final ObjectMapper objectMapper;
@@ -65,6 +64,6 @@ public class AdminApiKeyFilter extends OncePerRequestFilter {
 
   @Override
   protected boolean shouldNotFilter(HttpServletRequest request) {
-    return !request.getServletPath().startsWith(ADMIN_PATH_PREFIX);
+    return RouteClassifier.classify(request) != RouteClassifier.Route.ADMIN;
   }
 }
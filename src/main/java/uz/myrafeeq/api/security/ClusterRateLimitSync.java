@@ -0,0 +1,83 @@
+package uz.myrafeeq.api.security;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import uz.myrafeeq.api.repository.RateLimitStateRepository;
+
+/**
+ * Shares rate-limit usage between instances through Postgres, so a client is held to roughly its
+ * configured limit however many replicas serve it.
+ *
+ * <p>Requests are still decided against the local GCRA state only. Every sync interval the TAT
+ * advance each key has been granted locally is pushed to the shared table in one upsert, and the
+ * combined TAT that comes back is merged into the local state. A client spread across {@code N}
+ * instances can therefore overshoot by up to {@code N} sync intervals' worth of local quota; the
+ * overshoot is carried as debt and repaid in the following period.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "myrafeeq.rate-limit.cluster.enabled", havingValue = "true")
+public class ClusterRateLimitSync {
+
+  private final GcraRateLimiter limiter;
+  private final RateLimitStateRepository repository;
+  private final long epochOffsetNanos;
+
+  public ClusterRateLimitSync(
+      RateLimitFilter rateLimitFilter, RateLimitStateRepository repository) {
+    this.limiter = rateLimitFilter.limiter();
+    this.repository = repository;
+    this.epochOffsetNanos =
+        ChronoUnit.NANOS.between(Instant.EPOCH, Instant.now()) - System.nanoTime();
+  }
+
+  @Scheduled(fixedDelayString = "${myrafeeq.rate-limit.cluster.sync-interval}")
+  public void sync() {
+    Map<Long, Long> advances = new HashMap<>();
+    limiter.drainUsage(
+        (key, advanceNanos) -> advances.merge(key, toMicros(advanceNanos), Long::sum));
+    if (advances.isEmpty()) {
+      return;
+    }
+
+    try {
+      repository.advance(
+          advances,
+          toEpochMicros(System.nanoTime()),
+          (key, tatMicros) -> limiter.advanceTo(key, fromEpochMicros(tatMicros)));
+      log.debug("Synced rate-limit usage for {} clients", advances.size());
+    } catch (Exception e) {
+      log.warn(
+          "Failed to sync rate-limit usage for {} clients: {}", advances.size(), e.getMessage());
+    }
+  }
+
+  @Scheduled(fixedDelay = 1, timeUnit = TimeUnit.MINUTES)
+  public void purgeExpired() {
+    try {
+      int deleted = repository.deleteExpired(toEpochMicros(System.nanoTime()));
+      log.debug("Purged {} expired rate-limit entries", deleted);
+    } catch (Exception e) {
+      log.warn("Failed to purge rate-limit entries: {}", e.getMessage());
+    }
+  }
+
+  private long toEpochMicros(long nanoTime) {
+    return toMicros(nanoTime + epochOffsetNanos);
+  }
+
+  private long fromEpochMicros(long epochMicros) {
+    return TimeUnit.MICROSECONDS.toNanos(epochMicros) - epochOffsetNanos;
+  }
+
+  private static long toMicros(long nanos) {
+    return TimeUnit.NANOSECONDS.toMicros(nanos);
+  }
+}
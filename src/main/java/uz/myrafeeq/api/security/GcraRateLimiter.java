@@ -0,0 +1,151 @@
+package uz.myrafeeq.api.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free rate limiter using the generic cell rate algorithm (GCRA).
+ *
+ * <p>Each client is a 64-bit key whose only state is its theoretical arrival time (TAT) in clock
+ * nanoseconds. A request of weight {@code cost} is allowed while advancing the TAT by {@code cost}
+ * emission intervals keeps it no more than one period ahead of now, so a client can spend its full
+ * quota at once but never twice within a period, however requests fall relative to the clock.
+ *
+ * <p>Keys and TATs live side by side in one open-addressed {@link AtomicLongArray}, two longs per
+ * slot, and are updated with CAS; there are no per-key objects. A slot whose TAT has passed holds
+ * no debt and is reused by the next key that probes it. When every probed slot is still active,
+ * the one closest to expiry is cleared and taken over, so under extreme key churn a client may lose
+ * the last moments of its debt.
+ *
+ * <p>A third long per slot accumulates the TAT advance granted since the last {@link
+ * #drainUsage(UsageSink)}, so usage can be shared with other instances and their combined TAT
+ * merged back with {@link #advanceTo(long, long)}.
+ */
+final class GcraRateLimiter {
+
+  private static final long EMPTY = 0L;
+  private static final int PROBES = 8;
+  private static final int STRIDE = 3;
+
+  private final AtomicLongArray slots;
+  private final int mask;
+  private final LongSupplier clock;
+
+  /**
+   * @param capacity number of slots, rounded up to a power of two
+   * @param clock monotonic nanosecond clock
+   */
+  GcraRateLimiter(int capacity, LongSupplier clock) {
+    int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+    this.slots = new AtomicLongArray(size * STRIDE);
+    this.mask = size - 1;
+    this.clock = clock;
+  }
+
+  /**
+   * Charges {@code cost} units against a quota of {@code limit} units per {@code periodNanos} and
+   * returns whether the request is allowed.
+   */
+  Decision acquire(long key, int limit, long periodNanos, int cost) {
+    long now = clock.getAsLong();
+    long interval = periodNanos / limit;
+    int slot = slotFor(key == EMPTY ? 1 : key, now);
+
+    while (true) {
+      long stored = slots.get(slot + 1);
+      long tat = Math.max(stored, now);
+      long next = tat + interval * cost;
+      long ahead = next - now;
+      if (ahead > periodNanos) {
+        return new Decision(false, (periodNanos - (tat - now)) / interval, ahead - periodNanos);
+      }
+      if (slots.compareAndSet(slot + 1, stored, next)) {
+        slots.getAndAdd(slot + 2, next - tat);
+        return new Decision(true, (periodNanos - ahead) / interval, 0);
+      }
+    }
+  }
+
+  private int slotFor(long key, long now) {
+    int home = (int) mix(key) & mask;
+
+    while (true) {
+      int fallback = -1;
+      long fallbackOwner = EMPTY;
+      long fallbackTat = Long.MAX_VALUE;
+      for (int probe = 0; probe < PROBES; probe++) {
+        int slot = ((home + probe) & mask) * STRIDE;
+        long owner = slots.get(slot);
+        if (owner == key) {
+          return slot;
+        }
+        if (owner == EMPTY) {
+          if (slots.compareAndSet(slot, EMPTY, key) || slots.get(slot) == key) {
+            return slot;
+          }
+          continue;
+        }
+        long tat = slots.get(slot + 1);
+        if (tat < fallbackTat) {
+          fallback = slot;
+          fallbackOwner = owner;
+          fallbackTat = tat;
+        }
+      }
+
+      // Take the slot over before clearing its debt, so a lost race leaves the winner's TAT alone
+      if (fallback >= 0 && slots.compareAndSet(fallback, fallbackOwner, key)) {
+        slots.set(fallback + 1, now);
+        slots.set(fallback + 2, 0);
+        return fallback;
+      }
+    }
+  }
+
+  /** Hands each key's TAT advance since the previous call to {@code sink} and resets it. */
+  void drainUsage(UsageSink sink) {
+    for (int slot = 0; slot < slots.length(); slot += STRIDE) {
+      if (slots.get(slot + 2) != 0) {
+        long key = slots.get(slot);
+        long advance = slots.getAndSet(slot + 2, 0);
+        if (key != EMPTY && advance != 0) {
+          sink.accept(key, advance);
+        }
+      }
+    }
+  }
+
+  /** Raises the TAT of {@code key} to {@code tat} if it is behind; unknown keys are ignored. */
+  void advanceTo(long key, long tat) {
+    int home = (int) mix(key) & mask;
+    for (int probe = 0; probe < PROBES; probe++) {
+      int slot = ((home + probe) & mask) * STRIDE;
+      if (slots.get(slot) == key) {
+        long stored = slots.get(slot + 1);
+        while (stored < tat && !slots.compareAndSet(slot + 1, stored, tat)) {
+          stored = slots.get(slot + 1);
+        }
+        return;
+      }
+    }
+  }
+
+  /** Finalizer from SplitMix64; spreads keys that differ only in low bits. */
+  static long mix(long value) {
+    long z = value;
+    z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    return z ^ (z >>> 31);
+  }
+
+  /**
+   * @param remaining whole units left in the current period after this request
+   * @param retryAfterNanos how long until a rejected request of the same cost would be allowed
+   */
+  record Decision(boolean allowed, long remaining, long retryAfterNanos) {}
+
+  @FunctionalInterface
+  interface UsageSink {
+    void accept(long key, long advanceNanos);
+  }
+}
@@ -11,9 +11,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
-import org.springframework.util.AntPathMatcher;
 import org.springframework.web.filter.OncePerRequestFilter;
-import uz.myrafeeq.api.configuration.SecurityConfiguration;
 
 @Slf4j
 @Component
@@ -24,7 +22,6 @@ public class JwtAuthFilter extends OncePerRequestFilter {
   private static final String BEARER_PREFIX = "Bearer ";
 
   private final JwtTokenProvider jwtTokenProvider;
-  private final AntPathMatcher pathMatcher = new AntPathMatcher();
 
   @Override
   protected void doFilterInternal(
@@ -51,15 +48,6 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
   @Override
   protected boolean shouldNotFilter(HttpServletRequest request) {
-    String path = request.getServletPath();
-    if (path.startsWith(AdminApiKeyFilter.ADMIN_PATH_PREFIX)) {
-      return true;
-    }
-    for (String pattern : SecurityConfiguration.PUBLIC_PATHS) {
-      if (pathMatcher.match(pattern, path)) {
-        return true;
-      }
-    }
-    return false;
+    return RouteClassifier.classify(request) != RouteClassifier.Route.USER;
   }
 }
@@ -2,26 +2,47 @@ package uz.myrafeeq.api.security;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Base64;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 import javax.crypto.SecretKey;
 import org.springframework.stereotype.Component;
 import uz.myrafeeq.api.configuration.JwtProperties;
 import uz.myrafeeq.api.exception.InvalidAuthException;
+import uz.myrafeeq.api.security.VerifiedTokenCache.VerifiedToken;
 
+/**
+ * Issues and validates session tokens. A Mini App session presents the same token on every request,
+ * so validated tokens are remembered until they expire and only unseen tokens go through the
+ * prebuilt parser.
+ */
 @Component
 public final class JwtTokenProvider {
 
+  private static final String INVALID_TOKEN = "Invalid or expired JWT token";
+
   private final SecretKey secretKey;
   private final Duration tokenTtl;
+  private final JwtParser parser;
+  private final VerifiedTokenCache verifiedTokens;
+  private final Timer verifyTimer;
 
-  public JwtTokenProvider(JwtProperties jwtProperties) {
+  public JwtTokenProvider(JwtProperties jwtProperties, MeterRegistry meterRegistry) {
     this.secretKey = Keys.hmacShaKeyFor(Base64.getDecoder().decode(jwtProperties.getSecret()));
     this.tokenTtl = jwtProperties.getTtl();
+    this.parser = Jwts.parser().verifyWith(secretKey).build();
+    this.verifiedTokens = new VerifiedTokenCache(meterRegistry);
+    this.verifyTimer =
+        Timer.builder("jwt.verify")
+            .description("JWT parsing and signature verification on verified-token cache misses")
+            .register(meterRegistry);
   }
 
   public String generateToken(Long telegramId, String firstName) {
@@ -36,13 +57,24 @@ public final class JwtTokenProvider {
   }
 
   public Long validateAndExtractTelegramId(String token) {
-    try {
-      Claims claims =
-          Jwts.parser().verifyWith(secretKey).build().parseSignedClaims(token).getPayload();
+    if (token == null || token.isEmpty()) {
+      throw new InvalidAuthException(INVALID_TOKEN);
+    }
+    return verifiedTokens.get(token, this::verify);
+  }
 
-      return Long.parseLong(claims.getSubject());
+  private VerifiedToken verify(String token) {
+    long started = System.nanoTime();
+    try {
+      Claims claims = parser.parseSignedClaims(token).getPayload();
+      Date expiration = claims.getExpiration();
+      return new VerifiedToken(
+          Long.parseLong(claims.getSubject()),
+          expiration != null ? expiration.toInstant() : null);
     } catch (JwtException | IllegalArgumentException _) {
-      throw new InvalidAuthException("Invalid or expired JWT token");
+      throw new InvalidAuthException(INVALID_TOKEN);
+    } finally {
+      verifyTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
     }
   }
 }
@@ -0,0 +1,47 @@
+package uz.myrafeeq.api.security;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import uz.myrafeeq.api.repository.QueryCounter;
+
+/**
+ * Records how many SQL statements each request issues, tagged by route. Registered by {@code
+ * QueryCountConfiguration} together with the counting data source.
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@RequiredArgsConstructor
+public class QueryCountFilter extends OncePerRequestFilter {
+
+  private static final String METRIC_NAME = "http.server.requests.queries";
+
+  private final MeterRegistry meterRegistry;
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    QueryCounter.start();
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      int queries = QueryCounter.stop();
+      Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+      DistributionSummary.builder(METRIC_NAME)
+          .description("SQL statements issued per request")
+          .tag("method", request.getMethod())
+          .tag("uri", route != null ? route.toString() : "UNKNOWN")
+          .register(meterRegistry)
+          .record(queries);
+    }
+  }
+}
@@ -1,46 +1,63 @@
 package uz.myrafeeq.api.security;
 
-import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.time.Duration;
 import java.time.Instant;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
 import tools.jackson.databind.ObjectMapper;
 import uz.myrafeeq.api.configuration.RateLimitProperties;
 import uz.myrafeeq.api.dto.response.ErrorResponse;
 
+/**
+ * Per-client rate limit using GCRA, charged per request by route cost. Clients are keyed by user
+ * ID when authenticated and by client IP otherwise. Every response carries {@code
+ * X-RateLimit-Remaining}; rejected ones also carry {@code Retry-After} in whole seconds.
+ */
 @Slf4j
 @Component
 @Order(10)
 public class RateLimitFilter extends OncePerRequestFilter {
 
+  static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+
+  private static final int CAPACITY = 1 << 17;
+  private static final long PERIOD_NANOS = TimeUnit.MINUTES.toNanos(1);
+
   private final RateLimitProperties properties;
   private final ObjectMapper objectMapper;
-  private final Cache<String, AtomicInteger> requestCounts;
+  private final GcraRateLimiter limiter;
+  private final List<RouteCost> routeCosts;
 
   public RateLimitFilter(RateLimitProperties properties, ObjectMapper objectMapper) {
     this.properties = properties;
     this.objectMapper = objectMapper;
-    this.requestCounts =
-        Caffeine.newBuilder().expireAfterWrite(Duration.ofMinutes(1)).maximumSize(100_000).build();
+    this.limiter = new GcraRateLimiter(CAPACITY, System::nanoTime);
+    this.routeCosts = parseRouteCosts(properties.getRouteCosts());
+  }
+
+  GcraRateLimiter limiter() {
+    return limiter;
   }
 
   @Override
   protected boolean shouldNotFilter(HttpServletRequest request) {
-    return request.getServletPath().startsWith(AdminApiKeyFilter.ADMIN_PATH_PREFIX);
+    return RouteClassifier.classify(request) == RouteClassifier.Route.ADMIN;
   }
 
   @Override
@@ -53,15 +70,22 @@ public class RateLimitFilter extends OncePerRequestFilter {
       return;
     }
 
-    String key = resolveKey(request);
-    int limit = resolveLimit();
+    Long userId = authenticatedUserId();
+    String ip = userId == null ? clientIp(request) : null;
+    long key = userId != null ? userId << 1 : fnv1a(ip) | 1;
+    int limit =
+        userId != null ? properties.getAuthRequestsPerMinute() : properties.getRequestsPerMinute();
+
+    GcraRateLimiter.Decision decision =
+        limiter.acquire(key, limit, PERIOD_NANOS, resolveCost(request));
+    response.setHeader(REMAINING_HEADER, Long.toString(decision.remaining()));
 
-    AtomicInteger count = requestCounts.get(key, _ -> new AtomicInteger(0));
-    if (count.incrementAndGet() > limit) {
-      log.warn("Rate limit exceeded for key={}", key);
+    if (!decision.allowed()) {
+      log.warn("Rate limit exceeded for key={}", userId != null ? "user:" + userId : "ip:" + ip);
       response.setContentType(MediaType.APPLICATION_JSON_VALUE);
       response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
-      response.setHeader("Retry-After", "60");
+      long retryAfterSeconds = divideRoundingUp(decision.retryAfterNanos(), 1_000_000_000L);
+      response.setHeader("Retry-After", Long.toString(retryAfterSeconds));
       ErrorResponse errorResponse =
           ErrorResponse.of(
               "RATE_LIMIT_EXCEEDED",
@@ -75,21 +99,57 @@ public class RateLimitFilter extends OncePerRequestFilter {
     filterChain.doFilter(request, response);
   }
 
-  private String resolveKey(HttpServletRequest request) {
+  private int resolveCost(HttpServletRequest request) {
+    if (routeCosts.isEmpty()) {
+      return 1;
+    }
+    PathContainer path = PathContainer.parsePath(request.getServletPath());
+    for (RouteCost routeCost : routeCosts) {
+      if (routeCost.pattern().matches(path)) {
+        return routeCost.cost();
+      }
+    }
+    return 1;
+  }
+
+  private static List<RouteCost> parseRouteCosts(Map<String, Integer> routeCosts) {
+    if (routeCosts == null) {
+      return List.of();
+    }
+    return routeCosts.entrySet().stream()
+        .map(e -> new RouteCost(PathPatternParser.defaultInstance.parse(e.getKey()), e.getValue()))
+        .toList();
+  }
+
+  private static Long authenticatedUserId() {
     Authentication auth = SecurityContextHolder.getContext().getAuthentication();
     if (auth != null && auth.isAuthenticated() && auth.getPrincipal() instanceof Long userId) {
-      return "user:" + userId;
+      return userId;
     }
+    return null;
+  }
+
+  private static String clientIp(HttpServletRequest request) {
     String forwarded = request.getHeader("X-Forwarded-For");
-    String ip = forwarded != null ? forwarded.split(",")[0].trim() : request.getRemoteAddr();
-    return "ip:" + ip;
+    if (forwarded == null) {
+      return request.getRemoteAddr();
+    }
+    int comma = forwarded.indexOf(',');
+    return (comma < 0 ? forwarded : forwarded.substring(0, comma)).trim();
   }
 
-  private int resolveLimit() {
-    Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-    if (auth != null && auth.isAuthenticated() && auth.getPrincipal() instanceof Long) {
-      return properties.getAuthRequestsPerMinute();
+  private static long fnv1a(String value) {
+    long hash = 0xcbf29ce484222325L;
+    for (int i = 0; i < value.length(); i++) {
+      hash ^= value.charAt(i);
+      hash *= 0x100000001b3L;
     }
-    return properties.getRequestsPerMinute();
+    return hash;
+  }
+
+  private static long divideRoundingUp(long value, long divisor) {
+    return (value + divisor - 1) / divisor;
   }
+
+  private record RouteCost(PathPattern pattern, int cost) {}
 }
@@ -0,0 +1,55 @@
+package uz.myrafeeq.api.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.Arrays;
+import java.util.List;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import uz.myrafeeq.api.configuration.SecurityConfiguration;
+
+/**
+ * Classifies a request as public, user or admin once and stores the result as a request attribute,
+ * so every security filter reads the same answer instead of matching the path itself. Public
+ * patterns are parsed once at class initialization.
+ */
+public final class RouteClassifier {
+
+  static final String ADMIN_PATH_PREFIX = "/api/v1/admin/";
+  static final String ATTRIBUTE = RouteClassifier.class.getName() + ".ROUTE";
+
+  private static final List<PathPattern> PUBLIC_PATTERNS =
+      Arrays.stream(SecurityConfiguration.PUBLIC_PATHS)
+          .map(PathPatternParser.defaultInstance::parse)
+          .toList();
+
+  private RouteClassifier() {}
+
+  public static Route classify(HttpServletRequest request) {
+    if (request.getAttribute(ATTRIBUTE) instanceof Route route) {
+      return route;
+    }
+    Route route = classify(request.getServletPath());
+    request.setAttribute(ATTRIBUTE, route);
+    return route;
+  }
+
+  static Route classify(String path) {
+    if (path.startsWith(ADMIN_PATH_PREFIX)) {
+      return Route.ADMIN;
+    }
+    PathContainer container = PathContainer.parsePath(path);
+    for (PathPattern pattern : PUBLIC_PATTERNS) {
+      if (pattern.matches(container)) {
+        return Route.PUBLIC;
+      }
+    }
+    return Route.USER;
+  }
+
+  public enum Route {
+    PUBLIC,
+    USER,
+    ADMIN
+  }
+}
@@ -0,0 +1,93 @@
+package uz.myrafeeq.api.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Function;
+
+/**
+ * Tokens whose signature has already been verified, keyed by their SHA-256 digest so the bearer
+ * strings themselves are not retained. An entry lives until the token's {@code exp} and is checked
+ * against the clock again on every hit. Failed verifications are never cached.
+ */
+final class VerifiedTokenCache {
+
+  private static final String CACHE_NAME = "verifiedTokens";
+  private static final int MAX_ENTRIES = 50_000;
+
+  private final Cache<TokenDigest, VerifiedToken> cache;
+
+  VerifiedTokenCache(MeterRegistry meterRegistry) {
+    this.cache =
+        Caffeine.newBuilder()
+            .maximumSize(MAX_ENTRIES)
+            .expireAfter(new UntilTokenExpiry())
+            .recordStats()
+            .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+  }
+
+  Long get(String token, Function<String, VerifiedToken> verifier) {
+    TokenDigest key = TokenDigest.of(token);
+    VerifiedToken cached = cache.getIfPresent(key);
+    if (cached != null && cached.isValid(Instant.now())) {
+      return cached.telegramId();
+    }
+
+    VerifiedToken verified = verifier.apply(token);
+    if (verified.expiresAt() != null) {
+      cache.put(key, verified);
+    }
+    return verified.telegramId();
+  }
+
+  record VerifiedToken(Long telegramId, Instant expiresAt) {
+
+    boolean isValid(Instant now) {
+      return now.isBefore(expiresAt);
+    }
+  }
+
+  private record TokenDigest(long first, long second, long third, long fourth) {
+
+    static TokenDigest of(String token) {
+      try {
+        ByteBuffer hash =
+            ByteBuffer.wrap(
+                MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.UTF_8)));
+        return new TokenDigest(hash.getLong(), hash.getLong(), hash.getLong(), hash.getLong());
+      } catch (NoSuchAlgorithmException e) {
+        throw new IllegalStateException("SHA-256 is not available", e);
+      }
+    }
+  }
+
+  private static final class UntilTokenExpiry implements Expiry<TokenDigest, VerifiedToken> {
+
+    @Override
+    public long expireAfterCreate(TokenDigest key, VerifiedToken value, long currentTime) {
+      return Math.max(0, Duration.between(Instant.now(), value.expiresAt()).toNanos());
+    }
+
+    @Override
+    public long expireAfterUpdate(
+        TokenDigest key, VerifiedToken value, long currentTime, long currentDuration) {
+      return expireAfterCreate(key, value, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(
+        TokenDigest key, VerifiedToken value, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+  }
+}
@@ -26,6 +26,8 @@ import uz.myrafeeq.api.mapper.AdminCityMapper;
 import uz.myrafeeq.api.repository.CityRepository;
 import uz.myrafeeq.api.repository.CountryRepository;
 import uz.myrafeeq.api.repository.UserPreferencesRepository;
+import uz.myrafeeq.api.service.city.CitySpatialIndex;
+import uz.myrafeeq.api.service.city.ReferenceData;
 
 @Slf4j
 @Service
@@ -36,6 +38,8 @@ public class AdminCityService {
   private final CountryRepository countryRepository;
   private final UserPreferencesRepository userPreferencesRepository;
   private final AdminCityMapper adminCityMapper;
+  private final CitySpatialIndex citySpatialIndex;
+  private final ReferenceData referenceData;
 
   @Transactional(readOnly = true)
   public Page<AdminCityResponse> listCities(String countryCode, int page, int size) {
@@ -78,6 +82,8 @@ public class AdminCityService {
             .build();
 
     cityRepository.save(entity);
+    citySpatialIndex.upsert(entity.getId(), entity.getLatitude(), entity.getLongitude());
+    referenceData.refresh();
     log.info("Created city: {}", entity.getId());
     return adminCityMapper.toAdminCityResponse(entity);
   }
@@ -119,6 +125,9 @@ public class AdminCityService {
             .toList();
 
     List<CityEntity> saved = cityRepository.saveAll(entities);
+    entities.forEach(
+        city -> citySpatialIndex.upsert(city.getId(), city.getLatitude(), city.getLongitude()));
+    referenceData.refresh();
     log.info("Bulk created {} cities", saved.size());
 
     List<AdminCityResponse> responses =
@@ -141,6 +150,8 @@ public class AdminCityService {
     entity.setTimezone(request.getTimezone());
 
     cityRepository.save(entity);
+    citySpatialIndex.upsert(id, entity.getLatitude(), entity.getLongitude());
+    referenceData.refresh();
     log.info("Updated city: {}", id);
     return adminCityMapper.toAdminCityResponse(entity);
   }
@@ -160,6 +171,8 @@ public class AdminCityService {
     }
 
     cityRepository.delete(entity);
+    citySpatialIndex.remove(id);
+    referenceData.refresh();
     log.info("Deleted city: {}", id);
   }
 
@@ -16,6 +16,7 @@ import uz.myrafeeq.api.exception.RequestValidationException;
 import uz.myrafeeq.api.mapper.CountryMapper;
 import uz.myrafeeq.api.repository.CityRepository;
 import uz.myrafeeq.api.repository.CountryRepository;
+import uz.myrafeeq.api.service.city.ReferenceData;
 
 @Slf4j
 @Service
@@ -25,6 +26,7 @@ public class AdminCountryService {
   private final CountryRepository countryRepository;
   private final CityRepository cityRepository;
   private final CountryMapper countryMapper;
+  private final ReferenceData referenceData;
 
   @Transactional(readOnly = true)
   public List<CountryResponse> listCountries() {
@@ -57,6 +59,7 @@ public class AdminCountryService {
             .build();
 
     countryRepository.save(entity);
+    referenceData.refresh();
     log.info("Created country: {}", entity.getCode());
     return countryMapper.toCountryResponse(entity);
   }
@@ -74,6 +77,7 @@ public class AdminCountryService {
     entity.setDefaultMadhab(request.getDefaultMadhab());
 
     countryRepository.save(entity);
+    referenceData.refresh();
     log.info("Updated country: {}", code);
     return countryMapper.toCountryResponse(entity);
   }
@@ -93,6 +97,7 @@ public class AdminCountryService {
     }
 
     countryRepository.delete(entity);
+    referenceData.refresh();
     log.info("Deleted country: {}", code);
   }
 
@@ -1,15 +1,8 @@
 package uz.myrafeeq.api.service.auth;
 
-import java.net.URLDecoder;
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
 import java.time.Instant;
-import java.util.Arrays;
 import java.util.Map;
 import java.util.Objects;
-import java.util.stream.Collectors;
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.env.Environment;
@@ -35,8 +28,6 @@ import uz.myrafeeq.api.security.JwtTokenProvider;
 @RequiredArgsConstructor
 public class TelegramAuthService {
 
-  private static final String HMAC_SHA256 = "HmacSHA256";
-
   private final UserRepository userRepository;
   private final UserPreferencesRepository preferencesRepository;
   private final JwtTokenProvider jwtTokenProvider;
@@ -44,6 +35,7 @@ public class TelegramAuthService {
   private final ObjectMapper objectMapper;
   private final TelegramProperties telegramProperties;
   private final Environment environment;
+  private final TelegramInitDataVerifier initDataVerifier;
 
   @Transactional
   public AuthResponse authenticate(TelegramAuthRequest request) {
@@ -80,21 +72,15 @@ public class TelegramAuthService {
     return "dev".equals(params.get("hash")) && environment.acceptsProfiles(Profiles.of("dev"));
   }
 
-  private Map<String, String> parseInitData(String initData) {
+  Map<String, String> parseInitData(String initData) {
     try {
-      return Arrays.stream(initData.split("&"))
-          .map(pair -> pair.split("=", 2))
-          .filter(parts -> parts.length == 2)
-          .collect(
-              Collectors.toMap(
-                  parts -> URLDecoder.decode(parts[0], StandardCharsets.UTF_8),
-                  parts -> URLDecoder.decode(parts[1], StandardCharsets.UTF_8)));
+      return initDataVerifier.parse(initData);
     } catch (Exception _) {
       throw new InvalidAuthException("Failed to parse init data");
     }
   }
 
-  private void verifyHmac(Map<String, String> params) {
+  void verifyHmac(Map<String, String> params) {
     String receivedHash = params.get("hash");
     if (receivedHash == null || receivedHash.isBlank()) {
       log.warn("Missing hash in init data. Available keys: {}", params.keySet());
@@ -106,41 +92,12 @@ public class TelegramAuthService {
       return;
     }
 
-    String dataCheckString =
-        params.entrySet().stream()
-            .filter(e -> !"hash".equals(e.getKey()))
-            .sorted(Map.Entry.comparingByKey())
-            .map(e -> e.getKey() + "=" + e.getValue())
-            .collect(Collectors.joining("\n"));
-
-    try {
-      String botToken = telegramProperties.getBotToken();
-      log.debug(
-          "HMAC debug: botToken length={}, first4={}, last4={}",
-          botToken.length(),
-          botToken.substring(0, Math.min(4, botToken.length())),
-          botToken.substring(Math.max(0, botToken.length() - 4)));
-      log.debug("HMAC debug: dataCheckString='{}'", dataCheckString);
-
-      byte[] secretKey = hmacSha256("WebAppData".getBytes(StandardCharsets.UTF_8), botToken);
-      byte[] hash = hmacSha256(secretKey, dataCheckString);
-      String computedHash = bytesToHex(hash);
-
-      if (!MessageDigest.isEqual(
-          computedHash.getBytes(StandardCharsets.UTF_8),
-          receivedHash.getBytes(StandardCharsets.UTF_8))) {
-        log.warn(
-            "HMAC mismatch: computed={}, received={}, dataCheckString keys={}",
-            computedHash.substring(0, 8) + "...",
-            receivedHash.substring(0, Math.min(8, receivedHash.length())) + "...",
-            params.keySet().stream().filter(k -> !"hash".equals(k)).sorted().toList());
-        throw new InvalidAuthException("Invalid HMAC signature");
-      }
-    } catch (InvalidAuthException e) {
-      throw e;
-    } catch (Exception e) {
-      log.error("Failed to verify HMAC signature", e);
-      throw new InvalidAuthException("Failed to verify HMAC signature");
+    if (!initDataVerifier.verify(params, receivedHash)) {
+      log.warn(
+          "HMAC mismatch: received={}, dataCheckString keys={}",
+          receivedHash.substring(0, Math.min(8, receivedHash.length())) + "...",
+          params.keySet().stream().filter(k -> !"hash".equals(k)).sorted().toList());
+      throw new InvalidAuthException("Invalid HMAC signature");
     }
   }
 
@@ -171,24 +128,6 @@ public class TelegramAuthService {
     }
   }
 
-  private byte[] hmacSha256(byte[] key, String data) {
-    try {
-      Mac mac = Mac.getInstance(HMAC_SHA256);
-      mac.init(new SecretKeySpec(key, HMAC_SHA256));
-      return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
-    } catch (Exception e) {
-      throw new InvalidAuthException("HMAC computation failed");
-    }
-  }
-
-  private String bytesToHex(byte[] bytes) {
-    StringBuilder sb = new StringBuilder(bytes.length * 2);
-    for (byte b : bytes) {
-      sb.append(String.format("%02x", b));
-    }
-    return sb.toString();
-  }
-
   private JsonNode parseUserJson(String userJson) {
     if (userJson == null || userJson.isBlank()) {
       throw new InvalidAuthException("Missing user data in init data");
@@ -0,0 +1,135 @@
+package uz.myrafeeq.api.service.auth;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.springframework.stereotype.Component;
+import uz.myrafeeq.api.configuration.TelegramProperties;
+
+/**
+ * Parses Telegram Mini App {@code initData} and checks its signature.
+ *
+ * <p>The secret key {@code HMAC_SHA256("WebAppData", botToken)} is derived once, and a {@link Mac}
+ * keyed with it is kept as a prototype. Each verification clones the prototype, which skips the
+ * provider lookup and key setup. Request threads are virtual, so a per-thread cache would not be
+ * reused.
+ */
+@Component
+public class TelegramInitDataVerifier {
+
+  private static final String HASH = "hash";
+  private static final String HMAC_SHA256 = "HmacSHA256";
+  private static final int HASH_LENGTH = 32;
+
+  private final SecretKeySpec secretKey;
+  private final Mac prototype;
+
+  public TelegramInitDataVerifier(TelegramProperties telegramProperties) {
+    byte[] derived =
+        newMac(new SecretKeySpec("WebAppData".getBytes(StandardCharsets.UTF_8), HMAC_SHA256))
+            .doFinal(telegramProperties.getBotToken().getBytes(StandardCharsets.UTF_8));
+    this.secretKey = new SecretKeySpec(derived, HMAC_SHA256);
+    this.prototype = newMac(secretKey);
+  }
+
+  /**
+   * Splits {@code initData} into decoded key/value pairs in one pass. Pairs without {@code =} are
+   * ignored; only pairs containing {@code %} or {@code +} are URL-decoded.
+   *
+   * @throws IllegalArgumentException if a key repeats or an escape is malformed
+   */
+  Map<String, String> parse(String initData) {
+    Map<String, String> params = HashMap.newHashMap(8);
+    int length = initData.length();
+    int start = 0;
+    while (start < length) {
+      int end = initData.indexOf('&', start);
+      if (end < 0) {
+        end = length;
+      }
+      int separator = initData.indexOf('=', start);
+      if (separator >= 0 && separator < end) {
+        String key = decode(initData, start, separator);
+        String value = decode(initData, separator + 1, end);
+        if (params.putIfAbsent(key, value) != null) {
+          throw new IllegalArgumentException("Duplicate init data key: " + key);
+        }
+      }
+      start = end + 1;
+    }
+    return params;
+  }
+
+  /**
+   * Returns whether {@code receivedHash} is the signature of the data-check string built from
+   * {@code params}. The received hex is decoded and compared as raw bytes in constant time.
+   */
+  boolean verify(Map<String, String> params, String receivedHash) {
+    byte[] expected = parseHash(receivedHash);
+    if (expected == null) {
+      return false;
+    }
+
+    String[] keys = params.keySet().toArray(String[]::new);
+    Arrays.sort(keys);
+    StringBuilder dataCheck = new StringBuilder(256);
+    for (String key : keys) {
+      if (HASH.equals(key)) {
+        continue;
+      }
+      if (!dataCheck.isEmpty()) {
+        dataCheck.append('\n');
+      }
+      dataCheck.append(key).append('=').append(params.get(key));
+    }
+
+    byte[] computed = mac().doFinal(dataCheck.toString().getBytes(StandardCharsets.UTF_8));
+    return MessageDigest.isEqual(computed, expected);
+  }
+
+  private Mac mac() {
+    try {
+      return (Mac) prototype.clone();
+    } catch (CloneNotSupportedException _) {
+      return newMac(secretKey);
+    }
+  }
+
+  private static byte[] parseHash(String hash) {
+    if (hash == null || hash.length() != HASH_LENGTH * 2) {
+      return null;
+    }
+    try {
+      return HexFormat.of().parseHex(hash);
+    } catch (IllegalArgumentException _) {
+      return null;
+    }
+  }
+
+  private static String decode(String initData, int from, int to) {
+    for (int i = from; i < to; i++) {
+      char c = initData.charAt(i);
+      if (c == '%' || c == '+') {
+        return URLDecoder.decode(initData.substring(from, to), StandardCharsets.UTF_8);
+      }
+    }
+    return initData.substring(from, to);
+  }
+
+  private static Mac newMac(SecretKeySpec key) {
+    try {
+      Mac mac = Mac.getInstance(HMAC_SHA256);
+      mac.init(key);
+      return mac;
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("HmacSHA256 is not available", e);
+    }
+  }
+}
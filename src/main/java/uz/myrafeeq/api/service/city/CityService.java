@@ -7,7 +7,6 @@ import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import uz.myrafeeq.api.configuration.NominatimProperties;
@@ -28,14 +27,14 @@ import uz.myrafeeq.api.service.city.NominatimClient.NominatimPlace;
 @RequiredArgsConstructor
 public class CityService {
 
-  private static final double EARTH_RADIUS_KM = 6371.0;
-
   private final CityRepository cityRepository;
   private final CityMapper cityMapper;
   private final NominatimClient nominatimClient;
   private final TimeZoneResolver timeZoneResolver;
   private final CountryRepository countryRepository;
   private final NominatimProperties nominatimProperties;
+  private final CitySpatialIndex citySpatialIndex;
+  private final ReferenceData referenceData;
 
   @Transactional(readOnly = true)
   @Cacheable(
@@ -43,7 +42,7 @@ public class CityService {
       key = "#query.toLowerCase() + '-' + #limit",
       unless = "#result.cities.isEmpty()")
   public CitySearchResponse searchCities(String query, int limit) {
-    List<CityEntity> dbCities = cityRepository.searchByName(query, Pageable.ofSize(limit));
+    List<CityEntity> dbCities = referenceData.searchCities(query, limit);
 
     if (!dbCities.isEmpty()) {
       List<CityResponse> responses = dbCities.stream().map(cityMapper::toCityResponse).toList();
@@ -60,10 +59,11 @@ public class CityService {
       double placeLat = Double.parseDouble(place.lat());
       double placeLon = Double.parseDouble(place.lon());
 
-      CityEntity nearest = cityRepository.findNearestCity(placeLat, placeLon);
+      CityEntity nearest = findNearestEntity(placeLat, placeLon);
       if (nearest != null) {
         double distance =
-            haversineDistance(placeLat, placeLon, nearest.getLatitude(), nearest.getLongitude());
+            GeoDistance.haversineKm(
+                placeLat, placeLon, nearest.getLatitude(), nearest.getLongitude());
         if (distance < nominatimProperties.getMaxDistanceKm()) {
           deduped.putIfAbsent(nearest.getId(), cityMapper.toCityResponse(nearest));
           continue;
@@ -80,11 +80,11 @@ public class CityService {
 
   @Transactional
   public NearestCityResponse findNearestCity(double lat, double lon) {
-    CityEntity existing = cityRepository.findNearestCity(lat, lon);
+    CityEntity existing = findNearestEntity(lat, lon);
 
     if (existing != null) {
       double distance =
-          haversineDistance(lat, lon, existing.getLatitude(), existing.getLongitude());
+          GeoDistance.haversineKm(lat, lon, existing.getLatitude(), existing.getLongitude());
       if (distance < nominatimProperties.getMaxDistanceKm()) {
         return NearestCityResponse.builder()
             .city(cityMapper.toCityResponse(existing))
@@ -98,7 +98,7 @@ public class CityService {
       CityEntity created = createCityFromNominatim(reversed.get());
       if (created != null) {
         double distance =
-            haversineDistance(lat, lon, created.getLatitude(), created.getLongitude());
+            GeoDistance.haversineKm(lat, lon, created.getLatitude(), created.getLongitude());
         return NearestCityResponse.builder()
             .city(cityMapper.toCityResponse(created))
             .distanceKm(Math.round(distance * 100.0) / 100.0)
@@ -108,7 +108,7 @@ public class CityService {
 
     if (existing != null) {
       double distance =
-          haversineDistance(lat, lon, existing.getLatitude(), existing.getLongitude());
+          GeoDistance.haversineKm(lat, lon, existing.getLatitude(), existing.getLongitude());
       return NearestCityResponse.builder()
           .city(cityMapper.toCityResponse(existing))
           .distanceKm(Math.round(distance * 100.0) / 100.0)
@@ -120,7 +120,7 @@ public class CityService {
 
   @Transactional
   public CityEntity getOrCreateCity(String cityId) {
-    Optional<CityEntity> existing = cityRepository.findById(cityId);
+    Optional<CityEntity> existing = referenceData.findCity(cityId);
     if (existing.isPresent()) {
       return existing.get();
     }
@@ -136,6 +136,19 @@ public class CityService {
     throw new CityNotFoundException("City not found: " + cityId);
   }
 
+  private CityEntity findNearestEntity(double lat, double lon) {
+    if (citySpatialIndex.isReady()) {
+      Optional<CityEntity> indexed =
+          citySpatialIndex
+              .nearest(lat, lon)
+              .flatMap(neighbor -> referenceData.findCity(neighbor.cityId()));
+      if (indexed.isPresent()) {
+        return indexed.get();
+      }
+    }
+    return cityRepository.findNearestCity(lat, lon);
+  }
+
   private CityResponse buildCityResponseFromNominatim(NominatimPlace place) {
     NominatimAddress address = place.address();
     String cityName = resolveCityName(address, place.name());
@@ -152,7 +165,7 @@ public class CityService {
     String defaultMethod = nominatimProperties.getDefaultMethod().name();
     String defaultMadhab = nominatimProperties.getDefaultMadhab().name();
 
-    Optional<CountryEntity> country = countryRepository.findById(countryCode);
+    Optional<CountryEntity> country = referenceData.findCountry(countryCode);
     if (country.isPresent()) {
       defaultMethod = country.get().getDefaultMethod().name();
       defaultMadhab = country.get().getDefaultMadhab().name();
@@ -176,7 +189,7 @@ public class CityService {
       String cityName = resolveCityName(address, place.name());
       String id = generateOsmId(place.osmType(), place.osmId());
 
-      Optional<CityEntity> existingCity = cityRepository.findById(id);
+      Optional<CityEntity> existingCity = referenceData.findCity(id);
       if (existingCity.isPresent()) {
         return existingCity.get();
       }
@@ -216,7 +229,10 @@ public class CityService {
               .timezone(timezone)
               .build();
 
-      return cityRepository.save(city);
+      CityEntity saved = cityRepository.save(city);
+      citySpatialIndex.upsert(id, lat, lon);
+      referenceData.add(saved);
+      return saved;
     } catch (Exception e) {
       log.warn("Failed to create city from Nominatim place {}: {}", place.name(), e.getMessage());
       return null;
@@ -245,17 +261,4 @@ public class CityService {
         };
     return prefix + osmId;
   }
-
-  private double haversineDistance(double lat1, double lon1, double lat2, double lon2) {
-    double dLat = Math.toRadians(lat2 - lat1);
-    double dLon = Math.toRadians(lon2 - lon1);
-    double a =
-        Math.sin(dLat / 2) * Math.sin(dLat / 2)
-            + Math.cos(Math.toRadians(lat1))
-                * Math.cos(Math.toRadians(lat2))
-                * Math.sin(dLon / 2)
-                * Math.sin(dLon / 2);
-    double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-    return EARTH_RADIUS_KM * c;
-  }
 }
@@ -0,0 +1,311 @@
+package uz.myrafeeq.api.service.city;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import uz.myrafeeq.api.repository.CityRepository;
+import uz.myrafeeq.api.repository.projection.CityLocationProjection;
+import uz.myrafeeq.api.service.TransactionCallbacks;
+
+/**
+ * In-memory nearest-neighbour index over city coordinates.
+ *
+ * <p>Cities are stored as unit vectors in a static KD-tree, so great-circle ordering reduces to
+ * Euclidean chord distance. Inserts, updates and deletes go to a small delta list and a tombstone
+ * set on top of the tree; the tree is rebuilt once they grow past {@link #COMPACTION_THRESHOLD}.
+ * Readers work on an immutable snapshot and never block. Until the initial load finishes, queries
+ * report {@link #isReady()} {@code false} and callers fall back to the database.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CitySpatialIndex {
+
+  static final int COMPACTION_THRESHOLD = 256;
+
+  private final CityRepository cityRepository;
+
+  private volatile Snapshot snapshot;
+
+  @EventListener(ApplicationReadyEvent.class)
+  public synchronized void load() {
+    long started = System.nanoTime();
+    List<CityLocationProjection> locations = cityRepository.findAllLocations();
+
+    List<Point> points = new ArrayList<>(locations.size());
+    for (CityLocationProjection location : locations) {
+      if (location.getLatitude() != null && location.getLongitude() != null) {
+        points.add(Point.of(location.getId(), location.getLatitude(), location.getLongitude()));
+      }
+    }
+    snapshot = new Snapshot(KdTree.build(points), Map.of(), Set.of());
+    log.info(
+        "City spatial index loaded: {} cities in {}ms",
+        points.size(),
+        (System.nanoTime() - started) / 1_000_000);
+  }
+
+  public boolean isReady() {
+    return snapshot != null;
+  }
+
+  public Optional<Neighbor> nearest(double lat, double lon) {
+    List<Neighbor> result = nearest(lat, lon, 1);
+    return result.isEmpty() ? Optional.empty() : Optional.of(result.getFirst());
+  }
+
+  /** Returns up to {@code k} cities ordered by distance, or an empty list if not loaded yet. */
+  public List<Neighbor> nearest(double lat, double lon, int k) {
+    Snapshot current = snapshot;
+    if (current == null || k <= 0) {
+      return List.of();
+    }
+
+    Point query = Point.of(null, lat, lon);
+    Candidates candidates = new Candidates(k);
+    current.tree().search(query, current.tombstones(), candidates);
+    for (Point point : current.delta().values()) {
+      candidates.offer(point, point.chordSquared(query));
+    }
+    return candidates.toNeighbors();
+  }
+
+  /** Adds or moves a city; applied after the surrounding transaction commits. */
+  public void upsert(String id, double lat, double lon) {
+    TransactionCallbacks.afterCommit(() -> applyUpsert(Point.of(id, lat, lon)));
+  }
+
+  /** Removes a city; applied after the surrounding transaction commits. */
+  public void remove(String id) {
+    TransactionCallbacks.afterCommit(() -> applyRemove(id));
+  }
+
+  int size() {
+    Snapshot current = snapshot;
+    return current == null
+        ? 0
+        : current.tree().liveCount(current.tombstones()) + current.delta().size();
+  }
+
+  private synchronized void applyUpsert(Point point) {
+    Snapshot current = snapshot;
+    if (current == null) {
+      return;
+    }
+    Map<String, Point> delta = new HashMap<>(current.delta());
+    delta.put(point.id(), point);
+    Set<String> tombstones = new HashSet<>(current.tombstones());
+    tombstones.add(point.id());
+    publish(current.tree(), delta, tombstones);
+  }
+
+  private synchronized void applyRemove(String id) {
+    Snapshot current = snapshot;
+    if (current == null) {
+      return;
+    }
+    Map<String, Point> delta = new HashMap<>(current.delta());
+    delta.remove(id);
+    Set<String> tombstones = new HashSet<>(current.tombstones());
+    tombstones.add(id);
+    publish(current.tree(), delta, tombstones);
+  }
+
+  private void publish(KdTree tree, Map<String, Point> delta, Set<String> tombstones) {
+    if (delta.size() + tombstones.size() <= COMPACTION_THRESHOLD) {
+      snapshot = new Snapshot(tree, Map.copyOf(delta), Set.copyOf(tombstones));
+      return;
+    }
+
+    List<Point> points = tree.livePoints(tombstones);
+    points.addAll(delta.values());
+    snapshot = new Snapshot(KdTree.build(points), Map.of(), Set.of());
+    log.debug("City spatial index compacted: {} cities", points.size());
+  }
+
+  public record Neighbor(String cityId, double distanceKm) {}
+
+  private record Snapshot(KdTree tree, Map<String, Point> delta, Set<String> tombstones) {}
+
+  private record Point(String id, double x, double y, double z) {
+
+    static Point of(String id, double lat, double lon) {
+      double phi = Math.toRadians(lat);
+      double lambda = Math.toRadians(lon);
+      double cosPhi = Math.cos(phi);
+      return new Point(id, cosPhi * Math.cos(lambda), cosPhi * Math.sin(lambda), Math.sin(phi));
+    }
+
+    double coordinate(int axis) {
+      return switch (axis) {
+        case 0 -> x;
+        case 1 -> y;
+        default -> z;
+      };
+    }
+
+    double chordSquared(Point other) {
+      double dx = x - other.x;
+      double dy = y - other.y;
+      double dz = z - other.z;
+      return dx * dx + dy * dy + dz * dz;
+    }
+  }
+
+  /** Bounded best-k list ordered by distance; k is small, so insertion sort beats a heap. */
+  private static final class Candidates {
+
+    private final Point[] points;
+    private final double[] distances;
+    private int size;
+
+    Candidates(int k) {
+      this.points = new Point[k];
+      this.distances = new double[k];
+    }
+
+    double worst() {
+      return size < points.length ? Double.POSITIVE_INFINITY : distances[size - 1];
+    }
+
+    void offer(Point point, double distance) {
+      if (distance >= worst()) {
+        return;
+      }
+      int i = size < points.length ? size++ : size - 1;
+      while (i > 0 && distances[i - 1] > distance) {
+        points[i] = points[i - 1];
+        distances[i] = distances[i - 1];
+        i--;
+      }
+      points[i] = point;
+      distances[i] = distance;
+    }
+
+    List<Neighbor> toNeighbors() {
+      List<Neighbor> neighbors = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        neighbors.add(new Neighbor(points[i].id(), GeoDistance.chordSquaredToKm(distances[i])));
+      }
+      return neighbors;
+    }
+  }
+
+  /**
+   * Implicit balanced KD-tree: the node of range {@code [lo, hi)} is its midpoint, split on axis
+   * {@code depth % 3}, with the left and right halves as children.
+   */
+  private static final class KdTree {
+
+    private final Point[] nodes;
+
+    private KdTree(Point[] nodes) {
+      this.nodes = nodes;
+    }
+
+    static KdTree build(List<Point> points) {
+      Point[] nodes = points.toArray(Point[]::new);
+      partition(nodes, 0, nodes.length, 0);
+      return new KdTree(nodes);
+    }
+
+    private static void partition(Point[] nodes, int lo, int hi, int depth) {
+      if (hi - lo <= 1) {
+        return;
+      }
+      int mid = (lo + hi) >>> 1;
+      int axis = depth % 3;
+      select(nodes, lo, hi - 1, mid, axis);
+      partition(nodes, lo, mid, depth + 1);
+      partition(nodes, mid + 1, hi, depth + 1);
+    }
+
+    /** Quickselect: places the k-th smallest element on {@code axis} at index k. */
+    private static void select(Point[] nodes, int left, int right, int k, int axis) {
+      while (left < right) {
+        double pivot = nodes[(left + right) >>> 1].coordinate(axis);
+        int i = left;
+        int j = right;
+        while (i <= j) {
+          while (nodes[i].coordinate(axis) < pivot) i++;
+          while (nodes[j].coordinate(axis) > pivot) j--;
+          if (i <= j) {
+            Point tmp = nodes[i];
+            nodes[i] = nodes[j];
+            nodes[j] = tmp;
+            i++;
+            j--;
+          }
+        }
+        if (k <= j) {
+          right = j;
+        } else if (k >= i) {
+          left = i;
+        } else {
+          return;
+        }
+      }
+    }
+
+    void search(Point query, Set<String> tombstones, Candidates candidates) {
+      search(query, tombstones, candidates, 0, nodes.length, 0);
+    }
+
+    private void search(
+        Point query, Set<String> tombstones, Candidates candidates, int lo, int hi, int depth) {
+      if (lo >= hi) {
+        return;
+      }
+      int mid = (lo + hi) >>> 1;
+      Point node = nodes[mid];
+      if (!tombstones.contains(node.id())) {
+        candidates.offer(node, node.chordSquared(query));
+      }
+
+      int axis = depth % 3;
+      double diff = query.coordinate(axis) - node.coordinate(axis);
+      boolean leftFirst = diff < 0;
+      if (leftFirst) {
+        search(query, tombstones, candidates, lo, mid, depth + 1);
+      } else {
+        search(query, tombstones, candidates, mid + 1, hi, depth + 1);
+      }
+      if (diff * diff < candidates.worst()) {
+        if (leftFirst) {
+          search(query, tombstones, candidates, mid + 1, hi, depth + 1);
+        } else {
+          search(query, tombstones, candidates, lo, mid, depth + 1);
+        }
+      }
+    }
+
+    List<Point> livePoints(Set<String> tombstones) {
+      List<Point> live = new ArrayList<>(nodes.length);
+      for (Point node : nodes) {
+        if (!tombstones.contains(node.id())) {
+          live.add(node);
+        }
+      }
+      return live;
+    }
+
+    int liveCount(Set<String> tombstones) {
+      int count = 0;
+      for (Point node : nodes) {
+        if (!tombstones.contains(node.id())) {
+          count++;
+        }
+      }
+      return count;
+    }
+  }
+}
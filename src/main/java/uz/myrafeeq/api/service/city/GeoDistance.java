@@ -0,0 +1,26 @@
+package uz.myrafeeq.api.service.city;
+
+final class GeoDistance {
+
+  static final double EARTH_RADIUS_KM = 6371.0;
+
+  private GeoDistance() {}
+
+  static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+    double dLat = Math.toRadians(lat2 - lat1);
+    double dLon = Math.toRadians(lon2 - lon1);
+    double a =
+        Math.sin(dLat / 2) * Math.sin(dLat / 2)
+            + Math.cos(Math.toRadians(lat1))
+                * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2)
+                * Math.sin(dLon / 2);
+    double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    return EARTH_RADIUS_KM * c;
+  }
+
+  /** Converts a squared chord length between two points on the unit sphere to kilometers. */
+  static double chordSquaredToKm(double chordSquared) {
+    return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(chordSquared) / 2));
+  }
+}
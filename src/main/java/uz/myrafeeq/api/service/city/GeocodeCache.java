@@ -0,0 +1,255 @@
+package uz.myrafeeq.api.service.city;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+import uz.myrafeeq.api.configuration.GeocodeCacheProperties;
+import uz.myrafeeq.api.enums.GeocodeKind;
+import uz.myrafeeq.api.repository.GeocodeCacheHits;
+import uz.myrafeeq.api.repository.GeocodeCacheRepository;
+import uz.myrafeeq.api.repository.GeocodeCacheWrite;
+import uz.myrafeeq.api.repository.projection.GeocodeCacheProjection;
+import uz.myrafeeq.api.service.city.NominatimClient.NominatimPlace;
+
+/**
+ * Postgres-backed second tier behind the Caffeine Nominatim caches, so geocoding results survive
+ * restarts and are shared between instances.
+ *
+ * <p>The table is read only after an in-memory miss. Writes and hit counts are buffered and flushed
+ * as two JDBC batches in one transaction by a scheduled task, so a request never waits on an
+ * insert. If a batch fails, its rows are written one at a time and the rows that still fail are
+ * dropped, so one bad row cannot block later flushes. Empty upstream answers are stored as
+ * negative entries with a shorter TTL; upstream failures are never stored. On startup the
+ * most-read positive entries are copied into the in-memory caches.
+ */
+@Slf4j
+@Component
+public class GeocodeCache {
+
+  static final TypeReference<List<NominatimPlace>> PLACE_LIST = new TypeReference<>() {};
+  static final TypeReference<NominatimPlace> PLACE = new TypeReference<>() {};
+
+  /** Length of the {@code cache_key} column; longer keys are not stored. */
+  static final int MAX_KEY_LENGTH = 255;
+
+  private final GeocodeCacheRepository repository;
+  private final ObjectMapper objectMapper;
+  private final CacheManager cacheManager;
+  private final TransactionTemplate transactionTemplate;
+  private final GeocodeCacheProperties properties;
+  private final Counter hitCounter;
+  private final Counter negativeHitCounter;
+  private final Counter missCounter;
+
+  private final Map<Key, PendingWrite> pendingWrites = new ConcurrentHashMap<>();
+  private final Map<Key, Long> pendingHits = new ConcurrentHashMap<>();
+
+  public GeocodeCache(
+      GeocodeCacheRepository repository,
+      ObjectMapper objectMapper,
+      CacheManager cacheManager,
+      PlatformTransactionManager transactionManager,
+      GeocodeCacheProperties properties,
+      MeterRegistry meterRegistry) {
+    this.repository = repository;
+    this.objectMapper = objectMapper;
+    this.cacheManager = cacheManager;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.properties = properties;
+    this.hitCounter = lookupCounter(meterRegistry, "hit");
+    this.negativeHitCounter = lookupCounter(meterRegistry, "negative");
+    this.missCounter = lookupCounter(meterRegistry, "miss");
+  }
+
+  /**
+   * Returns the stored entry for a key, or empty if there is none or it has expired. A present
+   * entry with a {@code null} value is a negative entry: upstream was asked and found nothing.
+   */
+  <T> Optional<Entry<T>> find(GeocodeKind kind, String cacheKey, TypeReference<T> type) {
+    try {
+      Optional<GeocodeCacheProjection> row = repository.findFresh(kind.name(), cacheKey);
+      if (row.isEmpty()) {
+        missCounter.increment();
+        return Optional.empty();
+      }
+      pendingHits.merge(new Key(kind, cacheKey), 1L, Long::sum);
+      String payload = row.get().getPayload();
+      if (payload == null) {
+        negativeHitCounter.increment();
+        return Optional.of(new Entry<>(null));
+      }
+      hitCounter.increment();
+      return Optional.of(new Entry<>(objectMapper.readValue(payload, type)));
+    } catch (Exception e) {
+      log.warn("Geocode cache read failed for {} '{}': {}", kind, cacheKey, e.getMessage());
+      return Optional.empty();
+    }
+  }
+
+  /** Queues a successful upstream answer for storage; {@code null} stores a negative entry. */
+  void put(GeocodeKind kind, String cacheKey, Object value) {
+    if (cacheKey.length() > MAX_KEY_LENGTH) {
+      log.debug("Not storing geocode entry {} with a {}-char key", kind, cacheKey.length());
+      return;
+    }
+    try {
+      Instant now = Instant.now();
+      PendingWrite write =
+          value == null
+              ? new PendingWrite(null, now.plus(properties.getNegativeTtl()))
+              : new PendingWrite(
+                  objectMapper.writeValueAsString(value), now.plus(properties.getTtl()));
+      pendingWrites.put(new Key(kind, cacheKey), write);
+    } catch (Exception e) {
+      log.warn("Failed to serialize geocode entry {} '{}': {}", kind, cacheKey, e.getMessage());
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${myrafeeq.geocode-cache.flush-interval}")
+  public void flush() {
+    Map<Key, PendingWrite> writes = drain(pendingWrites);
+    Map<Key, Long> hits = drain(pendingHits);
+    if (writes.isEmpty() && hits.isEmpty()) {
+      return;
+    }
+
+    List<GeocodeCacheWrite> writeBatch = new ArrayList<>(writes.size());
+    writes.forEach(
+        (key, write) ->
+            writeBatch.add(
+                new GeocodeCacheWrite(
+                    key.kind().name(), key.cacheKey(), write.payload(), write.expiresAt())));
+    List<GeocodeCacheHits> hitBatch = new ArrayList<>(hits.size());
+    hits.forEach(
+        (key, count) ->
+            hitBatch.add(new GeocodeCacheHits(key.kind().name(), key.cacheKey(), count)));
+
+    try {
+      transactionTemplate.executeWithoutResult(
+          _ -> {
+            if (!writeBatch.isEmpty()) {
+              repository.upsertAll(writeBatch);
+            }
+            if (!hitBatch.isEmpty()) {
+              repository.addHitsAll(hitBatch);
+            }
+          });
+      log.debug("Flushed {} geocode cache writes and {} hit counts", writes.size(), hits.size());
+    } catch (Exception e) {
+      log.warn(
+          "Failed to flush {} geocode cache writes and {} hit counts, retrying one by one: {}",
+          writes.size(),
+          hits.size(),
+          e.getMessage());
+      int dropped = writeEach(writeBatch, repository::upsertAll);
+      dropped += writeEach(hitBatch, repository::addHitsAll);
+      if (dropped > 0) {
+        log.warn("Dropped {} geocode cache rows that could not be written", dropped);
+      }
+    }
+  }
+
+  /** Writes each row in its own transaction and returns how many failed. */
+  private <T> int writeEach(List<T> rows, Consumer<List<T>> writer) {
+    int failed = 0;
+    for (T row : rows) {
+      try {
+        transactionTemplate.executeWithoutResult(_ -> writer.accept(List.of(row)));
+      } catch (Exception e) {
+        failed++;
+        log.debug("Dropping geocode cache row {}: {}", row, e.getMessage());
+      }
+    }
+    return failed;
+  }
+
+  @Scheduled(cron = "0 15 4 * * *")
+  public void purgeExpired() {
+    Integer deleted = transactionTemplate.execute(_ -> repository.deleteExpired());
+    log.info("Purged {} expired geocode cache entries", deleted);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void warmUp() {
+    if (properties.getWarmUpSize() <= 0) {
+      return;
+    }
+    try {
+      int loaded = 0;
+      for (GeocodeCacheProjection row : repository.findHottest(properties.getWarmUpSize())) {
+        GeocodeKind kind = GeocodeKind.valueOf(row.getKind());
+        Cache cache = cacheManager.getCache(cacheName(kind));
+        if (cache != null) {
+          Object value =
+              objectMapper.readValue(
+                  row.getPayload(), kind == GeocodeKind.SEARCH ? PLACE_LIST : PLACE);
+          cache.put(row.getCacheKey(), value);
+          loaded++;
+        }
+      }
+      log.info("Geocode cache warm-up loaded {} entries", loaded);
+    } catch (Exception e) {
+      log.warn("Geocode cache warm-up failed: {}", e.getMessage());
+    }
+  }
+
+  @PreDestroy
+  void shutdown() {
+    flush();
+  }
+
+  int pendingWrites() {
+    return pendingWrites.size();
+  }
+
+  private static <V> Map<Key, V> drain(Map<Key, V> pending) {
+    Map<Key, V> drained = new HashMap<>();
+    for (Key key : pending.keySet()) {
+      V value = pending.remove(key);
+      if (value != null) {
+        drained.put(key, value);
+      }
+    }
+    return drained;
+  }
+
+  private static String cacheName(GeocodeKind kind) {
+    return switch (kind) {
+      case SEARCH -> "nominatimSearch";
+      case LOOKUP -> "nominatimLookup";
+      case REVERSE -> "nominatimReverse";
+    };
+  }
+
+  private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+    return Counter.builder("geocode.cache.lookups")
+        .description("Reads from the persistent geocode cache")
+        .tag("result", result)
+        .register(meterRegistry);
+  }
+
+  record Entry<T>(T value) {}
+
+  private record Key(GeocodeKind kind, String cacheKey) {}
+
+  private record PendingWrite(String payload, Instant expiresAt) {}
+}
@@ -2,16 +2,20 @@ package uz.myrafeeq.api.service.city;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.Semaphore;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClient;
 import uz.myrafeeq.api.configuration.NominatimProperties;
+import uz.myrafeeq.api.enums.GeocodeKind;
 
 @Slf4j
 @Component
@@ -20,15 +24,38 @@ public class NominatimClient {
   private static final Set<String> CITY_ADDRESS_TYPES = Set.of("city", "town", "village", "hamlet");
 
   private final RestClient restClient;
-  private final Semaphore semaphore = new Semaphore(1);
-  private volatile long lastRequestTime = 0;
+  private final NominatimRequestScheduler scheduler;
+  private final long requestTimeoutMs;
+  private final GeocodeCache geocodeCache;
+  private final SingleFlight<String, List<NominatimPlace>> searchFlight;
+  private final SingleFlight<String, Optional<NominatimPlace>> lookupFlight;
+  private final SingleFlight<String, Optional<NominatimPlace>> reverseFlight;
 
-  public NominatimClient(NominatimProperties properties, RestClient.Builder restClientBuilder) {
+  public NominatimClient(
+      NominatimProperties properties,
+      RestClient.Builder restClientBuilder,
+      MeterRegistry meterRegistry,
+      GeocodeCache geocodeCache) {
     this.restClient =
         restClientBuilder
             .baseUrl(properties.getUrl())
             .defaultHeader("User-Agent", properties.getUserAgent())
             .build();
+    this.scheduler =
+        new NominatimRequestScheduler(
+            properties.getRequestsPerSecond(),
+            properties.getBurst(),
+            properties.getQueueCapacity());
+    this.requestTimeoutMs = properties.getRequestTimeout().toMillis();
+    this.geocodeCache = geocodeCache;
+    this.searchFlight = new SingleFlight<>(coalescedCounter(meterRegistry, "search"));
+    this.lookupFlight = new SingleFlight<>(coalescedCounter(meterRegistry, "lookup"));
+    this.reverseFlight = new SingleFlight<>(coalescedCounter(meterRegistry, "reverse"));
+  }
+
+  @PreDestroy
+  void shutdown() {
+    scheduler.close();
   }
 
   @Cacheable(
@@ -36,104 +63,164 @@ public class NominatimClient {
       key = "#query.toLowerCase() + '-' + #limit",
       unless = "#result.isEmpty()")
   public List<NominatimPlace> searchCities(String query, int limit) {
+    String cacheKey = query.toLowerCase() + '-' + limit;
+    return searchFlight.execute(cacheKey, () -> searchUpstream(cacheKey, query, limit));
+  }
+
+  @Cacheable(value = "nominatimLookup", key = "#osmId", unless = "#result == null")
+  public Optional<NominatimPlace> lookup(String osmId) {
+    return lookupFlight.execute(osmId, () -> lookupUpstream(osmId));
+  }
+
+  @Cacheable(
+      value = "nominatimReverse",
+      key = "T(Math).round(#lat * 1000) + ',' + T(Math).round(#lon * 1000)",
+      unless = "#result == null")
+  public Optional<NominatimPlace> reverse(double lat, double lon) {
+    String cacheKey = Math.round(lat * 1000) + "," + Math.round(lon * 1000);
+    return reverseFlight.execute(cacheKey, () -> reverseUpstream(cacheKey, lat, lon));
+  }
+
+  private List<NominatimPlace> searchUpstream(String cacheKey, String query, int limit) {
+    Optional<GeocodeCache.Entry<List<NominatimPlace>>> stored =
+        geocodeCache.find(GeocodeKind.SEARCH, cacheKey, GeocodeCache.PLACE_LIST);
+    if (stored.isPresent()) {
+      return Objects.requireNonNullElse(stored.get().value(), List.of());
+    }
+
+    List<NominatimPlace> results;
     try {
-      throttle();
-      List<NominatimPlace> results =
-          restClient
-              .get()
-              .uri(
-                  uriBuilder ->
-                      uriBuilder
-                          .path("/search")
-                          .queryParam("q", query)
-                          .queryParam("featuretype", "settlement")
-                          .queryParam("format", "json")
-                          .queryParam("limit", limit)
-                          .queryParam("addressdetails", 1)
-                          .queryParam("accept-language", "en")
-                          .build())
-              .retrieve()
-              .body(new ParameterizedTypeReference<List<NominatimPlace>>() {});
-      if (results == null) {
-        return List.of();
-      }
-      return results.stream()
-          .filter(p -> p.addresstype() != null && CITY_ADDRESS_TYPES.contains(p.addresstype()))
-          .toList();
+      results =
+          scheduler
+              .submit(
+                  NominatimRequestScheduler.Priority.SEARCH,
+                  requestTimeoutMs,
+                  () -> fetchSearch(query, limit))
+              .join();
     } catch (Exception e) {
       log.warn("Nominatim search failed for query '{}': {}", query, e.getMessage());
       return List.of();
     }
+
+    List<NominatimPlace> cities =
+        results == null
+            ? List.of()
+            : results.stream()
+                .filter(
+                    p -> p.addresstype() != null && CITY_ADDRESS_TYPES.contains(p.addresstype()))
+                .toList();
+    geocodeCache.put(GeocodeKind.SEARCH, cacheKey, cities.isEmpty() ? null : cities);
+    return cities;
   }
 
-  @Cacheable(value = "nominatimLookup", key = "#osmId", unless = "#result == null")
-  public Optional<NominatimPlace> lookup(String osmId) {
+  private Optional<NominatimPlace> lookupUpstream(String osmId) {
+    Optional<GeocodeCache.Entry<NominatimPlace>> stored =
+        geocodeCache.find(GeocodeKind.LOOKUP, osmId, GeocodeCache.PLACE);
+    if (stored.isPresent()) {
+      return Optional.ofNullable(stored.get().value());
+    }
+
+    List<NominatimPlace> results;
     try {
-      throttle();
-      List<NominatimPlace> results =
-          restClient
-              .get()
-              .uri(
-                  uriBuilder ->
-                      uriBuilder
-                          .path("/lookup")
-                          .queryParam("osm_ids", osmId)
-                          .queryParam("format", "json")
-                          .queryParam("addressdetails", 1)
-                          .queryParam("accept-language", "en")
-                          .build())
-              .retrieve()
-              .body(new ParameterizedTypeReference<List<NominatimPlace>>() {});
-      if (results == null || results.isEmpty()) {
-        return Optional.empty();
-      }
-      return Optional.of(results.getFirst());
+      results =
+          scheduler
+              .submit(
+                  NominatimRequestScheduler.Priority.LOOKUP,
+                  requestTimeoutMs,
+                  () -> fetchLookup(osmId))
+              .join();
     } catch (Exception e) {
       log.warn("Nominatim lookup failed for {}: {}", osmId, e.getMessage());
       return Optional.empty();
     }
+
+    NominatimPlace place = results == null || results.isEmpty() ? null : results.getFirst();
+    geocodeCache.put(GeocodeKind.LOOKUP, osmId, place);
+    return Optional.ofNullable(place);
   }
 
-  @Cacheable(
-      value = "nominatimReverse",
-      key = "T(Math).round(#lat * 1000) + ',' + T(Math).round(#lon * 1000)")
-  public Optional<NominatimPlace> reverse(double lat, double lon) {
+  private Optional<NominatimPlace> reverseUpstream(String cacheKey, double lat, double lon) {
+    Optional<GeocodeCache.Entry<NominatimPlace>> stored =
+        geocodeCache.find(GeocodeKind.REVERSE, cacheKey, GeocodeCache.PLACE);
+    if (stored.isPresent()) {
+      return Optional.ofNullable(stored.get().value());
+    }
+
+    NominatimPlace place;
     try {
-      throttle();
-      NominatimPlace place =
-          restClient
-              .get()
-              .uri(
-                  uriBuilder ->
-                      uriBuilder
-                          .path("/reverse")
-                          .queryParam("lat", lat)
-                          .queryParam("lon", lon)
-                          .queryParam("zoom", 10)
-                          .queryParam("format", "json")
-                          .queryParam("addressdetails", 1)
-                          .queryParam("accept-language", "en")
-                          .build())
-              .retrieve()
-              .body(NominatimPlace.class);
-      return Optional.ofNullable(place);
+      place =
+          scheduler
+              .submit(
+                  NominatimRequestScheduler.Priority.REVERSE,
+                  requestTimeoutMs,
+                  () -> fetchReverse(lat, lon))
+              .join();
     } catch (Exception e) {
       log.warn("Nominatim reverse geocoding failed for ({}, {}): {}", lat, lon, e.getMessage());
       return Optional.empty();
     }
+
+    geocodeCache.put(GeocodeKind.REVERSE, cacheKey, place);
+    return Optional.ofNullable(place);
   }
 
-  private void throttle() throws InterruptedException {
-    semaphore.acquire();
-    try {
-      long elapsed = System.currentTimeMillis() - lastRequestTime;
-      if (elapsed < 1000) {
-        Thread.sleep(1000 - elapsed);
-      }
-      lastRequestTime = System.currentTimeMillis();
-    } finally {
-      semaphore.release();
-    }
+  private List<NominatimPlace> fetchSearch(String query, int limit) {
+    return restClient
+        .get()
+        .uri(
+            uriBuilder ->
+                uriBuilder
+                    .path("/search")
+                    .queryParam("q", query)
+                    .queryParam("featuretype", "settlement")
+                    .queryParam("format", "json")
+                    .queryParam("limit", limit)
+                    .queryParam("addressdetails", 1)
+                    .queryParam("accept-language", "en")
+                    .build())
+        .retrieve()
+        .body(new ParameterizedTypeReference<List<NominatimPlace>>() {});
+  }
+
+  private List<NominatimPlace> fetchLookup(String osmId) {
+    return restClient
+        .get()
+        .uri(
+            uriBuilder ->
+                uriBuilder
+                    .path("/lookup")
+                    .queryParam("osm_ids", osmId)
+                    .queryParam("format", "json")
+                    .queryParam("addressdetails", 1)
+                    .queryParam("accept-language", "en")
+                    .build())
+        .retrieve()
+        .body(new ParameterizedTypeReference<List<NominatimPlace>>() {});
+  }
+
+  private NominatimPlace fetchReverse(double lat, double lon) {
+    return restClient
+        .get()
+        .uri(
+            uriBuilder ->
+                uriBuilder
+                    .path("/reverse")
+                    .queryParam("lat", lat)
+                    .queryParam("lon", lon)
+                    .queryParam("zoom", 10)
+                    .queryParam("format", "json")
+                    .queryParam("addressdetails", 1)
+                    .queryParam("accept-language", "en")
+                    .build())
+        .retrieve()
+        .body(NominatimPlace.class);
+  }
+
+  private static Counter coalescedCounter(MeterRegistry meterRegistry, String operation) {
+    return Counter.builder("nominatim.requests.coalesced")
+        .description("Nominatim calls that joined an identical in-flight request")
+        .tag("operation", operation)
+        .register(meterRegistry);
   }
 
   @JsonIgnoreProperties(ignoreUnknown = true)
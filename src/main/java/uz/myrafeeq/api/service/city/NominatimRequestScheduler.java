@@ -0,0 +1,150 @@
+package uz.myrafeeq.api.service.city;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Outbound scheduler for Nominatim calls.
+ *
+ * <p>A single dispatcher thread drains a bounded priority queue at the rate allowed by a token
+ * bucket and runs each call on a virtual thread, so request threads never sleep on the upstream
+ * rate limit. Lookups (onboarding) go before reverse geocoding, which goes before free-text search.
+ * When the queue is full, {@link #submit} fails immediately instead of blocking. Every future
+ * carries a deadline; tasks whose deadline passes while queued are dropped without spending a
+ * token.
+ */
+@Slf4j
+final class NominatimRequestScheduler implements AutoCloseable {
+
+  enum Priority {
+    LOOKUP,
+    REVERSE,
+    SEARCH
+  }
+
+  private final long nanosPerToken;
+  private final double burst;
+  private final int capacity;
+
+  private final PriorityBlockingQueue<Task<?>> queue = new PriorityBlockingQueue<>();
+  private final AtomicInteger pending = new AtomicInteger();
+  private final AtomicLong sequence = new AtomicLong();
+  private final Thread dispatcher;
+
+  // Token bucket state, only touched by the dispatcher thread
+  private double tokens;
+  private long lastRefill;
+
+  NominatimRequestScheduler(double requestsPerSecond, int burst, int capacity) {
+    if (requestsPerSecond <= 0 || burst < 1 || capacity < 1) {
+      throw new IllegalArgumentException(
+          "Invalid Nominatim rate limit: " + requestsPerSecond + "/s, burst " + burst);
+    }
+    this.nanosPerToken = (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond);
+    this.burst = burst;
+    this.capacity = capacity;
+    this.tokens = burst;
+    this.lastRefill = System.nanoTime();
+    this.dispatcher = Thread.ofPlatform().name("nominatim-dispatcher").daemon().start(this::run);
+  }
+
+  /**
+   * Queues a call. The returned future fails with {@link RejectedExecutionException} if the queue
+   * is full, or with a {@link java.util.concurrent.TimeoutException} if no result is available
+   * within {@code timeoutMs}.
+   */
+  <T> CompletableFuture<T> submit(Priority priority, long timeoutMs, Supplier<T> call) {
+    if (pending.incrementAndGet() > capacity) {
+      pending.decrementAndGet();
+      return CompletableFuture.failedFuture(
+          new RejectedExecutionException("Nominatim request queue is full"));
+    }
+
+    Task<T> task = new Task<>(priority, sequence.getAndIncrement(), call);
+    task.future.orTimeout(timeoutMs, TimeUnit.MILLISECONDS);
+    queue.add(task);
+    return task.future;
+  }
+
+  int queued() {
+    return pending.get();
+  }
+
+  @Override
+  public void close() {
+    dispatcher.interrupt();
+    Task<?> task;
+    while ((task = queue.poll()) != null) {
+      task.future.completeExceptionally(
+          new RejectedExecutionException("Nominatim scheduler is shut down"));
+    }
+  }
+
+  private void run() {
+    while (!Thread.currentThread().isInterrupted()) {
+      try {
+        Task<?> task = queue.take();
+        if (task.future.isDone()) {
+          // Timed out or cancelled while queued
+          pending.decrementAndGet();
+          continue;
+        }
+        long waitNanos = nanosUntilToken();
+        if (waitNanos > 0) {
+          // Put the task back so a higher-priority arrival can overtake it while we wait
+          queue.add(task);
+          TimeUnit.NANOSECONDS.sleep(waitNanos);
+          continue;
+        }
+        pending.decrementAndGet();
+        tokens -= 1;
+        Thread.ofVirtual().name("nominatim-call").start(task::execute);
+      } catch (InterruptedException _) {
+        Thread.currentThread().interrupt();
+      } catch (Exception e) {
+        log.error("Nominatim dispatcher error", e);
+      }
+    }
+  }
+
+  private long nanosUntilToken() {
+    long now = System.nanoTime();
+    tokens = Math.min(burst, tokens + (double) (now - lastRefill) / nanosPerToken);
+    lastRefill = now;
+    return tokens >= 1 ? 0 : (long) ((1 - tokens) * nanosPerToken);
+  }
+
+  private static final class Task<T> implements Comparable<Task<?>> {
+
+    private final Priority priority;
+    private final long sequence;
+    private final Supplier<T> call;
+    private final CompletableFuture<T> future = new CompletableFuture<>();
+
+    Task(Priority priority, long sequence, Supplier<T> call) {
+      this.priority = priority;
+      this.sequence = sequence;
+      this.call = call;
+    }
+
+    void execute() {
+      try {
+        future.complete(call.get());
+      } catch (Exception e) {
+        future.completeExceptionally(e);
+      }
+    }
+
+    @Override
+    public int compareTo(Task<?> other) {
+      int byPriority = priority.compareTo(other.priority);
+      return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+    }
+  }
+}
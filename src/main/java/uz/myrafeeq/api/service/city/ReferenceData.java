@@ -0,0 +1,229 @@
+package uz.myrafeeq.api.service.city;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import uz.myrafeeq.api.entity.CityEntity;
+import uz.myrafeeq.api.entity.CountryEntity;
+import uz.myrafeeq.api.repository.CityRepository;
+import uz.myrafeeq.api.repository.CountryRepository;
+import uz.myrafeeq.api.service.TransactionCallbacks;
+
+/**
+ * In-memory snapshot of all cities and countries for read paths.
+ *
+ * <p>The snapshot holds detached copies that are never attached to a persistence context; callers
+ * must treat them as read-only. It is rebuilt and swapped as a whole after admin writes commit
+ * ({@link #refresh()}) and periodically to pick up writes made by other instances. A city imported
+ * on demand is added on its own ({@link #add(CityEntity)}) by copying the snapshot. A lookup that
+ * misses the snapshot falls back to the database, so a city created moments ago, here or elsewhere,
+ * is still found.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReferenceData {
+
+  private final CityRepository cityRepository;
+  private final CountryRepository countryRepository;
+
+  private volatile Snapshot snapshot;
+
+  @EventListener(ApplicationReadyEvent.class)
+  @Scheduled(
+      initialDelayString = "${myrafeeq.reference-data.refresh-interval}",
+      fixedDelayString = "${myrafeeq.reference-data.refresh-interval}")
+  public synchronized void reload() {
+    long started = System.nanoTime();
+    List<CountryEntity> countries = countryRepository.findAll();
+    List<CityEntity> cities = cityRepository.findAllWithCountry();
+    snapshot = Snapshot.of(countries, cities);
+    log.debug(
+        "Reference data loaded: {} countries, {} cities in {}ms",
+        countries.size(),
+        cities.size(),
+        (System.nanoTime() - started) / 1_000_000);
+  }
+
+  /** Reloads the snapshot once the surrounding transaction commits. */
+  public void refresh() {
+    TransactionCallbacks.afterCommit(this::reload);
+  }
+
+  /** Adds or replaces one city once the surrounding transaction commits, without a reload. */
+  public void add(CityEntity city) {
+    CountryEntity country = city.getCountry() != null ? Snapshot.copy(city.getCountry()) : null;
+    CityEntity copy = Snapshot.copy(city, country);
+    TransactionCallbacks.afterCommit(() -> applyAdd(copy));
+  }
+
+  private synchronized void applyAdd(CityEntity city) {
+    Snapshot current = snapshot;
+    if (current != null) {
+      snapshot = current.with(city);
+    }
+  }
+
+  public Optional<CityEntity> findCity(String id) {
+    if (id == null) {
+      return Optional.empty();
+    }
+    CityEntity city = current().citiesById().get(id);
+    return city != null ? Optional.of(city) : cityRepository.findById(id);
+  }
+
+  public Optional<CountryEntity> findCountry(String code) {
+    int key = countryKey(code);
+    CountryEntity country = key >= 0 ? current().countriesByCode()[key] : null;
+    return country != null ? Optional.of(country) : countryRepository.findById(code);
+  }
+
+  /** Cities whose name contains {@code query}, ignoring case, ordered by name. */
+  public List<CityEntity> searchCities(String query, int limit) {
+    Snapshot current = current();
+    String needle = query.toLowerCase(Locale.ROOT);
+    CityEntity[] byName = current.citiesByName();
+    String[] names = current.lowerCaseNames();
+
+    CityEntity[] found = new CityEntity[Math.min(limit, byName.length)];
+    int count = 0;
+    for (int i = 0; i < byName.length && count < found.length; i++) {
+      if (names[i].contains(needle)) {
+        found[count++] = byName[i];
+      }
+    }
+    return List.of(Arrays.copyOf(found, count));
+  }
+
+  private Snapshot current() {
+    Snapshot current = snapshot;
+    if (current == null) {
+      reload();
+      current = snapshot;
+    }
+    return current;
+  }
+
+  /** Packs an upper-case two-letter code into {@code [0, 676)}, or -1 for any other code. */
+  static int countryKey(String code) {
+    if (code == null || code.length() != 2) {
+      return -1;
+    }
+    int first = code.charAt(0) - 'A';
+    int second = code.charAt(1) - 'A';
+    if (first < 0 || first >= 26 || second < 0 || second >= 26) {
+      return -1;
+    }
+    return first * 26 + second;
+  }
+
+  private record Snapshot(
+      Map<String, CityEntity> citiesById,
+      CountryEntity[] countriesByCode,
+      CityEntity[] citiesByName,
+      String[] lowerCaseNames) {
+
+    private static final Comparator<CityEntity> BY_NAME = Comparator.comparing(CityEntity::getName);
+
+    static Snapshot of(List<CountryEntity> countries, List<CityEntity> cities) {
+      CountryEntity[] countriesByCode = new CountryEntity[26 * 26];
+      Map<String, CountryEntity> copies = new HashMap<>();
+      for (CountryEntity country : countries) {
+        CountryEntity copy = copy(country);
+        copies.put(copy.getCode(), copy);
+        int key = countryKey(copy.getCode());
+        if (key >= 0) {
+          countriesByCode[key] = copy;
+        }
+      }
+
+      Map<String, CityEntity> citiesById = new HashMap<>(cities.size() * 2);
+      for (CityEntity city : cities) {
+        CountryEntity country =
+            city.getCountry() != null ? copies.get(city.getCountry().getCode()) : null;
+        citiesById.put(city.getId(), copy(city, country));
+      }
+
+      CityEntity[] citiesByName =
+          citiesById.values().stream().sorted(BY_NAME).toArray(CityEntity[]::new);
+      String[] lowerCaseNames = new String[citiesByName.length];
+      for (int i = 0; i < citiesByName.length; i++) {
+        lowerCaseNames[i] = citiesByName[i].getName().toLowerCase(Locale.ROOT);
+      }
+      return new Snapshot(Map.copyOf(citiesById), countriesByCode, citiesByName, lowerCaseNames);
+    }
+
+    /**
+     * Copy of this snapshot with {@code city} added, or replacing the city with the same id. The
+     * city keeps this snapshot's copy of its country when there is one.
+     */
+    Snapshot with(CityEntity city) {
+      CountryEntity[] countries = countriesByCode;
+      CountryEntity country = city.getCountry();
+      int key = country != null ? countryKey(country.getCode()) : -1;
+      if (key >= 0 && countries[key] != null) {
+        city = copy(city, countries[key]);
+      } else if (key >= 0) {
+        countries = countries.clone();
+        countries[key] = country;
+      }
+
+      Map<String, CityEntity> byId = new HashMap<>(citiesById);
+      CityEntity previous = byId.put(city.getId(), city);
+
+      int size = citiesByName.length + (previous == null ? 1 : 0);
+      CityEntity[] byName = new CityEntity[size];
+      String[] names = new String[size];
+      String name = city.getName().toLowerCase(Locale.ROOT);
+      int next = 0;
+      boolean inserted = false;
+      for (int i = 0; i < citiesByName.length; i++) {
+        if (citiesByName[i] == previous) {
+          continue;
+        }
+        if (!inserted && BY_NAME.compare(city, citiesByName[i]) < 0) {
+          byName[next] = city;
+          names[next++] = name;
+          inserted = true;
+        }
+        byName[next] = citiesByName[i];
+        names[next++] = lowerCaseNames[i];
+      }
+      if (!inserted) {
+        byName[next] = city;
+        names[next] = name;
+      }
+      return new Snapshot(Map.copyOf(byId), countries, byName, names);
+    }
+
+    private static CountryEntity copy(CountryEntity country) {
+      return CountryEntity.builder()
+          .code(country.getCode())
+          .name(country.getName())
+          .defaultMethod(country.getDefaultMethod())
+          .defaultMadhab(country.getDefaultMadhab())
+          .build();
+    }
+
+    private static CityEntity copy(CityEntity city, CountryEntity country) {
+      return CityEntity.builder()
+          .id(city.getId())
+          .name(city.getName())
+          .country(country)
+          .latitude(city.getLatitude())
+          .longitude(city.getLongitude())
+          .timezone(city.getTimezone())
+          .build();
+    }
+  }
+}
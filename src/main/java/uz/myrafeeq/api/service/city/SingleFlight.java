@@ -0,0 +1,57 @@
+package uz.myrafeeq.api.service.city;
+
+import io.micrometer.core.instrument.Counter;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls with the same key: the first caller runs the call, later callers wait
+ * for and share its result. Nothing is remembered once the call completes; caching stays with the
+ * caller.
+ */
+final class SingleFlight<K, V> {
+
+  private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+  private final Counter coalesced;
+
+  SingleFlight(Counter coalesced) {
+    this.coalesced = coalesced;
+  }
+
+  V execute(K key, Supplier<V> call) {
+    CompletableFuture<V> flight = new CompletableFuture<>();
+    CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+    if (existing != null) {
+      coalesced.increment();
+      try {
+        return existing.join();
+      } catch (CompletionException e) {
+        if (e.getCause() instanceof RuntimeException cause) {
+          throw cause;
+        }
+        if (e.getCause() instanceof Error cause) {
+          throw cause;
+        }
+        throw e;
+      }
+    }
+
+    try {
+      V result = call.get();
+      flight.complete(result);
+      return result;
+    } catch (Throwable e) {
+      // Errors too, or waiters would block on the flight forever
+      flight.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlight.remove(key, flight);
+    }
+  }
+
+  int inFlight() {
+    return inFlight.size();
+  }
+}
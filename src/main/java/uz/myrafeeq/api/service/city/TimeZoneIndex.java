@@ -0,0 +1,131 @@
+package uz.myrafeeq.api.service.city;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import org.springframework.core.io.Resource;
+
+/**
+ * Read-only view of the quadtree timezone raster produced at build time by {@code
+ * TimeZoneIndexGenerator}.
+ *
+ * <p>The node array stays in the memory-mapped file and is walked in place, so the index costs a
+ * few megabytes of page cache rather than the polygon set on the heap. Leaves either name a zone
+ * that covers the whole cell or mark a border cell, which the caller refines against the exact
+ * polygons of that cell only.
+ */
+final class TimeZoneIndex {
+
+  static final int MAGIC = 0x545A5131;
+  private static final int BORDER = -1;
+
+  private final int baseDegrees;
+  private final int rows;
+  private final int columns;
+  private final String[] zoneIds;
+  private final IntBuffer nodes;
+
+  private TimeZoneIndex(int baseDegrees, String[] zoneIds, IntBuffer nodes) {
+    this.baseDegrees = baseDegrees;
+    this.rows = 180 / baseDegrees;
+    this.columns = 360 / baseDegrees;
+    this.zoneIds = zoneIds;
+    this.nodes = nodes;
+  }
+
+  /**
+   * Maps the index file into memory. A resource packed inside the application jar is first copied
+   * to a temporary file, which is unlinked once mapped.
+   */
+  static TimeZoneIndex map(Resource resource) throws IOException {
+    if (resource.isFile()) {
+      return of(mapFile(resource.getFile().toPath()));
+    }
+    Path copy = Files.createTempFile("tz-index", ".bin");
+    try (InputStream in = resource.getInputStream()) {
+      Files.copy(in, copy, StandardCopyOption.REPLACE_EXISTING);
+      return of(mapFile(copy));
+    } finally {
+      Files.deleteIfExists(copy);
+    }
+  }
+
+  static TimeZoneIndex of(ByteBuffer buffer) {
+    if (buffer.getInt() != MAGIC) {
+      throw new IllegalStateException("Not a timezone index file");
+    }
+    int baseDegrees = buffer.getInt();
+    buffer.getInt(); // max depth, informational
+
+    String[] zoneIds = new String[buffer.getInt()];
+    for (int i = 0; i < zoneIds.length; i++) {
+      byte[] bytes = new byte[buffer.getShort()];
+      buffer.get(bytes);
+      zoneIds[i] = bytes.length == 0 ? null : new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    int nodeCount = buffer.getInt();
+    IntBuffer nodes = buffer.slice(buffer.position(), nodeCount * Integer.BYTES).asIntBuffer();
+    return new TimeZoneIndex(baseDegrees, zoneIds, nodes);
+  }
+
+  /** Finds the leaf cell containing the point. */
+  Cell locate(double lat, double lon) {
+    double latitude = Math.clamp(lat, -90.0, 90.0);
+    double longitude = ((lon + 180.0) % 360.0 + 360.0) % 360.0 - 180.0;
+
+    int row = Math.min((int) ((latitude + 90.0) / baseDegrees), rows - 1);
+    int column = Math.min((int) ((longitude + 180.0) / baseDegrees), columns - 1);
+    int node = row * columns + column;
+    double south = row * baseDegrees - 90.0;
+    double west = column * baseDegrees - 180.0;
+    double size = baseDegrees;
+
+    while (true) {
+      int value = nodes.get(node);
+      if (value >= 0) {
+        return new Cell(zoneIds[value], false, node, south, west, size);
+      }
+      if (value == BORDER) {
+        return new Cell(null, true, node, south, west, size);
+      }
+      size /= 2;
+      int quadrant = 0;
+      if (latitude >= south + size) {
+        south += size;
+        quadrant += 2;
+      }
+      if (longitude >= west + size) {
+        west += size;
+        quadrant += 1;
+      }
+      node = -value - 1 + quadrant;
+    }
+  }
+
+  int zoneCount() {
+    return zoneIds.length - 1;
+  }
+
+  int nodeCount() {
+    return nodes.capacity();
+  }
+
+  private static ByteBuffer mapFile(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path)) {
+      return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+  }
+
+  /**
+   * A leaf of the index. {@code zoneId} is {@code null} for border cells and for cells with no zone
+   * (open sea without an assigned zone).
+   */
+  record Cell(String zoneId, boolean border, int node, double south, double west, double size) {}
+}
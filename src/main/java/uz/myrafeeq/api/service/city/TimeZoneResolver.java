@@ -1,29 +1,87 @@
 package uz.myrafeeq.api.service.city;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Component;
+import us.dustinj.timezonemap.TimeZone;
 import us.dustinj.timezonemap.TimeZoneMap;
 
+/**
+ * Resolves coordinates to IANA zone ids from the precompiled {@link TimeZoneIndex}. Only points in
+ * border cells load polygons, and then only those overlapping the cell. If the index resource is
+ * missing (e.g. running from an IDE without the generated resources), the full polygon map is
+ * loaded instead.
+ */
 @Slf4j
 @Component
 public class TimeZoneResolver {
 
-  private TimeZoneMap timeZoneMap;
+  static final String INDEX_RESOURCE = "timezone/tz-index.bin";
+
+  private static final int BORDER_CELL_CACHE_SIZE = 128;
+  private static final double BORDER_CELL_PADDING = 1e-4;
+
+  private final Cache<Integer, TimeZoneMap> borderCells =
+      Caffeine.newBuilder().maximumSize(BORDER_CELL_CACHE_SIZE).build();
+
+  private TimeZoneIndex index;
+  private TimeZoneMap fullMap;
 
   @PostConstruct
   void init() {
-    log.info("Loading timezone map data...");
-    timeZoneMap = TimeZoneMap.forEverywhere();
-    log.info("Timezone map loaded");
+    ClassPathResource resource = new ClassPathResource(INDEX_RESOURCE);
+    if (!resource.exists()) {
+      log.warn("Timezone index {} not found, loading full timezone map", INDEX_RESOURCE);
+      fullMap = TimeZoneMap.forEverywhere();
+      return;
+    }
+
+    long started = System.nanoTime();
+    try {
+      index = TimeZoneIndex.map(resource);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to map timezone index " + INDEX_RESOURCE, e);
+    }
+    log.info(
+        "Timezone index mapped: {} zones, {} nodes in {}ms",
+        index.zoneCount(),
+        index.nodeCount(),
+        (System.nanoTime() - started) / 1_000_000);
   }
 
   public String resolve(double lat, double lon) {
-    us.dustinj.timezonemap.TimeZone tz = timeZoneMap.getOverlappingTimeZone(lat, lon);
-    if (tz != null) {
-      return tz.getZoneId();
+    String zoneId = index != null ? resolveIndexed(lat, lon) : zoneId(fullMap, lat, lon);
+    if (zoneId != null) {
+      return zoneId;
     }
     log.warn("No timezone found for ({}, {}), falling back to UTC", lat, lon);
     return "UTC";
   }
+
+  private String resolveIndexed(double lat, double lon) {
+    TimeZoneIndex.Cell cell = index.locate(lat, lon);
+    if (!cell.border()) {
+      return cell.zoneId();
+    }
+    TimeZoneMap polygons = borderCells.get(cell.node(), _ -> loadCell(cell));
+    return zoneId(polygons, lat, lon);
+  }
+
+  private static TimeZoneMap loadCell(TimeZoneIndex.Cell cell) {
+    return TimeZoneMap.forRegion(
+        Math.max(-90.0, cell.south() - BORDER_CELL_PADDING),
+        Math.max(-180.0, cell.west() - BORDER_CELL_PADDING),
+        Math.min(90.0, cell.south() + cell.size() + BORDER_CELL_PADDING),
+        Math.min(180.0, cell.west() + cell.size() + BORDER_CELL_PADDING));
+  }
+
+  private static String zoneId(TimeZoneMap map, double lat, double lon) {
+    TimeZone tz = map.getOverlappingTimeZone(lat, lon);
+    return tz != null ? tz.getZoneId() : null;
+  }
 }
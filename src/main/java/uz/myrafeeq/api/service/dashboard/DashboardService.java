@@ -1,5 +1,6 @@
 package uz.myrafeeq.api.service.dashboard;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
@@ -14,6 +15,8 @@ import uz.myrafeeq.api.dto.response.PrayerTrackingResponse;
 import uz.myrafeeq.api.enums.StatsPeriod;
 import uz.myrafeeq.api.service.prayer.PrayerTimesService;
 import uz.myrafeeq.api.service.prayer.PrayerTrackingService;
+import uz.myrafeeq.api.service.user.UserContext;
+import uz.myrafeeq.api.service.user.UserContextLoader;
 
 @Service
 @RequiredArgsConstructor
@@ -21,6 +24,8 @@ public class DashboardService {
 
   private final PrayerTimesService prayerTimesService;
   private final PrayerTrackingService trackingService;
+  private final UserContextLoader userContextLoader;
+  private final DashboardSnapshotCache snapshotCache;
 
   private static <T> T unwrap(CompletableFuture<T> future) {
     try {
@@ -38,28 +43,41 @@ public class DashboardService {
   }
 
   public DashboardResponse getDashboard(Long telegramId) {
+    return snapshotCache.get(telegramId, this::load);
+  }
+
+  /**
+   * Loads the user once and builds the three dashboard sections from that context in parallel, so
+   * the sections do not each look up the preferences, city and timezone again.
+   */
+  private DashboardSnapshotCache.Snapshot load(Long telegramId) {
+    UserContext context = userContextLoader.load(telegramId);
+    LocalDate today = context.today();
+
     try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
       CompletableFuture<List<PrayerTimesResponse>> timesFuture =
           CompletableFuture.supplyAsync(
-              () -> prayerTimesService.calculatePrayerTimes(telegramId, null, 1), executor);
+              () -> prayerTimesService.calculatePrayerTimes(context, today, 1), executor);
 
       CompletableFuture<PrayerTrackingResponse> trackingFuture =
           CompletableFuture.supplyAsync(
-              () -> trackingService.getTracking(telegramId, null, null, null), executor);
+              () -> trackingService.getTracking(telegramId, today, null, null), executor);
 
       CompletableFuture<PrayerStatsResponse> statsFuture =
           CompletableFuture.supplyAsync(
-              () -> trackingService.getStats(telegramId, StatsPeriod.WEEK), executor);
+              () -> trackingService.getStats(context, StatsPeriod.WEEK), executor);
 
       CompletableFuture.allOf(timesFuture, trackingFuture, statsFuture).join();
 
       List<PrayerTimesResponse> times = unwrap(timesFuture);
 
-      return DashboardResponse.builder()
-          .prayerTimes(times.isEmpty() ? null : times.getFirst())
-          .tracking(unwrap(trackingFuture))
-          .stats(unwrap(statsFuture))
-          .build();
+      DashboardResponse response =
+          DashboardResponse.builder()
+              .prayerTimes(times.isEmpty() ? null : times.getFirst())
+              .tracking(unwrap(trackingFuture))
+              .stats(unwrap(statsFuture))
+              .build();
+      return new DashboardSnapshotCache.Snapshot(today, context.zoneId(), response);
     }
   }
 }
@@ -0,0 +1,120 @@
+package uz.myrafeeq.api.service.dashboard;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import uz.myrafeeq.api.dto.response.DashboardResponse;
+import uz.myrafeeq.api.event.PrayerTrackingChangedEvent;
+import uz.myrafeeq.api.event.PreferencesChangedEvent;
+
+/**
+ * Per-user snapshot of the dashboard for the user's current local date. Entries expire at the
+ * user's local midnight, when prayer times and the tracking day roll over, and are invalidated once
+ * a tracking or preferences change has committed.
+ *
+ * <p>Snapshots are built outside the cache, so a slow build never holds a lock other users or an
+ * invalidation would wait on. Each invalidation bumps a generation counter for the user's stripe;
+ * a build is stored only if that generation is unchanged when it finishes, so a snapshot read
+ * before a change is never stored after it. Concurrent misses for one user may each build.
+ */
+@Component
+public class DashboardSnapshotCache {
+
+  private static final String CACHE_NAME = "dashboardSnapshot";
+  private static final int MAX_ENTRIES = 20_000;
+  private static final int GENERATION_STRIPES = 1024;
+
+  private final Cache<Long, Snapshot> cache;
+  private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+  public DashboardSnapshotCache(MeterRegistry meterRegistry) {
+    this.cache =
+        Caffeine.newBuilder()
+            .maximumSize(MAX_ENTRIES)
+            .expireAfter(new UntilLocalMidnight())
+            .recordStats()
+            .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+  }
+
+  DashboardResponse get(Long telegramId, Function<Long, Snapshot> loader) {
+    Snapshot cached = cache.getIfPresent(telegramId);
+    if (cached != null) {
+      if (cached.isCurrent(Instant.now())) {
+        return cached.response();
+      }
+      cache.asMap().remove(telegramId, cached);
+    }
+
+    int stripe = stripe(telegramId);
+    long generation = generations.get(stripe);
+    Snapshot built = loader.apply(telegramId);
+    // An invalidation landing after this check waits for the compute, then removes the entry
+    cache.asMap().compute(telegramId, (_, old) -> stale(stripe, generation) ? old : built);
+    return built.response();
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onTrackingChanged(PrayerTrackingChangedEvent event) {
+    invalidate(event.telegramId());
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onPreferencesChanged(PreferencesChangedEvent event) {
+    invalidate(event.telegramId());
+  }
+
+  private void invalidate(Long telegramId) {
+    generations.incrementAndGet(stripe(telegramId));
+    cache.invalidate(telegramId);
+  }
+
+  private boolean stale(int stripe, long generation) {
+    return generations.get(stripe) != generation;
+  }
+
+  private static int stripe(Long telegramId) {
+    return Long.hashCode(telegramId) & (GENERATION_STRIPES - 1);
+  }
+
+  /** A dashboard built for {@code date}, the user's local date in {@code zone} at build time. */
+  record Snapshot(LocalDate date, ZoneId zone, DashboardResponse response) {
+
+    Instant expiresAt() {
+      return date.plusDays(1).atStartOfDay(zone).toInstant();
+    }
+
+    boolean isCurrent(Instant now) {
+      return now.isBefore(expiresAt());
+    }
+  }
+
+  private static final class UntilLocalMidnight implements Expiry<Long, Snapshot> {
+
+    @Override
+    public long expireAfterCreate(Long key, Snapshot value, long currentTime) {
+      return Math.max(0, Duration.between(Instant.now(), value.expiresAt()).toNanos());
+    }
+
+    @Override
+    public long expireAfterUpdate(
+        Long key, Snapshot value, long currentTime, long currentDuration) {
+      return expireAfterCreate(key, value, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(Long key, Snapshot value, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+  }
+}
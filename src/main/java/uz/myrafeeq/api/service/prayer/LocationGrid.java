@@ -0,0 +1,140 @@
+package uz.myrafeeq.api.service.prayer;
+
+/**
+ * Grid of roughly square cells used to snap coordinates to a cell center before calculating prayer
+ * times.
+ *
+ * <p>Rows are {@code cellKm} tall; each row is split into columns roughly {@code cellKm} wide at
+ * the row's latitude. Coordinates beyond {@code maxLatitude} are not snapped, since the twilight
+ * calculations become ill-conditioned as the sun approaches the fajr/isha angle at solar midnight.
+ *
+ * <p>The worst-case time error of calculating at the cell center instead of the exact point is
+ * bounded by {@link #maxErrorSeconds()}:
+ *
+ * <ul>
+ *   <li>Longitude shifts every prayer time by exactly 240 seconds per degree (the transit moves
+ *       with the meridian; hour angles do not depend on longitude).
+ *   <li>Latitude changes the hour angle {@code H} of an event at solar altitude {@code a} through
+ *       {@code cos H = (sin a - sin φ sin δ) / (cos φ cos δ)}. The derivative {@code dH/dφ} is
+ *       evaluated over the whole declination range, every twilight angle up to {@value
+ *       #MAX_TWILIGHT_ANGLE}° and both asr shadow factors (whose altitude also depends on φ), and
+ *       the maximum is taken with a safety margin for the sampling step.
+ * </ul>
+ */
+final class LocationGrid {
+
+  static final double KM_PER_DEGREE = 111.32;
+  static final double SECONDS_PER_DEGREE_LONGITUDE = 240.0;
+
+  static final double MAX_TWILIGHT_ANGLE = 20.0;
+  private static final double MAX_DECLINATION = 23.44;
+  private static final double HORIZON_ALTITUDE = -0.833;
+  private static final double SAMPLE_STEP = 0.5;
+  private static final double SAMPLING_MARGIN = 1.1;
+
+  private final double cellKm;
+  private final double maxLatitude;
+  private final double latitudeStep;
+  private final double maxErrorSeconds;
+
+  LocationGrid(double cellKm, double maxLatitude) {
+    if (cellKm <= 0) {
+      throw new IllegalArgumentException("Cell size must be positive: " + cellKm);
+    }
+    if (maxLatitude < 0 || maxLatitude >= 90 - MAX_DECLINATION - MAX_TWILIGHT_ANGLE) {
+      throw new IllegalArgumentException(
+          "Max latitude must be within [0, "
+              + (90 - MAX_DECLINATION - MAX_TWILIGHT_ANGLE)
+              + "): "
+              + maxLatitude);
+    }
+    this.cellKm = cellKm;
+    this.maxLatitude = maxLatitude;
+    this.latitudeStep = cellKm / KM_PER_DEGREE;
+    this.maxErrorSeconds = computeMaxErrorSeconds();
+  }
+
+  /** Returns the cell containing the coordinates, or {@code null} if they are not snappable. */
+  Cell snap(double latitude, double longitude) {
+    if (Math.abs(latitude) > maxLatitude) {
+      return null;
+    }
+    int row = (int) Math.floor(latitude / latitudeStep);
+    double centerLatitude = (row + 0.5) * latitudeStep;
+    double longitudeStep = longitudeStep(centerLatitude);
+    int column = (int) Math.floor((longitude + 180) / longitudeStep);
+    double centerLongitude = (column + 0.5) * longitudeStep - 180;
+    return new Cell(row, column, centerLatitude, centerLongitude);
+  }
+
+  double maxErrorSeconds() {
+    return maxErrorSeconds;
+  }
+
+  private double longitudeStep(double latitude) {
+    return cellKm / (KM_PER_DEGREE * Math.cos(Math.toRadians(latitude)));
+  }
+
+  private double computeMaxErrorSeconds() {
+    // Row centers can sit up to half a step past maxLatitude, where columns are widest in degrees
+    double maxHalfLongitudeStep = longitudeStep(maxLatitude + latitudeStep) / 2;
+    double halfLatitudeStep = latitudeStep / 2;
+    return SECONDS_PER_DEGREE_LONGITUDE * maxHalfLongitudeStep
+        + maxLatitudeSensitivity(maxLatitude + latitudeStep) * halfLatitudeStep;
+  }
+
+  /** Worst-case |dT/dφ| in seconds of time per degree of latitude for |φ| ≤ maxLatitude. */
+  static double maxLatitudeSensitivity(double maxLatitude) {
+    double max = 0;
+    for (double latitude = -maxLatitude; latitude <= maxLatitude; latitude += SAMPLE_STEP) {
+      for (double declination = -MAX_DECLINATION;
+          declination <= MAX_DECLINATION;
+          declination += SAMPLE_STEP) {
+        max = Math.max(max, sensitivity(latitude, declination));
+      }
+      max = Math.max(max, sensitivity(latitude, MAX_DECLINATION));
+    }
+    max = Math.max(max, sensitivity(maxLatitude, -MAX_DECLINATION));
+    max = Math.max(max, sensitivity(-maxLatitude, MAX_DECLINATION));
+    return max * SAMPLING_MARGIN;
+  }
+
+  private static double sensitivity(double latitudeDeg, double declinationDeg) {
+    double phi = Math.toRadians(latitudeDeg);
+    double delta = Math.toRadians(declinationDeg);
+
+    double max = hourAngleSensitivity(phi, delta, Math.toRadians(HORIZON_ALTITUDE), 0);
+    for (double depression = SAMPLE_STEP;
+        depression <= MAX_TWILIGHT_ANGLE;
+        depression += SAMPLE_STEP) {
+      max = Math.max(max, hourAngleSensitivity(phi, delta, Math.toRadians(-depression), 0));
+    }
+    for (int shadowFactor = 1; shadowFactor <= 2; shadowFactor++) {
+      double x = Math.abs(phi - delta);
+      double k = shadowFactor + Math.tan(x);
+      double altitude = Math.atan(1 / k);
+      double altitudeDerivative =
+          -Math.signum(phi - delta) / (Math.cos(x) * Math.cos(x) * (1 + k * k));
+      max = Math.max(max, hourAngleSensitivity(phi, delta, altitude, altitudeDerivative));
+    }
+    return max * SECONDS_PER_DEGREE_LONGITUDE;
+  }
+
+  /** |dH/dφ| (dimensionless) for an event at the given altitude, or 0 if it does not occur. */
+  private static double hourAngleSensitivity(
+      double phi, double delta, double altitude, double altitudeDerivative) {
+    double cosPhi = Math.cos(phi);
+    double cosDelta = Math.cos(delta);
+    double cosH = (Math.sin(altitude) - Math.sin(phi) * Math.sin(delta)) / (cosPhi * cosDelta);
+    if (Math.abs(cosH) >= 1) {
+      return 0;
+    }
+    double sinH = Math.sqrt(1 - cosH * cosH);
+    double dCosH =
+        (Math.sin(altitude) * Math.sin(phi) - Math.sin(delta)) / (cosPhi * cosPhi * cosDelta)
+            + Math.cos(altitude) / (cosPhi * cosDelta) * altitudeDerivative;
+    return Math.abs(dCosH / sinH);
+  }
+
+  record Cell(int row, int column, double latitude, double longitude) {}
+}
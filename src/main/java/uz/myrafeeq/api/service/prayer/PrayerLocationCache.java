@@ -0,0 +1,110 @@
+package uz.myrafeeq.api.service.prayer;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.time.LocalDate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import uz.myrafeeq.api.configuration.PrayerTimesProperties;
+import uz.myrafeeq.api.dto.response.PrayerTimesResponse;
+import uz.myrafeeq.api.enums.CalculationMethod;
+import uz.myrafeeq.api.enums.Madhab;
+
+/**
+ * Cache of prayer times by location, keyed by grid cell rather than raw coordinates so that nearby
+ * requests share an entry. Times are calculated at the cell center; the grid guarantees the error
+ * stays within {@code myrafeeq.prayer-times.max-location-error-seconds}, and startup fails if the
+ * configured cell size cannot honor it.
+ */
+@Slf4j
+@Component
+public class PrayerLocationCache {
+
+  private static final String CACHE_NAME = "prayerTimesByLocation";
+  private static final String METRIC_NAME = "prayer.times.location.cache";
+  private static final int MAX_ENTRIES = 50_000;
+  private static final Duration TTL = Duration.ofHours(1);
+
+  private final LocationGrid grid;
+  private final Cache<LocationKey, PrayerTimesResponse> cache;
+  private final Counter hits;
+  private final Counter misses;
+  private final Counter bypasses;
+
+  public PrayerLocationCache(PrayerTimesProperties properties, MeterRegistry meterRegistry) {
+    this.grid =
+        new LocationGrid(properties.getLocationCellKm(), properties.getLocationMaxLatitude());
+    if (grid.maxErrorSeconds() > properties.getMaxLocationErrorSeconds()) {
+      throw new IllegalStateException(
+          String.format(
+              "Location cell of %.3f km up to %.1f° latitude allows %.1fs error, budget is %ds",
+              properties.getLocationCellKm(),
+              properties.getLocationMaxLatitude(),
+              grid.maxErrorSeconds(),
+              properties.getMaxLocationErrorSeconds()));
+    }
+    log.info(
+        "Prayer times location grid: cell={}km, maxLatitude={}, maxError={}s",
+        properties.getLocationCellKm(),
+        properties.getLocationMaxLatitude(),
+        String.format("%.1f", grid.maxErrorSeconds()));
+
+    this.cache =
+        Caffeine.newBuilder().maximumSize(MAX_ENTRIES).expireAfterWrite(TTL).recordStats().build();
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+
+    String resolution = String.valueOf(properties.getLocationCellKm());
+    this.hits = counter(meterRegistry, resolution, "hit");
+    this.misses = counter(meterRegistry, resolution, "miss");
+    this.bypasses = counter(meterRegistry, resolution, "bypass");
+  }
+
+  PrayerTimesResponse get(
+      double latitude,
+      double longitude,
+      LocalDate date,
+      CalculationMethod method,
+      String timezone,
+      Madhab madhab,
+      Loader loader) {
+    LocationGrid.Cell cell = grid.snap(latitude, longitude);
+    if (cell == null) {
+      bypasses.increment();
+      return loader.load(latitude, longitude);
+    }
+
+    LocationKey key = new LocationKey(cell.row(), cell.column(), date, method, timezone, madhab);
+    PrayerTimesResponse cached = cache.getIfPresent(key);
+    if (cached != null) {
+      hits.increment();
+      return cached;
+    }
+    misses.increment();
+    return cache.get(key, _ -> loader.load(cell.latitude(), cell.longitude()));
+  }
+
+  private static Counter counter(MeterRegistry meterRegistry, String resolution, String result) {
+    return Counter.builder(METRIC_NAME)
+        .description("Prayer times by location cache lookups")
+        .tag("cell.km", resolution)
+        .tag("result", result)
+        .register(meterRegistry);
+  }
+
+  @FunctionalInterface
+  interface Loader {
+    PrayerTimesResponse load(double latitude, double longitude);
+  }
+
+  private record LocationKey(
+      int row,
+      int column,
+      LocalDate date,
+      CalculationMethod method,
+      String timezone,
+      Madhab madhab) {}
+}
@@ -0,0 +1,157 @@
+package uz.myrafeeq.api.service.prayer;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import uz.myrafeeq.api.dto.response.PrayerStatsResponse;
+import uz.myrafeeq.api.enums.PrayerName;
+import uz.myrafeeq.api.enums.StatsPeriod;
+import uz.myrafeeq.api.service.prayer.PrayerStreakTracker.Streak;
+
+/**
+ * Keeps cached {@code prayerStats} entries in step with toggles by applying each change in place,
+ * so the next stats read does not recompute every period.
+ *
+ * <p>An entry is evicted instead when the change cannot be applied safely: it was computed for an
+ * earlier day in the user's timezone, or it was replaced while the toggle was being written and may
+ * or may not already include it.
+ */
+@Component
+@RequiredArgsConstructor
+public class PrayerStatsCache {
+
+  static final String CACHE_NAME = "prayerStats";
+
+  private final CacheManager cacheManager;
+
+  /** Captures the user's cached entries before a toggle is written. */
+  Snapshot snapshot(Long telegramId) {
+    Map<StatsPeriod, Object> entries = new EnumMap<>(StatsPeriod.class);
+    Cache cache = cacheManager.getCache(CACHE_NAME);
+    if (cache != null) {
+      for (StatsPeriod period : StatsPeriod.values()) {
+        Cache.ValueWrapper entry = cache.get(key(telegramId, period));
+        if (entry != null) {
+          entries.put(period, entry.get());
+        }
+      }
+    }
+    return new Snapshot(telegramId, entries);
+  }
+
+  /**
+   * Applies a committed toggle to the entries captured in {@code before}. {@code delta} is +1 when
+   * the prayer became prayed, -1 when it was cleared and 0 when its state did not change.
+   */
+  void applyToggle(
+      Snapshot before,
+      LocalDate date,
+      PrayerName prayer,
+      int delta,
+      Streak streak,
+      LocalDate today) {
+    if (delta == 0) {
+      return;
+    }
+    Cache cache = cacheManager.getCache(CACHE_NAME);
+    if (cache == null) {
+      return;
+    }
+    ConcurrentMap<Object, Object> entries = entries(cache);
+    if (entries == null) {
+      evict(before.telegramId());
+      return;
+    }
+
+    for (StatsPeriod period : StatsPeriod.values()) {
+      Object seen = before.entries().get(period);
+      String key = key(before.telegramId(), period);
+      if (seen == null) {
+        entries.remove(key);
+        continue;
+      }
+      entries.computeIfPresent(
+          key,
+          (_, current) ->
+              current == seen && current instanceof PrayerStatsResponse stats
+                  ? apply(stats, date, prayer, delta, streak, today)
+                  : null);
+    }
+  }
+
+  void evict(Long telegramId) {
+    evictAll(List.of(telegramId));
+  }
+
+  void evictAll(Collection<Long> telegramIds) {
+    Cache cache = cacheManager.getCache(CACHE_NAME);
+    if (cache == null) {
+      return;
+    }
+    for (Long telegramId : telegramIds) {
+      for (StatsPeriod period : StatsPeriod.values()) {
+        cache.evict(key(telegramId, period));
+      }
+    }
+  }
+
+  /** Returns the adjusted entry, or {@code null} to evict it. */
+  static PrayerStatsResponse apply(
+      PrayerStatsResponse stats,
+      LocalDate date,
+      PrayerName prayer,
+      int delta,
+      Streak streak,
+      LocalDate today) {
+    if (!today.equals(stats.getTo())) {
+      return null;
+    }
+    PrayerStatsResponse.PrayerStatsResponseBuilder updated =
+        stats.toBuilder().streak(streak.current()).longestStreak(streak.longest());
+    if (date.isBefore(stats.getFrom()) || date.isAfter(stats.getTo())) {
+      return updated.build();
+    }
+
+    PrayerStatsResponse.PrayerStatDetail detail = stats.getByPrayer().get(prayer.name());
+    if (detail == null) {
+      return null;
+    }
+    Map<String, PrayerStatsResponse.PrayerStatDetail> byPrayer =
+        new LinkedHashMap<>(stats.getByPrayer());
+    byPrayer.put(
+        prayer.name(),
+        PrayerStatsResponse.PrayerStatDetail.builder()
+            .total(detail.getTotal())
+            .completed(detail.getCompleted() + delta)
+            .build());
+    int completed = stats.getCompleted() + delta;
+    int percentage = stats.getTotal() > 0 ? (completed * 100) / stats.getTotal() : 0;
+    return updated.completed(completed).percentage(percentage).byPrayer(byPrayer).build();
+  }
+
+  static String key(Long telegramId, StatsPeriod period) {
+    return telegramId + "-" + period.name();
+  }
+
+  @SuppressWarnings("unchecked")
+  private static ConcurrentMap<Object, Object> entries(Cache cache) {
+    Object nativeCache = cache.getNativeCache();
+    if (nativeCache instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine) {
+      return (ConcurrentMap<Object, Object>) caffeine.asMap();
+    }
+    if (nativeCache instanceof ConcurrentMap<?, ?> map) {
+      return (ConcurrentMap<Object, Object>) map;
+    }
+    return null;
+  }
+
+  record Snapshot(Long telegramId, Map<StatsPeriod, Object> entries) {}
+}
@@ -0,0 +1,107 @@
+package uz.myrafeeq.api.service.prayer;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import uz.myrafeeq.api.entity.UserStreakEntity;
+import uz.myrafeeq.api.enums.PrayerName;
+import uz.myrafeeq.api.repository.PrayerDailySummaryRepository;
+import uz.myrafeeq.api.repository.UserStreakRepository;
+import uz.myrafeeq.api.repository.projection.DailySummaryProjection;
+
+/**
+ * Maintains each user's streak as the latest run of fully completed days plus the longest earlier
+ * run, so reading it is a primary-key lookup.
+ *
+ * <p>A toggle can only touch the last {@link PrayerTrackingService#MAX_PAST_DAYS} days, so only
+ * that window is recomputed from the daily rollups; anything older is taken from the stored run.
+ * Runs that have already been superseded are folded into the longest streak and are not revisited,
+ * so an edit can shorten the current run but not an earlier record.
+ */
+@Component
+@RequiredArgsConstructor
+public class PrayerStreakTracker {
+
+  private static final int PRAYERS_PER_DAY = PrayerName.values().length;
+
+  private final UserStreakRepository streakRepository;
+  private final PrayerDailySummaryRepository summaryRepository;
+
+  /** Recomputes the streak after a toggle and returns it. Must run in the toggle's transaction. */
+  public Streak onToggle(Long telegramId, LocalDate today) {
+    streakRepository.insertIfAbsent(telegramId);
+    UserStreakEntity state = streakRepository.findForUpdate(telegramId).orElseThrow();
+
+    LocalDate windowStart = today.minusDays(PrayerTrackingService.MAX_PAST_DAYS);
+    Set<LocalDate> completeDays =
+        summaryRepository.findRange(telegramId, windowStart, today).stream()
+            .filter(day -> day.getCompletedCount() == PRAYERS_PER_DAY)
+            .map(DailySummaryProjection::getSummaryDate)
+            .collect(Collectors.toSet());
+
+    recompute(state, completeDays, windowStart, today);
+    state.setUpdatedAt(Instant.now());
+    return toStreak(state, today);
+  }
+
+  public Streak get(Long telegramId, LocalDate today) {
+    return streakRepository
+        .findById(telegramId)
+        .map(state -> toStreak(state, today))
+        .orElse(new Streak(0, 0));
+  }
+
+  static void recompute(
+      UserStreakEntity state, Set<LocalDate> completeDays, LocalDate windowStart, LocalDate today) {
+    LocalDate frozenUntil = windowStart.minusDays(1);
+    int longest = state.getLongestStreak();
+    LocalDate runStart = null;
+    LocalDate runEnd = null;
+
+    if (state.getCurrentEnd() != null) {
+      if (state.getCurrentEnd().isBefore(frozenUntil)) {
+        // Ended before the window and nothing since: it can no longer change
+        longest = Math.max(longest, length(state.getCurrentStart(), state.getCurrentEnd()));
+      } else if (!state.getCurrentStart().isAfter(frozenUntil)) {
+        runStart = state.getCurrentStart();
+        runEnd = frozenUntil;
+      }
+    }
+
+    for (LocalDate date = windowStart; !date.isAfter(today); date = date.plusDays(1)) {
+      if (!completeDays.contains(date)) {
+        continue;
+      }
+      if (runEnd == null || !runEnd.equals(date.minusDays(1))) {
+        if (runStart != null) {
+          longest = Math.max(longest, length(runStart, runEnd));
+        }
+        runStart = date;
+      }
+      runEnd = date;
+    }
+
+    state.setCurrentStart(runStart);
+    state.setCurrentEnd(runEnd);
+    state.setLongestStreak(longest);
+  }
+
+  static Streak toStreak(UserStreakEntity state, LocalDate today) {
+    if (state.getCurrentEnd() == null) {
+      return new Streak(0, state.getLongestStreak());
+    }
+    int run = length(state.getCurrentStart(), state.getCurrentEnd());
+    int current = state.getCurrentEnd().equals(today) ? run : 0;
+    return new Streak(current, Math.max(run, state.getLongestStreak()));
+  }
+
+  private static int length(LocalDate start, LocalDate end) {
+    return (int) ChronoUnit.DAYS.between(start, end) + 1;
+  }
+
+  public record Streak(int current, int longest) {}
+}
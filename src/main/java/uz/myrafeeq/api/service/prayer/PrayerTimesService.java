@@ -2,19 +2,17 @@ package uz.myrafeeq.api.service.prayer;
 
 import com.batoulapps.adhan.CalculationParameters;
 import com.batoulapps.adhan.Coordinates;
+import com.batoulapps.adhan.PrayerAdjustments;
 import com.batoulapps.adhan.PrayerTimes;
 import com.batoulapps.adhan.data.DateComponents;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
-import java.time.ZonedDateTime;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import uz.myrafeeq.api.dto.response.PrayerTimesResponse;
@@ -25,8 +23,9 @@ import uz.myrafeeq.api.enums.HighLatitudeRule;
 import uz.myrafeeq.api.enums.Madhab;
 import uz.myrafeeq.api.exception.PreferencesNotFoundException;
 import uz.myrafeeq.api.exception.RequestValidationException;
-import uz.myrafeeq.api.repository.CityRepository;
 import uz.myrafeeq.api.repository.UserPreferencesRepository;
+import uz.myrafeeq.api.service.city.ReferenceData;
+import uz.myrafeeq.api.service.user.UserContext;
 
 @Slf4j
 @Service
@@ -34,7 +33,9 @@ import uz.myrafeeq.api.repository.UserPreferencesRepository;
 public class PrayerTimesService {
 
   private final UserPreferencesRepository preferencesRepository;
-  private final CityRepository cityRepository;
+  private final ReferenceData referenceData;
+  private final PrayerTimetableStore timetableStore;
+  private final PrayerLocationCache locationCache;
 
   @Transactional(readOnly = true)
   public List<PrayerTimesResponse> calculatePrayerTimes(Long telegramId, LocalDate date, int days) {
@@ -47,9 +48,25 @@ public class PrayerTimesService {
                         "Preferences not found for user: " + telegramId));
 
     CityEntity city =
-        prefs.getCityId() != null ? cityRepository.findById(prefs.getCityId()).orElse(null) : null;
+        prefs.getCityId() != null ? referenceData.findCity(prefs.getCityId()).orElse(null) : null;
 
+    return calculatePrayerTimes(telegramId, prefs, city, date, days);
+  }
+
+  /** Same as {@link #calculatePrayerTimes(Long, LocalDate, int)} for an already loaded user. */
+  public List<PrayerTimesResponse> calculatePrayerTimes(
+      UserContext context, LocalDate date, int days) {
+    return calculatePrayerTimes(
+        context.telegramId(), context.preferences(), context.city(), date, days);
+  }
+
+  private List<PrayerTimesResponse> calculatePrayerTimes(
+      Long telegramId, UserPreferencesEntity prefs, CityEntity city, LocalDate date, int days) {
     PrayerCalculationParams params = PrayerCalculationParams.fromPreferences(prefs, city);
+    boolean cityLocation =
+        city != null
+            && city.getLatitude().equals(prefs.getLatitude())
+            && city.getLongitude().equals(prefs.getLongitude());
 
     LocalDate startDate = date != null ? date : LocalDate.now();
     log.debug(
@@ -61,14 +78,11 @@ public class PrayerTimesService {
 
     List<PrayerTimesResponse> results = new ArrayList<>();
     for (int i = 0; i < days; i++) {
-      results.add(computePrayerTimes(startDate.plusDays(i), params));
+      results.add(computePrayerTimes(startDate.plusDays(i), params, cityLocation));
     }
     return results;
   }
 
-  @Cacheable(
-      value = "prayerTimesByLocation",
-      key = "#lat + ',' + #lon + ',' + #date + ',' + #method + ',' + #timezone + ',' + #madhab")
   public PrayerTimesResponse calculatePrayerTimesByLocation(
       double lat,
       double lon,
@@ -89,35 +103,39 @@ public class PrayerTimesService {
       }
     }
 
-    PrayerCalculationParams params =
-        new PrayerCalculationParams(
-            lat,
-            lon,
-            calcMethod,
-            madhab != null ? madhab : Madhab.SHAFI,
-            HighLatitudeRule.MIDDLE_OF_NIGHT,
-            tz,
-            Map.of(),
-            0,
-            "");
-
-    return computePrayerTimes(targetDate, params);
+    Madhab calcMadhab = madhab != null ? madhab : Madhab.SHAFI;
+    String zone = tz;
+    return locationCache.get(
+        lat,
+        lon,
+        targetDate,
+        calcMethod,
+        zone,
+        calcMadhab,
+        (cellLat, cellLon) ->
+            computePrayerTimes(
+                targetDate,
+                new PrayerCalculationParams(
+                    cellLat,
+                    cellLon,
+                    calcMethod,
+                    calcMadhab,
+                    HighLatitudeRule.MIDDLE_OF_NIGHT,
+                    zone,
+                    Map.of(),
+                    0,
+                    ""),
+                false));
   }
 
-  private PrayerTimesResponse computePrayerTimes(LocalDate date, PrayerCalculationParams params) {
-    Coordinates coordinates = new Coordinates(params.latitude(), params.longitude());
-    DateComponents dateComponents =
-        new DateComponents(date.getYear(), date.getMonthValue(), date.getDayOfMonth());
-    CalculationParameters calcParams = toAdhanParams(params);
-
-    PrayerTimes prayerTimes = new PrayerTimes(coordinates, dateComponents, calcParams);
-
-    ZoneId zoneId;
-    try {
-      zoneId = ZoneId.of(params.timezone());
-    } catch (Exception _) {
-      zoneId = ZoneOffset.UTC;
-    }
+  /**
+   * Builds the response for one day. City locations are served from the precomputed timetable with
+   * manual adjustments applied on top; arbitrary coordinates are computed directly.
+   */
+  PrayerTimesResponse computePrayerTimes(
+      LocalDate date, PrayerCalculationParams params, boolean useTimetable) {
+    int[] minutes =
+        useTimetable ? adjustedTimetableMinutes(date, params) : computeMinutes(date, params);
 
     return PrayerTimesResponse.builder()
         .date(date)
@@ -125,12 +143,12 @@ public class PrayerTimesService {
         .city(params.cityName())
         .times(
             PrayerTimesResponse.PrayerTimesDto.builder()
-                .fajr(formatTime(prayerTimes.fajr, zoneId))
-                .sunrise(formatTime(prayerTimes.sunrise, zoneId))
-                .dhuhr(formatTime(prayerTimes.dhuhr, zoneId))
-                .asr(formatTime(prayerTimes.asr, zoneId))
-                .maghrib(formatTime(prayerTimes.maghrib, zoneId))
-                .isha(formatTime(prayerTimes.isha, zoneId))
+                .fajr(formatMinutes(minutes[0]))
+                .sunrise(formatMinutes(minutes[1]))
+                .dhuhr(formatMinutes(minutes[2]))
+                .asr(formatMinutes(minutes[3]))
+                .maghrib(formatMinutes(minutes[4]))
+                .isha(formatMinutes(minutes[5]))
                 .build())
         .meta(
             PrayerTimesResponse.PrayerTimesMeta.builder()
@@ -141,6 +159,50 @@ public class PrayerTimesService {
         .build();
   }
 
+  private int[] computeMinutes(LocalDate date, PrayerCalculationParams params) {
+    Coordinates coordinates = new Coordinates(params.latitude(), params.longitude());
+    DateComponents dateComponents =
+        new DateComponents(date.getYear(), date.getMonthValue(), date.getDayOfMonth());
+    PrayerTimes prayerTimes = new PrayerTimes(coordinates, dateComponents, toAdhanParams(params));
+
+    ZoneId zoneId = params.zoneId();
+    return new int[] {
+      PrayerTimetableStore.toMinuteOfDay(prayerTimes.fajr, zoneId),
+      PrayerTimetableStore.toMinuteOfDay(prayerTimes.sunrise, zoneId),
+      PrayerTimetableStore.toMinuteOfDay(prayerTimes.dhuhr, zoneId),
+      PrayerTimetableStore.toMinuteOfDay(prayerTimes.asr, zoneId),
+      PrayerTimetableStore.toMinuteOfDay(prayerTimes.maghrib, zoneId),
+      PrayerTimetableStore.toMinuteOfDay(prayerTimes.isha, zoneId)
+    };
+  }
+
+  private int[] adjustedTimetableMinutes(LocalDate date, PrayerCalculationParams params) {
+    int[] minutes = timetableStore.lookup(params, date);
+    Map<String, Integer> adj = params.adjustments();
+    if (adj.isEmpty()) {
+      return minutes;
+    }
+
+    // Manual adjustments replace the method's own adjustments (see toAdhanParams), so the stored
+    // base times are shifted by the difference. Sunrise is never adjusted manually.
+    PrayerAdjustments base = params.method().getParameters().adjustments;
+    int[] deltas = {
+      adj.getOrDefault("FAJR", 0) - base.fajr,
+      0,
+      adj.getOrDefault("DHUHR", 0) - base.dhuhr,
+      adj.getOrDefault("ASR", 0) - base.asr,
+      adj.getOrDefault("MAGHRIB", 0) - base.maghrib,
+      adj.getOrDefault("ISHA", 0) - base.isha
+    };
+    for (int slot = 0; slot < PrayerTimetableStore.SLOTS; slot++) {
+      if (minutes[slot] != PrayerTimetableStore.MISSING) {
+        minutes[slot] =
+            Math.floorMod(minutes[slot] + deltas[slot], PrayerTimetableStore.MINUTES_PER_DAY);
+      }
+    }
+    return minutes;
+  }
+
   private CalculationParameters toAdhanParams(PrayerCalculationParams params) {
     CalculationParameters calcParams = params.method().getParameters();
     calcParams.madhab = params.madhab().toAdhan();
@@ -158,12 +220,20 @@ public class PrayerTimesService {
     return calcParams;
   }
 
-  private String formatTime(Date time, ZoneId zoneId) {
-    if (time == null) {
+  private String formatMinutes(int minuteOfDay) {
+    if (minuteOfDay == PrayerTimetableStore.MISSING) {
       return "--:--";
     }
-    ZonedDateTime zdt = time.toInstant().atZone(zoneId);
-    return String.format("%02d:%02d", zdt.getHour(), zdt.getMinute());
+    int hour = minuteOfDay / 60;
+    int minute = minuteOfDay % 60;
+    char[] chars = {
+      (char) ('0' + hour / 10),
+      (char) ('0' + hour % 10),
+      ':',
+      (char) ('0' + minute / 10),
+      (char) ('0' + minute % 10)
+    };
+    return new String(chars);
   }
 
   record PrayerCalculationParams(
@@ -177,6 +247,18 @@ public class PrayerTimesService {
       int hijriCorrection,
       String cityName) {
 
+    static ZoneId toZoneId(String timezone) {
+      try {
+        return ZoneId.of(timezone);
+      } catch (Exception _) {
+        return ZoneOffset.UTC;
+      }
+    }
+
+    ZoneId zoneId() {
+      return toZoneId(timezone);
+    }
+
     static PrayerCalculationParams fromPreferences(UserPreferencesEntity prefs, CityEntity city) {
       if (prefs.getLatitude() == null || prefs.getLongitude() == null) {
         throw new PreferencesNotFoundException(
@@ -0,0 +1,110 @@
+package uz.myrafeeq.api.service.prayer;
+
+import com.batoulapps.adhan.CalculationParameters;
+import com.batoulapps.adhan.Coordinates;
+import com.batoulapps.adhan.PrayerTimes;
+import com.batoulapps.adhan.data.DateComponents;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Date;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import uz.myrafeeq.api.enums.CalculationMethod;
+import uz.myrafeeq.api.enums.HighLatitudeRule;
+import uz.myrafeeq.api.enums.Madhab;
+
+/**
+ * Year-long prayer timetables precomputed per location and calculation settings.
+ *
+ * <p>Each timetable is a packed {@code short[]} of local minutes since midnight, six slots per day
+ * (fajr, sunrise, dhuhr, asr, maghrib, isha). Manual adjustments are not part of the key; callers
+ * apply them on top of the stored base times.
+ */
+@Slf4j
+@Component
+public class PrayerTimetableStore {
+
+  static final int SLOTS = 6;
+  static final int MISSING = -1;
+  static final int MINUTES_PER_DAY = 24 * 60;
+
+  private static final int MAX_TIMETABLES = 2_000;
+
+  private final Cache<TimetableKey, short[]> timetables =
+      Caffeine.newBuilder().maximumSize(MAX_TIMETABLES).recordStats().build();
+
+  int[] lookup(PrayerTimesService.PrayerCalculationParams params, LocalDate date) {
+    short[] table = timetables.get(TimetableKey.of(params, date.getYear()), this::compute);
+    int offset = (date.getDayOfYear() - 1) * SLOTS;
+    int[] minutes = new int[SLOTS];
+    for (int slot = 0; slot < SLOTS; slot++) {
+      minutes[slot] = table[offset + slot];
+    }
+    return minutes;
+  }
+
+  static int toMinuteOfDay(Date time, ZoneId zoneId) {
+    if (time == null) {
+      return MISSING;
+    }
+    ZonedDateTime zdt = time.toInstant().atZone(zoneId);
+    return zdt.getHour() * 60 + zdt.getMinute();
+  }
+
+  private short[] compute(TimetableKey key) {
+    long started = System.nanoTime();
+
+    Coordinates coordinates = new Coordinates(key.latitude(), key.longitude());
+    CalculationParameters calcParams = key.method().getParameters();
+    calcParams.madhab = key.madhab().toAdhan();
+    calcParams.highLatitudeRule = key.highLatitudeRule().toAdhan();
+    ZoneId zoneId = PrayerTimesService.PrayerCalculationParams.toZoneId(key.timezone());
+
+    LocalDate day = LocalDate.ofYearDay(key.year(), 1);
+    int days = day.lengthOfYear();
+    short[] table = new short[days * SLOTS];
+
+    for (int i = 0; i < days; i++, day = day.plusDays(1)) {
+      PrayerTimes times =
+          new PrayerTimes(
+              coordinates,
+              new DateComponents(day.getYear(), day.getMonthValue(), day.getDayOfMonth()),
+              calcParams);
+      int offset = i * SLOTS;
+      table[offset] = (short) toMinuteOfDay(times.fajr, zoneId);
+      table[offset + 1] = (short) toMinuteOfDay(times.sunrise, zoneId);
+      table[offset + 2] = (short) toMinuteOfDay(times.dhuhr, zoneId);
+      table[offset + 3] = (short) toMinuteOfDay(times.asr, zoneId);
+      table[offset + 4] = (short) toMinuteOfDay(times.maghrib, zoneId);
+      table[offset + 5] = (short) toMinuteOfDay(times.isha, zoneId);
+    }
+
+    log.debug(
+        "Precomputed timetable: {} in {}ms", key, (System.nanoTime() - started) / 1_000_000);
+    return table;
+  }
+
+  record TimetableKey(
+      double latitude,
+      double longitude,
+      String timezone,
+      CalculationMethod method,
+      Madhab madhab,
+      HighLatitudeRule highLatitudeRule,
+      int year) {
+
+    static TimetableKey of(PrayerTimesService.PrayerCalculationParams params, int year) {
+      return new TimetableKey(
+          params.latitude(),
+          params.longitude(),
+          params.timezone(),
+          params.method(),
+          params.madhab(),
+          params.highLatitudeRule(),
+          year);
+    }
+  }
+}
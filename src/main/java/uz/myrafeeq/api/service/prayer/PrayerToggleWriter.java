@@ -0,0 +1,348 @@
+package uz.myrafeeq.api.service.prayer;
+
+import jakarta.annotation.PreDestroy;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import uz.myrafeeq.api.configuration.TrackingProperties;
+import uz.myrafeeq.api.enums.PrayerName;
+import uz.myrafeeq.api.repository.PrayerDailySummaryRepository;
+import uz.myrafeeq.api.repository.PrayerToggle;
+import uz.myrafeeq.api.repository.PrayerTrackingStore;
+import uz.myrafeeq.api.repository.SyncablePrayerTrackingStore;
+import uz.myrafeeq.api.repository.projection.TrackedPrayer;
+import uz.myrafeeq.api.service.user.UserTimezoneResolver;
+
+/**
+ * Persists prayer toggles: the tracking store, the daily rollup and the streak.
+ *
+ * <p>By default each toggle is written through in its own transaction and then applied to the
+ * cached statistics by {@link PrayerStatsCache}. With {@code
+ * myrafeeq.tracking.write-behind} enabled, toggles are acknowledged from a per-user in-memory
+ * buffer where repeated flips of the same prayer collapse into the last one, and are flushed in
+ * JDBC batches every {@code flush-interval} or once {@code flush-size} slots are pending. Reads go
+ * through {@link #withPending} and {@link #flush(Long)} so a user always sees their own toggles;
+ * drained toggles stay visible as in flight until their batch commits or is requeued.
+ * The buffer is drained on shutdown; toggles are lost only if the process dies without one.
+ *
+ * <p>A failed batch is retried one user per transaction, so a single bad toggle cannot hold back
+ * everyone else's. A toggle that still fails is requeued, and dropped with an error after {@link
+ * #MAX_FLUSH_ATTEMPTS} failed flushes.
+ */
+@Slf4j
+@Component
+public class PrayerToggleWriter {
+
+  static final int MAX_FLUSH_ATTEMPTS = 5;
+
+  private final PrayerTrackingStore trackingStore;
+  private final PrayerDailySummaryRepository summaryRepository;
+  private final PrayerStreakTracker streakTracker;
+  private final UserTimezoneResolver userTimezoneResolver;
+  private final PrayerStatsCache statsCache;
+  private final TransactionTemplate transactionTemplate;
+  private final TrackingProperties properties;
+
+  private final Map<Long, Map<Slot, PrayerToggle>> pending = new ConcurrentHashMap<>();
+  private final Map<Long, Map<Slot, PrayerToggle>> inFlight = new ConcurrentHashMap<>();
+  private final Map<PrayerToggle, Integer> failedAttempts = new ConcurrentHashMap<>();
+  private final AtomicInteger pendingSlots = new AtomicInteger();
+  private final ReentrantLock flushLock = new ReentrantLock();
+
+  public PrayerToggleWriter(
+      PrayerTrackingStore trackingStore,
+      PrayerDailySummaryRepository summaryRepository,
+      PrayerStreakTracker streakTracker,
+      UserTimezoneResolver userTimezoneResolver,
+      PrayerStatsCache statsCache,
+      PlatformTransactionManager transactionManager,
+      TrackingProperties properties) {
+    this.trackingStore = trackingStore;
+    this.summaryRepository = summaryRepository;
+    this.streakTracker = streakTracker;
+    this.userTimezoneResolver = userTimezoneResolver;
+    this.statsCache = statsCache;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    // Flushes may be triggered from inside a read-only transaction
+    this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    this.properties = properties;
+  }
+
+  public TrackedPrayer write(
+      Long telegramId, LocalDate date, PrayerName prayer, boolean prayed, LocalDate today) {
+    PrayerToggle toggle = new PrayerToggle(telegramId, date, prayer, prayed, Instant.now());
+    if (!properties.isWriteBehind()) {
+      PrayerStatsCache.Snapshot cached = statsCache.snapshot(telegramId);
+      Written written = transactionTemplate.execute(_ -> writeThrough(toggle, today));
+      statsCache.applyToggle(cached, date, prayer, written.delta(), written.streak(), today);
+      return written.tracked();
+    }
+
+    pending.compute(
+        telegramId,
+        (_, slots) -> {
+          Map<Slot, PrayerToggle> userSlots = slots != null ? slots : new ConcurrentHashMap<>();
+          PrayerToggle replaced = userSlots.put(new Slot(date, prayer), toggle);
+          if (replaced == null) {
+            pendingSlots.incrementAndGet();
+          } else {
+            failedAttempts.remove(replaced);
+          }
+          return userSlots;
+        });
+    // Cached stats cannot include a toggle that is not written yet
+    statsCache.evict(telegramId);
+    if (pendingSlots.get() >= properties.getFlushSize() && !flushLock.isLocked()) {
+      Thread.ofVirtual().name("prayer-toggle-flush").start(this::flush);
+    }
+    return new TrackedPrayer(date, prayer, prayed, toggle.toggledAt());
+  }
+
+  /**
+   * Writes a client's offline toggles for one user in a single transaction, last writer wins on
+   * {@code toggledAt}. The user's buffered toggles are flushed first so they take part in the
+   * comparison. Toggles must not repeat a prayer. Returns, per toggle, whether it was applied.
+   */
+  public boolean[] sync(Long telegramId, List<PrayerToggle> toggles, LocalDate today) {
+    if (!(trackingStore instanceof SyncablePrayerTrackingStore syncableStore)) {
+      throw new IllegalStateException("Tracking store does not support sync");
+    }
+    flush(telegramId);
+    return transactionTemplate.execute(
+        _ -> {
+          boolean[] applied = syncableStore.syncAll(toggles);
+          List<PrayerToggle> winners = new ArrayList<>();
+          for (int i = 0; i < applied.length; i++) {
+            if (applied[i]) {
+              winners.add(toggles.get(i));
+            }
+          }
+          if (!winners.isEmpty()) {
+            summaryRepository.applyToggles(winners);
+            streakTracker.onToggle(telegramId, today);
+          }
+          return applied;
+        });
+  }
+
+  /** Whether the tracking store keeps the per-prayer toggle times that {@link #sync} compares. */
+  public boolean supportsSync() {
+    return trackingStore instanceof SyncablePrayerTrackingStore;
+  }
+
+  /** Overlays the user's unflushed toggles between {@code from} and {@code to} on stored ones. */
+  public List<TrackedPrayer> withPending(
+      Long telegramId, LocalDate from, LocalDate to, List<TrackedPrayer> stored) {
+    Map<Slot, PrayerToggle> flushing = inFlight.get(telegramId);
+    Map<Slot, PrayerToggle> slots = pending.get(telegramId);
+    if ((flushing == null || flushing.isEmpty()) && (slots == null || slots.isEmpty())) {
+      return stored;
+    }
+    Map<Slot, TrackedPrayer> merged = new LinkedHashMap<>();
+    for (TrackedPrayer prayer : stored) {
+      merged.put(new Slot(prayer.date(), prayer.prayer()), prayer);
+    }
+    // In-flight toggles are older than pending ones, so they are overlaid first
+    overlay(merged, flushing, from, to);
+    overlay(merged, slots, from, to);
+    return new ArrayList<>(merged.values());
+  }
+
+  private static void overlay(
+      Map<Slot, TrackedPrayer> merged,
+      Map<Slot, PrayerToggle> slots,
+      LocalDate from,
+      LocalDate to) {
+    if (slots == null) {
+      return;
+    }
+    for (PrayerToggle toggle : slots.values()) {
+      if (!toggle.date().isBefore(from) && !toggle.date().isAfter(to)) {
+        merged.put(
+            new Slot(toggle.date(), toggle.prayer()),
+            new TrackedPrayer(toggle.date(), toggle.prayer(), toggle.prayed(), toggle.toggledAt()));
+      }
+    }
+  }
+
+  /**
+   * Writes one user's unflushed toggles, e.g. before computing their statistics. Waits for a
+   * running flush so an older batch can never commit over a newer one.
+   */
+  public void flush(Long telegramId) {
+    if (!pending.containsKey(telegramId) && !inFlight.containsKey(telegramId)) {
+      return;
+    }
+    flushLock.lock();
+    try {
+      Map<Slot, PrayerToggle> slots = drain(telegramId);
+      if (slots != null && !slots.isEmpty()) {
+        writeBatch(Map.of(telegramId, slots));
+      }
+    } finally {
+      flushLock.unlock();
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${myrafeeq.tracking.flush-interval}")
+  public void flush() {
+    if (!flushLock.tryLock()) {
+      return;
+    }
+    try {
+      flushAll();
+    } finally {
+      flushLock.unlock();
+    }
+  }
+
+  @PreDestroy
+  void shutdown() {
+    flushLock.lock();
+    try {
+      flushAll();
+    } finally {
+      flushLock.unlock();
+    }
+  }
+
+  int pendingSlots() {
+    return pendingSlots.get();
+  }
+
+  private void flushAll() {
+    Map<Long, Map<Slot, PrayerToggle>> drained = new LinkedHashMap<>();
+    for (Long telegramId : pending.keySet()) {
+      Map<Slot, PrayerToggle> slots = drain(telegramId);
+      if (slots != null) {
+        drained.put(telegramId, slots);
+      }
+    }
+    if (!drained.isEmpty()) {
+      writeBatch(drained);
+    }
+  }
+
+  /** Moves one user's pending toggles to in-flight in one step, so reads never miss them. */
+  private Map<Slot, PrayerToggle> drain(Long telegramId) {
+    pending.computeIfPresent(
+        telegramId,
+        (_, slots) -> {
+          inFlight.put(telegramId, slots);
+          return null;
+        });
+    Map<Slot, PrayerToggle> drained = inFlight.get(telegramId);
+    if (drained != null) {
+      pendingSlots.addAndGet(-drained.size());
+    }
+    return drained;
+  }
+
+  private Written writeThrough(PrayerToggle toggle, LocalDate today) {
+    TrackedPrayer tracked =
+        trackingStore.toggle(
+            toggle.telegramId(),
+            toggle.date(),
+            toggle.prayer(),
+            toggle.prayed(),
+            toggle.toggledAt());
+    int changed =
+        summaryRepository.applyToggle(
+            toggle.telegramId(), toggle.date(), toggle.prayer().bit(), toggle.prayed());
+    PrayerStreakTracker.Streak streak = streakTracker.onToggle(toggle.telegramId(), today);
+    int delta = changed == 0 ? 0 : toggle.prayed() ? 1 : -1;
+    return new Written(tracked, delta, streak);
+  }
+
+  private void writeBatch(Map<Long, Map<Slot, PrayerToggle>> drained) {
+    List<PrayerToggle> toggles = new ArrayList<>();
+    drained.values().forEach(slots -> toggles.addAll(slots.values()));
+    try {
+      try {
+        commit(drained.keySet(), toggles);
+        log.debug("Flushed {} prayer toggles for {} users", toggles.size(), drained.size());
+        return;
+      } catch (Exception e) {
+        if (drained.size() == 1) {
+          requeue(toggles, e);
+          return;
+        }
+        log.warn(
+            "Failed to flush {} prayer toggles for {} users, retrying per user: {}",
+            toggles.size(),
+            drained.size(),
+            e.getMessage());
+      }
+      for (Map.Entry<Long, Map<Slot, PrayerToggle>> user : drained.entrySet()) {
+        List<PrayerToggle> userToggles = new ArrayList<>(user.getValue().values());
+        try {
+          commit(Set.of(user.getKey()), userToggles);
+        } catch (Exception e) {
+          requeue(userToggles, e);
+        }
+      }
+    } finally {
+      drained.keySet().forEach(inFlight::remove);
+    }
+  }
+
+  private void commit(Collection<Long> telegramIds, List<PrayerToggle> toggles) {
+    transactionTemplate.executeWithoutResult(
+        _ -> {
+          trackingStore.toggleAll(toggles);
+          summaryRepository.applyToggles(toggles);
+          for (Long telegramId : telegramIds) {
+            streakTracker.onToggle(
+                telegramId, LocalDate.now(userTimezoneResolver.resolveTimezone(telegramId)));
+          }
+        });
+    statsCache.evictAll(telegramIds);
+    toggles.forEach(failedAttempts::remove);
+  }
+
+  /**
+   * Puts failed toggles back unless the user has toggled the same prayer again since. A toggle that
+   * has failed {@link #MAX_FLUSH_ATTEMPTS} times is dropped instead.
+   */
+  private void requeue(List<PrayerToggle> toggles, Exception cause) {
+    log.warn(
+        "Failed to flush {} prayer toggles, requeueing: {}", toggles.size(), cause.getMessage());
+    for (PrayerToggle toggle : toggles) {
+      int attempts = failedAttempts.merge(toggle, 1, Integer::sum);
+      if (attempts >= MAX_FLUSH_ATTEMPTS) {
+        failedAttempts.remove(toggle);
+        log.error("Dropping prayer toggle {} after {} failed flushes", toggle, attempts, cause);
+        continue;
+      }
+      pending.compute(
+          toggle.telegramId(),
+          (_, slots) -> {
+            Map<Slot, PrayerToggle> userSlots = slots != null ? slots : new ConcurrentHashMap<>();
+            if (userSlots.putIfAbsent(new Slot(toggle.date(), toggle.prayer()), toggle) == null) {
+              pendingSlots.incrementAndGet();
+            } else {
+              failedAttempts.remove(toggle);
+            }
+            return userSlots;
+          });
+    }
+  }
+
+  private record Slot(LocalDate date, PrayerName prayer) {}
+
+  private record Written(TrackedPrayer tracked, int delta, PrayerStreakTracker.Streak streak) {}
+}
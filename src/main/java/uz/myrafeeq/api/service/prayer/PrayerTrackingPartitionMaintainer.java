@@ -0,0 +1,57 @@
+package uz.myrafeeq.api.service.prayer;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import uz.myrafeeq.api.configuration.TrackingPartitionProperties;
+import uz.myrafeeq.api.repository.PrayerTrackingRepository;
+
+/**
+ * Keeps the monthly partitions of {@code prayer_tracking} rolling: partitions are created {@code
+ * months-ahead} months in advance so writes never fall into the default partition, and partitions
+ * older than {@code retention-months} are moved into {@code prayer_tracking_archive}. Runs on
+ * startup and nightly; the database functions serialize concurrent runs across instances.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PrayerTrackingPartitionMaintainer {
+
+  private final PrayerTrackingRepository trackingRepository;
+  private final TrackingPartitionProperties properties;
+
+  @Transactional
+  @EventListener(ApplicationReadyEvent.class)
+  @Scheduled(cron = "0 30 3 * * *")
+  public void maintain() {
+    if (!properties.isEnabled()) {
+      return;
+    }
+    // UTC dates are at most a day off any user's local date, which the month ahead absorbs
+    LocalDate month = LocalDate.now(ZoneOffset.UTC).withDayOfMonth(1);
+
+    int created = 0;
+    for (int i = 0; i <= properties.getMonthsAhead(); i++) {
+      if (trackingRepository.createPartition(month.plusMonths(i))) {
+        created++;
+      }
+    }
+
+    int archived = 0;
+    if (properties.getRetentionMonths() > 0) {
+      archived =
+          trackingRepository.archivePartitionsBefore(
+              month.minusMonths(properties.getRetentionMonths()));
+    }
+
+    if (created > 0 || archived > 0) {
+      log.info("Prayer tracking partitions: {} created, {} archived", created, archived);
+    }
+  }
+}
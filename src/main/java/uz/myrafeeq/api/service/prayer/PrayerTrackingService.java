@@ -3,29 +3,38 @@ package uz.myrafeeq.api.service.prayer;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import uz.myrafeeq.api.dto.request.SyncPrayerRequest;
+import uz.myrafeeq.api.dto.request.SyncTrackingRequest;
 import uz.myrafeeq.api.dto.request.TogglePrayerRequest;
 import uz.myrafeeq.api.dto.response.PrayerStatsResponse;
 import uz.myrafeeq.api.dto.response.PrayerTrackingResponse;
+import uz.myrafeeq.api.dto.response.SyncTrackingResponse;
 import uz.myrafeeq.api.dto.response.TogglePrayerResponse;
-import uz.myrafeeq.api.entity.PrayerTrackingEntity;
 import uz.myrafeeq.api.enums.PrayerName;
 import uz.myrafeeq.api.enums.StatsPeriod;
+import uz.myrafeeq.api.enums.SyncStatus;
+import uz.myrafeeq.api.event.PrayerTrackingChangedEvent;
+import uz.myrafeeq.api.exception.TrackingSyncUnavailableException;
 import uz.myrafeeq.api.exception.TrackingValidationException;
 import uz.myrafeeq.api.mapper.PrayerTrackingMapper;
-import uz.myrafeeq.api.repository.PrayerTrackingRepository;
-import uz.myrafeeq.api.repository.projection.DateCountProjection;
-import uz.myrafeeq.api.repository.projection.PrayerCountProjection;
+import uz.myrafeeq.api.repository.PrayerDailySummaryRepository;
+import uz.myrafeeq.api.repository.PrayerToggle;
+import uz.myrafeeq.api.repository.PrayerTrackingStore;
+import uz.myrafeeq.api.repository.projection.DailySummaryProjection;
+import uz.myrafeeq.api.repository.projection.TrackedPrayer;
+import uz.myrafeeq.api.service.user.UserContext;
 import uz.myrafeeq.api.service.user.UserTimezoneResolver;
 
 @Slf4j
@@ -33,21 +42,26 @@ import uz.myrafeeq.api.service.user.UserTimezoneResolver;
 @RequiredArgsConstructor
 public class PrayerTrackingService {
 
-  private static final int MAX_PAST_DAYS = 7;
+  static final int MAX_PAST_DAYS = 7;
   private static final int MAX_DATE_RANGE_DAYS = 90;
-  private static final int MAX_STREAK_LOOKBACK = 365;
 
-  private final PrayerTrackingRepository trackingRepository;
+  private final PrayerTrackingStore trackingStore;
+  private final PrayerDailySummaryRepository summaryRepository;
+  private final PrayerStreakTracker streakTracker;
+  private final PrayerToggleWriter toggleWriter;
   private final PrayerTrackingMapper trackingMapper;
   private final UserTimezoneResolver userTimezoneResolver;
+  private final ApplicationEventPublisher eventPublisher;
 
   @Transactional(readOnly = true)
   public PrayerTrackingResponse getTracking(
       Long telegramId, LocalDate date, LocalDate from, LocalDate to) {
-    List<PrayerTrackingEntity> entities;
+    LocalDate rangeFrom = from;
+    LocalDate rangeTo = to;
 
     if (date != null) {
-      entities = trackingRepository.findByTelegramIdAndPrayerDate(telegramId, date);
+      rangeFrom = date;
+      rangeTo = date;
     } else if (from != null && to != null) {
       if (from.isAfter(to)) {
         throw new TrackingValidationException("'from' date must not be after 'to' date");
@@ -56,23 +70,16 @@ public class PrayerTrackingService {
         throw new TrackingValidationException(
             "Date range cannot exceed " + MAX_DATE_RANGE_DAYS + " days");
       }
-      entities = trackingRepository.findByTelegramIdAndPrayerDateBetween(telegramId, from, to);
     } else {
-      entities =
-          trackingRepository.findByTelegramIdAndPrayerDate(
-              telegramId, LocalDate.now(userTimezoneResolver.resolveTimezone(telegramId)));
+      rangeFrom = LocalDate.now(userTimezoneResolver.resolveTimezone(telegramId));
+      rangeTo = rangeFrom;
     }
 
-    return trackingMapper.toTrackingResponse(entities);
+    List<TrackedPrayer> stored = trackingStore.find(telegramId, rangeFrom, rangeTo);
+    List<TrackedPrayer> prayers = toggleWriter.withPending(telegramId, rangeFrom, rangeTo, stored);
+    return trackingMapper.toTrackingResponse(prayers);
   }
 
-  @Transactional
-  @Caching(
-      evict = {
-        @CacheEvict(value = "prayerStats", key = "#telegramId + '-WEEK'"),
-        @CacheEvict(value = "prayerStats", key = "#telegramId + '-MONTH'"),
-        @CacheEvict(value = "prayerStats", key = "#telegramId + '-YEAR'")
-      })
   public TogglePrayerResponse togglePrayer(Long telegramId, TogglePrayerRequest request) {
     LocalDate today = LocalDate.now(userTimezoneResolver.resolveTimezone(telegramId));
 
@@ -85,31 +92,12 @@ public class PrayerTrackingService {
           "Cannot track prayers older than " + MAX_PAST_DAYS + " days");
     }
 
-    Instant now = Instant.now();
+    TrackedPrayer tracked =
+        toggleWriter.write(
+            telegramId, request.getDate(), request.getPrayer(), request.getPrayed(), today);
+    eventPublisher.publishEvent(new PrayerTrackingChangedEvent(telegramId));
 
-    PrayerTrackingEntity entity =
-        trackingRepository
-            .findByTelegramIdAndPrayerDateAndPrayerName(
-                telegramId, request.getDate(), request.getPrayer())
-            .map(
-                existing -> {
-                  existing.setPrayed(request.getPrayed());
-                  existing.setToggledAt(now);
-                  return existing;
-                })
-            .orElseGet(
-                () ->
-                    PrayerTrackingEntity.builder()
-                        .telegramId(telegramId)
-                        .prayerDate(request.getDate())
-                        .prayerName(request.getPrayer())
-                        .prayed(request.getPrayed())
-                        .toggledAt(now)
-                        .build());
-
-    entity = trackingRepository.save(entity);
-
-    log.info(
+    log.debug(
         "Prayer toggled: user={}, date={}, prayer={}, prayed={}",
         telegramId,
         request.getDate(),
@@ -117,27 +105,122 @@ public class PrayerTrackingService {
         request.getPrayed());
 
     return TogglePrayerResponse.builder()
-        .date(entity.getPrayerDate())
-        .prayer(entity.getPrayerName().name())
-        .prayed(entity.getPrayed())
-        .toggledAt(entity.getToggledAt())
+        .date(tracked.date())
+        .prayer(tracked.prayer().name())
+        .prayed(tracked.prayed())
+        .toggledAt(tracked.toggledAt())
+        .build();
+  }
+
+  /**
+   * Applies toggles recorded offline. Each prayer keeps the toggle with the latest {@code
+   * toggledAt}, capped at the server time so a fast client clock cannot pin a value. Entries
+   * outside the tracking window are rejected individually instead of failing the whole batch.
+   */
+  @Caching(
+      evict = {
+        @CacheEvict(value = "prayerStats", key = "#telegramId + '-WEEK'"),
+        @CacheEvict(value = "prayerStats", key = "#telegramId + '-MONTH'"),
+        @CacheEvict(value = "prayerStats", key = "#telegramId + '-YEAR'")
+      })
+  public SyncTrackingResponse syncTracking(Long telegramId, SyncTrackingRequest request) {
+    if (!toggleWriter.supportsSync()) {
+      throw new TrackingSyncUnavailableException(
+          "Offline sync is not available with the configured tracking storage");
+    }
+    LocalDate today = LocalDate.now(userTimezoneResolver.resolveTimezone(telegramId));
+    LocalDate oldest = today.minusDays(MAX_PAST_DAYS);
+    Instant now = Instant.now();
+
+    List<SyncPrayerRequest> entries = request.getToggles();
+    SyncStatus[] statuses = new SyncStatus[entries.size()];
+    Instant[] toggledAt = new Instant[entries.size()];
+    Map<Slot, Integer> latest = new LinkedHashMap<>();
+    for (int i = 0; i < entries.size(); i++) {
+      SyncPrayerRequest entry = entries.get(i);
+      toggledAt[i] = entry.getToggledAt().isAfter(now) ? now : entry.getToggledAt();
+      if (entry.getDate().isAfter(today) || entry.getDate().isBefore(oldest)) {
+        statuses[i] = SyncStatus.REJECTED;
+        continue;
+      }
+      latest.merge(
+          new Slot(entry.getDate(), entry.getPrayer()),
+          i,
+          (kept, candidate) -> toggledAt[candidate].isBefore(toggledAt[kept]) ? kept : candidate);
+    }
+
+    List<Integer> winners = new ArrayList<>(latest.values());
+    if (!winners.isEmpty()) {
+      List<PrayerToggle> toggles =
+          winners.stream()
+              .map(
+                  i ->
+                      new PrayerToggle(
+                          telegramId,
+                          entries.get(i).getDate(),
+                          entries.get(i).getPrayer(),
+                          entries.get(i).getPrayed(),
+                          toggledAt[i]))
+              .toList();
+      boolean[] applied = toggleWriter.sync(telegramId, toggles, today);
+      for (int w = 0; w < winners.size(); w++) {
+        statuses[winners.get(w)] = applied[w] ? SyncStatus.APPLIED : SyncStatus.STALE;
+      }
+      eventPublisher.publishEvent(new PrayerTrackingChangedEvent(telegramId));
+    }
+
+    List<SyncTrackingResponse.SyncResult> results = new ArrayList<>(entries.size());
+    for (int i = 0; i < entries.size(); i++) {
+      SyncPrayerRequest entry = entries.get(i);
+      SyncStatus status = statuses[i] != null ? statuses[i] : SyncStatus.SUPERSEDED;
+      results.add(
+          SyncTrackingResponse.SyncResult.builder()
+              .date(entry.getDate())
+              .prayer(entry.getPrayer().name())
+              .prayed(entry.getPrayed())
+              .toggledAt(toggledAt[i])
+              .status(status.name())
+              .build());
+    }
+
+    log.debug(
+        "Prayer tracking synced: user={}, entries={}, written={}",
+        telegramId,
+        entries.size(),
+        winners.size());
+
+    return SyncTrackingResponse.builder()
+        .results(results)
+        .stats(getStats(telegramId, StatsPeriod.WEEK))
         .build();
   }
 
   @Transactional(readOnly = true)
   @Cacheable(value = "prayerStats", key = "#telegramId + '-' + #period.name()")
   public PrayerStatsResponse getStats(Long telegramId, StatsPeriod period) {
-    LocalDate today = LocalDate.now(userTimezoneResolver.resolveTimezone(telegramId));
+    return computeStats(
+        telegramId, period, LocalDate.now(userTimezoneResolver.resolveTimezone(telegramId)));
+  }
+
+  /** Same as {@link #getStats(Long, StatsPeriod)} for an already loaded user; shares its cache. */
+  @Transactional(readOnly = true)
+  @Cacheable(value = "prayerStats", key = "#context.telegramId() + '-' + #period.name()")
+  public PrayerStatsResponse getStats(UserContext context, StatsPeriod period) {
+    return computeStats(context.telegramId(), period, context.today());
+  }
+
+  private PrayerStatsResponse computeStats(Long telegramId, StatsPeriod period, LocalDate today) {
+    toggleWriter.flush(telegramId);
     LocalDate statsFrom = today.minusDays(period.getDays());
-    LocalDate streakFrom = today.minusDays(MAX_STREAK_LOOKBACK);
 
-    List<PrayerCountProjection> prayerCounts =
-        trackingRepository.countCompletedByPrayer(telegramId, statsFrom, today);
-    Map<PrayerName, Long> completedMap =
-        prayerCounts.stream()
-            .collect(
-                Collectors.toMap(
-                    PrayerCountProjection::getPrayerName, PrayerCountProjection::getCount));
+    int[] completedByPrayer = new int[PrayerName.values().length];
+    for (DailySummaryProjection day : summaryRepository.findRange(telegramId, statsFrom, today)) {
+      for (PrayerName prayer : PrayerName.values()) {
+        if ((day.getPrayedMask() & prayer.bit()) != 0) {
+          completedByPrayer[prayer.ordinal()]++;
+        }
+      }
+    }
 
     long totalDays = statsFrom.until(today).getDays() + 1;
     int totalPrayers = (int) (totalDays * PrayerName.values().length);
@@ -147,7 +230,7 @@ public class PrayerTrackingService {
 
     for (PrayerName prayer : PrayerName.values()) {
       int prayerTotal = (int) totalDays;
-      int prayerCompleted = completedMap.getOrDefault(prayer, 0L).intValue();
+      int prayerCompleted = completedByPrayer[prayer.ordinal()];
       completedPrayers += prayerCompleted;
       byPrayer.put(
           prayer.name(),
@@ -159,9 +242,7 @@ public class PrayerTrackingService {
 
     int percentage = totalPrayers > 0 ? (completedPrayers * 100) / totalPrayers : 0;
 
-    List<DateCountProjection> dailyCounts =
-        trackingRepository.countCompletedByDate(telegramId, streakFrom, today);
-    int streak = calculateStreak(dailyCounts, today);
+    PrayerStreakTracker.Streak streak = streakTracker.get(telegramId, today);
 
     return PrayerStatsResponse.builder()
         .period(period.name())
@@ -171,31 +252,10 @@ public class PrayerTrackingService {
         .completed(completedPrayers)
         .percentage(percentage)
         .byPrayer(byPrayer)
-        .streak(streak)
+        .streak(streak.current())
+        .longestStreak(streak.longest())
         .build();
   }
 
-  private int calculateStreak(List<DateCountProjection> dailyCounts, LocalDate today) {
-    Map<LocalDate, Long> completedByDate =
-        dailyCounts.stream()
-            .collect(
-                Collectors.toMap(
-                    DateCountProjection::getPrayerDate, DateCountProjection::getCount));
-
-    int expectedPrayers = PrayerName.values().length;
-    int streak = 0;
-
-    for (int i = 0; i < MAX_STREAK_LOOKBACK; i++) {
-      LocalDate date = today.minusDays(i);
-      long completed = completedByDate.getOrDefault(date, 0L);
-
-      if (completed == expectedPrayers) {
-        streak++;
-      } else {
-        break;
-      }
-    }
-
-    return streak;
-  }
+  private record Slot(LocalDate date, PrayerName prayer) {}
 }
@@ -3,6 +3,7 @@ package uz.myrafeeq.api.service.user;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import uz.myrafeeq.api.dto.request.OnboardingRequest;
@@ -17,6 +18,7 @@ import uz.myrafeeq.api.enums.Madhab;
 import uz.myrafeeq.api.enums.ReminderTiming;
 import uz.myrafeeq.api.enums.ThemePreference;
 import uz.myrafeeq.api.enums.TimeFormat;
+import uz.myrafeeq.api.event.PreferencesChangedEvent;
 import uz.myrafeeq.api.exception.OnboardingAlreadyCompletedException;
 import uz.myrafeeq.api.exception.UserNotFoundException;
 import uz.myrafeeq.api.mapper.CityMapper;
@@ -37,6 +39,7 @@ public class OnboardingService {
   private final PreferencesMapper preferencesMapper;
   private final CityMapper cityMapper;
   private final UserMapper userMapper;
+  private final ApplicationEventPublisher eventPublisher;
 
   @CacheEvict(value = "userTimezone", key = "#telegramId")
   @Transactional
@@ -82,6 +85,7 @@ public class OnboardingService {
 
     user.setOnboardingCompleted(true);
     user = userRepository.save(user);
+    eventPublisher.publishEvent(new PreferencesChangedEvent(telegramId));
 
     log.info("Onboarding completed for user={}, city={}", telegramId, request.getCityId());
 
@@ -0,0 +1,20 @@
+package uz.myrafeeq.api.service.user;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import uz.myrafeeq.api.entity.CityEntity;
+import uz.myrafeeq.api.entity.UserPreferencesEntity;
+
+/**
+ * Everything a request needs to know about the user, loaded once by {@link UserContextLoader} and
+ * passed to each service instead of being looked up again. {@code city} is {@code null} when the
+ * user has not selected one, in which case {@code zoneId} is UTC.
+ */
+public record UserContext(
+    Long telegramId, UserPreferencesEntity preferences, CityEntity city, ZoneId zoneId) {
+
+  /** The current date in the user's timezone. */
+  public LocalDate today() {
+    return LocalDate.now(zoneId);
+  }
+}
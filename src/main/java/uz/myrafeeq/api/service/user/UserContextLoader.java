@@ -0,0 +1,43 @@
+package uz.myrafeeq.api.service.user;
+
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import uz.myrafeeq.api.entity.CityEntity;
+import uz.myrafeeq.api.exception.PreferencesNotFoundException;
+import uz.myrafeeq.api.repository.UserPreferencesRepository;
+import uz.myrafeeq.api.repository.projection.PreferencesWithCity;
+
+/** Loads a user's preferences and city in a single query. */
+@Component
+@RequiredArgsConstructor
+public class UserContextLoader {
+
+  private final UserPreferencesRepository preferencesRepository;
+
+  @Transactional(readOnly = true)
+  public UserContext load(Long telegramId) {
+    PreferencesWithCity loaded =
+        preferencesRepository
+            .findWithCity(telegramId)
+            .orElseThrow(
+                () ->
+                    new PreferencesNotFoundException(
+                        "Preferences not found for user: " + telegramId));
+    return new UserContext(
+        telegramId, loaded.preferences(), loaded.city(), toZoneId(loaded.city()));
+  }
+
+  private static ZoneId toZoneId(CityEntity city) {
+    if (city == null) {
+      return ZoneOffset.UTC;
+    }
+    try {
+      return ZoneId.of(city.getTimezone());
+    } catch (Exception _) {
+      return ZoneOffset.UTC;
+    }
+  }
+}
@@ -3,18 +3,20 @@ package uz.myrafeeq.api.service.user;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import uz.myrafeeq.api.dto.request.UpdatePreferencesRequest;
 import uz.myrafeeq.api.dto.response.CityResponse;
 import uz.myrafeeq.api.dto.response.UserPreferencesResponse;
 import uz.myrafeeq.api.entity.UserPreferencesEntity;
+import uz.myrafeeq.api.event.PreferencesChangedEvent;
 import uz.myrafeeq.api.exception.PreferencesNotFoundException;
 import uz.myrafeeq.api.mapper.CityMapper;
 import uz.myrafeeq.api.mapper.PreferencesMapper;
-import uz.myrafeeq.api.repository.CityRepository;
 import uz.myrafeeq.api.repository.UserPreferencesRepository;
 import uz.myrafeeq.api.service.city.CityService;
+import uz.myrafeeq.api.service.city.ReferenceData;
 
 @Slf4j
 @Service
@@ -22,10 +24,11 @@ import uz.myrafeeq.api.service.city.CityService;
 public class UserPreferencesService {
 
   private final UserPreferencesRepository preferencesRepository;
-  private final CityRepository cityRepository;
+  private final ReferenceData referenceData;
   private final CityService cityService;
   private final PreferencesMapper preferencesMapper;
   private final CityMapper cityMapper;
+  private final ApplicationEventPublisher eventPublisher;
 
   @Transactional(readOnly = true)
   public UserPreferencesResponse getPreferences(Long telegramId) {
@@ -55,6 +58,7 @@ public class UserPreferencesService {
 
     applyPartialUpdate(prefs, request);
     prefs = preferencesRepository.save(prefs);
+    eventPublisher.publishEvent(new PreferencesChangedEvent(telegramId));
 
     log.info("Preferences updated for user={}", telegramId);
 
@@ -106,6 +110,6 @@ public class UserPreferencesService {
     if (cityId == null) {
       return null;
     }
-    return cityRepository.findById(cityId).map(cityMapper::toCityResponse).orElse(null);
+    return referenceData.findCity(cityId).map(cityMapper::toCityResponse).orElse(null);
   }
 }
@@ -5,22 +5,22 @@ import java.time.ZoneOffset;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Component;
-import uz.myrafeeq.api.repository.CityRepository;
 import uz.myrafeeq.api.repository.UserPreferencesRepository;
+import uz.myrafeeq.api.service.city.ReferenceData;
 
 @Component
 @RequiredArgsConstructor
 public class UserTimezoneResolver {
 
   private final UserPreferencesRepository preferencesRepository;
-  private final CityRepository cityRepository;
+  private final ReferenceData referenceData;
 
   @Cacheable(value = "userTimezone", key = "#telegramId")
   public ZoneId resolveTimezone(Long telegramId) {
     return preferencesRepository
         .findById(telegramId)
         .filter(prefs -> prefs.getCityId() != null)
-        .flatMap(prefs -> cityRepository.findById(prefs.getCityId()))
+        .flatMap(prefs -> referenceData.findCity(prefs.getCityId()))
         .map(
             city -> {
               try {
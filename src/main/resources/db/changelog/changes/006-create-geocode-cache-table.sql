@@ -0,0 +1,36 @@
+--liquibase formatted sql
+
+--changeset myrafeeq:006-create-geocode-cache-table
+
+CREATE TABLE geocode_cache
+(
+    kind       VARCHAR(10)              NOT NULL,
+    cache_key  VARCHAR(255)             NOT NULL,
+    payload    JSONB,
+    expires_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    hits       BIGINT                   NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL,
+
+    CONSTRAINT pk_geocode_cache PRIMARY KEY (kind, cache_key),
+    CONSTRAINT chk_geocode_kind CHECK (kind IN ('SEARCH', 'LOOKUP', 'REVERSE'))
+);
+
+CREATE INDEX idx_geocode_cache_hits ON geocode_cache (hits DESC);
+CREATE INDEX idx_geocode_cache_expires_at ON geocode_cache (expires_at);
+
+COMMENT
+ON TABLE geocode_cache IS 'Persistent second-tier cache of Nominatim responses';
+COMMENT
+ON COLUMN geocode_cache.kind IS 'Nominatim operation (SEARCH, LOOKUP, REVERSE)';
+COMMENT
+ON COLUMN geocode_cache.cache_key IS 'Same key as the in-memory cache for the operation';
+COMMENT
+ON COLUMN geocode_cache.payload IS 'Response body; NULL marks a negative entry (no result)';
+COMMENT
+ON COLUMN geocode_cache.expires_at IS 'Timestamp (UTC) after which the entry is ignored';
+COMMENT
+ON COLUMN geocode_cache.hits IS 'Number of reads served, used to pick warm-up entries';
+COMMENT
+ON COLUMN geocode_cache.updated_at IS 'Timestamp (UTC) when the entry was last written';
+
+--rollback DROP TABLE geocode_cache;
@@ -0,0 +1,42 @@
+--liquibase formatted sql
+
+--changeset myrafeeq:007-create-prayer-daily-summary-table
+
+CREATE TABLE prayer_daily_summary
+(
+    telegram_id     BIGINT   NOT NULL,
+    summary_date    DATE     NOT NULL,
+    prayed_mask     SMALLINT NOT NULL DEFAULT 0,
+    completed_count SMALLINT NOT NULL DEFAULT 0,
+
+    CONSTRAINT pk_prayer_daily_summary PRIMARY KEY (telegram_id, summary_date),
+    CONSTRAINT fk_daily_summary_user FOREIGN KEY (telegram_id) REFERENCES users (telegram_id),
+    CONSTRAINT chk_daily_summary_count CHECK (completed_count BETWEEN 0 AND 5)
+);
+
+INSERT INTO prayer_daily_summary (telegram_id, summary_date, prayed_mask, completed_count)
+SELECT telegram_id,
+       prayer_date,
+       COALESCE(BIT_OR(CASE prayer_name
+                           WHEN 'FAJR' THEN 1
+                           WHEN 'DHUHR' THEN 2
+                           WHEN 'ASR' THEN 4
+                           WHEN 'MAGHRIB' THEN 8
+                           WHEN 'ISHA' THEN 16
+           END) FILTER (WHERE prayed), 0),
+       COUNT(*) FILTER (WHERE prayed)
+FROM prayer_tracking
+GROUP BY telegram_id, prayer_date;
+
+COMMENT
+ON TABLE prayer_daily_summary IS 'Per-user daily prayer completion rollup, maintained on every toggle';
+COMMENT
+ON COLUMN prayer_daily_summary.telegram_id IS 'Foreign key to users table';
+COMMENT
+ON COLUMN prayer_daily_summary.summary_date IS 'Date of the prayers';
+COMMENT
+ON COLUMN prayer_daily_summary.prayed_mask IS 'Bit per prayed prayer (FAJR=1, DHUHR=2, ASR=4, MAGHRIB=8, ISHA=16)';
+COMMENT
+ON COLUMN prayer_daily_summary.completed_count IS 'Number of prayers performed on the date';
+
+--rollback DROP TABLE prayer_daily_summary;
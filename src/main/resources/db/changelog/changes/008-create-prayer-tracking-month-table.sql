@@ -0,0 +1,31 @@
+--liquibase formatted sql
+
+--changeset myrafeeq:008-create-prayer-tracking-month-table
+
+CREATE TABLE prayer_tracking_month
+(
+    telegram_id  BIGINT                   NOT NULL,
+    month        DATE                     NOT NULL,
+    prayed_bits  BIT(155)                 NOT NULL,
+    tracked_bits BIT(155)                 NOT NULL,
+    updated_at   TIMESTAMP WITH TIME ZONE NOT NULL,
+
+    CONSTRAINT pk_prayer_tracking_month PRIMARY KEY (telegram_id, month),
+    CONSTRAINT fk_tracking_month_user FOREIGN KEY (telegram_id) REFERENCES users (telegram_id),
+    CONSTRAINT chk_tracking_month_first_day CHECK (EXTRACT(DAY FROM month) = 1)
+);
+
+COMMENT
+ON TABLE prayer_tracking_month IS 'Bit-packed prayer tracking, one row per user per month';
+COMMENT
+ON COLUMN prayer_tracking_month.telegram_id IS 'Foreign key to users table';
+COMMENT
+ON COLUMN prayer_tracking_month.month IS 'First day of the tracked month';
+COMMENT
+ON COLUMN prayer_tracking_month.prayed_bits IS 'Bit (prayer ordinal * 31 + day - 1) is set when the prayer was performed';
+COMMENT
+ON COLUMN prayer_tracking_month.tracked_bits IS 'Bit (prayer ordinal * 31 + day - 1) is set once the prayer has been toggled at all';
+COMMENT
+ON COLUMN prayer_tracking_month.updated_at IS 'Time of the latest toggle in the month';
+
+--rollback DROP TABLE prayer_tracking_month;
@@ -0,0 +1,53 @@
+--liquibase formatted sql
+
+--changeset myrafeeq:009-create-user-streak-table
+
+CREATE TABLE user_streak
+(
+    telegram_id    BIGINT                   NOT NULL PRIMARY KEY,
+    current_start  DATE,
+    current_end    DATE,
+    longest_streak INTEGER                  NOT NULL DEFAULT 0,
+    updated_at     TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+
+    CONSTRAINT fk_streak_user FOREIGN KEY (telegram_id) REFERENCES users (telegram_id),
+    CONSTRAINT chk_streak_run CHECK ((current_start IS NULL) = (current_end IS NULL)
+        AND (current_start IS NULL OR current_start <= current_end))
+);
+
+WITH complete_days AS (SELECT telegram_id,
+                              summary_date,
+                              summary_date - CAST(ROW_NUMBER() OVER (
+                                  PARTITION BY telegram_id ORDER BY summary_date) AS INTEGER) AS run
+                       FROM prayer_daily_summary
+                       WHERE completed_count = 5),
+     runs AS (SELECT telegram_id,
+                     MIN(summary_date)                                                AS run_start,
+                     MAX(summary_date)                                                AS run_end,
+                     COUNT(*)                                                         AS length,
+                     ROW_NUMBER() OVER (PARTITION BY telegram_id ORDER BY MAX(summary_date) DESC) AS recency
+              FROM complete_days
+              GROUP BY telegram_id, run)
+INSERT
+INTO user_streak (telegram_id, current_start, current_end, longest_streak)
+SELECT telegram_id,
+       MAX(run_start) FILTER (WHERE recency = 1),
+       MAX(run_end) FILTER (WHERE recency = 1),
+       COALESCE(MAX(length) FILTER (WHERE recency > 1), 0)
+FROM runs
+GROUP BY telegram_id;
+
+COMMENT
+ON TABLE user_streak IS 'Maintained prayer streak state, updated on every toggle';
+COMMENT
+ON COLUMN user_streak.telegram_id IS 'Foreign key to users table (also primary key, 1:1 with users)';
+COMMENT
+ON COLUMN user_streak.current_start IS 'First day of the latest run of fully completed days';
+COMMENT
+ON COLUMN user_streak.current_end IS 'Last day of the latest run of fully completed days';
+COMMENT
+ON COLUMN user_streak.longest_streak IS 'Length of the longest run before the latest one';
+COMMENT
+ON COLUMN user_streak.updated_at IS 'Last recomputation timestamp';
+
+--rollback DROP TABLE user_streak;
@@ -0,0 +1,159 @@
+--liquibase formatted sql
+
+--changeset myrafeeq:010-partition-prayer-tracking-table
+
+CREATE TABLE prayer_tracking_partitioned
+(
+    id          UUID                     NOT NULL DEFAULT gen_random_uuid(),
+    telegram_id BIGINT                   NOT NULL,
+    prayer_date DATE                     NOT NULL,
+    prayer_name VARCHAR(10)              NOT NULL,
+    prayed      BOOLEAN                  NOT NULL DEFAULT FALSE,
+    toggled_at  TIMESTAMP WITH TIME ZONE NOT NULL,
+    created_at  TIMESTAMP WITH TIME ZONE NOT NULL,
+    version     INTEGER                  NOT NULL DEFAULT 0
+) PARTITION BY RANGE (prayer_date);
+
+-- Catches dates no monthly partition covers yet; create_prayer_tracking_partition moves them out
+CREATE TABLE prayer_tracking_default PARTITION OF prayer_tracking_partitioned DEFAULT;
+
+INSERT INTO prayer_tracking_partitioned
+    (id, telegram_id, prayer_date, prayer_name, prayed, toggled_at, created_at, version)
+SELECT id, telegram_id, prayer_date, prayer_name, prayed, toggled_at, created_at, version
+FROM prayer_tracking;
+
+DROP TABLE prayer_tracking;
+
+ALTER TABLE prayer_tracking_partitioned RENAME TO prayer_tracking;
+
+-- Unique keys on a partitioned table must include the partition key. The unique key also
+-- leads with (telegram_id, prayer_date), so the former idx_tracking_telegram_date is not recreated.
+ALTER TABLE prayer_tracking
+    ADD CONSTRAINT pk_prayer_tracking PRIMARY KEY (id, prayer_date),
+    ADD CONSTRAINT fk_tracking_user FOREIGN KEY (telegram_id) REFERENCES users (telegram_id),
+    ADD CONSTRAINT uq_tracking_user_date_prayer UNIQUE (telegram_id, prayer_date, prayer_name),
+    ADD CONSTRAINT chk_prayer_name CHECK (prayer_name IN ('FAJR', 'DHUHR', 'ASR', 'MAGHRIB', 'ISHA'));
+
+CREATE TABLE prayer_tracking_archive
+(
+    id          UUID                     NOT NULL,
+    telegram_id BIGINT                   NOT NULL,
+    prayer_date DATE                     NOT NULL,
+    prayer_name VARCHAR(10)              NOT NULL,
+    prayed      BOOLEAN                  NOT NULL,
+    toggled_at  TIMESTAMP WITH TIME ZONE NOT NULL,
+    created_at  TIMESTAMP WITH TIME ZONE NOT NULL,
+    version     INTEGER                  NOT NULL
+) WITH (fillfactor = 100);
+
+CREATE INDEX idx_tracking_archive_telegram_date ON prayer_tracking_archive (telegram_id, prayer_date);
+
+COMMENT
+ON TABLE prayer_tracking IS 'Daily prayer completion tracking, partitioned by month of prayer_date';
+COMMENT
+ON COLUMN prayer_tracking.telegram_id IS 'Foreign key to users table';
+COMMENT
+ON COLUMN prayer_tracking.prayer_date IS 'Date of the prayer (partition key)';
+COMMENT
+ON COLUMN prayer_tracking.prayer_name IS 'Prayer name (FAJR, DHUHR, ASR, MAGHRIB, ISHA)';
+COMMENT
+ON COLUMN prayer_tracking.prayed IS 'Whether the prayer was performed';
+COMMENT
+ON COLUMN prayer_tracking.toggled_at IS 'Timestamp when the status was last toggled';
+COMMENT
+ON COLUMN prayer_tracking.created_at IS 'Timestamp (UTC) when record was created';
+COMMENT
+ON TABLE prayer_tracking_archive IS 'Append-only copy of prayer_tracking partitions past retention';
+
+--rollback CREATE TABLE prayer_tracking_plain (LIKE prayer_tracking INCLUDING DEFAULTS INCLUDING CONSTRAINTS);
+--rollback INSERT INTO prayer_tracking_plain SELECT * FROM prayer_tracking_archive;
+--rollback INSERT INTO prayer_tracking_plain SELECT * FROM prayer_tracking;
+--rollback DROP TABLE prayer_tracking CASCADE;
+--rollback DROP TABLE prayer_tracking_archive;
+--rollback ALTER TABLE prayer_tracking_plain RENAME TO prayer_tracking;
+--rollback ALTER TABLE prayer_tracking ADD PRIMARY KEY (id), ADD CONSTRAINT fk_tracking_user FOREIGN KEY (telegram_id) REFERENCES users (telegram_id), ADD CONSTRAINT uq_tracking_user_date_prayer UNIQUE (telegram_id, prayer_date, prayer_name);
+--rollback CREATE INDEX idx_tracking_telegram_date ON prayer_tracking (telegram_id, prayer_date);
+
+--changeset myrafeeq:010-create-prayer-tracking-partition-functions splitStatements:false
+
+-- Creates the partition for the month containing target_month unless it exists, moving any rows
+-- for that month out of the default partition first. Returns whether a partition was created.
+CREATE OR REPLACE FUNCTION create_prayer_tracking_partition(target_month DATE) RETURNS BOOLEAN
+    LANGUAGE plpgsql AS
+$$
+DECLARE
+    first_day      DATE := CAST(date_trunc('month', target_month) AS DATE);
+    next_day       DATE := CAST(date_trunc('month', target_month) + INTERVAL '1 month' AS DATE);
+    partition_name TEXT := 'prayer_tracking_' || to_char(target_month, 'YYYY_MM');
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+    PERFORM pg_advisory_xact_lock(hashtext('prayer_tracking_partitions'));
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+
+    -- Keeps rows for this month from landing in the default partition while it is being split
+    LOCK TABLE prayer_tracking_default IN ACCESS EXCLUSIVE MODE;
+
+    EXECUTE format('CREATE TABLE %I (LIKE prayer_tracking INCLUDING DEFAULTS INCLUDING CONSTRAINTS)',
+                   partition_name);
+    EXECUTE format('WITH moved AS (DELETE FROM prayer_tracking_default'
+                       || ' WHERE prayer_date >= %L AND prayer_date < %L RETURNING *)'
+                       || ' INSERT INTO %I SELECT * FROM moved',
+                   first_day, next_day, partition_name);
+    EXECUTE format('ALTER TABLE prayer_tracking ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, first_day, next_day);
+    RETURN TRUE;
+END;
+$$;
+
+-- Moves every monthly partition (and default-partition row) before cutoff into
+-- prayer_tracking_archive and drops it. Returns the number of partitions archived.
+CREATE OR REPLACE FUNCTION archive_prayer_tracking_partitions(cutoff DATE) RETURNS INTEGER
+    LANGUAGE plpgsql AS
+$$
+DECLARE
+    partition_name TEXT;
+    archived       INTEGER := 0;
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('prayer_tracking_partitions'));
+
+    FOR partition_name IN
+        SELECT child.relname
+        FROM pg_inherits
+                 JOIN pg_class child ON child.oid = pg_inherits.inhrelid
+        WHERE pg_inherits.inhparent = CAST('prayer_tracking' AS REGCLASS)
+          AND child.relname ~ '^prayer_tracking_[0-9]{4}_[0-9]{2}$'
+          AND to_date(substring(child.relname FROM 17), 'YYYY_MM') < cutoff
+        ORDER BY child.relname
+        LOOP
+            EXECUTE format('ALTER TABLE prayer_tracking DETACH PARTITION %I', partition_name);
+            EXECUTE format('INSERT INTO prayer_tracking_archive SELECT * FROM %I', partition_name);
+            EXECUTE format('DROP TABLE %I', partition_name);
+            archived := archived + 1;
+        END LOOP;
+
+    WITH moved AS (DELETE FROM prayer_tracking_default WHERE prayer_date < cutoff RETURNING *)
+    INSERT
+    INTO prayer_tracking_archive
+    SELECT *
+    FROM moved;
+
+    RETURN archived;
+END;
+$$;
+
+--rollback DROP FUNCTION archive_prayer_tracking_partitions(DATE);
+--rollback DROP FUNCTION create_prayer_tracking_partition(DATE);
+
+--changeset myrafeeq:010-create-prayer-tracking-partitions
+
+SELECT create_prayer_tracking_partition(CAST(month AS DATE))
+FROM generate_series(
+             date_trunc('month', LEAST((SELECT MIN(prayer_date) FROM prayer_tracking), CURRENT_DATE)),
+             date_trunc('month', CURRENT_DATE + INTERVAL '3 months'),
+             INTERVAL '1 month') AS month;
+
+--rollback SELECT 1;
@@ -0,0 +1,31 @@
+--liquibase formatted sql
+
+--changeset myrafeeq:011-time-ordered-prayer-tracking-ids splitStatements:false
+
+-- RFC 9562 version 7 UUID: 48-bit Unix millisecond timestamp followed by random bits, so new keys
+-- append to the right edge of the primary key index. Built-in as uuidv7() from PostgreSQL 18.
+CREATE OR REPLACE FUNCTION uuid_generate_v7() RETURNS UUID
+    LANGUAGE SQL
+    VOLATILE AS
+$$
+SELECT CAST(encode(
+        set_bit(
+                set_bit(
+                        overlay(uuid_send(gen_random_uuid())
+                                PLACING substring(int8send(
+                                        CAST(floor(extract(EPOCH FROM clock_timestamp()) * 1000) AS BIGINT))
+                                                  FROM 3)
+                                FROM 1 FOR 6),
+                        52, 1),
+                53, 1),
+        'hex') AS UUID)
+$$;
+
+-- Existing rows keep their random ids; only new inserts are time-ordered
+ALTER TABLE prayer_tracking ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+
+COMMENT
+ON COLUMN prayer_tracking.id IS 'Time-ordered (UUIDv7) surrogate key';
+
+--rollback ALTER TABLE prayer_tracking ALTER COLUMN id SET DEFAULT gen_random_uuid();
+--rollback DROP FUNCTION uuid_generate_v7();
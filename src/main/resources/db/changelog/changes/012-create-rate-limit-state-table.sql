@@ -0,0 +1,23 @@
+--liquibase formatted sql
+
+--changeset myrafeeq:012-create-rate-limit-state-table
+
+-- Unlogged: the state is at most a minute of rate-limit debt, so losing it on a crash is cheaper
+-- than writing WAL for every sync. tat_us is deliberately not indexed and the fillfactor leaves
+-- room on each page, so the per-sync updates stay HOT; the periodic purge scans the small table.
+CREATE UNLOGGED TABLE rate_limit_state
+(
+    client_key BIGINT NOT NULL,
+    tat_us     BIGINT NOT NULL,
+
+    CONSTRAINT pk_rate_limit_state PRIMARY KEY (client_key)
+) WITH (fillfactor = 70);
+
+COMMENT
+ON TABLE rate_limit_state IS 'Cluster-wide GCRA state shared by API instances';
+COMMENT
+ON COLUMN rate_limit_state.client_key IS '64-bit hash of the user ID or client IP';
+COMMENT
+ON COLUMN rate_limit_state.tat_us IS 'Theoretical arrival time in epoch microseconds';
+
+--rollback DROP TABLE rate_limit_state;
@@ -112,6 +112,14 @@ class CityControllerTest {
     mockMvc.perform(get("/api/v1/cities")).andExpect(status().isBadRequest());
   }
 
+  @Test
+  @WithMockUser
+  void should_returnError_when_queryTooLong() throws Exception {
+    mockMvc
+        .perform(get("/api/v1/cities").param("q", "a".repeat(101)))
+        .andExpect(status().isBadRequest());
+  }
+
   @Test
   @WithMockUser
   void should_returnError_when_missingLatLon() throws Exception {
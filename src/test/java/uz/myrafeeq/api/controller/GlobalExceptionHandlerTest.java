@@ -12,6 +12,7 @@ import uz.myrafeeq.api.exception.InvalidAuthException;
 import uz.myrafeeq.api.exception.OnboardingAlreadyCompletedException;
 import uz.myrafeeq.api.exception.PreferencesNotFoundException;
 import uz.myrafeeq.api.exception.RequestValidationException;
+import uz.myrafeeq.api.exception.TrackingSyncUnavailableException;
 import uz.myrafeeq.api.exception.TrackingValidationException;
 import uz.myrafeeq.api.exception.UserNotFoundException;
 
@@ -74,6 +75,17 @@ class GlobalExceptionHandlerTest {
     assertThat(response.getBody().error().code()).isEqualTo("TRACKING_VALIDATION_ERROR");
   }
 
+  @Test
+  void should_return501_when_trackingSyncUnavailableException() {
+    ResponseEntity<ErrorResponse> response =
+        handler.handleMyRafeeqException(
+            new TrackingSyncUnavailableException("Sync unavailable"), request);
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_IMPLEMENTED);
+    assertThat(response.getBody()).isNotNull();
+    assertThat(response.getBody().error().code()).isEqualTo("TRACKING_SYNC_UNAVAILABLE");
+  }
+
   @Test
   void should_return409_when_onboardingAlreadyCompletedException() {
     ResponseEntity<ErrorResponse> response =
@@ -0,0 +1,102 @@
+package uz.myrafeeq.api.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import uz.myrafeeq.api.repository.projection.GeocodeCacheProjection;
+
+class GeocodeCacheRepositoryTest extends RepositoryTest {
+
+  private static final String PAYLOAD = "{\"name\":\"Tashkent\",\"lat\":\"41.2995\"}";
+
+  @Autowired private GeocodeCacheRepository geocodeCacheRepository;
+
+  @BeforeEach
+  void setUp() {
+    geocodeCacheRepository.deleteAllInBatch();
+  }
+
+  @Test
+  void should_findFreshEntry_when_upserted() {
+    upsert("LOOKUP", "R1991790", PAYLOAD, inOneDay());
+
+    assertThat(geocodeCacheRepository.findFresh("LOOKUP", "R1991790"))
+        .hasValueSatisfying(
+            row -> {
+              assertThat(row.getCacheKey()).isEqualTo("R1991790");
+              assertThat(row.getPayload()).contains("Tashkent");
+            });
+  }
+
+  @Test
+  void should_returnNullPayload_when_negativeEntry() {
+    upsert("SEARCH", "atlantis-5", null, inOneDay());
+
+    assertThat(geocodeCacheRepository.findFresh("SEARCH", "atlantis-5"))
+        .hasValueSatisfying(row -> assertThat(row.getPayload()).isNull());
+  }
+
+  @Test
+  void should_ignoreEntry_when_expired() {
+    upsert("LOOKUP", "R1", PAYLOAD, Instant.now().minusSeconds(60));
+
+    assertThat(geocodeCacheRepository.findFresh("LOOKUP", "R1")).isEmpty();
+    assertThat(geocodeCacheRepository.deleteExpired()).isEqualTo(1);
+  }
+
+  @Test
+  void should_replacePayload_when_upsertedTwice() {
+    upsert("LOOKUP", "R1991790", null, inOneDay());
+    upsert("LOOKUP", "R1991790", PAYLOAD, inOneDay());
+
+    assertThat(geocodeCacheRepository.findFresh("LOOKUP", "R1991790"))
+        .hasValueSatisfying(row -> assertThat(row.getPayload()).contains("Tashkent"));
+  }
+
+  @Test
+  void should_orderByHitsAndSkipNegatives_when_findingHottest() {
+    upsert("LOOKUP", "cold", PAYLOAD, inOneDay());
+    upsert("LOOKUP", "hot", PAYLOAD, inOneDay());
+    upsert("SEARCH", "missing-5", null, inOneDay());
+    geocodeCacheRepository.addHitsAll(
+        List.of(
+            new GeocodeCacheHits("LOOKUP", "hot", 10),
+            new GeocodeCacheHits("LOOKUP", "cold", 1),
+            new GeocodeCacheHits("SEARCH", "missing-5", 100)));
+
+    List<GeocodeCacheProjection> hottest = geocodeCacheRepository.findHottest(10);
+
+    assertThat(hottest)
+        .extracting(GeocodeCacheProjection::getCacheKey)
+        .containsExactly("hot", "cold");
+  }
+
+  @Test
+  void should_writeEntriesAndHits_when_batched() {
+    geocodeCacheRepository.upsertAll(
+        List.of(
+            new GeocodeCacheWrite("LOOKUP", "R1991790", PAYLOAD, inOneDay()),
+            new GeocodeCacheWrite("SEARCH", "atlantis-5", null, inOneDay())));
+    geocodeCacheRepository.addHitsAll(List.of(new GeocodeCacheHits("LOOKUP", "R1991790", 3)));
+
+    assertThat(geocodeCacheRepository.findFresh("SEARCH", "atlantis-5"))
+        .hasValueSatisfying(row -> assertThat(row.getPayload()).isNull());
+    assertThat(geocodeCacheRepository.findHottest(10))
+        .extracting(GeocodeCacheProjection::getCacheKey)
+        .containsExactly("R1991790");
+  }
+
+  private void upsert(String kind, String cacheKey, String payload, Instant expiresAt) {
+    geocodeCacheRepository.upsertAll(
+        List.of(new GeocodeCacheWrite(kind, cacheKey, payload, expiresAt)));
+  }
+
+  private static Instant inOneDay() {
+    return Instant.now().plus(Duration.ofDays(1));
+  }
+}
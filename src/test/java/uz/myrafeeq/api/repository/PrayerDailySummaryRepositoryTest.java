@@ -0,0 +1,101 @@
+package uz.myrafeeq.api.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import uz.myrafeeq.api.entity.UserEntity;
+import uz.myrafeeq.api.enums.PrayerName;
+import uz.myrafeeq.api.repository.projection.DailySummaryProjection;
+
+class PrayerDailySummaryRepositoryTest extends RepositoryTest {
+
+  private static final Long TELEGRAM_ID = 123456789L;
+
+  @Autowired private PrayerDailySummaryRepository summaryRepository;
+  @Autowired private UserRepository userRepository;
+
+  @BeforeEach
+  void setUp() {
+    summaryRepository.deleteAll();
+    userRepository.deleteAll();
+    userRepository.save(UserEntity.builder().telegramId(TELEGRAM_ID).firstName("Doston").build());
+  }
+
+  @Test
+  void should_setBitsAndCount_when_prayersToggledOn() {
+    LocalDate today = LocalDate.now();
+
+    summaryRepository.applyToggle(TELEGRAM_ID, today, PrayerName.FAJR.bit(), true);
+    summaryRepository.applyToggle(TELEGRAM_ID, today, PrayerName.ISHA.bit(), true);
+
+    DailySummaryProjection day = single(today);
+    assertThat(day.getPrayedMask())
+        .isEqualTo((short) (PrayerName.FAJR.bit() | PrayerName.ISHA.bit()));
+    assertThat(day.getCompletedCount()).isEqualTo((short) 2);
+  }
+
+  @Test
+  void should_notDoubleCount_when_sameToggleRepeated() {
+    LocalDate today = LocalDate.now();
+
+    summaryRepository.applyToggle(TELEGRAM_ID, today, PrayerName.ASR.bit(), true);
+    summaryRepository.applyToggle(TELEGRAM_ID, today, PrayerName.ASR.bit(), true);
+
+    assertThat(single(today).getCompletedCount()).isEqualTo((short) 1);
+  }
+
+  @Test
+  void should_clearBitAndDecrement_when_prayerToggledOff() {
+    LocalDate today = LocalDate.now();
+
+    summaryRepository.applyToggle(TELEGRAM_ID, today, PrayerName.FAJR.bit(), true);
+    summaryRepository.applyToggle(TELEGRAM_ID, today, PrayerName.DHUHR.bit(), true);
+    summaryRepository.applyToggle(TELEGRAM_ID, today, PrayerName.FAJR.bit(), false);
+    summaryRepository.applyToggle(TELEGRAM_ID, today, PrayerName.MAGHRIB.bit(), false);
+
+    DailySummaryProjection day = single(today);
+    assertThat(day.getPrayedMask()).isEqualTo((short) PrayerName.DHUHR.bit());
+    assertThat(day.getCompletedCount()).isEqualTo((short) 1);
+  }
+
+  @Test
+  void should_reportChange_when_bitFlips() {
+    LocalDate today = LocalDate.now();
+
+    assertThat(summaryRepository.applyToggle(TELEGRAM_ID, today, PrayerName.ASR.bit(), false))
+        .isZero();
+    assertThat(summaryRepository.findRange(TELEGRAM_ID, today, today)).isEmpty();
+    assertThat(summaryRepository.applyToggle(TELEGRAM_ID, today, PrayerName.ASR.bit(), true))
+        .isEqualTo(1);
+    assertThat(summaryRepository.applyToggle(TELEGRAM_ID, today, PrayerName.ASR.bit(), true))
+        .isZero();
+    assertThat(summaryRepository.applyToggle(TELEGRAM_ID, today, PrayerName.ASR.bit(), false))
+        .isEqualTo(1);
+    assertThat(single(today).getCompletedCount()).isZero();
+  }
+
+  @Test
+  void should_returnRangeNewestFirst_when_findRange() {
+    LocalDate today = LocalDate.now();
+    summaryRepository.applyToggle(TELEGRAM_ID, today, PrayerName.FAJR.bit(), true);
+    summaryRepository.applyToggle(TELEGRAM_ID, today.minusDays(2), PrayerName.FAJR.bit(), true);
+    summaryRepository.applyToggle(TELEGRAM_ID, today.minusDays(10), PrayerName.FAJR.bit(), true);
+
+    List<DailySummaryProjection> result =
+        summaryRepository.findRange(TELEGRAM_ID, today.minusDays(7), today);
+
+    assertThat(result)
+        .extracting(DailySummaryProjection::getSummaryDate)
+        .containsExactly(today, today.minusDays(2));
+  }
+
+  private DailySummaryProjection single(LocalDate date) {
+    List<DailySummaryProjection> rows = summaryRepository.findRange(TELEGRAM_ID, date, date);
+    assertThat(rows).hasSize(1);
+    return rows.getFirst();
+  }
+}
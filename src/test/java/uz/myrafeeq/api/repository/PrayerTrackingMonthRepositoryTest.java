@@ -0,0 +1,98 @@
+package uz.myrafeeq.api.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import uz.myrafeeq.api.entity.PrayerTrackingMonthEntity;
+import uz.myrafeeq.api.entity.UserEntity;
+import uz.myrafeeq.api.enums.PrayerName;
+import uz.myrafeeq.api.repository.projection.TrackedPrayer;
+
+class PrayerTrackingMonthRepositoryTest extends RepositoryTest {
+
+  private static final Long TELEGRAM_ID = 123456789L;
+  private static final LocalDate MONTH = LocalDate.of(2026, 3, 1);
+
+  @Autowired private PrayerTrackingMonthRepository monthRepository;
+  @Autowired private PrayerTrackingRepository trackingRepository;
+  @Autowired private UserRepository userRepository;
+  @Autowired private TestEntityManager entityManager;
+
+  @BeforeEach
+  void setUp() {
+    monthRepository.deleteAll();
+    trackingRepository.deleteAll();
+    userRepository.deleteAll();
+    userRepository.save(UserEntity.builder().telegramId(TELEGRAM_ID).firstName("Doston").build());
+  }
+
+  @Test
+  void should_packTogglesIntoOneRow_when_upsertBit() {
+    LocalDate date = MONTH.withDayOfMonth(20);
+    Instant now = Instant.now();
+
+    monthRepository.upsertBit(TELEGRAM_ID, MONTH, bit(date, PrayerName.FAJR), true, now);
+    monthRepository.upsertBit(TELEGRAM_ID, MONTH, bit(date, PrayerName.ISHA), true, now);
+    monthRepository.upsertBit(TELEGRAM_ID, MONTH, bit(date, PrayerName.ISHA), false, now);
+    entityManager.clear();
+
+    assertThat(monthRepository.count()).isEqualTo(1);
+    assertThat(decode(date, date))
+        .extracting(TrackedPrayer::prayer, TrackedPrayer::prayed, TrackedPrayer::toggledAt)
+        .containsExactly(
+            tuple(PrayerName.FAJR, true, null), tuple(PrayerName.ISHA, false, null));
+  }
+
+  @Test
+  void should_keepPackedValue_when_mergingRows() {
+    LocalDate date = MONTH.withDayOfMonth(31);
+    Instant now = Instant.now();
+    trackingRepository.upsertToggle(TELEGRAM_ID, date, "ASR", true, now);
+    trackingRepository.upsertToggle(TELEGRAM_ID, date, "MAGHRIB", true, now);
+    monthRepository.upsertBit(TELEGRAM_ID, MONTH, bit(date, PrayerName.MAGHRIB), false, now);
+
+    int merged = monthRepository.mergeFromRows();
+    monthRepository.mergeFromRows();
+    entityManager.clear();
+
+    assertThat(merged).isEqualTo(1);
+    assertThat(decode(date, date))
+        .extracting(TrackedPrayer::prayer, TrackedPrayer::prayed)
+        .containsExactly(tuple(PrayerName.ASR, true), tuple(PrayerName.MAGHRIB, false));
+  }
+
+  @Test
+  void should_returnOnlyRequestedMonths_when_findMonths() {
+    Instant now = Instant.now();
+    monthRepository.upsertBit(TELEGRAM_ID, MONTH, 0, true, now);
+    monthRepository.upsertBit(TELEGRAM_ID, MONTH.minusMonths(1), 0, true, now);
+    monthRepository.upsertBit(TELEGRAM_ID, MONTH.minusMonths(3), 0, true, now);
+
+    List<PrayerTrackingMonthEntity> result =
+        monthRepository.findMonths(TELEGRAM_ID, MONTH.minusMonths(1), MONTH);
+
+    assertThat(result)
+        .extracting(m -> m.getId().getMonth())
+        .containsExactly(MONTH.minusMonths(1), MONTH);
+  }
+
+  private List<TrackedPrayer> decode(LocalDate from, LocalDate to) {
+    List<TrackedPrayer> result = new ArrayList<>();
+    for (PrayerTrackingMonthEntity month : monthRepository.findMonths(TELEGRAM_ID, MONTH, MONTH)) {
+      BitsetPrayerTrackingStore.decode(month, from, to, result);
+    }
+    return result;
+  }
+
+  private static int bit(LocalDate date, PrayerName prayer) {
+    return BitsetPrayerTrackingStore.bit(date, prayer);
+  }
+}
@@ -4,16 +4,19 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import java.time.Instant;
 import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.List;
-import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
 import uz.myrafeeq.api.entity.PrayerTrackingEntity;
 import uz.myrafeeq.api.entity.UserEntity;
 import uz.myrafeeq.api.enums.PrayerName;
-import uz.myrafeeq.api.repository.projection.DateCountProjection;
-import uz.myrafeeq.api.repository.projection.PrayerCountProjection;
 
 class PrayerTrackingRepositoryTest extends RepositoryTest {
 
@@ -21,6 +24,8 @@ class PrayerTrackingRepositoryTest extends RepositoryTest {
 
   @Autowired private PrayerTrackingRepository trackingRepository;
   @Autowired private UserRepository userRepository;
+  @Autowired private TestEntityManager entityManager;
+  @Autowired private NamedParameterJdbcTemplate jdbcTemplate;
 
   @BeforeEach
   void setUp() {
@@ -80,6 +85,14 @@ class PrayerTrackingRepositoryTest extends RepositoryTest {
     assertThat(result).allMatch(e -> e.getTelegramId().equals(TELEGRAM_ID));
   }
 
+  @Test
+  void should_assignTimeOrderedIds_when_savingEntities() {
+    List<PrayerTrackingEntity> result =
+        trackingRepository.findByTelegramIdAndPrayerDate(TELEGRAM_ID, LocalDate.now());
+
+    assertThat(result).extracting(e -> e.getId().version()).containsOnly(7);
+  }
+
   @Test
   void should_findByTelegramIdAndPrayerDateBetween() {
     LocalDate from = LocalDate.now().minusDays(1);
@@ -92,53 +105,107 @@ class PrayerTrackingRepositoryTest extends RepositoryTest {
   }
 
   @Test
-  void should_findByTelegramIdAndPrayerDateAndPrayerName() {
-    Optional<PrayerTrackingEntity> result =
-        trackingRepository.findByTelegramIdAndPrayerDateAndPrayerName(
-            TELEGRAM_ID, LocalDate.now(), PrayerName.FAJR);
-
-    assertThat(result).isPresent();
-    assertThat(result.get().getPrayed()).isTrue();
+  void should_insertRow_when_upsertingNewPrayer() {
+    LocalDate yesterday = LocalDate.now().minusDays(1);
+    Instant toggledAt = Instant.now();
+
+    PrayerTrackingEntity result =
+        trackingRepository.upsertToggle(TELEGRAM_ID, yesterday, "ASR", true, toggledAt);
+
+    assertThat(result.getId().version()).isEqualTo(7);
+    assertThat(result.getPrayerName()).isEqualTo(PrayerName.ASR);
+    assertThat(result.getPrayed()).isTrue();
+    assertThat(result.getVersion()).isZero();
+    assertThat(trackingRepository.findByTelegramIdAndPrayerDate(TELEGRAM_ID, yesterday))
+        .hasSize(4);
   }
 
   @Test
-  void should_countCompletedByPrayer() {
-    LocalDate from = LocalDate.now().minusDays(1);
-    LocalDate to = LocalDate.now();
+  void should_updateRow_when_upsertingExistingPrayer() {
+    LocalDate today = LocalDate.now();
+    PrayerTrackingEntity existing = find(today, PrayerName.FAJR);
+    entityManager.clear();
 
-    List<PrayerCountProjection> result =
-        trackingRepository.countCompletedByPrayer(TELEGRAM_ID, from, to);
+    PrayerTrackingEntity result =
+        trackingRepository.upsertToggle(TELEGRAM_ID, today, "FAJR", false, Instant.now());
 
-    assertThat(result).isNotEmpty();
-    // FAJR: 2 (today + yesterday), DHUHR: 2 (today + yesterday)
-    Optional<PrayerCountProjection> fajr =
-        result.stream().filter(p -> p.getPrayerName() == PrayerName.FAJR).findFirst();
-    assertThat(fajr).isPresent();
-    assertThat(fajr.get().getCount()).isEqualTo(2L);
+    assertThat(result.getId()).isEqualTo(existing.getId());
+    assertThat(result.getPrayed()).isFalse();
+    assertThat(result.getVersion()).isEqualTo(existing.getVersion() + 1);
   }
 
   @Test
-  void should_countCompletedByDate() {
-    LocalDate from = LocalDate.now().minusDays(7);
-    LocalDate to = LocalDate.now();
+  void should_keepNewerRow_when_syncingOlderToggle() {
+    LocalDate today = LocalDate.now();
+    LocalDate yesterday = today.minusDays(1);
+    Instant now = Instant.now();
+    entityManager.flush();
+
+    int[] counts =
+        jdbcTemplate.batchUpdate(
+            PrayerTrackingRepository.SYNC_TOGGLE,
+            new SqlParameterSource[] {
+              syncParameters(today, PrayerName.FAJR, false, now.minusSeconds(3600)),
+              syncParameters(yesterday, PrayerName.DHUHR, false, now.plusSeconds(60)),
+              syncParameters(yesterday, PrayerName.ISHA, true, now)
+            });
+    entityManager.clear();
+
+    assertThat(counts).containsExactly(0, 1, 1);
+    assertThat(find(today, PrayerName.FAJR).getPrayed()).isTrue();
+    assertThat(find(yesterday, PrayerName.DHUHR).getPrayed()).isFalse();
+  }
 
-    List<DateCountProjection> result =
-        trackingRepository.countCompletedByDate(TELEGRAM_ID, from, to);
+  @Test
+  void should_moveRowsToPartitionThenArchive_when_maintainingPartitions() {
+    LocalDate month = LocalDate.now().withDayOfMonth(1).minusMonths(24);
+    LocalDate date = month.plusDays(3);
+    trackingRepository.save(
+        PrayerTrackingEntity.builder()
+            .telegramId(TELEGRAM_ID)
+            .prayerDate(date)
+            .prayerName(PrayerName.ASR)
+            .prayed(true)
+            .toggledAt(Instant.now())
+            .build());
+    entityManager.flush();
 
-    assertThat(result).isNotEmpty();
-    // Today: 5 completed, yesterday: 2 completed (prayed=true only)
-    Optional<DateCountProjection> today =
-        result.stream().filter(d -> d.getPrayerDate().equals(LocalDate.now())).findFirst();
-    assertThat(today).isPresent();
-    assertThat(today.get().getCount()).isEqualTo(5L);
+    assertThat(trackingRepository.createPartition(month)).isTrue();
+    assertThat(trackingRepository.createPartition(date)).isFalse();
+    assertThat(countRows("prayer_tracking_default", date)).isZero();
+    String partition = "prayer_tracking_%d_%02d".formatted(month.getYear(), month.getMonthValue());
+    assertThat(countRows(partition, date)).isEqualTo(1);
+
+    assertThat(trackingRepository.archivePartitionsBefore(month.plusMonths(1))).isEqualTo(1);
+    entityManager.clear();
+
+    assertThat(trackingRepository.findByTelegramIdAndPrayerDate(TELEGRAM_ID, date)).isEmpty();
+    assertThat(countRows("prayer_tracking_archive", date)).isEqualTo(1);
+    assertThat(trackingRepository.findByTelegramIdAndPrayerDate(TELEGRAM_ID, LocalDate.now()))
+        .hasSize(5);
   }
 
-  @Test
-  void should_returnEmpty_when_noDataForUser() {
-    List<PrayerCountProjection> result =
-        trackingRepository.countCompletedByPrayer(
-            999999L, LocalDate.now().minusDays(7), LocalDate.now());
+  private PrayerTrackingEntity find(LocalDate date, PrayerName prayer) {
+    return trackingRepository.findByTelegramIdAndPrayerDate(TELEGRAM_ID, date).stream()
+        .filter(entity -> entity.getPrayerName() == prayer)
+        .findFirst()
+        .orElseThrow();
+  }
+
+  private static SqlParameterSource syncParameters(
+      LocalDate date, PrayerName prayer, boolean prayed, Instant toggledAt) {
+    return new MapSqlParameterSource()
+        .addValue("telegramId", TELEGRAM_ID)
+        .addValue("prayerDate", date)
+        .addValue("prayerName", prayer.name())
+        .addValue("prayed", prayed)
+        .addValue("toggledAt", OffsetDateTime.ofInstant(toggledAt, ZoneOffset.UTC));
+  }
 
-    assertThat(result).isEmpty();
+  private long countRows(String table, LocalDate date) {
+    return jdbcTemplate
+        .getJdbcTemplate()
+        .queryForObject(
+            "SELECT COUNT(*) FROM " + table + " WHERE prayer_date = ?", Long.class, date);
   }
 }
@@ -0,0 +1,57 @@
+package uz.myrafeeq.api.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+@Import(RateLimitStateRepository.class)
+class RateLimitStateRepositoryTest extends RepositoryTest {
+
+  private static final long NOW = 1_700_000_000_000_000L;
+
+  @Autowired private RateLimitStateRepository repository;
+
+  @Test
+  void should_startFromNow_when_keyIsNew() {
+    Map<Long, Long> tats = advance(Map.of(1L, 1_000L, 2L, 3_000L), NOW);
+
+    assertThat(tats).containsOnly(Map.entry(1L, NOW + 1_000L), Map.entry(2L, NOW + 3_000L));
+  }
+
+  @Test
+  void should_accumulateAdvances_when_instancesReportSameKey() {
+    advance(Map.of(3L, 5_000L), NOW);
+
+    Map<Long, Long> tats = advance(Map.of(3L, 2_000L), NOW + 1_000L);
+
+    assertThat(tats).containsExactly(Map.entry(3L, NOW + 7_000L));
+  }
+
+  @Test
+  void should_restartFromNow_when_storedTatHasPassed() {
+    advance(Map.of(4L, 1_000L), NOW);
+
+    Map<Long, Long> tats = advance(Map.of(4L, 1_000L), NOW + 10_000L);
+
+    assertThat(tats).containsExactly(Map.entry(4L, NOW + 11_000L));
+  }
+
+  @Test
+  void should_deleteOnlyExpired_when_purging() {
+    advance(Map.of(5L, 1_000L, 6L, 60_000L), NOW);
+
+    assertThat(repository.deleteExpired(NOW + 30_000L)).isEqualTo(1);
+    assertThat(advance(Map.of(6L, 0L), NOW + 30_000L))
+        .containsExactly(Map.entry(6L, NOW + 60_000L));
+  }
+
+  private Map<Long, Long> advance(Map<Long, Long> advances, long now) {
+    Map<Long, Long> tats = new HashMap<>();
+    repository.advance(advances, now, tats::put);
+    return tats;
+  }
+}
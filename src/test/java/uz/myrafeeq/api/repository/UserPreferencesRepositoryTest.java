@@ -0,0 +1,79 @@
+package uz.myrafeeq.api.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import uz.myrafeeq.api.entity.CityEntity;
+import uz.myrafeeq.api.entity.CountryEntity;
+import uz.myrafeeq.api.entity.UserEntity;
+import uz.myrafeeq.api.entity.UserPreferencesEntity;
+import uz.myrafeeq.api.enums.CalculationMethod;
+import uz.myrafeeq.api.enums.Madhab;
+import uz.myrafeeq.api.repository.projection.PreferencesWithCity;
+
+class UserPreferencesRepositoryTest extends RepositoryTest {
+
+  private static final Long TELEGRAM_ID = 123456789L;
+
+  @Autowired private UserPreferencesRepository preferencesRepository;
+  @Autowired private UserRepository userRepository;
+  @Autowired private CityRepository cityRepository;
+  @Autowired private CountryRepository countryRepository;
+
+  @BeforeEach
+  void setUp() {
+    preferencesRepository.deleteAll();
+    userRepository.deleteAll();
+    cityRepository.deleteAll();
+    countryRepository.deleteAll();
+
+    CountryEntity country =
+        countryRepository.save(
+            CountryEntity.builder()
+                .code("UZ")
+                .name("Uzbekistan")
+                .defaultMethod(CalculationMethod.MBOUZ)
+                .defaultMadhab(Madhab.HANAFI)
+                .build());
+    cityRepository.save(
+        CityEntity.builder()
+            .id("tashkent")
+            .name("Tashkent")
+            .country(country)
+            .latitude(41.2995)
+            .longitude(69.2401)
+            .timezone("Asia/Tashkent")
+            .build());
+    userRepository.save(UserEntity.builder().telegramId(TELEGRAM_ID).firstName("Doston").build());
+  }
+
+  @Test
+  void should_loadCity_when_preferencesReferenceIt() {
+    preferencesRepository.save(
+        UserPreferencesEntity.builder().telegramId(TELEGRAM_ID).cityId("tashkent").build());
+
+    Optional<PreferencesWithCity> result = preferencesRepository.findWithCity(TELEGRAM_ID);
+
+    assertThat(result).isPresent();
+    assertThat(result.get().preferences().getTelegramId()).isEqualTo(TELEGRAM_ID);
+    assertThat(result.get().city().getTimezone()).isEqualTo("Asia/Tashkent");
+  }
+
+  @Test
+  void should_returnNullCity_when_noCitySelected() {
+    preferencesRepository.save(UserPreferencesEntity.builder().telegramId(TELEGRAM_ID).build());
+
+    Optional<PreferencesWithCity> result = preferencesRepository.findWithCity(TELEGRAM_ID);
+
+    assertThat(result).isPresent();
+    assertThat(result.get().city()).isNull();
+  }
+
+  @Test
+  void should_returnEmpty_when_noPreferences() {
+    assertThat(preferencesRepository.findWithCity(TELEGRAM_ID)).isEmpty();
+  }
+}
@@ -0,0 +1,169 @@
+package uz.myrafeeq.api.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import uz.myrafeeq.api.security.GcraRateLimiter.Decision;
+
+class GcraRateLimiterTest {
+
+  private static final long MINUTE = TimeUnit.MINUTES.toNanos(1);
+  private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  private final AtomicLong clock = new AtomicLong(1_000 * SECOND);
+  private final GcraRateLimiter limiter = new GcraRateLimiter(64, clock::get);
+
+  @Test
+  void should_allowFullQuotaAtOnce_when_keyIsNew() {
+    for (int i = 2; i >= 0; i--) {
+      Decision decision = limiter.acquire(42L, 3, MINUTE, 1);
+      assertThat(decision.allowed()).isTrue();
+      assertThat(decision.remaining()).isEqualTo(i);
+    }
+
+    Decision rejected = limiter.acquire(42L, 3, MINUTE, 1);
+
+    assertThat(rejected.allowed()).isFalse();
+    assertThat(rejected.remaining()).isZero();
+    assertThat(rejected.retryAfterNanos()).isEqualTo(20 * SECOND);
+  }
+
+  @Test
+  void should_refillGradually_when_timePasses() {
+    for (int i = 0; i < 3; i++) {
+      limiter.acquire(42L, 3, MINUTE, 1);
+    }
+
+    clock.addAndGet(20 * SECOND);
+
+    assertThat(limiter.acquire(42L, 3, MINUTE, 1).allowed()).isTrue();
+    assertThat(limiter.acquire(42L, 3, MINUTE, 1).allowed()).isFalse();
+  }
+
+  @Test
+  void should_notAllowDoubleBurst_when_periodBoundaryPasses() {
+    for (int i = 0; i < 3; i++) {
+      limiter.acquire(42L, 3, MINUTE, 1);
+    }
+
+    clock.addAndGet(MINUTE - SECOND);
+    int allowed = 0;
+    for (int i = 0; i < 6; i++) {
+      if (limiter.acquire(42L, 3, MINUTE, 1).allowed()) {
+        allowed++;
+      }
+    }
+
+    assertThat(allowed).isEqualTo(2);
+  }
+
+  @Test
+  void should_chargeCost_when_requestIsWeighted() {
+    Decision decision = limiter.acquire(42L, 10, MINUTE, 4);
+
+    assertThat(decision.remaining()).isEqualTo(6);
+    assertThat(limiter.acquire(42L, 10, MINUTE, 4).remaining()).isEqualTo(2);
+    assertThat(limiter.acquire(42L, 10, MINUTE, 4).allowed()).isFalse();
+  }
+
+  @Test
+  void should_reuseSlots_when_tableIsFull() {
+    GcraRateLimiter tiny = new GcraRateLimiter(2, clock::get);
+    for (long key = 1; key <= 10; key++) {
+      assertThat(tiny.acquire(key, 1, MINUTE, 1).allowed()).isTrue();
+    }
+
+    assertThat(tiny.acquire(10L, 1, MINUTE, 1).allowed()).isFalse();
+  }
+
+  @Test
+  void should_resetDebtAndUsage_when_takingOverActiveSlot() {
+    GcraRateLimiter tiny = new GcraRateLimiter(2, clock::get);
+    tiny.acquire(1L, 1, MINUTE, 1);
+    tiny.acquire(2L, 1, MINUTE, 1);
+    tiny.drainUsage((key, advance) -> {});
+    Map<Long, Long> usage = new HashMap<>();
+
+    assertThat(tiny.acquire(3L, 2, MINUTE, 1).remaining()).isEqualTo(1);
+    tiny.drainUsage(usage::put);
+
+    assertThat(usage).containsOnly(Map.entry(3L, 30 * SECOND));
+  }
+
+  @Test
+  void should_keepClientsApart_when_takingOverSlotsConcurrently() throws Exception {
+    GcraRateLimiter tiny = new GcraRateLimiter(4, clock::get);
+    for (long key = 1; key <= 4; key++) {
+      tiny.acquire(key, 1, MINUTE, 1);
+    }
+    tiny.drainUsage((key, advance) -> {});
+    int clients = 8;
+    CountDownLatch start = new CountDownLatch(1);
+
+    try (ExecutorService executor = Executors.newFixedThreadPool(clients)) {
+      List<Future<Integer>> rejected = new ArrayList<>();
+      for (int client = 0; client < clients; client++) {
+        long key = 100L + client;
+        rejected.add(
+            executor.submit(
+                () -> {
+                  start.await();
+                  int count = 0;
+                  for (int i = 0; i < 200; i++) {
+                    if (!tiny.acquire(key, 10_000, MINUTE, 1).allowed()) {
+                      count++;
+                    }
+                  }
+                  return count;
+                }));
+      }
+      start.countDown();
+
+      for (Future<Integer> result : rejected) {
+        assertThat(result.get(10, TimeUnit.SECONDS)).isZero();
+      }
+    }
+
+    List<Long> owners = new ArrayList<>();
+    tiny.drainUsage((key, advance) -> owners.add(key));
+
+    assertThat(owners).doesNotHaveDuplicates().allMatch(key -> key >= 100L);
+  }
+
+  @Test
+  void should_reportUsageOnce_when_drained() {
+    limiter.acquire(42L, 3, MINUTE, 1);
+    limiter.acquire(42L, 3, MINUTE, 1);
+    limiter.acquire(43L, 3, MINUTE, 1);
+    Map<Long, Long> usage = new HashMap<>();
+
+    limiter.drainUsage(usage::put);
+
+    assertThat(usage).containsOnly(Map.entry(42L, 40 * SECOND), Map.entry(43L, 20 * SECOND));
+
+    usage.clear();
+    limiter.drainUsage(usage::put);
+
+    assertThat(usage).isEmpty();
+  }
+
+  @Test
+  void should_rejectRequest_when_clusterAdvancedTat() {
+    limiter.acquire(42L, 3, MINUTE, 1);
+
+    limiter.advanceTo(42L, clock.get() + MINUTE);
+    limiter.advanceTo(42L, clock.get());
+
+    assertThat(limiter.acquire(42L, 3, MINUTE, 1).allowed()).isFalse();
+  }
+}
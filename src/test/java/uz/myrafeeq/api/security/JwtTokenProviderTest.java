@@ -3,6 +3,7 @@ package uz.myrafeeq.api.security;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.time.Duration;
 import java.util.Base64;
 import org.junit.jupiter.api.BeforeEach;
@@ -17,11 +18,13 @@ class JwtTokenProviderTest {
           .encodeToString(
               "test-secret-key-for-myrafeeq-api-testing-only-must-be-at-least-256-bits".getBytes());
 
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
   private JwtTokenProvider jwtTokenProvider;
 
   @BeforeEach
   void setUp() {
-    jwtTokenProvider = new JwtTokenProvider(new JwtProperties(SECRET, Duration.ofHours(1)));
+    jwtTokenProvider =
+        new JwtTokenProvider(new JwtProperties(SECRET, Duration.ofHours(1)), meterRegistry);
   }
 
   @Test
@@ -51,7 +54,7 @@ class JwtTokenProviderTest {
   @Test
   void should_throwInvalidAuth_when_tokenIsExpired() {
     JwtTokenProvider expiredProvider =
-        new JwtTokenProvider(new JwtProperties(SECRET, Duration.ZERO));
+        new JwtTokenProvider(new JwtProperties(SECRET, Duration.ZERO), new SimpleMeterRegistry());
 
     String token = expiredProvider.generateToken(123456789L, "Doston");
 
@@ -66,7 +69,8 @@ class JwtTokenProviderTest {
             .encodeToString(
                 "another-secret-key-for-testing-that-is-also-at-least-256-bits-long!!".getBytes());
     JwtTokenProvider otherProvider =
-        new JwtTokenProvider(new JwtProperties(otherSecret, Duration.ofHours(1)));
+        new JwtTokenProvider(
+            new JwtProperties(otherSecret, Duration.ofHours(1)), new SimpleMeterRegistry());
 
     String token = otherProvider.generateToken(123456789L, "Doston");
 
@@ -94,4 +98,25 @@ class JwtTokenProviderTest {
     assertThatThrownBy(() -> jwtTokenProvider.validateAndExtractTelegramId(""))
         .isInstanceOf(InvalidAuthException.class);
   }
+
+  @Test
+  void should_verifyOnce_when_sameTokenPresentedAgain() {
+    String token = jwtTokenProvider.generateToken(123456789L, "Doston");
+
+    jwtTokenProvider.validateAndExtractTelegramId(token);
+    Long telegramId = jwtTokenProvider.validateAndExtractTelegramId(token);
+
+    assertThat(telegramId).isEqualTo(123456789L);
+    assertThat(meterRegistry.get("jwt.verify").timer().count()).isEqualTo(1);
+  }
+
+  @Test
+  void should_verifyAgain_when_previousVerificationFailed() {
+    for (int i = 0; i < 2; i++) {
+      assertThatThrownBy(() -> jwtTokenProvider.validateAndExtractTelegramId("invalid.token.here"))
+          .isInstanceOf(InvalidAuthException.class);
+    }
+
+    assertThat(meterRegistry.get("jwt.verify").timer().count()).isEqualTo(2);
+  }
 }
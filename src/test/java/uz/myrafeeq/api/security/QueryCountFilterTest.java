@@ -0,0 +1,64 @@
+package uz.myrafeeq.api.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.Connection;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+import uz.myrafeeq.api.repository.QueryCountingDataSource;
+
+@ExtendWith(MockitoExtension.class)
+class QueryCountFilterTest {
+
+  @Mock private DataSource target;
+  @Mock private Connection connection;
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final QueryCountFilter filter = new QueryCountFilter(meterRegistry);
+
+  @Test
+  void should_countStatementsFromForkedThreads_when_requestFansOut() throws Exception {
+    given(target.getConnection()).willReturn(connection);
+    DataSource dataSource = new QueryCountingDataSource(target);
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/dashboard");
+    request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v1/dashboard");
+
+    filter.doFilterInternal(
+        request,
+        new MockHttpServletResponse(),
+        (_, _) -> {
+          try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 3; i++) {
+              executor.submit(() -> dataSource.getConnection().prepareStatement("SELECT 1"));
+            }
+          }
+        });
+
+    DistributionSummary queries =
+        meterRegistry.get("http.server.requests.queries").tag("uri", "/api/v1/dashboard").summary();
+    assertThat(queries.count()).isEqualTo(1);
+    assertThat(queries.totalAmount()).isEqualTo(3);
+  }
+
+  @Test
+  void should_recordZero_when_noStatementsIssued() throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/actuator/health");
+
+    filter.doFilterInternal(request, new MockHttpServletResponse(), (_, _) -> {});
+
+    DistributionSummary queries =
+        meterRegistry.get("http.server.requests.queries").tag("uri", "UNKNOWN").summary();
+    assertThat(queries.totalAmount()).isZero();
+  }
+}
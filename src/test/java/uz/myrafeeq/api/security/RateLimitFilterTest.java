@@ -5,6 +5,7 @@ import static org.mockito.Mockito.verify;
 
 import jakarta.servlet.FilterChain;
 import java.util.List;
+import java.util.Map;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -27,7 +28,8 @@ class RateLimitFilterTest {
   @BeforeEach
   void setUp() {
     SecurityContextHolder.clearContext();
-    RateLimitProperties properties = new RateLimitProperties(true, 3, 5);
+    RateLimitProperties properties =
+        new RateLimitProperties(true, 3, 5, Map.of("/api/v1/cities/search", 3));
     filter = new RateLimitFilter(properties, new ObjectMapper());
   }
 
@@ -62,13 +64,14 @@ class RateLimitFilterTest {
     filter.doFilterInternal(request, response, filterChain);
 
     assertThat(response.getStatus()).isEqualTo(429);
-    assertThat(response.getHeader("Retry-After")).isEqualTo("60");
+    assertThat(response.getHeader("Retry-After")).isEqualTo("20");
+    assertThat(response.getHeader("X-RateLimit-Remaining")).isEqualTo("0");
     assertThat(response.getContentAsString()).contains("RATE_LIMIT_EXCEEDED");
   }
 
   @Test
   void should_passThrough_when_rateLimitDisabled() throws Exception {
-    RateLimitProperties disabledProps = new RateLimitProperties(false, 1, 1);
+    RateLimitProperties disabledProps = new RateLimitProperties(false, 1, 1, Map.of());
     RateLimitFilter disabledFilter = new RateLimitFilter(disabledProps, new ObjectMapper());
 
     MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/cities");
@@ -134,4 +137,35 @@ class RateLimitFilterTest {
     filter.doFilterInternal(request2, response2, filterChain);
     assertThat(response2.getStatus()).isEqualTo(200);
   }
+
+  @Test
+  void should_reportRemaining_when_allowed() throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/cities");
+    request.setServletPath("/api/v1/cities");
+    request.setRemoteAddr("10.0.0.2");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    filter.doFilterInternal(request, response, filterChain);
+
+    assertThat(response.getHeader("X-RateLimit-Remaining")).isEqualTo("2");
+  }
+
+  @Test
+  void should_chargeRouteCost_when_pathMatchesCostPattern() throws Exception {
+    MockHttpServletRequest search = new MockHttpServletRequest("GET", "/api/v1/cities/search");
+    search.setServletPath("/api/v1/cities/search");
+    search.setRemoteAddr("10.0.0.3");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    filter.doFilterInternal(search, response, filterChain);
+    assertThat(response.getHeader("X-RateLimit-Remaining")).isEqualTo("0");
+
+    MockHttpServletRequest cheap = new MockHttpServletRequest("GET", "/api/v1/cities");
+    cheap.setServletPath("/api/v1/cities");
+    cheap.setRemoteAddr("10.0.0.3");
+    response = new MockHttpServletResponse();
+    filter.doFilterInternal(cheap, response, filterChain);
+
+    assertThat(response.getStatus()).isEqualTo(429);
+  }
 }
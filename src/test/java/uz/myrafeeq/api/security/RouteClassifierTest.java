@@ -0,0 +1,43 @@
+package uz.myrafeeq.api.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import uz.myrafeeq.api.security.RouteClassifier.Route;
+
+class RouteClassifierTest {
+
+  @Test
+  void should_classifyPublic_when_pathMatchesPublicPattern() {
+    assertThat(RouteClassifier.classify("/api/v1/auth/token")).isEqualTo(Route.PUBLIC);
+    assertThat(RouteClassifier.classify("/api/v1/cities/nearest")).isEqualTo(Route.PUBLIC);
+    assertThat(RouteClassifier.classify("/api/v1/prayer-times/by-location"))
+        .isEqualTo(Route.PUBLIC);
+    assertThat(RouteClassifier.classify("/actuator/health/liveness")).isEqualTo(Route.PUBLIC);
+  }
+
+  @Test
+  void should_classifyAdmin_when_pathUnderAdminPrefix() {
+    assertThat(RouteClassifier.classify("/api/v1/admin/stats")).isEqualTo(Route.ADMIN);
+  }
+
+  @Test
+  void should_classifyUser_when_pathNotPublic() {
+    assertThat(RouteClassifier.classify("/api/v1/dashboard")).isEqualTo(Route.USER);
+    assertThat(RouteClassifier.classify("/api/v1/prayer-times")).isEqualTo(Route.USER);
+    assertThat(RouteClassifier.classify("/actuator/env")).isEqualTo(Route.USER);
+  }
+
+  @Test
+  void should_reuseAttribute_when_requestAlreadyClassified() {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/dashboard");
+    request.setServletPath("/api/v1/dashboard");
+
+    assertThat(RouteClassifier.classify(request)).isEqualTo(Route.USER);
+    request.setServletPath("/api/v1/auth/token");
+
+    assertThat(RouteClassifier.classify(request)).isEqualTo(Route.USER);
+    assertThat(request.getAttribute(RouteClassifier.ATTRIBUTE)).isEqualTo(Route.USER);
+  }
+}
@@ -0,0 +1,29 @@
+package uz.myrafeeq.api.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import uz.myrafeeq.api.security.VerifiedTokenCache.VerifiedToken;
+
+class VerifiedTokenCacheTest {
+
+  private final VerifiedTokenCache cache = new VerifiedTokenCache(new SimpleMeterRegistry());
+
+  @Test
+  void should_keepSeparateEntries_when_tokensDifferOnlyInNonAsciiCharacters() {
+    Instant expiresAt = Instant.now().plusSeconds(3600);
+    Map<String, VerifiedToken> verified =
+        Map.of(
+            "header.payload.sigé", new VerifiedToken(111L, expiresAt),
+            "header.payload.sigè", new VerifiedToken(222L, expiresAt));
+
+    Long first = cache.get("header.payload.sigé", verified::get);
+    Long second = cache.get("header.payload.sigè", verified::get);
+
+    assertThat(first).isEqualTo(111L);
+    assertThat(second).isEqualTo(222L);
+  }
+}
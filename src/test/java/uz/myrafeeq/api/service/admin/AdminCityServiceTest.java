@@ -31,6 +31,8 @@ import uz.myrafeeq.api.mapper.AdminCityMapper;
 import uz.myrafeeq.api.repository.CityRepository;
 import uz.myrafeeq.api.repository.CountryRepository;
 import uz.myrafeeq.api.repository.UserPreferencesRepository;
+import uz.myrafeeq.api.service.city.CitySpatialIndex;
+import uz.myrafeeq.api.service.city.ReferenceData;
 
 @ExtendWith(MockitoExtension.class)
 class AdminCityServiceTest {
@@ -39,6 +41,8 @@ class AdminCityServiceTest {
   @Mock private CountryRepository countryRepository;
   @Mock private UserPreferencesRepository userPreferencesRepository;
   @Mock private AdminCityMapper adminCityMapper;
+  @Mock private CitySpatialIndex citySpatialIndex;
+  @Mock private ReferenceData referenceData;
   @InjectMocks private AdminCityService adminCityService;
 
   @Test
@@ -85,6 +89,7 @@ class AdminCityServiceTest {
     AdminCityResponse result = adminCityService.createCity(request);
 
     assertThat(result.getId()).isEqualTo("bukhara");
+    verify(citySpatialIndex).upsert("bukhara", 39.77, 64.42);
   }
 
   @Test
@@ -147,6 +152,7 @@ class AdminCityServiceTest {
     adminCityService.deleteCity("tashkent");
 
     verify(cityRepository).delete(city);
+    verify(citySpatialIndex).remove("tashkent");
   }
 
   @Test
@@ -25,6 +25,7 @@ import uz.myrafeeq.api.exception.RequestValidationException;
 import uz.myrafeeq.api.mapper.CountryMapper;
 import uz.myrafeeq.api.repository.CityRepository;
 import uz.myrafeeq.api.repository.CountryRepository;
+import uz.myrafeeq.api.service.city.ReferenceData;
 
 @ExtendWith(MockitoExtension.class)
 class AdminCountryServiceTest {
@@ -32,6 +33,7 @@ class AdminCountryServiceTest {
   @Mock private CountryRepository countryRepository;
   @Mock private CityRepository cityRepository;
   @Mock private CountryMapper countryMapper;
+  @Mock private ReferenceData referenceData;
   @InjectMocks private AdminCountryService adminCountryService;
 
   @Test
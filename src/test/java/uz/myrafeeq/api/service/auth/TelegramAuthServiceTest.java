@@ -63,7 +63,8 @@ class TelegramAuthServiceTest {
             userMapper,
             objectMapper,
             telegramProperties,
-            environment);
+            environment,
+            new TelegramInitDataVerifier(telegramProperties));
   }
 
   @Test
@@ -0,0 +1,73 @@
+package uz.myrafeeq.api.service.auth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Map;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.junit.jupiter.api.Test;
+import uz.myrafeeq.api.configuration.TelegramProperties;
+
+class TelegramInitDataVerifierTest {
+
+  private static final String BOT_TOKEN = "7819384521:AAH-test-bot-token-for-unit-tests";
+
+  private final TelegramInitDataVerifier verifier =
+      new TelegramInitDataVerifier(new TelegramProperties(BOT_TOKEN, Duration.ofMinutes(5)));
+
+  @Test
+  void should_decodePairs_when_parsingInitData() {
+    Map<String, String> params =
+        verifier.parse("auth_date=1700000000&user=%7B%22id%22%3A1%7D&empty=&flag&hash=ab");
+
+    assertThat(params)
+        .containsOnly(
+            Map.entry("auth_date", "1700000000"),
+            Map.entry("user", "{\"id\":1}"),
+            Map.entry("empty", ""),
+            Map.entry("hash", "ab"));
+  }
+
+  @Test
+  void should_throw_when_keyRepeats() {
+    assertThatThrownBy(() -> verifier.parse("a=1&a=2"))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void should_accept_when_hashMatchesSortedDataCheckString() {
+    Map<String, String> params =
+        Map.of("user", "{\"id\":1}", "auth_date", "1700000000", "query_id", "AAH123");
+    String hash = sign("auth_date=1700000000\nquery_id=AAH123\nuser={\"id\":1}");
+
+    assertThat(verifier.verify(params, hash)).isTrue();
+    assertThat(verifier.verify(params, hash.toUpperCase())).isTrue();
+  }
+
+  @Test
+  void should_reject_when_hashMalformedOrWrong() {
+    Map<String, String> params = Map.of("auth_date", "1700000000");
+    String hash = sign("auth_date=1700000000");
+
+    assertThat(verifier.verify(params, hash.substring(2))).isFalse();
+    assertThat(verifier.verify(params, "zz" + hash.substring(2))).isFalse();
+    assertThat(verifier.verify(Map.of("auth_date", "1700000001"), hash)).isFalse();
+  }
+
+  private static String sign(String dataCheckString) {
+    try {
+      Mac mac = Mac.getInstance("HmacSHA256");
+      mac.init(new SecretKeySpec("WebAppData".getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+      byte[] secretKey = mac.doFinal(BOT_TOKEN.getBytes(StandardCharsets.UTF_8));
+      mac.init(new SecretKeySpec(secretKey, "HmacSHA256"));
+      return HexFormat.of()
+          .formatHex(mac.doFinal(dataCheckString.getBytes(StandardCharsets.UTF_8)));
+    } catch (Exception e) {
+      throw new RuntimeException(e);
+    }
+  }
+}
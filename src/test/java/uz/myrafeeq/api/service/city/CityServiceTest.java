@@ -4,6 +4,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.never;
@@ -40,6 +41,8 @@ class CityServiceTest {
   @Mock private TimeZoneResolver timeZoneResolver;
   @Mock private CountryRepository countryRepository;
   @Mock private NominatimProperties nominatimProperties;
+  @Mock private CitySpatialIndex citySpatialIndex;
+  @Mock private ReferenceData referenceData;
   @InjectMocks private CityService cityService;
 
   @Test
@@ -47,7 +50,7 @@ class CityServiceTest {
     CityEntity city = buildCityEntity("tashkent", "Tashkent", 41.2995, 69.2401);
     CityResponse cityResponse = buildCityResponse("tashkent", "Tashkent");
 
-    given(cityRepository.searchByName(eq("Tashkent"), any())).willReturn(List.of(city));
+    given(referenceData.searchCities(eq("Tashkent"), anyInt())).willReturn(List.of(city));
     given(cityMapper.toCityResponse(city)).willReturn(cityResponse);
 
     CitySearchResponse result = cityService.searchCities("Tashkent", 10);
@@ -58,7 +61,7 @@ class CityServiceTest {
 
   @Test
   void should_returnEmptyList_when_noMatchingCities() {
-    given(cityRepository.searchByName(eq("Unknown"), any())).willReturn(List.of());
+    given(referenceData.searchCities(eq("Unknown"), anyInt())).willReturn(List.of());
     given(nominatimClient.searchCities("Unknown", 10)).willReturn(List.of());
 
     CitySearchResponse result = cityService.searchCities("Unknown", 10);
@@ -73,7 +76,7 @@ class CityServiceTest {
     CityResponse resp1 = buildCityResponse("tashkent", "Tashkent");
     CityResponse resp2 = buildCityResponse("samarkand", "Samarkand");
 
-    given(cityRepository.searchByName(eq("a"), any())).willReturn(List.of(city1, city2));
+    given(referenceData.searchCities(eq("a"), anyInt())).willReturn(List.of(city1, city2));
     given(cityMapper.toCityResponse(city1)).willReturn(resp1);
     given(cityMapper.toCityResponse(city2)).willReturn(resp2);
 
@@ -100,6 +103,24 @@ class CityServiceTest {
     assertThat(result.getDistanceKm()).isGreaterThanOrEqualTo(0.0);
   }
 
+  @Test
+  void should_useSpatialIndex_when_indexReady() {
+    CityEntity city = buildCityEntity("tashkent", "Tashkent", 41.2995, 69.2401);
+    CityResponse cityResponse = buildCityResponse("tashkent", "Tashkent");
+
+    given(citySpatialIndex.isReady()).willReturn(true);
+    given(citySpatialIndex.nearest(41.3, 69.3))
+        .willReturn(Optional.of(new CitySpatialIndex.Neighbor("tashkent", 5.1)));
+    given(referenceData.findCity("tashkent")).willReturn(Optional.of(city));
+    given(cityMapper.toCityResponse(city)).willReturn(cityResponse);
+    given(nominatimProperties.getMaxDistanceKm()).willReturn(50.0);
+
+    NearestCityResponse result = cityService.findNearestCity(41.3, 69.3);
+
+    assertThat(result.getCity().getName()).isEqualTo("Tashkent");
+    verify(cityRepository, never()).findNearestCity(anyDouble(), anyDouble());
+  }
+
   @Test
   void should_throwCityNotFound_when_noCitiesExist() {
     given(cityRepository.findNearestCity(0.0, 0.0)).willReturn(null);
@@ -143,7 +164,7 @@ class CityServiceTest {
     CityEntity city = buildCityEntity("tashkent", "Tashkent", 41.2995, 69.2401);
     CityResponse cityResponse = buildCityResponse("tashkent", "Tashkent");
 
-    given(cityRepository.searchByName(eq("Tashkent"), any())).willReturn(List.of(city));
+    given(referenceData.searchCities(eq("Tashkent"), anyInt())).willReturn(List.of(city));
     given(cityMapper.toCityResponse(city)).willReturn(cityResponse);
 
     cityService.searchCities("Tashkent", 10);
@@ -153,7 +174,7 @@ class CityServiceTest {
 
   @Test
   void should_fallbackToNominatim_when_dbEmpty() {
-    given(cityRepository.searchByName(eq("Ташкент"), any())).willReturn(List.of());
+    given(referenceData.searchCities(eq("Ташкент"), anyInt())).willReturn(List.of());
 
     NominatimPlace place =
         new NominatimPlace(
@@ -181,7 +202,7 @@ class CityServiceTest {
 
   @Test
   void should_deduplicateResults_when_multipleNominatimResultsMapToSameCity() {
-    given(cityRepository.searchByName(eq("test"), any())).willReturn(List.of());
+    given(referenceData.searchCities(eq("test"), anyInt())).willReturn(List.of());
 
     NominatimPlace place1 =
         new NominatimPlace(
@@ -217,7 +238,7 @@ class CityServiceTest {
 
   @Test
   void should_returnNominatimResponseWithoutSaving_when_noNearbyCityExists() {
-    given(cityRepository.searchByName(eq("Reykjavik"), any())).willReturn(List.of());
+    given(referenceData.searchCities(eq("Reykjavik"), anyInt())).willReturn(List.of());
 
     NominatimPlace place =
         new NominatimPlace(
@@ -236,7 +257,7 @@ class CityServiceTest {
     given(nominatimProperties.getDefaultMethod()).willReturn(CalculationMethod.MWL);
     given(nominatimProperties.getDefaultMadhab()).willReturn(Madhab.HANAFI);
     given(timeZoneResolver.resolve(64.1466, -21.9426)).willReturn("Atlantic/Reykjavik");
-    given(countryRepository.findById("IS")).willReturn(Optional.empty());
+    given(referenceData.findCountry("IS")).willReturn(Optional.empty());
 
     CitySearchResponse result = cityService.searchCities("Reykjavik", 10);
 
@@ -263,7 +284,7 @@ class CityServiceTest {
             new NominatimAddress("Reykjavik", null, null, "Iceland", "is"));
     given(nominatimClient.reverse(64.1466, -21.9426)).willReturn(Optional.of(place));
 
-    given(cityRepository.findById("R123456")).willReturn(Optional.empty());
+    given(referenceData.findCity("R123456")).willReturn(Optional.empty());
     given(timeZoneResolver.resolve(64.1466, -21.9426)).willReturn("Atlantic/Reykjavik");
 
     CountryEntity iceland =
@@ -308,7 +329,7 @@ class CityServiceTest {
   @Test
   void should_returnExistingCity_when_getOrCreateCityFindsInDb() {
     CityEntity city = buildCityEntity("tashkent", "Tashkent", 41.2995, 69.2401);
-    given(cityRepository.findById("tashkent")).willReturn(Optional.of(city));
+    given(referenceData.findCity("tashkent")).willReturn(Optional.of(city));
 
     CityEntity result = cityService.getOrCreateCity("tashkent");
 
@@ -318,7 +339,7 @@ class CityServiceTest {
 
   @Test
   void should_createCity_when_getOrCreateCityWithOsmId() {
-    given(cityRepository.findById("R123456")).willReturn(Optional.empty());
+    given(referenceData.findCity("R123456")).willReturn(Optional.empty());
 
     NominatimPlace place =
         new NominatimPlace(
@@ -332,7 +353,7 @@ class CityServiceTest {
     given(nominatimClient.lookup("R123456")).willReturn(Optional.of(place));
 
     // findById inside createCityFromNominatim
-    given(cityRepository.findById("R123456"))
+    given(referenceData.findCity("R123456"))
         .willReturn(Optional.empty())
         .willReturn(Optional.empty());
     given(timeZoneResolver.resolve(64.1466, -21.9426)).willReturn("Atlantic/Reykjavik");
@@ -361,11 +382,13 @@ class CityServiceTest {
 
     assertThat(result.getName()).isEqualTo("Reykjavik");
     verify(cityRepository).save(any(CityEntity.class));
+    verify(referenceData).add(savedCity);
+    verify(referenceData, never()).refresh();
   }
 
   @Test
   void should_throwCityNotFound_when_getOrCreateCityWithUnknownId() {
-    given(cityRepository.findById("unknown")).willReturn(Optional.empty());
+    given(referenceData.findCity("unknown")).willReturn(Optional.empty());
     given(nominatimClient.lookup("unknown")).willReturn(Optional.empty());
 
     assertThatThrownBy(() -> cityService.getOrCreateCity("unknown"))
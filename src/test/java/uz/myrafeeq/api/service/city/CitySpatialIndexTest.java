@@ -0,0 +1,153 @@
+package uz.myrafeeq.api.service.city;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.BDDMockito.given;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uz.myrafeeq.api.repository.CityRepository;
+import uz.myrafeeq.api.repository.projection.CityLocationProjection;
+
+@ExtendWith(MockitoExtension.class)
+class CitySpatialIndexTest {
+
+  @Mock private CityRepository cityRepository;
+  @InjectMocks private CitySpatialIndex citySpatialIndex;
+
+  @Test
+  void should_returnEmpty_when_notLoaded() {
+    assertThat(citySpatialIndex.isReady()).isFalse();
+    assertThat(citySpatialIndex.nearest(41.3, 69.3)).isEmpty();
+  }
+
+  @Test
+  void should_findNearestCity_when_loaded() {
+    given(cityRepository.findAllLocations())
+        .willReturn(
+            List.of(
+                location("tashkent", 41.2995, 69.2401),
+                location("samarkand", 39.6542, 66.9597),
+                location("bukhara", 39.7747, 64.4286)));
+
+    citySpatialIndex.load();
+
+    assertThat(citySpatialIndex.nearest(41.3, 69.3))
+        .hasValueSatisfying(n -> assertThat(n.cityId()).isEqualTo("tashkent"));
+    assertThat(citySpatialIndex.nearest(39.7, 67.0))
+        .hasValueSatisfying(n -> assertThat(n.cityId()).isEqualTo("samarkand"));
+  }
+
+  @Test
+  void should_matchBruteForce_when_randomQueries() {
+    Random random = new Random(42);
+    List<CityLocationProjection> cities = new ArrayList<>();
+    for (int i = 0; i < 2_000; i++) {
+      double lat = random.nextDouble() * 180 - 90;
+      double lon = random.nextDouble() * 360 - 180;
+      cities.add(location("c" + i, lat, lon));
+    }
+    given(cityRepository.findAllLocations()).willReturn(cities);
+    citySpatialIndex.load();
+
+    for (int i = 0; i < 200; i++) {
+      double lat = random.nextDouble() * 180 - 90;
+      double lon = random.nextDouble() * 360 - 180;
+
+      List<CitySpatialIndex.Neighbor> actual = citySpatialIndex.nearest(lat, lon, 5);
+      List<String> expected =
+          cities.stream()
+              .sorted(
+                  Comparator.comparingDouble(
+                      c -> GeoDistance.haversineKm(lat, lon, c.getLatitude(), c.getLongitude())))
+              .limit(5)
+              .map(CityLocationProjection::getId)
+              .toList();
+
+      assertThat(actual).extracting(CitySpatialIndex.Neighbor::cityId).isEqualTo(expected);
+    }
+  }
+
+  @Test
+  void should_reportHaversineDistance_when_neighborFound() {
+    given(cityRepository.findAllLocations())
+        .willReturn(List.of(location("tashkent", 41.2995, 69.2401)));
+    citySpatialIndex.load();
+
+    CitySpatialIndex.Neighbor neighbor = citySpatialIndex.nearest(41.4, 69.3).orElseThrow();
+
+    assertThat(neighbor.distanceKm())
+        .isCloseTo(GeoDistance.haversineKm(41.4, 69.3, 41.2995, 69.2401), within(1e-6));
+  }
+
+  @Test
+  void should_reflectUpsertsAndRemovals_when_modifiedAfterLoad() {
+    given(cityRepository.findAllLocations())
+        .willReturn(
+            List.of(
+                location("tashkent", 41.2995, 69.2401), location("samarkand", 39.6542, 66.9597)));
+    citySpatialIndex.load();
+
+    citySpatialIndex.upsert("chirchiq", 41.4689, 69.5822);
+    assertThat(citySpatialIndex.nearest(41.47, 69.58))
+        .hasValueSatisfying(n -> assertThat(n.cityId()).isEqualTo("chirchiq"));
+
+    citySpatialIndex.upsert("tashkent", 10.0, 10.0);
+    assertThat(citySpatialIndex.nearest(41.2995, 69.2401))
+        .hasValueSatisfying(n -> assertThat(n.cityId()).isEqualTo("chirchiq"));
+
+    citySpatialIndex.remove("chirchiq");
+    assertThat(citySpatialIndex.nearest(41.47, 69.58))
+        .hasValueSatisfying(n -> assertThat(n.cityId()).isEqualTo("samarkand"));
+    assertThat(citySpatialIndex.size()).isEqualTo(2);
+  }
+
+  @Test
+  void should_keepResults_when_compactedAfterManyWrites() {
+    given(cityRepository.findAllLocations())
+        .willReturn(List.of(location("tashkent", 41.2995, 69.2401)));
+    citySpatialIndex.load();
+
+    int writes = CitySpatialIndex.COMPACTION_THRESHOLD * 2;
+    for (int i = 0; i < writes; i++) {
+      citySpatialIndex.upsert("c" + i, i % 80, i % 170);
+    }
+    citySpatialIndex.remove("tashkent");
+
+    assertThat(citySpatialIndex.size()).isEqualTo(writes);
+    assertThat(citySpatialIndex.nearest(41.2995, 69.2401))
+        .hasValueSatisfying(n -> assertThat(n.cityId()).isNotEqualTo("tashkent"));
+    assertThat(citySpatialIndex.nearest(5, 5))
+        .hasValueSatisfying(n -> assertThat(n.cityId()).isEqualTo("c5"));
+  }
+
+  private static CityLocationProjection location(String id, double lat, double lon) {
+    return new TestLocation(id, lat, lon);
+  }
+
+  private record TestLocation(String id, Double latitude, Double longitude)
+      implements CityLocationProjection {
+
+    @Override
+    public String getId() {
+      return id;
+    }
+
+    @Override
+    public Double getLatitude() {
+      return latitude;
+    }
+
+    @Override
+    public Double getLongitude() {
+      return longitude;
+    }
+  }
+}
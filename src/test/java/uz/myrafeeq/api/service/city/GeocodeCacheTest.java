@@ -0,0 +1,207 @@
+package uz.myrafeeq.api.service.city;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import tools.jackson.databind.ObjectMapper;
+import uz.myrafeeq.api.configuration.GeocodeCacheProperties;
+import uz.myrafeeq.api.enums.GeocodeKind;
+import uz.myrafeeq.api.repository.GeocodeCacheHits;
+import uz.myrafeeq.api.repository.GeocodeCacheRepository;
+import uz.myrafeeq.api.repository.GeocodeCacheWrite;
+import uz.myrafeeq.api.repository.projection.GeocodeCacheProjection;
+import uz.myrafeeq.api.service.city.NominatimClient.NominatimPlace;
+
+@ExtendWith(MockitoExtension.class)
+class GeocodeCacheTest {
+
+  private static final NominatimPlace TASHKENT =
+      new NominatimPlace("41.2995", "69.2401", "Tashkent", 1991790L, "relation", "city", null);
+
+  @Mock private GeocodeCacheRepository repository;
+  @Mock private PlatformTransactionManager transactionManager;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final ConcurrentMapCacheManager cacheManager =
+      new ConcurrentMapCacheManager("nominatimSearch", "nominatimLookup", "nominatimReverse");
+  private GeocodeCache geocodeCache;
+
+  @BeforeEach
+  void setUp() {
+    GeocodeCacheProperties properties =
+        new GeocodeCacheProperties(Duration.ofDays(30), Duration.ofDays(1), 100);
+    geocodeCache =
+        new GeocodeCache(
+            repository,
+            objectMapper,
+            cacheManager,
+            transactionManager,
+            properties,
+            new SimpleMeterRegistry());
+  }
+
+  @Test
+  void should_returnEmpty_when_noStoredEntry() {
+    given(repository.findFresh("LOOKUP", "R1")).willReturn(Optional.empty());
+
+    assertThat(geocodeCache.find(GeocodeKind.LOOKUP, "R1", GeocodeCache.PLACE)).isEmpty();
+  }
+
+  @Test
+  void should_deserializePayload_when_storedEntryFresh() {
+    String payload = objectMapper.writeValueAsString(TASHKENT);
+    given(repository.findFresh("LOOKUP", "R1991790"))
+        .willReturn(Optional.of(row("LOOKUP", "R1991790", payload)));
+
+    Optional<GeocodeCache.Entry<NominatimPlace>> entry =
+        geocodeCache.find(GeocodeKind.LOOKUP, "R1991790", GeocodeCache.PLACE);
+
+    assertThat(entry).hasValueSatisfying(e -> assertThat(e.value()).isEqualTo(TASHKENT));
+  }
+
+  @Test
+  void should_returnNegativeEntry_when_payloadNull() {
+    given(repository.findFresh("SEARCH", "atlantis-5"))
+        .willReturn(Optional.of(row("SEARCH", "atlantis-5", null)));
+
+    Optional<GeocodeCache.Entry<List<NominatimPlace>>> entry =
+        geocodeCache.find(GeocodeKind.SEARCH, "atlantis-5", GeocodeCache.PLACE_LIST);
+
+    assertThat(entry).hasValueSatisfying(e -> assertThat(e.value()).isNull());
+  }
+
+  @Test
+  void should_treatAsMiss_when_databaseFails() {
+    given(repository.findFresh(anyString(), anyString()))
+        .willThrow(new IllegalStateException("connection refused"));
+
+    assertThat(geocodeCache.find(GeocodeKind.LOOKUP, "R1", GeocodeCache.PLACE)).isEmpty();
+  }
+
+  @Test
+  void should_writeNothing_when_onlyQueued() {
+    geocodeCache.put(GeocodeKind.LOOKUP, "R1991790", TASHKENT);
+
+    assertThat(geocodeCache.pendingWrites()).isEqualTo(1);
+    verify(repository, never()).upsertAll(anyList());
+  }
+
+  @Test
+  void should_batchQueuedEntriesAndHits_when_flushed() {
+    given(repository.findFresh("REVERSE", "41300,69300"))
+        .willReturn(Optional.of(row("REVERSE", "41300,69300", null)));
+    geocodeCache.find(GeocodeKind.REVERSE, "41300,69300", GeocodeCache.PLACE);
+    geocodeCache.put(GeocodeKind.LOOKUP, "R1991790", TASHKENT);
+    geocodeCache.put(GeocodeKind.SEARCH, "atlantis-5", null);
+
+    geocodeCache.flush();
+
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<List<GeocodeCacheWrite>> writes = ArgumentCaptor.forClass(List.class);
+    verify(repository).upsertAll(writes.capture());
+    assertThat(writes.getValue())
+        .extracting(
+            GeocodeCacheWrite::kind, GeocodeCacheWrite::cacheKey, GeocodeCacheWrite::payload)
+        .containsExactlyInAnyOrder(
+            tuple("LOOKUP", "R1991790", objectMapper.writeValueAsString(TASHKENT)),
+            tuple("SEARCH", "atlantis-5", null));
+    verify(repository).addHitsAll(List.of(new GeocodeCacheHits("REVERSE", "41300,69300", 1L)));
+    assertThat(geocodeCache.pendingWrites()).isZero();
+  }
+
+  @Test
+  void should_writeRowsOneByOneAndDropFailures_when_batchFails() {
+    willAnswer(
+            invocation -> {
+              List<GeocodeCacheWrite> batch = invocation.getArgument(0);
+              if (batch.stream().anyMatch(write -> write.cacheKey().equals("bad"))) {
+                throw new IllegalStateException("value too long");
+              }
+              return null;
+            })
+        .given(repository)
+        .upsertAll(anyList());
+    geocodeCache.put(GeocodeKind.LOOKUP, "R1991790", TASHKENT);
+    geocodeCache.put(GeocodeKind.LOOKUP, "bad", TASHKENT);
+
+    geocodeCache.flush();
+
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<List<GeocodeCacheWrite>> writes = ArgumentCaptor.forClass(List.class);
+    verify(repository, times(3)).upsertAll(writes.capture());
+    assertThat(writes.getAllValues())
+        .filteredOn(batch -> batch.size() == 1)
+        .extracting(batch -> batch.getFirst().cacheKey())
+        .containsExactlyInAnyOrder("R1991790", "bad");
+    assertThat(geocodeCache.pendingWrites()).isZero();
+
+    geocodeCache.flush();
+
+    verify(repository, times(3)).upsertAll(anyList());
+  }
+
+  @Test
+  void should_skipEntry_when_keyLongerThanColumn() {
+    geocodeCache.put(
+        GeocodeKind.SEARCH, "a".repeat(GeocodeCache.MAX_KEY_LENGTH + 1) + "-10", List.of());
+
+    assertThat(geocodeCache.pendingWrites()).isZero();
+  }
+
+  @Test
+  void should_preloadInMemoryCaches_when_warmedUp() {
+    given(repository.findHottest(100))
+        .willReturn(
+            List.of(
+                row("LOOKUP", "R1991790", objectMapper.writeValueAsString(TASHKENT)),
+                row("SEARCH", "tashkent-5", objectMapper.writeValueAsString(List.of(TASHKENT)))));
+
+    geocodeCache.warmUp();
+
+    assertThat(cacheManager.getCache("nominatimLookup").get("R1991790").get()).isEqualTo(TASHKENT);
+    assertThat(cacheManager.getCache("nominatimSearch").get("tashkent-5").get())
+        .isEqualTo(List.of(TASHKENT));
+  }
+
+  private static GeocodeCacheProjection row(String kind, String cacheKey, String payload) {
+    return new TestRow(kind, cacheKey, payload);
+  }
+
+  private record TestRow(String kind, String cacheKey, String payload)
+      implements GeocodeCacheProjection {
+
+    @Override
+    public String getKind() {
+      return kind;
+    }
+
+    @Override
+    public String getCacheKey() {
+      return cacheKey;
+    }
+
+    @Override
+    public String getPayload() {
+      return payload;
+    }
+  }
+}
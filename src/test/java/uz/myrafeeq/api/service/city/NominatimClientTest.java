@@ -1,12 +1,20 @@
 package uz.myrafeeq.api.service.city;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
 import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
 import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.MediaType;
@@ -14,6 +22,7 @@ import org.springframework.test.web.client.MockRestServiceServer;
 import org.springframework.web.client.RestClient;
 import uz.myrafeeq.api.configuration.NominatimProperties;
 import uz.myrafeeq.api.enums.CalculationMethod;
+import uz.myrafeeq.api.enums.GeocodeKind;
 import uz.myrafeeq.api.enums.Madhab;
 import uz.myrafeeq.api.service.city.NominatimClient.NominatimPlace;
 
@@ -21,6 +30,7 @@ class NominatimClientTest {
 
   private NominatimClient nominatimClient;
   private MockRestServiceServer mockServer;
+  private GeocodeCache geocodeCache;
 
   @BeforeEach
   void setUp() {
@@ -30,10 +40,21 @@ class NominatimClientTest {
             "TestAgent/1.0",
             50.0,
             CalculationMethod.MWL,
-            Madhab.HANAFI);
+            Madhab.HANAFI,
+            100.0,
+            10,
+            50,
+            Duration.ofSeconds(5));
     RestClient.Builder builder = RestClient.builder();
     mockServer = MockRestServiceServer.bindTo(builder).build();
-    nominatimClient = new NominatimClient(properties, builder);
+    geocodeCache = mock(GeocodeCache.class);
+    nominatimClient =
+        new NominatimClient(properties, builder, new SimpleMeterRegistry(), geocodeCache);
+  }
+
+  @AfterEach
+  void tearDown() {
+    nominatimClient.shutdown();
   }
 
   @Test
@@ -167,6 +188,7 @@ class NominatimClientTest {
 
     assertThat(results).isEmpty();
     mockServer.verify();
+    verify(geocodeCache, never()).put(any(), any(), any());
   }
 
   @Test
@@ -179,6 +201,31 @@ class NominatimClientTest {
 
     assertThat(results).isEmpty();
     mockServer.verify();
+    verify(geocodeCache).put(GeocodeKind.SEARCH, "noresults-5", null);
+  }
+
+  @Test
+  void searchCities_shouldSkipUpstream_whenStoredEntryExists() {
+    NominatimPlace tashkent =
+        new NominatimPlace("41.2995", "69.2401", "Tashkent", 1991790L, "relation", "city", null);
+    given(geocodeCache.find(GeocodeKind.SEARCH, "tashkent-5", GeocodeCache.PLACE_LIST))
+        .willReturn(Optional.of(new GeocodeCache.Entry<>(List.of(tashkent))));
+
+    List<NominatimPlace> results = nominatimClient.searchCities("Tashkent", 5);
+
+    assertThat(results).containsExactly(tashkent);
+    mockServer.verify();
+  }
+
+  @Test
+  void lookup_shouldSkipUpstream_whenNegativeEntryStored() {
+    given(geocodeCache.find(GeocodeKind.LOOKUP, "R0", GeocodeCache.PLACE))
+        .willReturn(Optional.of(new GeocodeCache.Entry<>(null)));
+
+    Optional<NominatimPlace> result = nominatimClient.lookup("R0");
+
+    assertThat(result).isEmpty();
+    mockServer.verify();
   }
 
   @Test
@@ -0,0 +1,91 @@
+package uz.myrafeeq.api.service.city;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import uz.myrafeeq.api.service.city.NominatimRequestScheduler.Priority;
+
+class NominatimRequestSchedulerTest {
+
+  private NominatimRequestScheduler scheduler;
+
+  @AfterEach
+  void tearDown() {
+    scheduler.close();
+  }
+
+  @Test
+  void should_returnResult_when_submitted() {
+    scheduler = new NominatimRequestScheduler(100, 1, 10);
+
+    String result = scheduler.submit(Priority.SEARCH, 1_000, () -> "ok").join();
+
+    assertThat(result).isEqualTo("ok");
+  }
+
+  @Test
+  void should_runLookupsBeforeSearches_when_queued() throws InterruptedException {
+    scheduler = new NominatimRequestScheduler(5, 1, 10);
+    List<String> order = new CopyOnWriteArrayList<>();
+    CountDownLatch started = new CountDownLatch(1);
+
+    // Spends the only token, so the next submissions queue up behind the refill
+    scheduler.submit(
+        Priority.SEARCH,
+        5_000,
+        () -> {
+          started.countDown();
+          return "first";
+        });
+    started.await();
+
+    CompletableFuture<String> search =
+        scheduler.submit(Priority.SEARCH, 5_000, () -> record(order, "search"));
+    CompletableFuture<String> reverse =
+        scheduler.submit(Priority.REVERSE, 5_000, () -> record(order, "reverse"));
+    CompletableFuture<String> lookup =
+        scheduler.submit(Priority.LOOKUP, 5_000, () -> record(order, "lookup"));
+    CompletableFuture.allOf(search, reverse, lookup).join();
+
+    assertThat(order).containsExactly("lookup", "reverse", "search");
+  }
+
+  @Test
+  void should_failFast_when_queueFull() {
+    scheduler = new NominatimRequestScheduler(0.1, 1, 2);
+    scheduler.submit(Priority.SEARCH, 5_000, () -> "first").join();
+
+    scheduler.submit(Priority.SEARCH, 5_000, () -> "queued");
+    scheduler.submit(Priority.SEARCH, 5_000, () -> "queued");
+    CompletableFuture<String> rejected = scheduler.submit(Priority.LOOKUP, 5_000, () -> "late");
+
+    assertThat(rejected).isCompletedExceptionally();
+    assertThatThrownBy(rejected::join).hasCauseInstanceOf(RejectedExecutionException.class);
+  }
+
+  @Test
+  void should_expire_when_deadlinePassesInQueue() {
+    scheduler = new NominatimRequestScheduler(0.1, 1, 10);
+    scheduler.submit(Priority.SEARCH, 5_000, () -> "first").join();
+
+    CompletableFuture<String> expired = scheduler.submit(Priority.LOOKUP, 50, () -> "late");
+
+    assertThatThrownBy(expired::join)
+        .isInstanceOf(CompletionException.class)
+        .hasCauseInstanceOf(TimeoutException.class);
+  }
+
+  private static String record(List<String> order, String name) {
+    order.add(name);
+    return name;
+  }
+}
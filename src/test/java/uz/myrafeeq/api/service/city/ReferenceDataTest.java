@@ -0,0 +1,136 @@
+package uz.myrafeeq.api.service.city;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uz.myrafeeq.api.entity.CityEntity;
+import uz.myrafeeq.api.entity.CountryEntity;
+import uz.myrafeeq.api.enums.CalculationMethod;
+import uz.myrafeeq.api.enums.Madhab;
+import uz.myrafeeq.api.repository.CityRepository;
+import uz.myrafeeq.api.repository.CountryRepository;
+
+@ExtendWith(MockitoExtension.class)
+class ReferenceDataTest {
+
+  private static final CountryEntity UZBEKISTAN =
+      CountryEntity.builder()
+          .code("UZ")
+          .name("Uzbekistan")
+          .defaultMethod(CalculationMethod.MWL)
+          .defaultMadhab(Madhab.HANAFI)
+          .build();
+
+  @Mock private CityRepository cityRepository;
+  @Mock private CountryRepository countryRepository;
+  @InjectMocks private ReferenceData referenceData;
+
+  @BeforeEach
+  void setUp() {
+    given(countryRepository.findAll()).willReturn(List.of(UZBEKISTAN));
+    given(cityRepository.findAllWithCountry())
+        .willReturn(
+            List.of(
+                city("tashkent", "Tashkent"),
+                city("samarkand", "Samarkand"),
+                city("nukus", "Nukus")));
+    referenceData.reload();
+  }
+
+  @Test
+  void should_returnDetachedCopy_when_cityInSnapshot() {
+    Optional<CityEntity> city = referenceData.findCity("tashkent");
+
+    assertThat(city).hasValueSatisfying(c -> assertThat(c.getName()).isEqualTo("Tashkent"));
+    assertThat(city.get().getCountry().getDefaultMethod()).isEqualTo(CalculationMethod.MWL);
+    then(cityRepository).should(never()).findById(any());
+  }
+
+  @Test
+  void should_fallBackToDatabase_when_cityNotInSnapshot() {
+    CityEntity created = city("R123456", "Reykjavik");
+    given(cityRepository.findById("R123456")).willReturn(Optional.of(created));
+
+    assertThat(referenceData.findCity("R123456")).contains(created);
+  }
+
+  @Test
+  void should_findCountry_when_codeInSnapshot() {
+    assertThat(referenceData.findCountry("UZ"))
+        .hasValueSatisfying(c -> assertThat(c.getName()).isEqualTo("Uzbekistan"));
+    then(countryRepository).should(never()).findById(any());
+  }
+
+  @Test
+  void should_fallBackToDatabase_when_countryCodeNotPacked() {
+    given(countryRepository.findById("XXX")).willReturn(Optional.empty());
+
+    assertThat(referenceData.findCountry("XXX")).isEmpty();
+  }
+
+  @Test
+  void should_returnMatchesByName_when_searching() {
+    assertThat(referenceData.searchCities("KA", 10))
+        .extracting(CityEntity::getId)
+        .containsExactly("samarkand");
+    assertThat(referenceData.searchCities("s", 1))
+        .extracting(CityEntity::getId)
+        .containsExactly("nukus");
+  }
+
+  @Test
+  void should_addCityWithoutReload_when_imported() {
+    CountryEntity iceland =
+        CountryEntity.builder()
+            .code("IS")
+            .name("Iceland")
+            .defaultMethod(CalculationMethod.MWL)
+            .defaultMadhab(Madhab.HANAFI)
+            .build();
+    CityEntity reykjavik = city("R123456", "Reykjavik");
+    reykjavik.setCountry(iceland);
+
+    referenceData.add(reykjavik);
+
+    assertThat(referenceData.findCity("R123456"))
+        .hasValueSatisfying(c -> assertThat(c.getCountry().getName()).isEqualTo("Iceland"));
+    assertThat(referenceData.findCountry("IS")).isPresent();
+    assertThat(referenceData.searchCities("a", 10))
+        .extracting(CityEntity::getId)
+        .containsExactly("R123456", "samarkand", "tashkent");
+    then(cityRepository).should(times(1)).findAllWithCountry();
+    then(cityRepository).should(never()).findById(any());
+    then(countryRepository).should(never()).findById(any());
+  }
+
+  @Test
+  void should_packCountryCodes_when_twoUpperCaseLetters() {
+    assertThat(ReferenceData.countryKey("AA")).isZero();
+    assertThat(ReferenceData.countryKey("ZZ")).isEqualTo(26 * 26 - 1);
+    assertThat(ReferenceData.countryKey("uz")).isEqualTo(-1);
+    assertThat(ReferenceData.countryKey("UZB")).isEqualTo(-1);
+  }
+
+  private static CityEntity city(String id, String name) {
+    return CityEntity.builder()
+        .id(id)
+        .name(name)
+        .country(UZBEKISTAN)
+        .latitude(41.0)
+        .longitude(69.0)
+        .timezone("Asia/Tashkent")
+        .build();
+  }
+}
@@ -0,0 +1,131 @@
+package uz.myrafeeq.api.service.city;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTest {
+
+  private Counter coalesced;
+  private SingleFlight<String, String> singleFlight;
+
+  @BeforeEach
+  void setUp() {
+    coalesced = new SimpleMeterRegistry().counter("coalesced");
+    singleFlight = new SingleFlight<>(coalesced);
+  }
+
+  @Test
+  void should_shareOneCall_when_identicalKeysInFlight() throws Exception {
+    int callers = 8;
+    AtomicInteger upstreamCalls = new AtomicInteger();
+    CountDownLatch release = new CountDownLatch(1);
+
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      List<Future<String>> results = new ArrayList<>();
+      for (int i = 0; i < callers; i++) {
+        results.add(
+            executor.submit(
+                () ->
+                    singleFlight.execute(
+                        "tashkent",
+                        () -> {
+                          upstreamCalls.incrementAndGet();
+                          await(release);
+                          return "result";
+                        })));
+      }
+
+      while (coalesced.count() < callers - 1) {
+        Thread.onSpinWait();
+      }
+      release.countDown();
+
+      for (Future<String> result : results) {
+        assertThat(result.get()).isEqualTo("result");
+      }
+    }
+
+    assertThat(upstreamCalls).hasValue(1);
+    assertThat(coalesced.count()).isEqualTo(callers - 1);
+    assertThat(singleFlight.inFlight()).isZero();
+  }
+
+  @Test
+  void should_callAgain_when_previousFlightCompleted() {
+    AtomicInteger upstreamCalls = new AtomicInteger();
+
+    singleFlight.execute("tashkent", () -> "r" + upstreamCalls.incrementAndGet());
+    String second = singleFlight.execute("tashkent", () -> "r" + upstreamCalls.incrementAndGet());
+
+    assertThat(second).isEqualTo("r2");
+    assertThat(coalesced.count()).isZero();
+  }
+
+  @Test
+  void should_propagateFailure_when_callThrows() {
+    assertThatThrownBy(
+            () ->
+                singleFlight.execute(
+                    "tashkent",
+                    () -> {
+                      throw new IllegalStateException("upstream down");
+                    }))
+        .isInstanceOf(IllegalStateException.class);
+
+    assertThat(singleFlight.inFlight()).isZero();
+  }
+
+  @Test
+  void should_releaseWaiters_when_callThrowsError() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      List<Future<String>> results = new ArrayList<>();
+      for (int i = 0; i < 2; i++) {
+        results.add(
+            executor.submit(
+                () ->
+                    singleFlight.execute(
+                        "tashkent",
+                        () -> {
+                          await(release);
+                          throw new StackOverflowError();
+                        })));
+      }
+
+      while (coalesced.count() < 1) {
+        Thread.onSpinWait();
+      }
+      release.countDown();
+
+      for (Future<String> result : results) {
+        assertThatThrownBy(result::get)
+            .isInstanceOf(ExecutionException.class)
+            .hasCauseInstanceOf(StackOverflowError.class);
+      }
+    }
+
+    assertThat(singleFlight.inFlight()).isZero();
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
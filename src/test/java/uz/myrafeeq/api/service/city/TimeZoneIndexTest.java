@@ -0,0 +1,81 @@
+package uz.myrafeeq.api.service.city;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class TimeZoneIndexTest {
+
+  private static TimeZoneIndex index;
+
+  /**
+   * Two 180-degree roots: the western hemisphere is one zone; the eastern one is split into
+   * quadrants (SW zone, SE border, NW zone, NE no zone).
+   */
+  @BeforeAll
+  static void setUp() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    out.writeInt(TimeZoneIndex.MAGIC);
+    out.writeInt(180);
+    out.writeInt(1);
+    String[] zones = {"", "America/New_York", "Asia/Tashkent"};
+    out.writeInt(zones.length);
+    for (String zone : zones) {
+      out.writeShort(zone.length());
+      out.write(zone.getBytes(StandardCharsets.US_ASCII));
+    }
+    int[] nodes = {1, -3, 2, -1, 2, 0};
+    out.writeInt(nodes.length);
+    for (int node : nodes) {
+      out.writeInt(node);
+    }
+    index = TimeZoneIndex.of(ByteBuffer.wrap(bytes.toByteArray()));
+  }
+
+  @Test
+  void should_returnZone_when_pointInUniformRoot() {
+    TimeZoneIndex.Cell cell = index.locate(40.7, -74.0);
+
+    assertThat(cell.border()).isFalse();
+    assertThat(cell.zoneId()).isEqualTo("America/New_York");
+  }
+
+  @Test
+  void should_descendToQuadrant_when_rootSplit() {
+    assertThat(index.locate(-10.0, 10.0).zoneId()).isEqualTo("Asia/Tashkent");
+    assertThat(index.locate(41.3, 69.2).zoneId()).isEqualTo("Asia/Tashkent");
+    assertThat(index.locate(10.0, 100.0).zoneId()).isNull();
+  }
+
+  @Test
+  void should_reportBounds_when_borderCell() {
+    TimeZoneIndex.Cell cell = index.locate(-45.0, 135.0);
+
+    assertThat(cell.border()).isTrue();
+    assertThat(cell.zoneId()).isNull();
+    assertThat(cell.south()).isEqualTo(-90.0);
+    assertThat(cell.west()).isEqualTo(90.0);
+    assertThat(cell.size()).isEqualTo(90.0);
+  }
+
+  @Test
+  void should_wrapLongitude_when_outsideRange() {
+    assertThat(index.locate(41.3, 69.2 - 360.0).zoneId()).isEqualTo("Asia/Tashkent");
+    assertThat(index.locate(90.0, 180.0).zoneId()).isEqualTo("America/New_York");
+  }
+
+  @Test
+  void should_rejectFile_when_magicMismatch() {
+    ByteBuffer buffer = ByteBuffer.allocate(4).putInt(0, 42);
+
+    assertThatThrownBy(() -> TimeZoneIndex.of(buffer)).isInstanceOf(IllegalStateException.class);
+  }
+}
@@ -44,4 +44,17 @@ class TimeZoneResolverTest {
     String tz = resolver.resolve(51.5074, -0.1278);
     assertThat(tz).isEqualTo("Europe/London");
   }
+
+  @Test
+  void should_resolveEachSide_when_nearFerganaBorders() {
+    assertThat(resolver.resolve(40.5140, 72.8161)).isEqualTo("Asia/Bishkek");
+    assertThat(resolver.resolve(40.7821, 72.3442)).isEqualTo("Asia/Tashkent");
+    assertThat(resolver.resolve(40.2826, 69.6222)).isEqualTo("Asia/Dushanbe");
+  }
+
+  @Test
+  void should_resolveEnclave_when_surroundedByAnotherZone() {
+    assertThat(resolver.resolve(39.9620, 71.1300)).isEqualTo("Asia/Tashkent");
+    assertThat(resolver.resolve(39.8560, 70.5760)).isEqualTo("Asia/Dushanbe");
+  }
 }
@@ -2,10 +2,12 @@ package uz.myrafeeq.api.service.dashboard;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.times;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.ZoneOffset;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletionException;
@@ -13,15 +15,20 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import uz.myrafeeq.api.dto.response.DashboardResponse;
 import uz.myrafeeq.api.dto.response.PrayerStatsResponse;
 import uz.myrafeeq.api.dto.response.PrayerTimesResponse;
 import uz.myrafeeq.api.dto.response.PrayerTrackingResponse;
+import uz.myrafeeq.api.entity.UserPreferencesEntity;
 import uz.myrafeeq.api.enums.StatsPeriod;
+import uz.myrafeeq.api.event.PrayerTrackingChangedEvent;
 import uz.myrafeeq.api.exception.PreferencesNotFoundException;
 import uz.myrafeeq.api.service.prayer.PrayerTimesService;
 import uz.myrafeeq.api.service.prayer.PrayerTrackingService;
+import uz.myrafeeq.api.service.user.UserContext;
+import uz.myrafeeq.api.service.user.UserContextLoader;
 
 @ExtendWith(MockitoExtension.class)
 class DashboardServiceTest {
@@ -30,20 +37,34 @@ class DashboardServiceTest {
 
   @Mock private PrayerTimesService prayerTimesService;
   @Mock private PrayerTrackingService trackingService;
+  @Mock private UserContextLoader userContextLoader;
+
+  @Spy
+  private DashboardSnapshotCache snapshotCache =
+      new DashboardSnapshotCache(new SimpleMeterRegistry());
+
   @InjectMocks private DashboardService dashboardService;
 
+  private final UserContext context =
+      new UserContext(
+          TELEGRAM_ID,
+          UserPreferencesEntity.builder().telegramId(TELEGRAM_ID).build(),
+          null,
+          ZoneOffset.UTC);
+
   @Test
   void should_returnDashboard_when_allServicesSucceed() {
+    given(userContextLoader.load(TELEGRAM_ID)).willReturn(context);
     PrayerTimesResponse timesResponse = PrayerTimesResponse.builder().build();
     PrayerTrackingResponse trackingResponse =
         PrayerTrackingResponse.builder().tracking(Map.of()).build();
     PrayerStatsResponse statsResponse = PrayerStatsResponse.builder().period("WEEK").build();
 
-    given(prayerTimesService.calculatePrayerTimes(eq(TELEGRAM_ID), any(), eq(1)))
+    given(prayerTimesService.calculatePrayerTimes(context, context.today(), 1))
         .willReturn(List.of(timesResponse));
-    given(trackingService.getTracking(eq(TELEGRAM_ID), any(), any(), any()))
+    given(trackingService.getTracking(TELEGRAM_ID, context.today(), null, null))
         .willReturn(trackingResponse);
-    given(trackingService.getStats(TELEGRAM_ID, StatsPeriod.WEEK)).willReturn(statsResponse);
+    given(trackingService.getStats(context, StatsPeriod.WEEK)).willReturn(statsResponse);
 
     DashboardResponse result = dashboardService.getDashboard(TELEGRAM_ID);
 
@@ -52,17 +73,38 @@ class DashboardServiceTest {
     assertThat(result.getStats()).isNotNull();
   }
 
+  @Test
+  void should_serveSnapshot_until_trackingChanges() {
+    given(userContextLoader.load(TELEGRAM_ID)).willReturn(context);
+    given(prayerTimesService.calculatePrayerTimes(context, context.today(), 1))
+        .willReturn(List.of(PrayerTimesResponse.builder().build()));
+    given(trackingService.getTracking(TELEGRAM_ID, context.today(), null, null))
+        .willReturn(PrayerTrackingResponse.builder().tracking(Map.of()).build());
+    given(trackingService.getStats(context, StatsPeriod.WEEK))
+        .willReturn(PrayerStatsResponse.builder().period("WEEK").build());
+
+    DashboardResponse first = dashboardService.getDashboard(TELEGRAM_ID);
+    DashboardResponse second = dashboardService.getDashboard(TELEGRAM_ID);
+    snapshotCache.onTrackingChanged(new PrayerTrackingChangedEvent(TELEGRAM_ID));
+    DashboardResponse third = dashboardService.getDashboard(TELEGRAM_ID);
+
+    assertThat(second).isSameAs(first);
+    assertThat(third).isNotSameAs(first);
+    then(userContextLoader).should(times(2)).load(TELEGRAM_ID);
+  }
+
   @Test
   void should_returnNullPrayerTimes_when_emptyTimesResult() {
+    given(userContextLoader.load(TELEGRAM_ID)).willReturn(context);
     PrayerTrackingResponse trackingResponse =
         PrayerTrackingResponse.builder().tracking(Map.of()).build();
     PrayerStatsResponse statsResponse = PrayerStatsResponse.builder().period("WEEK").build();
 
-    given(prayerTimesService.calculatePrayerTimes(eq(TELEGRAM_ID), any(), eq(1)))
+    given(prayerTimesService.calculatePrayerTimes(context, context.today(), 1))
         .willReturn(List.of());
-    given(trackingService.getTracking(eq(TELEGRAM_ID), any(), any(), any()))
+    given(trackingService.getTracking(TELEGRAM_ID, context.today(), null, null))
         .willReturn(trackingResponse);
-    given(trackingService.getStats(TELEGRAM_ID, StatsPeriod.WEEK)).willReturn(statsResponse);
+    given(trackingService.getStats(context, StatsPeriod.WEEK)).willReturn(statsResponse);
 
     DashboardResponse result = dashboardService.getDashboard(TELEGRAM_ID);
 
@@ -71,11 +113,22 @@ class DashboardServiceTest {
 
   @Test
   void should_propagateException_when_serviceThrows() {
-    given(prayerTimesService.calculatePrayerTimes(eq(TELEGRAM_ID), any(), eq(1)))
+    given(userContextLoader.load(TELEGRAM_ID)).willReturn(context);
+    given(prayerTimesService.calculatePrayerTimes(context, context.today(), 1))
         .willThrow(new PreferencesNotFoundException("No preferences for user " + TELEGRAM_ID));
 
     assertThatThrownBy(() -> dashboardService.getDashboard(TELEGRAM_ID))
         .isInstanceOf(CompletionException.class)
         .hasCauseInstanceOf(PreferencesNotFoundException.class);
   }
+
+  @Test
+  void should_failBeforeFanOut_when_preferencesMissing() {
+    given(userContextLoader.load(TELEGRAM_ID))
+        .willThrow(new PreferencesNotFoundException("No preferences for user " + TELEGRAM_ID));
+
+    assertThatThrownBy(() -> dashboardService.getDashboard(TELEGRAM_ID))
+        .isInstanceOf(PreferencesNotFoundException.class);
+    then(trackingService).shouldHaveNoInteractions();
+  }
 }
@@ -0,0 +1,80 @@
+package uz.myrafeeq.api.service.dashboard;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import uz.myrafeeq.api.dto.response.DashboardResponse;
+import uz.myrafeeq.api.event.PrayerTrackingChangedEvent;
+import uz.myrafeeq.api.event.PreferencesChangedEvent;
+
+class DashboardSnapshotCacheTest {
+
+  private static final Long TELEGRAM_ID = 123456789L;
+  private static final ZoneId TASHKENT = ZoneId.of("Asia/Tashkent");
+
+  private final DashboardSnapshotCache snapshotCache =
+      new DashboardSnapshotCache(new SimpleMeterRegistry());
+
+  @Test
+  void should_expireAtLocalMidnight_when_snapshotBuilt() {
+    DashboardSnapshotCache.Snapshot snapshot =
+        new DashboardSnapshotCache.Snapshot(
+            LocalDate.of(2026, 3, 20), TASHKENT, DashboardResponse.builder().build());
+
+    // Tashkent is UTC+5, so its midnight is 19:00 UTC the day before
+    assertThat(snapshot.expiresAt()).isEqualTo(Instant.parse("2026-03-20T19:00:00Z"));
+    assertThat(snapshot.isCurrent(Instant.parse("2026-03-20T18:59:59Z"))).isTrue();
+    assertThat(snapshot.isCurrent(Instant.parse("2026-03-20T19:00:00Z"))).isFalse();
+  }
+
+  @Test
+  void should_rebuild_when_snapshotFromEarlierDay() {
+    AtomicInteger loads = new AtomicInteger();
+    LocalDate today = LocalDate.now(TASHKENT);
+
+    snapshotCache.get(TELEGRAM_ID, _ -> snapshot(today.minusDays(1), loads));
+    snapshotCache.get(TELEGRAM_ID, _ -> snapshot(today, loads));
+    snapshotCache.get(TELEGRAM_ID, _ -> snapshot(today, loads));
+
+    assertThat(loads).hasValue(2);
+  }
+
+  @Test
+  void should_rebuild_when_preferencesChanged() {
+    AtomicInteger loads = new AtomicInteger();
+    LocalDate today = LocalDate.now(TASHKENT);
+
+    snapshotCache.get(TELEGRAM_ID, _ -> snapshot(today, loads));
+    snapshotCache.onPreferencesChanged(new PreferencesChangedEvent(TELEGRAM_ID));
+    snapshotCache.get(TELEGRAM_ID, _ -> snapshot(today, loads));
+
+    assertThat(loads).hasValue(2);
+  }
+
+  @Test
+  void should_notStoreSnapshot_when_invalidatedWhileBuilding() {
+    AtomicInteger loads = new AtomicInteger();
+    LocalDate today = LocalDate.now(TASHKENT);
+
+    snapshotCache.get(
+        TELEGRAM_ID,
+        _ -> {
+          snapshotCache.onTrackingChanged(new PrayerTrackingChangedEvent(TELEGRAM_ID));
+          return snapshot(today, loads);
+        });
+    snapshotCache.get(TELEGRAM_ID, _ -> snapshot(today, loads));
+    snapshotCache.get(TELEGRAM_ID, _ -> snapshot(today, loads));
+
+    assertThat(loads).hasValue(2);
+  }
+
+  private static DashboardSnapshotCache.Snapshot snapshot(LocalDate date, AtomicInteger loads) {
+    loads.incrementAndGet();
+    return new DashboardSnapshotCache.Snapshot(date, TASHKENT, DashboardResponse.builder().build());
+  }
+}
@@ -0,0 +1,96 @@
+package uz.myrafeeq.api.service.prayer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+class LocationGridTest {
+
+  @Test
+  void should_stayWithinErrorBudget_when_defaultCellSize() {
+    LocationGrid grid = new LocationGrid(1.0, 45.0);
+
+    assertThat(grid.maxErrorSeconds()).isPositive().isLessThan(30);
+  }
+
+  @Test
+  void should_growErrorBound_when_cellSizeIncreases() {
+    double small = new LocationGrid(1.0, 45.0).maxErrorSeconds();
+    double large = new LocationGrid(10.0, 45.0).maxErrorSeconds();
+
+    assertThat(large).isGreaterThan(small * 9);
+  }
+
+  @Test
+  void should_snapToSameCell_when_pointsAreClose() {
+    LocationGrid grid = new LocationGrid(1.0, 45.0);
+
+    LocationGrid.Cell first = grid.snap(41.2995, 69.2401);
+    LocationGrid.Cell second = grid.snap(41.2996, 69.2402);
+
+    assertThat(second).isEqualTo(first);
+  }
+
+  @Test
+  void should_keepCenterWithinHalfCell_when_snapping() {
+    LocationGrid grid = new LocationGrid(1.0, 45.0);
+    double halfCellDegrees = 0.5 / LocationGrid.KM_PER_DEGREE;
+
+    for (double lat = -44.9; lat <= 44.9; lat += 7.3) {
+      for (double lon = -179.9; lon <= 179.9; lon += 13.7) {
+        LocationGrid.Cell cell = grid.snap(lat, lon);
+        double cos = Math.cos(Math.toRadians(cell.latitude()));
+
+        assertThat(Math.abs(cell.latitude() - lat)).isLessThanOrEqualTo(halfCellDegrees);
+        assertThat(Math.abs(cell.longitude() - lon)).isLessThanOrEqualTo(halfCellDegrees / cos);
+      }
+    }
+  }
+
+  @Test
+  void should_notSnap_when_beyondMaxLatitude() {
+    LocationGrid grid = new LocationGrid(1.0, 45.0);
+
+    assertThat(grid.snap(59.9, 10.7)).isNull();
+    assertThat(grid.snap(-50.0, -70.0)).isNull();
+  }
+
+  @Test
+  void should_reject_when_maxLatitudeReachesTwilightLimit() {
+    assertThatThrownBy(() -> new LocationGrid(1.0, 50.0))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new LocationGrid(0, 45.0))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void should_boundFiniteDifferences_when_sampledOffGrid() {
+    double bound = LocationGrid.maxLatitudeSensitivity(45.0);
+    double epsilon = 1e-4;
+
+    for (double lat = -44.93; lat <= 44.93; lat += 3.17) {
+      for (double decl = -23.41; decl <= 23.41; decl += 1.13) {
+        for (double altitude : new double[] {-0.833, -12.3, -17.7, -19.9}) {
+          double h1 = hourAngleDegrees(lat, decl, altitude);
+          double h2 = hourAngleDegrees(lat + epsilon, decl, altitude);
+          if (Double.isNaN(h1) || Double.isNaN(h2)) {
+            continue;
+          }
+          double secondsPerDegree = Math.abs(h2 - h1) / epsilon * 240;
+
+          assertThat(secondsPerDegree).isLessThanOrEqualTo(bound);
+        }
+      }
+    }
+  }
+
+  private static double hourAngleDegrees(double latitude, double declination, double altitude) {
+    double phi = Math.toRadians(latitude);
+    double delta = Math.toRadians(declination);
+    double cosH =
+        (Math.sin(Math.toRadians(altitude)) - Math.sin(phi) * Math.sin(delta))
+            / (Math.cos(phi) * Math.cos(delta));
+    return Math.toDegrees(Math.acos(cosH));
+  }
+}
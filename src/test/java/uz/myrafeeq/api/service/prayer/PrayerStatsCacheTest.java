@@ -0,0 +1,97 @@
+package uz.myrafeeq.api.service.prayer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import uz.myrafeeq.api.dto.response.PrayerStatsResponse;
+import uz.myrafeeq.api.enums.PrayerName;
+import uz.myrafeeq.api.enums.StatsPeriod;
+import uz.myrafeeq.api.service.prayer.PrayerStreakTracker.Streak;
+
+class PrayerStatsCacheTest {
+
+  private static final Long TELEGRAM_ID = 123456789L;
+  private static final LocalDate TODAY = LocalDate.of(2026, 2, 24);
+
+  private final ConcurrentMapCacheManager cacheManager =
+      new ConcurrentMapCacheManager(PrayerStatsCache.CACHE_NAME);
+  private final PrayerStatsCache statsCache = new PrayerStatsCache(cacheManager);
+
+  @Test
+  void should_adjustCounts_when_toggleInsidePeriod() {
+    PrayerStatsResponse stats = stats(TODAY.minusDays(6), TODAY, 10);
+
+    PrayerStatsResponse updated =
+        PrayerStatsCache.apply(stats, TODAY, PrayerName.ASR, -1, new Streak(0, 4), TODAY);
+
+    assertThat(updated.getCompleted()).isEqualTo(9);
+    assertThat(updated.getPercentage()).isEqualTo(25);
+    assertThat(updated.getByPrayer().get("ASR").getCompleted()).isEqualTo(1);
+    assertThat(updated.getByPrayer().get("FAJR").getCompleted()).isEqualTo(2);
+    assertThat(updated.getStreak()).isZero();
+    assertThat(updated.getLongestStreak()).isEqualTo(4);
+  }
+
+  @Test
+  void should_onlyUpdateStreak_when_toggleOutsidePeriod() {
+    PrayerStatsResponse stats = stats(TODAY.minusDays(6), TODAY, 10);
+
+    PrayerStatsResponse updated =
+        PrayerStatsCache.apply(
+            stats, TODAY.minusDays(10), PrayerName.ASR, 1, new Streak(1, 4), TODAY);
+
+    assertThat(updated.getCompleted()).isEqualTo(10);
+    assertThat(updated.getByPrayer()).isSameAs(stats.getByPrayer());
+    assertThat(updated.getStreak()).isEqualTo(1);
+  }
+
+  @Test
+  void should_evict_when_entryComputedOnEarlierDay() {
+    PrayerStatsResponse stats = stats(TODAY.minusDays(7), TODAY.minusDays(1), 10);
+
+    assertThat(PrayerStatsCache.apply(stats, TODAY, PrayerName.ASR, 1, new Streak(1, 4), TODAY))
+        .isNull();
+  }
+
+  @Test
+  void should_evict_when_entryReplacedDuringWrite() {
+    String key = PrayerStatsCache.key(TELEGRAM_ID, StatsPeriod.WEEK);
+    cacheManager.getCache(PrayerStatsCache.CACHE_NAME).put(key, stats(TODAY, TODAY, 1));
+    PrayerStatsCache.Snapshot before = statsCache.snapshot(TELEGRAM_ID);
+    cacheManager.getCache(PrayerStatsCache.CACHE_NAME).put(key, stats(TODAY, TODAY, 2));
+
+    statsCache.applyToggle(before, TODAY, PrayerName.ASR, 1, new Streak(1, 1), TODAY);
+
+    assertThat(cacheManager.getCache(PrayerStatsCache.CACHE_NAME).get(key)).isNull();
+  }
+
+  static PrayerStatsResponse stats(LocalDate from, LocalDate to, int completed) {
+    int days = (int) ChronoUnit.DAYS.between(from, to) + 1;
+    int total = days * PrayerName.values().length;
+    Map<String, PrayerStatsResponse.PrayerStatDetail> byPrayer = new LinkedHashMap<>();
+    for (PrayerName prayer : PrayerName.values()) {
+      byPrayer.put(
+          prayer.name(),
+          PrayerStatsResponse.PrayerStatDetail.builder()
+              .total(days)
+              .completed(completed / PrayerName.values().length)
+              .build());
+    }
+    return PrayerStatsResponse.builder()
+        .period("week")
+        .from(from)
+        .to(to)
+        .total(total)
+        .completed(completed)
+        .percentage((completed * 100) / total)
+        .byPrayer(byPrayer)
+        .streak(0)
+        .longestStreak(0)
+        .build();
+  }
+}
@@ -0,0 +1,151 @@
+package uz.myrafeeq.api.service.prayer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uz.myrafeeq.api.entity.UserStreakEntity;
+import uz.myrafeeq.api.repository.PrayerDailySummaryRepository;
+import uz.myrafeeq.api.repository.UserStreakRepository;
+import uz.myrafeeq.api.repository.projection.DailySummaryProjection;
+import uz.myrafeeq.api.service.prayer.PrayerStreakTracker.Streak;
+
+@ExtendWith(MockitoExtension.class)
+class PrayerStreakTrackerTest {
+
+  private static final Long TELEGRAM_ID = 123456789L;
+  private static final LocalDate TODAY = LocalDate.of(2026, 3, 20);
+  private static final LocalDate WINDOW_START = TODAY.minusDays(7);
+
+  @Mock private UserStreakRepository streakRepository;
+  @Mock private PrayerDailySummaryRepository summaryRepository;
+  @InjectMocks private PrayerStreakTracker streakTracker;
+
+  @Test
+  void should_startRun_when_firstCompleteDay() {
+    UserStreakEntity state = state(null, null, 0);
+
+    PrayerStreakTracker.recompute(state, Set.of(TODAY), WINDOW_START, TODAY);
+
+    assertThat(state.getCurrentStart()).isEqualTo(TODAY);
+    assertThat(PrayerStreakTracker.toStreak(state, TODAY)).isEqualTo(new Streak(1, 1));
+  }
+
+  @Test
+  void should_extendStoredRun_when_windowContinuesIt() {
+    UserStreakEntity state = state(TODAY.minusDays(100), TODAY.minusDays(1), 5);
+
+    PrayerStreakTracker.recompute(state, window(TODAY.minusDays(7), TODAY), WINDOW_START, TODAY);
+
+    assertThat(state.getCurrentStart()).isEqualTo(TODAY.minusDays(100));
+    assertThat(PrayerStreakTracker.toStreak(state, TODAY)).isEqualTo(new Streak(101, 101));
+  }
+
+  @Test
+  void should_splitRun_when_backDatedDayUntoggled() {
+    UserStreakEntity state = state(TODAY.minusDays(20), TODAY, 4);
+    Set<LocalDate> complete = window(TODAY.minusDays(7), TODAY);
+    complete.remove(TODAY.minusDays(2));
+
+    PrayerStreakTracker.recompute(state, complete, WINDOW_START, TODAY);
+
+    assertThat(state.getCurrentStart()).isEqualTo(TODAY.minusDays(1));
+    assertThat(state.getLongestStreak()).isEqualTo(18);
+    assertThat(PrayerStreakTracker.toStreak(state, TODAY)).isEqualTo(new Streak(2, 18));
+  }
+
+  @Test
+  void should_foldFinishedRunIntoLongest_when_itEndedBeforeWindow() {
+    UserStreakEntity state = state(TODAY.minusDays(40), TODAY.minusDays(31), 3);
+
+    PrayerStreakTracker.recompute(state, Set.of(TODAY), WINDOW_START, TODAY);
+
+    assertThat(state.getLongestStreak()).isEqualTo(10);
+    assertThat(PrayerStreakTracker.toStreak(state, TODAY)).isEqualTo(new Streak(1, 10));
+  }
+
+  @Test
+  void should_keepStoredRun_when_lastDayBeforeWindowIsInIt() {
+    UserStreakEntity state = state(TODAY.minusDays(12), TODAY.minusDays(8), 0);
+
+    PrayerStreakTracker.recompute(state, Set.of(), WINDOW_START, TODAY);
+
+    assertThat(state.getCurrentEnd()).isEqualTo(TODAY.minusDays(8));
+    assertThat(PrayerStreakTracker.toStreak(state, TODAY)).isEqualTo(new Streak(0, 5));
+  }
+
+  @Test
+  void should_returnZeroCurrent_when_todayNotComplete() {
+    UserStreakEntity state = state(TODAY.minusDays(3), TODAY.minusDays(1), 0);
+
+    assertThat(PrayerStreakTracker.toStreak(state, TODAY)).isEqualTo(new Streak(0, 3));
+  }
+
+  @Test
+  void should_recomputeFromRollups_when_toggled() {
+    UserStreakEntity state = state(TODAY.minusDays(1), TODAY.minusDays(1), 0);
+    given(streakRepository.findForUpdate(TELEGRAM_ID)).willReturn(Optional.of(state));
+    given(summaryRepository.findRange(TELEGRAM_ID, WINDOW_START, TODAY))
+        .willReturn(
+            List.of(day(TODAY, 5), day(TODAY.minusDays(1), 5), day(TODAY.minusDays(2), 4)));
+
+    Streak result = streakTracker.onToggle(TELEGRAM_ID, TODAY);
+
+    assertThat(result).isEqualTo(new Streak(2, 2));
+    assertThat(state.getCurrentStart()).isEqualTo(TODAY.minusDays(1));
+    assertThat(state.getCurrentEnd()).isEqualTo(TODAY);
+    assertThat(state.getUpdatedAt()).isNotNull();
+  }
+
+  @Test
+  void should_returnZero_when_noStreakState() {
+    given(streakRepository.findById(TELEGRAM_ID)).willReturn(Optional.empty());
+
+    assertThat(streakTracker.get(TELEGRAM_ID, TODAY)).isEqualTo(new Streak(0, 0));
+  }
+
+  private static UserStreakEntity state(LocalDate start, LocalDate end, int longest) {
+    return UserStreakEntity.builder()
+        .telegramId(TELEGRAM_ID)
+        .currentStart(start)
+        .currentEnd(end)
+        .longestStreak(longest)
+        .build();
+  }
+
+  private static Set<LocalDate> window(LocalDate from, LocalDate to) {
+    Set<LocalDate> days = new HashSet<>();
+    for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+      days.add(date);
+    }
+    return days;
+  }
+
+  private static DailySummaryProjection day(LocalDate date, int completed) {
+    return new DailySummaryProjection() {
+      @Override
+      public LocalDate getSummaryDate() {
+        return date;
+      }
+
+      @Override
+      public Short getPrayedMask() {
+        return (short) ((1 << completed) - 1);
+      }
+
+      @Override
+      public Short getCompletedCount() {
+        return (short) completed;
+      }
+    };
+  }
+}
@@ -4,7 +4,11 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.BDDMockito.given;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -14,7 +18,9 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import uz.myrafeeq.api.configuration.PrayerTimesProperties;
 import uz.myrafeeq.api.dto.response.PrayerTimesResponse;
 import uz.myrafeeq.api.entity.CityEntity;
 import uz.myrafeeq.api.entity.CountryEntity;
@@ -23,8 +29,8 @@ import uz.myrafeeq.api.enums.CalculationMethod;
 import uz.myrafeeq.api.enums.HighLatitudeRule;
 import uz.myrafeeq.api.enums.Madhab;
 import uz.myrafeeq.api.exception.PreferencesNotFoundException;
-import uz.myrafeeq.api.repository.CityRepository;
 import uz.myrafeeq.api.repository.UserPreferencesRepository;
+import uz.myrafeeq.api.service.city.ReferenceData;
 
 @ExtendWith(MockitoExtension.class)
 class PrayerTimesServiceTest {
@@ -34,7 +40,14 @@ class PrayerTimesServiceTest {
   private static final double TASHKENT_LON = 69.2401;
 
   @Mock private UserPreferencesRepository preferencesRepository;
-  @Mock private CityRepository cityRepository;
+  @Mock private ReferenceData referenceData;
+  @Spy private PrayerTimetableStore timetableStore = new PrayerTimetableStore();
+  private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @Spy
+  private PrayerLocationCache locationCache =
+      new PrayerLocationCache(new PrayerTimesProperties(1.0, 45.0, 30), meterRegistry);
+
   @InjectMocks private PrayerTimesService prayerTimesService;
 
   @Test
@@ -43,7 +56,7 @@ class PrayerTimesServiceTest {
     CityEntity city = buildCity();
 
     given(preferencesRepository.findById(TELEGRAM_ID)).willReturn(Optional.of(prefs));
-    given(cityRepository.findById("tashkent")).willReturn(Optional.of(city));
+    given(referenceData.findCity("tashkent")).willReturn(Optional.of(city));
 
     List<PrayerTimesResponse> result =
         prayerTimesService.calculatePrayerTimes(TELEGRAM_ID, LocalDate.of(2025, 3, 10), 1);
@@ -66,7 +79,7 @@ class PrayerTimesServiceTest {
     CityEntity city = buildCity();
 
     given(preferencesRepository.findById(TELEGRAM_ID)).willReturn(Optional.of(prefs));
-    given(cityRepository.findById("tashkent")).willReturn(Optional.of(city));
+    given(referenceData.findCity("tashkent")).willReturn(Optional.of(city));
 
     List<PrayerTimesResponse> result =
         prayerTimesService.calculatePrayerTimes(TELEGRAM_ID, LocalDate.of(2025, 3, 10), 3);
@@ -171,7 +184,7 @@ class PrayerTimesServiceTest {
     CityEntity city = buildCity();
 
     given(preferencesRepository.findById(TELEGRAM_ID)).willReturn(Optional.of(prefs));
-    given(cityRepository.findById("tashkent")).willReturn(Optional.of(city));
+    given(referenceData.findCity("tashkent")).willReturn(Optional.of(city));
 
     List<PrayerTimesResponse> result =
         prayerTimesService.calculatePrayerTimes(TELEGRAM_ID, LocalDate.of(2025, 3, 10), 1);
@@ -194,6 +207,122 @@ class PrayerTimesServiceTest {
     assertThat(result.getFirst().getCity()).isEqualTo("Unknown");
   }
 
+  @Test
+  void should_matchDirectCalculation_when_servedFromTimetable() {
+    UserPreferencesEntity prefs = buildPreferences();
+    prefs.setCalculationMethod(CalculationMethod.MWL);
+    CityEntity city = buildCity();
+
+    given(preferencesRepository.findById(TELEGRAM_ID)).willReturn(Optional.of(prefs));
+    given(referenceData.findCity("tashkent")).willReturn(Optional.of(city));
+
+    LocalDate start = LocalDate.of(2025, 12, 20);
+    List<PrayerTimesResponse> fromTimetable =
+        prayerTimesService.calculatePrayerTimes(TELEGRAM_ID, start, 20);
+
+    PrayerTimesService.PrayerCalculationParams params =
+        PrayerTimesService.PrayerCalculationParams.fromPreferences(prefs, city);
+    for (PrayerTimesResponse day : fromTimetable) {
+      PrayerTimesResponse direct =
+          prayerTimesService.computePrayerTimes(day.getDate(), params, false);
+      assertThat(day.getTimes())
+          .usingRecursiveComparison()
+          .as("times on %s", day.getDate())
+          .isEqualTo(direct.getTimes());
+    }
+  }
+
+  @Test
+  void should_applyAdjustmentsOnTopOfTimetable_when_preferencesHaveAdjustments() {
+    UserPreferencesEntity prefs = buildPreferences();
+    CityEntity city = buildCity();
+    LocalDate date = LocalDate.of(2025, 3, 10);
+
+    given(preferencesRepository.findById(TELEGRAM_ID)).willReturn(Optional.of(prefs));
+    given(referenceData.findCity("tashkent")).willReturn(Optional.of(city));
+
+    PrayerTimesResponse.PrayerTimesDto base =
+        prayerTimesService.calculatePrayerTimes(TELEGRAM_ID, date, 1).getFirst().getTimes();
+
+    prefs.setManualAdjustments(Map.of("FAJR", 2, "ISHA", -3));
+    PrayerTimesResponse.PrayerTimesDto adjusted =
+        prayerTimesService.calculatePrayerTimes(TELEGRAM_ID, date, 1).getFirst().getTimes();
+
+    assertThat(minutesBetween(base.getFajr(), adjusted.getFajr())).isEqualTo(2);
+    assertThat(minutesBetween(base.getIsha(), adjusted.getIsha())).isEqualTo(-3);
+    assertThat(adjusted.getSunrise()).isEqualTo(base.getSunrise());
+    // Manual adjustments replace MBOUZ's built-in +3 minute Maghrib adjustment
+    assertThat(minutesBetween(base.getMaghrib(), adjusted.getMaghrib())).isEqualTo(-3);
+  }
+
+  @Test
+  void should_shareCachedResponse_when_locationsInSameCell() {
+    LocalDate date = LocalDate.of(2025, 6, 15);
+
+    PrayerTimesResponse first =
+        prayerTimesService.calculatePrayerTimesByLocation(
+            TASHKENT_LAT,
+            TASHKENT_LON,
+            date,
+            CalculationMethod.MWL,
+            "Asia/Tashkent",
+            Madhab.HANAFI);
+    PrayerTimesResponse second =
+        prayerTimesService.calculatePrayerTimesByLocation(
+            TASHKENT_LAT + 0.0001,
+            TASHKENT_LON - 0.0001,
+            date,
+            CalculationMethod.MWL,
+            "Asia/Tashkent",
+            Madhab.HANAFI);
+
+    assertThat(second).isSameAs(first);
+    assertThat(locationCacheCount("hit")).isEqualTo(1);
+    assertThat(locationCacheCount("miss")).isEqualTo(1);
+  }
+
+  @Test
+  void should_stayWithinOneMinuteOfExactTimes_when_servedFromLocationCell() {
+    LocalDate date = LocalDate.of(2025, 6, 21);
+    double[][] points = {{41.3275, 69.2817}, {-33.8688, 151.2093}, {1.3521, 103.8198}};
+
+    for (double[] point : points) {
+      PrayerTimesResponse snapped =
+          prayerTimesService.calculatePrayerTimesByLocation(
+              point[0], point[1], date, CalculationMethod.MWL, "UTC", Madhab.SHAFI);
+      PrayerTimesResponse exact =
+          prayerTimesService.computePrayerTimes(
+              date,
+              new PrayerTimesService.PrayerCalculationParams(
+                  point[0],
+                  point[1],
+                  CalculationMethod.MWL,
+                  Madhab.SHAFI,
+                  HighLatitudeRule.MIDDLE_OF_NIGHT,
+                  "UTC",
+                  Map.of(),
+                  0,
+                  ""),
+              false);
+
+      PrayerTimesResponse.PrayerTimesDto a = snapped.getTimes();
+      PrayerTimesResponse.PrayerTimesDto b = exact.getTimes();
+      assertThat(Math.abs(minutesBetween(a.getFajr(), b.getFajr()))).isLessThanOrEqualTo(1);
+      assertThat(Math.abs(minutesBetween(a.getDhuhr(), b.getDhuhr()))).isLessThanOrEqualTo(1);
+      assertThat(Math.abs(minutesBetween(a.getAsr(), b.getAsr()))).isLessThanOrEqualTo(1);
+      assertThat(Math.abs(minutesBetween(a.getMaghrib(), b.getMaghrib()))).isLessThanOrEqualTo(1);
+      assertThat(Math.abs(minutesBetween(a.getIsha(), b.getIsha()))).isLessThanOrEqualTo(1);
+    }
+  }
+
+  private double locationCacheCount(String result) {
+    return meterRegistry.get("prayer.times.location.cache").tag("result", result).counter().count();
+  }
+
+  private long minutesBetween(String from, String to) {
+    return ChronoUnit.MINUTES.between(LocalTime.parse(from), LocalTime.parse(to));
+  }
+
   private UserPreferencesEntity buildPreferences() {
     return UserPreferencesEntity.builder()
         .telegramId(TELEGRAM_ID)
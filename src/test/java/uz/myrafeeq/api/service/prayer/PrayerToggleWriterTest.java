@@ -0,0 +1,281 @@
+package uz.myrafeeq.api.service.prayer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import uz.myrafeeq.api.configuration.TrackingProperties;
+import uz.myrafeeq.api.dto.response.PrayerStatsResponse;
+import uz.myrafeeq.api.enums.PrayerName;
+import uz.myrafeeq.api.enums.TrackingStorage;
+import uz.myrafeeq.api.repository.PrayerDailySummaryRepository;
+import uz.myrafeeq.api.repository.PrayerToggle;
+import uz.myrafeeq.api.repository.PrayerTrackingStore;
+import uz.myrafeeq.api.repository.SyncablePrayerTrackingStore;
+import uz.myrafeeq.api.repository.projection.TrackedPrayer;
+import uz.myrafeeq.api.service.prayer.PrayerStreakTracker.Streak;
+import uz.myrafeeq.api.service.user.UserTimezoneResolver;
+
+@ExtendWith(MockitoExtension.class)
+class PrayerToggleWriterTest {
+
+  private static final Long TELEGRAM_ID = 123456789L;
+  private static final LocalDate TODAY = LocalDate.of(2026, 3, 20);
+
+  @Mock private SyncablePrayerTrackingStore trackingStore;
+  @Mock private PrayerDailySummaryRepository summaryRepository;
+  @Mock private PrayerStreakTracker streakTracker;
+  @Mock private UserTimezoneResolver userTimezoneResolver;
+  @Mock private PlatformTransactionManager transactionManager;
+
+  private final ConcurrentMapCacheManager cacheManager =
+      new ConcurrentMapCacheManager("prayerStats");
+
+  @Test
+  void should_writeThrough_when_writeBehindDisabled() {
+    PrayerToggleWriter writer = writer(false, 100);
+    TrackedPrayer stored = new TrackedPrayer(TODAY, PrayerName.FAJR, true, Instant.now());
+    given(
+            trackingStore.toggle(
+                eq(TELEGRAM_ID), eq(TODAY), eq(PrayerName.FAJR), eq(true), any(Instant.class)))
+        .willReturn(stored);
+
+    TrackedPrayer result = writer.write(TELEGRAM_ID, TODAY, PrayerName.FAJR, true, TODAY);
+
+    assertThat(result).isEqualTo(stored);
+    verify(summaryRepository).applyToggle(TELEGRAM_ID, TODAY, PrayerName.FAJR.bit(), true);
+    verify(streakTracker).onToggle(TELEGRAM_ID, TODAY);
+    assertThat(writer.pendingSlots()).isZero();
+  }
+
+  @Test
+  void should_updateCachedStats_when_writtenThrough() {
+    PrayerToggleWriter writer = writer(false, 100);
+    PrayerStatsResponse week = PrayerStatsCacheTest.stats(TODAY.minusDays(7), TODAY, 10);
+    cacheManager.getCache("prayerStats").put(TELEGRAM_ID + "-WEEK", week);
+    given(
+            trackingStore.toggle(
+                eq(TELEGRAM_ID), eq(TODAY), eq(PrayerName.FAJR), eq(true), any(Instant.class)))
+        .willReturn(new TrackedPrayer(TODAY, PrayerName.FAJR, true, Instant.now()));
+    given(summaryRepository.applyToggle(TELEGRAM_ID, TODAY, PrayerName.FAJR.bit(), true))
+        .willReturn(1);
+    given(streakTracker.onToggle(TELEGRAM_ID, TODAY)).willReturn(new Streak(3, 5));
+
+    writer.write(TELEGRAM_ID, TODAY, PrayerName.FAJR, true, TODAY);
+
+    PrayerStatsResponse cached =
+        (PrayerStatsResponse) cacheManager.getCache("prayerStats").get(TELEGRAM_ID + "-WEEK").get();
+    assertThat(cached.getCompleted()).isEqualTo(11);
+    assertThat(cached.getByPrayer().get("FAJR").getCompleted()).isEqualTo(3);
+    assertThat(cached.getStreak()).isEqualTo(3);
+    assertThat(cached.getLongestStreak()).isEqualTo(5);
+  }
+
+  @Test
+  void should_coalesceFlips_when_writeBehindEnabled() {
+    PrayerToggleWriter writer = writer(true, 100);
+
+    writer.write(TELEGRAM_ID, TODAY, PrayerName.ASR, true, TODAY);
+    writer.write(TELEGRAM_ID, TODAY, PrayerName.ASR, false, TODAY);
+    writer.write(TELEGRAM_ID, TODAY, PrayerName.ASR, true, TODAY);
+
+    assertThat(writer.pendingSlots()).isEqualTo(1);
+    verifyNoInteractions(trackingStore);
+  }
+
+  @Test
+  void should_seeOwnWrites_when_readingBeforeFlush() {
+    PrayerToggleWriter writer = writer(true, 100);
+    TrackedPrayer storedFajr = new TrackedPrayer(TODAY, PrayerName.FAJR, true, Instant.EPOCH);
+    writer.write(TELEGRAM_ID, TODAY, PrayerName.FAJR, false, TODAY);
+    writer.write(TELEGRAM_ID, TODAY.minusDays(10), PrayerName.ISHA, true, TODAY);
+
+    List<TrackedPrayer> result = writer.withPending(TELEGRAM_ID, TODAY, TODAY, List.of(storedFajr));
+
+    assertThat(result).hasSize(1);
+    assertThat(result.getFirst().prayed()).isFalse();
+  }
+
+  @Test
+  void should_batchLastState_when_flushed() {
+    PrayerToggleWriter writer = writer(true, 100);
+    given(userTimezoneResolver.resolveTimezone(TELEGRAM_ID)).willReturn(ZoneOffset.UTC);
+    cacheManager.getCache("prayerStats").put(TELEGRAM_ID + "-WEEK", "stale");
+    writer.write(TELEGRAM_ID, TODAY, PrayerName.MAGHRIB, true, TODAY);
+    writer.write(TELEGRAM_ID, TODAY, PrayerName.MAGHRIB, false, TODAY);
+    writer.write(TELEGRAM_ID, TODAY, PrayerName.ISHA, true, TODAY);
+
+    writer.flush();
+
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<List<PrayerToggle>> batch = ArgumentCaptor.forClass(List.class);
+    verify(trackingStore).toggleAll(batch.capture());
+    assertThat(batch.getValue())
+        .extracting(PrayerToggle::prayer, PrayerToggle::prayed)
+        .containsExactlyInAnyOrder(tuple(PrayerName.MAGHRIB, false), tuple(PrayerName.ISHA, true));
+    verify(summaryRepository).applyToggles(batch.getValue());
+    verify(streakTracker).onToggle(eq(TELEGRAM_ID), any(LocalDate.class));
+    assertThat(writer.pendingSlots()).isZero();
+    assertThat(cacheManager.getCache("prayerStats").get(TELEGRAM_ID + "-WEEK")).isNull();
+  }
+
+  @Test
+  void should_requeue_when_flushFails() {
+    PrayerToggleWriter writer = writer(true, 100);
+    willThrow(new IllegalStateException("db down")).given(trackingStore).toggleAll(anyList());
+    writer.write(TELEGRAM_ID, TODAY, PrayerName.DHUHR, true, TODAY);
+
+    writer.flush();
+
+    assertThat(writer.pendingSlots()).isEqualTo(1);
+  }
+
+  @Test
+  void should_writeOtherUsers_when_oneUsersToggleFails() {
+    PrayerToggleWriter writer = writer(true, 100);
+    Long deletedUser = 987654321L;
+    given(userTimezoneResolver.resolveTimezone(TELEGRAM_ID)).willReturn(ZoneOffset.UTC);
+    willAnswer(
+            invocation -> {
+              List<PrayerToggle> toggles = invocation.getArgument(0);
+              if (toggles.stream().anyMatch(t -> t.telegramId().equals(deletedUser))) {
+                throw new IllegalStateException("foreign key violation");
+              }
+              return null;
+            })
+        .given(trackingStore)
+        .toggleAll(anyList());
+    writer.write(TELEGRAM_ID, TODAY, PrayerName.FAJR, true, TODAY);
+    writer.write(deletedUser, TODAY, PrayerName.FAJR, true, TODAY);
+
+    writer.flush();
+
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<List<PrayerToggle>> written = ArgumentCaptor.forClass(List.class);
+    verify(summaryRepository).applyToggles(written.capture());
+    assertThat(written.getValue())
+        .extracting(PrayerToggle::telegramId)
+        .containsExactly(TELEGRAM_ID);
+    verify(streakTracker).onToggle(eq(TELEGRAM_ID), any(LocalDate.class));
+    assertThat(writer.pendingSlots()).isEqualTo(1);
+  }
+
+  @Test
+  void should_dropToggle_when_flushKeepsFailing() {
+    PrayerToggleWriter writer = writer(true, 100);
+    willThrow(new IllegalStateException("check constraint"))
+        .given(trackingStore)
+        .toggleAll(anyList());
+    writer.write(TELEGRAM_ID, TODAY, PrayerName.DHUHR, true, TODAY);
+
+    for (int i = 1; i < PrayerToggleWriter.MAX_FLUSH_ATTEMPTS; i++) {
+      writer.flush();
+      assertThat(writer.pendingSlots()).isEqualTo(1);
+    }
+    writer.flush();
+
+    assertThat(writer.pendingSlots()).isZero();
+  }
+
+  @Test
+  void should_seeOwnWrites_when_readingWhileBatchIsInFlight() {
+    PrayerToggleWriter writer = writer(true, 100);
+    TrackedPrayer storedFajr = new TrackedPrayer(TODAY, PrayerName.FAJR, true, Instant.EPOCH);
+    List<TrackedPrayer> seen = new ArrayList<>();
+    willAnswer(
+            _ -> {
+              seen.addAll(writer.withPending(TELEGRAM_ID, TODAY, TODAY, List.of(storedFajr)));
+              throw new IllegalStateException("db down");
+            })
+        .given(trackingStore)
+        .toggleAll(anyList());
+    writer.write(TELEGRAM_ID, TODAY, PrayerName.FAJR, false, TODAY);
+
+    writer.flush();
+
+    assertThat(seen).singleElement().extracting(TrackedPrayer::prayed).isEqualTo(false);
+    assertThat(writer.withPending(TELEGRAM_ID, TODAY, TODAY, List.of(storedFajr)))
+        .singleElement()
+        .extracting(TrackedPrayer::prayed)
+        .isEqualTo(false);
+  }
+
+  @Test
+  void should_flushOnlyThatUser_when_flushingOneUser() {
+    PrayerToggleWriter writer = writer(true, 100);
+    given(userTimezoneResolver.resolveTimezone(TELEGRAM_ID)).willReturn(ZoneOffset.UTC);
+    writer.write(TELEGRAM_ID, TODAY, PrayerName.FAJR, true, TODAY);
+    writer.write(987654321L, TODAY, PrayerName.FAJR, true, TODAY);
+
+    writer.flush(TELEGRAM_ID);
+
+    assertThat(writer.pendingSlots()).isEqualTo(1);
+    verify(streakTracker).onToggle(eq(TELEGRAM_ID), any(LocalDate.class));
+  }
+
+  @Test
+  void should_flushPendingAndApplyOnlyWinners_when_syncing() {
+    PrayerToggleWriter writer = writer(true, 100);
+    given(userTimezoneResolver.resolveTimezone(TELEGRAM_ID)).willReturn(ZoneOffset.UTC);
+    writer.write(TELEGRAM_ID, TODAY, PrayerName.FAJR, true, TODAY);
+    PrayerToggle fresh = new PrayerToggle(TELEGRAM_ID, TODAY, PrayerName.ASR, true, Instant.now());
+    PrayerToggle stale =
+        new PrayerToggle(TELEGRAM_ID, TODAY, PrayerName.FAJR, false, Instant.EPOCH);
+    given(trackingStore.syncAll(List.of(fresh, stale))).willReturn(new boolean[] {true, false});
+
+    boolean[] applied = writer.sync(TELEGRAM_ID, List.of(fresh, stale), TODAY);
+
+    assertThat(applied).containsExactly(true, false);
+    assertThat(writer.pendingSlots()).isZero();
+    verify(trackingStore).toggleAll(anyList());
+    verify(summaryRepository).applyToggles(List.of(fresh));
+    verify(streakTracker).onToggle(TELEGRAM_ID, TODAY);
+  }
+
+  @Test
+  void should_notSupportSync_when_storeKeepsNoToggleTimes() {
+    PrayerToggleWriter writer =
+        new PrayerToggleWriter(
+            mock(PrayerTrackingStore.class),
+            summaryRepository,
+            streakTracker,
+            userTimezoneResolver,
+            new PrayerStatsCache(cacheManager),
+            transactionManager,
+            new TrackingProperties(TrackingStorage.BITSET, false, true, 100));
+
+    assertThat(writer.supportsSync()).isFalse();
+    assertThat(writer(true, 100).supportsSync()).isTrue();
+  }
+
+  private PrayerToggleWriter writer(boolean writeBehind, int flushSize) {
+    return new PrayerToggleWriter(
+        trackingStore,
+        summaryRepository,
+        streakTracker,
+        userTimezoneResolver,
+        new PrayerStatsCache(cacheManager),
+        transactionManager,
+        new TrackingProperties(TrackingStorage.ROWS, false, writeBehind, flushSize));
+  }
+}
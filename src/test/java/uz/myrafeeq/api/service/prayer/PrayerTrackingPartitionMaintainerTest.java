@@ -0,0 +1,59 @@
+package uz.myrafeeq.api.service.prayer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uz.myrafeeq.api.configuration.TrackingPartitionProperties;
+import uz.myrafeeq.api.repository.PrayerTrackingRepository;
+
+@ExtendWith(MockitoExtension.class)
+class PrayerTrackingPartitionMaintainerTest {
+
+  @Mock private PrayerTrackingRepository trackingRepository;
+
+  @Test
+  void should_createCurrentAndFutureMonths_when_maintaining() {
+    LocalDate month = LocalDate.now(ZoneOffset.UTC).withDayOfMonth(1);
+    given(trackingRepository.createPartition(any(LocalDate.class))).willReturn(false);
+
+    maintainer(true, 2, 13).maintain();
+
+    verify(trackingRepository).createPartition(month);
+    verify(trackingRepository).createPartition(month.plusMonths(1));
+    verify(trackingRepository).createPartition(month.plusMonths(2));
+    verify(trackingRepository, times(3)).createPartition(any(LocalDate.class));
+    verify(trackingRepository).archivePartitionsBefore(month.minusMonths(13));
+  }
+
+  @Test
+  void should_keepEverything_when_retentionDisabled() {
+    given(trackingRepository.createPartition(any(LocalDate.class))).willReturn(true);
+
+    maintainer(true, 0, 0).maintain();
+
+    verify(trackingRepository, never()).archivePartitionsBefore(any(LocalDate.class));
+  }
+
+  @Test
+  void should_doNothing_when_disabled() {
+    maintainer(false, 3, 13).maintain();
+
+    verifyNoInteractions(trackingRepository);
+  }
+
+  private PrayerTrackingPartitionMaintainer maintainer(
+      boolean enabled, int monthsAhead, int retentionMonths) {
+    return new PrayerTrackingPartitionMaintainer(
+        trackingRepository, new TrackingPartitionProperties(enabled, monthsAhead, retentionMonths));
+  }
+}
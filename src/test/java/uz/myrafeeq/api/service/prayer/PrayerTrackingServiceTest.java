@@ -2,38 +2,50 @@ package uz.myrafeeq.api.service.prayer;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
-import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import uz.myrafeeq.api.dto.request.SyncPrayerRequest;
+import uz.myrafeeq.api.dto.request.SyncTrackingRequest;
 import uz.myrafeeq.api.dto.request.TogglePrayerRequest;
 import uz.myrafeeq.api.dto.response.PrayerStatsResponse;
 import uz.myrafeeq.api.dto.response.PrayerTrackingResponse;
+import uz.myrafeeq.api.dto.response.SyncTrackingResponse;
 import uz.myrafeeq.api.dto.response.TogglePrayerResponse;
-import uz.myrafeeq.api.entity.PrayerTrackingEntity;
 import uz.myrafeeq.api.enums.PrayerName;
 import uz.myrafeeq.api.enums.StatsPeriod;
+import uz.myrafeeq.api.event.PrayerTrackingChangedEvent;
+import uz.myrafeeq.api.exception.TrackingSyncUnavailableException;
 import uz.myrafeeq.api.exception.TrackingValidationException;
 import uz.myrafeeq.api.mapper.PrayerTrackingMapper;
-import uz.myrafeeq.api.repository.PrayerTrackingRepository;
-import uz.myrafeeq.api.repository.projection.DateCountProjection;
-import uz.myrafeeq.api.repository.projection.PrayerCountProjection;
+import uz.myrafeeq.api.repository.PrayerDailySummaryRepository;
+import uz.myrafeeq.api.repository.PrayerToggle;
+import uz.myrafeeq.api.repository.PrayerTrackingStore;
+import uz.myrafeeq.api.repository.projection.DailySummaryProjection;
+import uz.myrafeeq.api.repository.projection.TrackedPrayer;
+import uz.myrafeeq.api.service.prayer.PrayerStreakTracker.Streak;
 import uz.myrafeeq.api.service.user.UserTimezoneResolver;
 
 @ExtendWith(MockitoExtension.class)
@@ -41,9 +53,13 @@ class PrayerTrackingServiceTest {
 
   private static final Long TELEGRAM_ID = 123456789L;
 
-  @Mock private PrayerTrackingRepository trackingRepository;
+  @Mock private PrayerTrackingStore trackingStore;
+  @Mock private PrayerDailySummaryRepository summaryRepository;
+  @Mock private PrayerStreakTracker streakTracker;
+  @Mock private PrayerToggleWriter toggleWriter;
   @Mock private PrayerTrackingMapper trackingMapper;
   @Mock private UserTimezoneResolver userTimezoneResolver;
+  @Mock private ApplicationEventPublisher eventPublisher;
   @InjectMocks private PrayerTrackingService trackingService;
 
   @BeforeEach
@@ -51,6 +67,12 @@ class PrayerTrackingServiceTest {
     Mockito.lenient()
         .when(userTimezoneResolver.resolveTimezone(TELEGRAM_ID))
         .thenReturn(ZoneOffset.UTC);
+    Mockito.lenient()
+        .when(streakTracker.get(eq(TELEGRAM_ID), any(LocalDate.class)))
+        .thenReturn(new Streak(0, 0));
+    Mockito.lenient()
+        .when(toggleWriter.withPending(eq(TELEGRAM_ID), any(), any(), any()))
+        .thenAnswer(invocation -> invocation.getArgument(3));
   }
 
   @Test
@@ -58,8 +80,7 @@ class PrayerTrackingServiceTest {
     LocalDate today = LocalDate.now();
     PrayerTrackingResponse response = PrayerTrackingResponse.builder().tracking(Map.of()).build();
 
-    given(trackingRepository.findByTelegramIdAndPrayerDate(TELEGRAM_ID, today))
-        .willReturn(List.of());
+    given(trackingStore.find(TELEGRAM_ID, today, today)).willReturn(List.of());
     given(trackingMapper.toTrackingResponse(any())).willReturn(response);
 
     PrayerTrackingResponse result = trackingService.getTracking(TELEGRAM_ID, today, null, null);
@@ -73,8 +94,7 @@ class PrayerTrackingServiceTest {
     LocalDate to = LocalDate.now();
     PrayerTrackingResponse response = PrayerTrackingResponse.builder().tracking(Map.of()).build();
 
-    given(trackingRepository.findByTelegramIdAndPrayerDateBetween(TELEGRAM_ID, from, to))
-        .willReturn(List.of());
+    given(trackingStore.find(TELEGRAM_ID, from, to)).willReturn(List.of());
     given(trackingMapper.toTrackingResponse(any())).willReturn(response);
 
     PrayerTrackingResponse result = trackingService.getTracking(TELEGRAM_ID, null, from, to);
@@ -86,7 +106,7 @@ class PrayerTrackingServiceTest {
   void should_defaultToToday_when_noDateParams() {
     PrayerTrackingResponse response = PrayerTrackingResponse.builder().tracking(Map.of()).build();
 
-    given(trackingRepository.findByTelegramIdAndPrayerDate(eq(TELEGRAM_ID), any(LocalDate.class)))
+    given(trackingStore.find(eq(TELEGRAM_ID), any(LocalDate.class), any(LocalDate.class)))
         .willReturn(List.of());
     given(trackingMapper.toTrackingResponse(any())).willReturn(response);
 
@@ -100,27 +120,18 @@ class PrayerTrackingServiceTest {
     LocalDate today = LocalDate.now();
     TogglePrayerRequest request = new TogglePrayerRequest(today, PrayerName.FAJR, true);
 
+    TrackedPrayer saved = new TrackedPrayer(today, PrayerName.FAJR, true, Instant.now());
     given(
-            trackingRepository.findByTelegramIdAndPrayerDateAndPrayerName(
-                TELEGRAM_ID, today, PrayerName.FAJR))
-        .willReturn(Optional.empty());
-
-    PrayerTrackingEntity saved =
-        PrayerTrackingEntity.builder()
-            .id(UUID.randomUUID())
-            .telegramId(TELEGRAM_ID)
-            .prayerDate(today)
-            .prayerName(PrayerName.FAJR)
-            .prayed(true)
-            .toggledAt(Instant.now())
-            .build();
-    given(trackingRepository.save(any(PrayerTrackingEntity.class))).willReturn(saved);
+            toggleWriter.write(
+                eq(TELEGRAM_ID), eq(today), eq(PrayerName.FAJR), eq(true), any(LocalDate.class)))
+        .willReturn(saved);
 
     TogglePrayerResponse result = trackingService.togglePrayer(TELEGRAM_ID, request);
 
     assertThat(result.getPrayer()).isEqualTo("FAJR");
     assertThat(result.getPrayed()).isTrue();
     assertThat(result.getDate()).isEqualTo(today);
+    verify(eventPublisher).publishEvent(new PrayerTrackingChangedEvent(TELEGRAM_ID));
   }
 
   @Test
@@ -128,22 +139,12 @@ class PrayerTrackingServiceTest {
     LocalDate today = LocalDate.now();
     TogglePrayerRequest request = new TogglePrayerRequest(today, PrayerName.DHUHR, false);
 
-    PrayerTrackingEntity existing =
-        PrayerTrackingEntity.builder()
-            .id(UUID.randomUUID())
-            .telegramId(TELEGRAM_ID)
-            .prayerDate(today)
-            .prayerName(PrayerName.DHUHR)
-            .prayed(true)
-            .toggledAt(Instant.now().minusSeconds(60))
-            .build();
+    TrackedPrayer updated = new TrackedPrayer(today, PrayerName.DHUHR, false, Instant.now());
 
     given(
-            trackingRepository.findByTelegramIdAndPrayerDateAndPrayerName(
-                TELEGRAM_ID, today, PrayerName.DHUHR))
-        .willReturn(Optional.of(existing));
-    given(trackingRepository.save(any(PrayerTrackingEntity.class)))
-        .willAnswer(inv -> inv.getArgument(0));
+            toggleWriter.write(
+                eq(TELEGRAM_ID), eq(today), eq(PrayerName.DHUHR), eq(false), any(LocalDate.class)))
+        .willReturn(updated);
 
     TogglePrayerResponse result = trackingService.togglePrayer(TELEGRAM_ID, request);
 
@@ -175,21 +176,8 @@ class PrayerTrackingServiceTest {
     LocalDate sevenDaysAgo = LocalDate.now().minusDays(7);
     TogglePrayerRequest request = new TogglePrayerRequest(sevenDaysAgo, PrayerName.ASR, true);
 
-    given(
-            trackingRepository.findByTelegramIdAndPrayerDateAndPrayerName(
-                TELEGRAM_ID, sevenDaysAgo, PrayerName.ASR))
-        .willReturn(Optional.empty());
-
-    PrayerTrackingEntity saved =
-        PrayerTrackingEntity.builder()
-            .id(UUID.randomUUID())
-            .telegramId(TELEGRAM_ID)
-            .prayerDate(sevenDaysAgo)
-            .prayerName(PrayerName.ASR)
-            .prayed(true)
-            .toggledAt(Instant.now())
-            .build();
-    given(trackingRepository.save(any())).willReturn(saved);
+    TrackedPrayer saved = new TrackedPrayer(sevenDaysAgo, PrayerName.ASR, true, Instant.now());
+    given(toggleWriter.write(any(), any(), any(), anyBoolean(), any())).willReturn(saved);
 
     TogglePrayerResponse result = trackingService.togglePrayer(TELEGRAM_ID, request);
 
@@ -201,21 +189,8 @@ class PrayerTrackingServiceTest {
     LocalDate today = LocalDate.now();
     TogglePrayerRequest request = new TogglePrayerRequest(today, PrayerName.MAGHRIB, true);
 
-    given(
-            trackingRepository.findByTelegramIdAndPrayerDateAndPrayerName(
-                TELEGRAM_ID, today, PrayerName.MAGHRIB))
-        .willReturn(Optional.empty());
-
-    PrayerTrackingEntity saved =
-        PrayerTrackingEntity.builder()
-            .id(UUID.randomUUID())
-            .telegramId(TELEGRAM_ID)
-            .prayerDate(today)
-            .prayerName(PrayerName.MAGHRIB)
-            .prayed(true)
-            .toggledAt(Instant.now())
-            .build();
-    given(trackingRepository.save(any())).willReturn(saved);
+    TrackedPrayer saved = new TrackedPrayer(today, PrayerName.MAGHRIB, true, Instant.now());
+    given(toggleWriter.write(any(), any(), any(), anyBoolean(), any())).willReturn(saved);
 
     TogglePrayerResponse result = trackingService.togglePrayer(TELEGRAM_ID, request);
 
@@ -226,14 +201,7 @@ class PrayerTrackingServiceTest {
   @ParameterizedTest
   @EnumSource(StatsPeriod.class)
   void should_returnStats_when_anyPeriod(StatsPeriod period) {
-    given(
-            trackingRepository.countCompletedByPrayer(
-                eq(TELEGRAM_ID), any(LocalDate.class), any(LocalDate.class)))
-        .willReturn(List.of());
-    given(
-            trackingRepository.countCompletedByDate(
-                eq(TELEGRAM_ID), any(LocalDate.class), any(LocalDate.class)))
-        .willReturn(List.of());
+    givenSummaries();
 
     PrayerStatsResponse result = trackingService.getStats(TELEGRAM_ID, period);
 
@@ -246,130 +214,156 @@ class PrayerTrackingServiceTest {
   }
 
   @Test
-  void should_calculateStreak_when_consecutiveDaysCompleted() {
-    LocalDate today = LocalDate.now();
-
-    given(
-            trackingRepository.countCompletedByPrayer(
-                eq(TELEGRAM_ID), any(LocalDate.class), any(LocalDate.class)))
-        .willReturn(List.of());
-    given(
-            trackingRepository.countCompletedByDate(
-                eq(TELEGRAM_ID), any(LocalDate.class), any(LocalDate.class)))
-        .willReturn(
-            List.of(
-                dateCount(today, 5L),
-                dateCount(today.minusDays(1), 5L),
-                dateCount(today.minusDays(2), 5L)));
+  void should_returnMaintainedStreak_when_gettingStats() {
+    givenSummaries();
+    given(streakTracker.get(eq(TELEGRAM_ID), any(LocalDate.class))).willReturn(new Streak(3, 12));
 
     PrayerStatsResponse result = trackingService.getStats(TELEGRAM_ID, StatsPeriod.WEEK);
 
     assertThat(result.getStreak()).isEqualTo(3);
+    assertThat(result.getLongestStreak()).isEqualTo(12);
   }
 
   @Test
-  void should_breakStreak_when_dayMissed() {
+  void should_calculatePercentage_when_someCompleted() {
     LocalDate today = LocalDate.now();
-
-    given(
-            trackingRepository.countCompletedByPrayer(
-                eq(TELEGRAM_ID), any(LocalDate.class), any(LocalDate.class)))
-        .willReturn(List.of());
-    given(
-            trackingRepository.countCompletedByDate(
-                eq(TELEGRAM_ID), any(LocalDate.class), any(LocalDate.class)))
-        .willReturn(
-            List.of(
-                dateCount(today, 5L),
-                dateCount(today.minusDays(1), 5L),
-                dateCount(today.minusDays(3), 5L)));
+    givenSummaries(day(today, PrayerName.values()));
 
     PrayerStatsResponse result = trackingService.getStats(TELEGRAM_ID, StatsPeriod.WEEK);
 
-    assertThat(result.getStreak()).isEqualTo(2);
+    assertThat(result.getCompleted()).isEqualTo(5);
+    assertThat(result.getPercentage()).isPositive();
   }
 
   @Test
-  void should_calculatePercentage_when_someCompleted() {
+  void should_countPrayersFromMask_when_partialDays() {
     LocalDate today = LocalDate.now();
-
-    given(
-            trackingRepository.countCompletedByPrayer(
-                eq(TELEGRAM_ID), any(LocalDate.class), any(LocalDate.class)))
+    given(summaryRepository.findRange(TELEGRAM_ID, today.minusDays(7), today))
         .willReturn(
             List.of(
-                prayerCount(PrayerName.FAJR, 1L),
-                prayerCount(PrayerName.DHUHR, 1L),
-                prayerCount(PrayerName.ASR, 1L),
-                prayerCount(PrayerName.MAGHRIB, 1L),
-                prayerCount(PrayerName.ISHA, 1L)));
-    given(
-            trackingRepository.countCompletedByDate(
-                eq(TELEGRAM_ID), any(LocalDate.class), any(LocalDate.class)))
-        .willReturn(List.of(dateCount(today, 5L)));
+                day(today, PrayerName.FAJR, PrayerName.ISHA),
+                day(today.minusDays(1), PrayerName.FAJR)));
 
     PrayerStatsResponse result = trackingService.getStats(TELEGRAM_ID, StatsPeriod.WEEK);
 
-    assertThat(result.getCompleted()).isEqualTo(5);
-    assertThat(result.getPercentage()).isPositive();
+    assertThat(result.getCompleted()).isEqualTo(3);
+    assertThat(result.getByPrayer().get("FAJR").getCompleted()).isEqualTo(2);
+    assertThat(result.getByPrayer().get("ISHA").getCompleted()).isEqualTo(1);
+    assertThat(result.getByPrayer().get("DHUHR").getCompleted()).isZero();
   }
 
   @Test
-  void should_returnZeroStreak_when_noEntries() {
-    given(
-            trackingRepository.countCompletedByPrayer(
-                eq(TELEGRAM_ID), any(LocalDate.class), any(LocalDate.class)))
-        .willReturn(List.of());
-    given(
-            trackingRepository.countCompletedByDate(
-                eq(TELEGRAM_ID), any(LocalDate.class), any(LocalDate.class)))
-        .willReturn(List.of());
+  void should_countAllPrayerTypes_when_buildingStats() {
+    givenSummaries();
 
     PrayerStatsResponse result = trackingService.getStats(TELEGRAM_ID, StatsPeriod.WEEK);
 
-    assertThat(result.getStreak()).isZero();
+    assertThat(result.getByPrayer()).containsKeys("FAJR", "DHUHR", "ASR", "MAGHRIB", "ISHA");
   }
 
   @Test
-  void should_countAllPrayerTypes_when_buildingStats() {
-    given(
-            trackingRepository.countCompletedByPrayer(
-                eq(TELEGRAM_ID), any(LocalDate.class), any(LocalDate.class)))
-        .willReturn(List.of());
-    given(
-            trackingRepository.countCompletedByDate(
-                eq(TELEGRAM_ID), any(LocalDate.class), any(LocalDate.class)))
-        .willReturn(List.of());
+  void should_reportOutcomePerEntry_when_syncing() {
+    LocalDate today = LocalDate.now(ZoneOffset.UTC);
+    Instant earlier = Instant.now().minusSeconds(600);
+    Instant later = Instant.now().minusSeconds(60);
+    SyncTrackingRequest request =
+        new SyncTrackingRequest(
+            List.of(
+                new SyncPrayerRequest(today, PrayerName.FAJR, true, earlier),
+                new SyncPrayerRequest(today, PrayerName.FAJR, false, later),
+                new SyncPrayerRequest(today.minusDays(1), PrayerName.DHUHR, true, earlier),
+                new SyncPrayerRequest(today.plusDays(1), PrayerName.ASR, true, earlier)));
+    given(toggleWriter.supportsSync()).willReturn(true);
+    given(toggleWriter.sync(eq(TELEGRAM_ID), anyList(), eq(today)))
+        .willReturn(new boolean[] {true, false});
+    givenSummaries();
+
+    SyncTrackingResponse result = trackingService.syncTracking(TELEGRAM_ID, request);
+
+    assertThat(result.getResults())
+        .extracting(SyncTrackingResponse.SyncResult::getStatus)
+        .containsExactly("SUPERSEDED", "APPLIED", "STALE", "REJECTED");
+    assertThat(result.getStats().getPeriod()).isEqualTo("WEEK");
+
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<List<PrayerToggle>> toggles = ArgumentCaptor.forClass(List.class);
+    verify(toggleWriter).sync(eq(TELEGRAM_ID), toggles.capture(), eq(today));
+    assertThat(toggles.getValue())
+        .extracting(PrayerToggle::prayer, PrayerToggle::prayed)
+        .containsExactly(tuple(PrayerName.FAJR, false), tuple(PrayerName.DHUHR, true));
+  }
 
-    PrayerStatsResponse result = trackingService.getStats(TELEGRAM_ID, StatsPeriod.WEEK);
+  @Test
+  void should_capToggleTime_when_clientClockAhead() {
+    LocalDate today = LocalDate.now(ZoneOffset.UTC);
+    Instant future = Instant.now().plusSeconds(3600);
+    SyncTrackingRequest request =
+        new SyncTrackingRequest(
+            List.of(new SyncPrayerRequest(today, PrayerName.ISHA, true, future)));
+    given(toggleWriter.supportsSync()).willReturn(true);
+    given(toggleWriter.sync(eq(TELEGRAM_ID), anyList(), eq(today)))
+        .willReturn(new boolean[] {true});
+    givenSummaries();
+
+    SyncTrackingResponse result = trackingService.syncTracking(TELEGRAM_ID, request);
+
+    assertThat(result.getResults().getFirst().getToggledAt()).isBefore(future);
+  }
 
-    assertThat(result.getByPrayer()).containsKeys("FAJR", "DHUHR", "ASR", "MAGHRIB", "ISHA");
+  @Test
+  void should_skipWriter_when_allEntriesRejected() {
+    LocalDate tooOld = LocalDate.now(ZoneOffset.UTC).minusDays(8);
+    SyncTrackingRequest request =
+        new SyncTrackingRequest(
+            List.of(new SyncPrayerRequest(tooOld, PrayerName.FAJR, true, Instant.now())));
+    given(toggleWriter.supportsSync()).willReturn(true);
+    givenSummaries();
+
+    SyncTrackingResponse result = trackingService.syncTracking(TELEGRAM_ID, request);
+
+    assertThat(result.getResults().getFirst().getStatus()).isEqualTo("REJECTED");
+    verify(toggleWriter, never()).sync(any(), anyList(), any());
   }
 
-  private PrayerCountProjection prayerCount(PrayerName prayer, Long count) {
-    return new PrayerCountProjection() {
-      @Override
-      public PrayerName getPrayerName() {
-        return prayer;
-      }
+  @Test
+  void should_rejectSync_when_storeKeepsNoToggleTimes() {
+    SyncTrackingRequest request =
+        new SyncTrackingRequest(
+            List.of(
+                new SyncPrayerRequest(
+                    LocalDate.now(ZoneOffset.UTC), PrayerName.FAJR, true, Instant.now())));
 
-      @Override
-      public Long getCount() {
-        return count;
-      }
-    };
+    assertThatThrownBy(() -> trackingService.syncTracking(TELEGRAM_ID, request))
+        .isInstanceOf(TrackingSyncUnavailableException.class);
+    verify(toggleWriter, never()).sync(any(), anyList(), any());
+  }
+
+  private void givenSummaries(DailySummaryProjection... days) {
+    given(summaryRepository.findRange(eq(TELEGRAM_ID), any(LocalDate.class), any(LocalDate.class)))
+        .willReturn(List.of(days));
   }
 
-  private DateCountProjection dateCount(LocalDate date, Long count) {
-    return new DateCountProjection() {
+  private DailySummaryProjection day(LocalDate date, PrayerName... prayed) {
+    int mask = 0;
+    for (PrayerName prayer : prayed) {
+      mask |= prayer.bit();
+    }
+    short prayedMask = (short) mask;
+    short completedCount = (short) prayed.length;
+    return new DailySummaryProjection() {
       @Override
-      public LocalDate getPrayerDate() {
+      public LocalDate getSummaryDate() {
         return date;
       }
 
       @Override
-      public Long getCount() {
-        return count;
+      public Short getPrayedMask() {
+        return prayedMask;
+      }
+
+      @Override
+      public Short getCompletedCount() {
+        return completedCount;
       }
     };
   }
@@ -4,6 +4,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
 
 import java.util.Map;
 import java.util.Optional;
@@ -12,6 +13,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import uz.myrafeeq.api.dto.request.OnboardingRequest;
 import uz.myrafeeq.api.dto.response.CityResponse;
 import uz.myrafeeq.api.dto.response.OnboardingResponse;
@@ -24,6 +26,7 @@ import uz.myrafeeq.api.entity.UserPreferencesEntity;
 import uz.myrafeeq.api.enums.CalculationMethod;
 import uz.myrafeeq.api.enums.Madhab;
 import uz.myrafeeq.api.enums.ReminderTiming;
+import uz.myrafeeq.api.event.PreferencesChangedEvent;
 import uz.myrafeeq.api.exception.CityNotFoundException;
 import uz.myrafeeq.api.exception.OnboardingAlreadyCompletedException;
 import uz.myrafeeq.api.exception.UserNotFoundException;
@@ -45,6 +48,7 @@ class OnboardingServiceTest {
   @Mock private PreferencesMapper preferencesMapper;
   @Mock private CityMapper cityMapper;
   @Mock private UserMapper userMapper;
+  @Mock private ApplicationEventPublisher eventPublisher;
   @InjectMocks private OnboardingService onboardingService;
 
   @Test
@@ -70,6 +74,7 @@ class OnboardingServiceTest {
 
     assertThat(result.getUser()).isNotNull();
     assertThat(result.getPreferences()).isNotNull();
+    then(eventPublisher).should().publishEvent(new PreferencesChangedEvent(TELEGRAM_ID));
   }
 
   @Test
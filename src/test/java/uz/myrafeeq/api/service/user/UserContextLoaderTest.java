@@ -0,0 +1,65 @@
+package uz.myrafeeq.api.service.user;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uz.myrafeeq.api.entity.CityEntity;
+import uz.myrafeeq.api.entity.UserPreferencesEntity;
+import uz.myrafeeq.api.exception.PreferencesNotFoundException;
+import uz.myrafeeq.api.repository.UserPreferencesRepository;
+import uz.myrafeeq.api.repository.projection.PreferencesWithCity;
+
+@ExtendWith(MockitoExtension.class)
+class UserContextLoaderTest {
+
+  private static final Long TELEGRAM_ID = 123456789L;
+
+  @Mock private UserPreferencesRepository preferencesRepository;
+  @InjectMocks private UserContextLoader userContextLoader;
+
+  @Test
+  void should_useCityTimezone_when_citySelected() {
+    UserPreferencesEntity prefs =
+        UserPreferencesEntity.builder().telegramId(TELEGRAM_ID).cityId("tashkent").build();
+    CityEntity city = CityEntity.builder().id("tashkent").timezone("Asia/Tashkent").build();
+    given(preferencesRepository.findWithCity(TELEGRAM_ID))
+        .willReturn(Optional.of(new PreferencesWithCity(prefs, city)));
+
+    UserContext context = userContextLoader.load(TELEGRAM_ID);
+
+    assertThat(context.preferences()).isSameAs(prefs);
+    assertThat(context.city()).isSameAs(city);
+    assertThat(context.zoneId()).isEqualTo(ZoneId.of("Asia/Tashkent"));
+  }
+
+  @Test
+  void should_fallBackToUtc_when_noCityOrInvalidTimezone() {
+    UserPreferencesEntity prefs = UserPreferencesEntity.builder().telegramId(TELEGRAM_ID).build();
+    given(preferencesRepository.findWithCity(TELEGRAM_ID))
+        .willReturn(Optional.of(new PreferencesWithCity(prefs, null)))
+        .willReturn(
+            Optional.of(
+                new PreferencesWithCity(
+                    prefs, CityEntity.builder().id("x").timezone("Not/AZone").build())));
+
+    assertThat(userContextLoader.load(TELEGRAM_ID).zoneId()).isEqualTo(ZoneOffset.UTC);
+    assertThat(userContextLoader.load(TELEGRAM_ID).zoneId()).isEqualTo(ZoneOffset.UTC);
+  }
+
+  @Test
+  void should_throw_when_preferencesMissing() {
+    given(preferencesRepository.findWithCity(TELEGRAM_ID)).willReturn(Optional.empty());
+
+    assertThatThrownBy(() -> userContextLoader.load(TELEGRAM_ID))
+        .isInstanceOf(PreferencesNotFoundException.class);
+  }
+}
@@ -4,6 +4,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
 
 import java.util.Optional;
 import org.junit.jupiter.api.Test;
@@ -11,6 +12,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import uz.myrafeeq.api.dto.request.UpdatePreferencesRequest;
 import uz.myrafeeq.api.dto.response.CityResponse;
 import uz.myrafeeq.api.dto.response.UserPreferencesResponse;
@@ -19,13 +21,14 @@ import uz.myrafeeq.api.entity.CountryEntity;
 import uz.myrafeeq.api.entity.UserPreferencesEntity;
 import uz.myrafeeq.api.enums.CalculationMethod;
 import uz.myrafeeq.api.enums.Madhab;
+import uz.myrafeeq.api.event.PreferencesChangedEvent;
 import uz.myrafeeq.api.exception.CityNotFoundException;
 import uz.myrafeeq.api.exception.PreferencesNotFoundException;
 import uz.myrafeeq.api.mapper.CityMapper;
 import uz.myrafeeq.api.mapper.PreferencesMapper;
-import uz.myrafeeq.api.repository.CityRepository;
 import uz.myrafeeq.api.repository.UserPreferencesRepository;
 import uz.myrafeeq.api.service.city.CityService;
+import uz.myrafeeq.api.service.city.ReferenceData;
 
 @ExtendWith(MockitoExtension.class)
 class UserPreferencesServiceTest {
@@ -33,10 +36,11 @@ class UserPreferencesServiceTest {
   private static final Long TELEGRAM_ID = 123456789L;
 
   @Mock private UserPreferencesRepository preferencesRepository;
-  @Mock private CityRepository cityRepository;
+  @Mock private ReferenceData referenceData;
   @Mock private CityService cityService;
   @Mock private PreferencesMapper preferencesMapper;
   @Mock private CityMapper cityMapper;
+  @Mock private ApplicationEventPublisher eventPublisher;
   @InjectMocks private UserPreferencesService preferencesService;
 
   @Test
@@ -47,7 +51,7 @@ class UserPreferencesServiceTest {
     UserPreferencesResponse expectedResponse = buildPreferencesResponse();
 
     given(preferencesRepository.findById(TELEGRAM_ID)).willReturn(Optional.of(prefs));
-    given(cityRepository.findById("tashkent")).willReturn(Optional.of(cityEntity));
+    given(referenceData.findCity("tashkent")).willReturn(Optional.of(cityEntity));
     given(cityMapper.toCityResponse(cityEntity)).willReturn(cityResponse);
     given(preferencesMapper.toPreferencesResponse(prefs, cityResponse))
         .willReturn(expectedResponse);
@@ -91,7 +95,7 @@ class UserPreferencesServiceTest {
 
     given(preferencesRepository.findById(TELEGRAM_ID)).willReturn(Optional.of(prefs));
     given(preferencesRepository.save(any())).willReturn(prefs);
-    given(cityRepository.findById("tashkent")).willReturn(Optional.of(cityEntity));
+    given(referenceData.findCity("tashkent")).willReturn(Optional.of(cityEntity));
     given(cityMapper.toCityResponse(cityEntity)).willReturn(cityResponse);
     given(preferencesMapper.toPreferencesResponse(prefs, cityResponse))
         .willReturn(expectedResponse);
@@ -99,6 +103,7 @@ class UserPreferencesServiceTest {
     UserPreferencesResponse result = preferencesService.updatePreferences(TELEGRAM_ID, request);
 
     assertThat(result).isNotNull();
+    then(eventPublisher).should().publishEvent(new PreferencesChangedEvent(TELEGRAM_ID));
   }
 
   @Test
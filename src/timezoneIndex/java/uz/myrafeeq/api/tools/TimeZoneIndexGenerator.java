@@ -0,0 +1,190 @@
+package uz.myrafeeq.api.tools;
+
+import com.esri.core.geometry.Envelope;
+import com.esri.core.geometry.Operator.GeometryAccelerationDegree;
+import com.esri.core.geometry.OperatorContains;
+import com.esri.core.geometry.Polygon;
+import com.esri.core.geometry.SpatialReference;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import us.dustinj.timezonemap.TimeZone;
+import us.dustinj.timezonemap.TimeZoneMap;
+
+/**
+ * Build-time generator of the compact timezone index read by {@code TimeZoneIndex}.
+ *
+ * <p>The world is split into {@link #BASE_DEGREES}-degree root cells, each the root of a quadtree.
+ * A cell becomes a zone leaf only when that zone's polygon contains the whole cell; the sample
+ * lattice merely rejects mixed cells early. Any other cell is split into four quadrants until
+ * {@link #DEFAULT_MAX_DEPTH}, where it is written as a border leaf and resolved against the exact
+ * polygons at runtime, so enclaves and border clips narrower than the lattice are never flattened.
+ *
+ * <p>Layout (big-endian): magic, base degrees, max depth, zone count, zone ids as length-prefixed
+ * ASCII (index 0 is the empty "no zone"), node count, nodes. A node {@code >= 0} is a leaf zone
+ * index, {@code -1} is a border leaf, and {@code v < -1} is an inner node whose four children
+ * (SW, SE, NW, NE) start at {@code -v - 1}. Root cells occupy the first nodes in row-major order
+ * from the south-west corner.
+ */
+public final class TimeZoneIndexGenerator {
+
+  static final int MAGIC = 0x545A5131;
+  static final int BASE_DEGREES = 10;
+  static final int DEFAULT_MAX_DEPTH = 6;
+  static final int SAMPLES = 4;
+  static final int BORDER = -1;
+
+  private static final SpatialReference WGS84 = SpatialReference.create(4326);
+
+  private final TimeZoneMap timeZoneMap;
+  private final int maxDepth;
+  private final Map<String, Integer> zones = new LinkedHashMap<>();
+  private final Map<Polygon, Boolean> accelerated = new IdentityHashMap<>();
+  private final OperatorContains contains = OperatorContains.local();
+  private int[] nodes = new int[1 << 16];
+  private int size;
+
+  private TimeZoneIndexGenerator(TimeZoneMap timeZoneMap, int maxDepth) {
+    this.timeZoneMap = timeZoneMap;
+    this.maxDepth = maxDepth;
+    zones.put("", 0);
+  }
+
+  public static void main(String[] args) throws IOException {
+    if (args.length < 1) {
+      throw new IllegalArgumentException("Usage: TimeZoneIndexGenerator <output> [maxDepth]");
+    }
+    Path output = Path.of(args[0]);
+    int maxDepth = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_MAX_DEPTH;
+
+    long started = System.nanoTime();
+    TimeZoneIndexGenerator generator =
+        new TimeZoneIndexGenerator(TimeZoneMap.forEverywhere(), maxDepth);
+    generator.build();
+    generator.write(output);
+    System.out.printf(
+        "Timezone index: %d zones, %d nodes, %d bytes in %ds%n",
+        generator.zones.size(),
+        generator.size,
+        Files.size(output),
+        (System.nanoTime() - started) / 1_000_000_000L);
+  }
+
+  private void build() {
+    int rows = 180 / BASE_DEGREES;
+    int columns = 360 / BASE_DEGREES;
+    size = rows * columns;
+    for (int row = 0; row < rows; row++) {
+      for (int column = 0; column < columns; column++) {
+        fill(
+            row * columns + column,
+            row * BASE_DEGREES - 90.0,
+            column * BASE_DEGREES - 180.0,
+            BASE_DEGREES,
+            0);
+      }
+    }
+  }
+
+  private void fill(int node, double south, double west, double cellSize, int depth) {
+    Set<Integer> found = sample(south, west, cellSize);
+    if (found.size() == 1) {
+      int zone = found.iterator().next();
+      if (covers(zone, south, west, cellSize)) {
+        nodes[node] = zone;
+        return;
+      }
+    }
+    if (depth == maxDepth) {
+      nodes[node] = BORDER;
+      return;
+    }
+
+    int child = size;
+    size += 4;
+    ensureCapacity(size);
+    nodes[node] = -child - 1;
+
+    double half = cellSize / 2;
+    fill(child, south, west, half, depth + 1);
+    fill(child + 1, south, west + half, half, depth + 1);
+    fill(child + 2, south + half, west, half, depth + 1);
+    fill(child + 3, south + half, west + half, half, depth + 1);
+  }
+
+  private Set<Integer> sample(double south, double west, double cellSize) {
+    Set<Integer> found = new HashSet<>();
+    double step = cellSize / SAMPLES;
+    for (int i = 0; i < SAMPLES; i++) {
+      for (int j = 0; j < SAMPLES; j++) {
+        double lat = south + (i + 0.5) * step;
+        double lon = west + (j + 0.5) * step;
+        TimeZone zone = timeZoneMap.getOverlappingTimeZone(lat, lon);
+        String zoneId = zone != null ? zone.getZoneId() : "";
+        found.add(zones.computeIfAbsent(zoneId, _ -> zones.size()));
+      }
+    }
+    return found;
+  }
+
+  /**
+   * Whether the zone at the cell centre is the one the samples found and its polygon contains the
+   * whole cell, so every point inside resolves to it. Cells without any zone are never proven and
+   * end up as border leaves.
+   */
+  private boolean covers(int zone, double south, double west, double cellSize) {
+    double half = cellSize / 2;
+    TimeZone center = timeZoneMap.getOverlappingTimeZone(south + half, west + half);
+    if (center == null || !Integer.valueOf(zone).equals(zones.get(center.getZoneId()))) {
+      return false;
+    }
+    Polygon region = center.getRegion();
+    accelerated.computeIfAbsent(
+        region,
+        _ -> contains.accelerateGeometry(region, WGS84, GeometryAccelerationDegree.enumMedium));
+    Envelope cell = new Envelope(west, south, west + cellSize, south + cellSize);
+    return contains.execute(region, cell, WGS84, null);
+  }
+
+  private void ensureCapacity(int capacity) {
+    if (capacity > nodes.length) {
+      int[] grown = new int[Math.max(capacity, nodes.length * 2)];
+      System.arraycopy(nodes, 0, grown, 0, nodes.length);
+      nodes = grown;
+    }
+  }
+
+  private void write(Path output) throws IOException {
+    Files.createDirectories(output.toAbsolutePath().getParent());
+    try (OutputStream file = Files.newOutputStream(output);
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+      out.writeInt(MAGIC);
+      out.writeInt(BASE_DEGREES);
+      out.writeInt(maxDepth);
+
+      List<String> zoneIds = new ArrayList<>(zones.keySet());
+      out.writeInt(zoneIds.size());
+      for (String zoneId : zoneIds) {
+        byte[] bytes = zoneId.getBytes(StandardCharsets.US_ASCII);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+      }
+
+      out.writeInt(size);
+      for (int i = 0; i < size; i++) {
+        out.writeInt(nodes[i]);
+      }
+    }
+  }
+}